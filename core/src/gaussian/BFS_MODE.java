@@ -0,0 +1,9 @@
+package gaussian;
+
+/**
+ * The BFS algorithms setDistanceDistributions can run. All of them find the
+ * same distances.
+ */
+public enum BFS_MODE {
+	TOP_DOWN, DIRECTION_OPTIMIZING, PARALLEL
+}
@@ -0,0 +1,72 @@
+package gaussian;
+
+/**
+ * A baseline topology built on the engine of the Gaussian networks: the
+ * nodes are laid out in the plane with the origin as the center, and the
+ * adjacency matrix, the weights of the nodes and the flat adjacency are the
+ * ones of a Gaussian network, with as many columns as the degree. The
+ * baselines are vertex-transitive, so the distances from the center give
+ * the diameter and the average distance.
+ */
+abstract class BaselineNetwork extends GaussianNetwork {
+
+	/**
+	 * The subclasses are final and build the network at the end of their
+	 * constructors, so that makeNetwork() sees their fields
+	 *
+	 * @param topology
+	 *            the topology, for the error message
+	 * @param a
+	 *            the first parameter of the topology
+	 * @param b
+	 *            the second parameter of the topology
+	 * @param exactNorm
+	 *            number of nodes
+	 * @param degree
+	 *            number of links of a node
+	 */
+	BaselineNetwork(TOPOLOGY topology, int a, int b, long exactNorm,
+			int degree) {
+		if (exactNorm > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The " + topology
+					+ " network has " + exactNorm + " nodes, more than "
+					+ Integer.MAX_VALUE);
+		}
+		this.a = a;
+		this.b = b;
+		this.norm = (int) exactNorm;
+		this.isNormEven = (norm % 2 == 0);
+		this.degree = degree;
+		this.representation = REPRESENTATION.SQUARE;
+		adjacencyMatrix = new int[norm][degree];
+		weightDistribution = new int[0];
+	}
+
+	@Override
+	protected void makeNetwork() {
+		generateNodes();
+		buildAdjacencyMatrix();
+		setDistanceDistributions(NETWORK.GAUSSIAN);
+		d = distanceDistributions.size() - 1;
+		nodes.get(centerIndex).setRegion(NODE_REGION.ORIGIN);
+	}
+
+	/**
+	 * Find the neighbor of the node in the given direction
+	 *
+	 * @param neighborNumber
+	 *            0 to degree-1, in the order of the directions of the
+	 *            topology
+	 * @return the index of the neighbor
+	 */
+	@Override
+	protected abstract int findNeighborIndex(Node node, int neighborNumber);
+
+	@Override
+	public void printParameters() {
+		System.out.println(getTopology() + " network with parameters: ");
+		System.out.printf("a=%d  b=%d  d=%d  degree=%d  Norm=%d \n", getA(),
+				getB(), getD(), getDegree(), getNorm());
+	}
+
+}
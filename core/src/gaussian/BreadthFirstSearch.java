@@ -0,0 +1,532 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BFS algorithms on the flat adjacency of a network, where the neighbors of
+ * node i are adjacency[4*i] to adjacency[4*i+3] and -1 is a pruned link. The
+ * baselines of another degree give it to the methods taking a degree, and
+ * their neighbors are at adjacency[degree*i] onwards.
+ * They only work on primitive arrays, so they neither modify the nodes nor
+ * depend on the size of the node objects.
+ */
+public final class BreadthFirstSearch {
+
+	// switch to bottom-up when the edges of the frontier are more than
+	// 1/ALPHA of the work of a bottom-up step
+	private static final int ALPHA = 14;
+
+	// number of frontier nodes expanded by one task of the parallel BFS
+	private static final int CHUNK = 256;
+
+	private BreadthFirstSearch() {
+	}
+
+	/**
+	 * Direction-optimizing BFS. Each level is expanded top-down from the
+	 * frontier, or bottom-up by letting every unvisited node look for a
+	 * parent in the frontier, whichever checks fewer links. A Gaussian
+	 * network has about 4s nodes at distance s, so the frontier stays small
+	 * and the bottom-up steps are taken near the diameter where only a few
+	 * nodes are left unvisited.
+	 *
+	 * @param adjacency
+	 *            the flat adjacency
+	 * @param reverse
+	 *            the links into each node, for the bottom-up steps, as built
+	 *            by reverseAdjacency
+	 * @param source
+	 *            index of the source node
+	 * @param distances
+	 *            filled with the distance of every node from the source, -1
+	 *            for unreachable nodes
+	 * @return number of nodes at each distance from the source
+	 */
+	public static List<Integer> directionOptimizing(int[] adjacency,
+			int[] reverse, int source, int[] distances) {
+		return directionOptimizing(adjacency, 4, reverse, source, distances);
+	}
+
+	/**
+	 * Direction-optimizing BFS on a flat adjacency of the given degree
+	 */
+	public static List<Integer> directionOptimizing(int[] adjacency,
+			int degree, int[] reverse, int source, int[] distances) {
+		int n = adjacency.length / degree;
+		Arrays.fill(distances, 0, n, -1);
+		long[] visited = new long[(n + 63) >>> 6];
+		long[] inFrontier = new long[visited.length];
+		int[] frontier = new int[n];
+		int[] next = new int[n];
+
+		List<Integer> distributions = new ArrayList<Integer>();
+		frontier[0] = source;
+		int frontierSize = 1;
+		visited[source >>> 6] |= 1L << source;
+		distances[source] = 0;
+		distributions.add(1);
+		int unvisited = n - 1;
+
+		for (int weight = 1; frontierSize > 0; weight++) {
+			int nextSize = 0;
+
+			// a bottom-up step reads the visited bits and checks the links of
+			// the unvisited nodes, a top-down step checks the links of the
+			// frontier
+			boolean isBottomUp = (long) frontierSize * ALPHA > unvisited
+					+ (visited.length >>> 2);
+
+			if (isBottomUp) {
+				for (int i = 0; i < frontierSize; i++) {
+					inFrontier[frontier[i] >>> 6] |= 1L << frontier[i];
+				}
+
+				for (int w = 0; w < visited.length; w++) {
+					long candidates = ~visited[w];
+					if (w == visited.length - 1 && (n & 63) != 0) {
+						candidates &= (1L << n) - 1;
+					}
+					while (candidates != 0) {
+						int v = (w << 6) + Long.numberOfTrailingZeros(candidates);
+						candidates &= candidates - 1;
+
+						for (int j = degree * v; j < degree * v + degree; j++) {
+							int u = reverse[j];
+							if (u >= 0 && (inFrontier[u >>> 6] & (1L << u)) != 0) {
+								visited[w] |= 1L << v;
+								distances[v] = weight;
+								next[nextSize++] = v;
+								break;
+							}
+						}
+					}
+				}
+
+				for (int i = 0; i < frontierSize; i++) {
+					inFrontier[frontier[i] >>> 6] = 0;
+				}
+			} else {
+				for (int i = 0; i < frontierSize; i++) {
+					int cur = frontier[i];
+					for (int j = degree * cur; j < degree * cur + degree; j++) {
+						int v = adjacency[j];
+						// if the neighbor is not the pruned one and not
+						// visited yet
+						if (v >= 0 && (visited[v >>> 6] & (1L << v)) == 0) {
+							visited[v >>> 6] |= 1L << v;
+							distances[v] = weight;
+							next[nextSize++] = v;
+						}
+					}
+				}
+			}
+
+			if (nextSize > 0) {
+				distributions.add(nextSize);
+			}
+			unvisited -= nextSize;
+
+			int[] swap = frontier;
+			frontier = next;
+			next = swap;
+			frontierSize = nextSize;
+		}
+
+		return distributions;
+	}
+
+	/**
+	 * Level-synchronous parallel BFS. The frontier of each level is split in
+	 * chunks which are expanded by the tasks of the pool. A node is claimed by
+	 * the first task setting its bit in the visited bitset with a
+	 * compare-and-set, and each chunk collects the nodes it claimed in the
+	 * buffer of its worker thread, then reserves their place at the end of
+	 * the next frontier and copies them there. The buffers are reused by all
+	 * the chunks and levels a thread expands, so the BFS allocates nothing
+	 * per chunk. The order of the nodes in a frontier depends on the
+	 * scheduling but the distances and the number of nodes at each distance
+	 * do not. Small frontiers are expanded by the calling thread.
+	 *
+	 * @param adjacency
+	 *            the flat adjacency
+	 * @param source
+	 *            index of the source node
+	 * @param distances
+	 *            filled with the distance of every node from the source, -1
+	 *            for unreachable nodes
+	 * @param pool
+	 *            the pool running the tasks
+	 * @return number of nodes at each distance from the source
+	 */
+	public static List<Integer> parallel(int[] adjacency, int source,
+			int[] distances, ForkJoinPool pool) {
+		return parallel(adjacency, 4, source, distances, pool);
+	}
+
+	/**
+	 * Level-synchronous parallel BFS on a flat adjacency of the given degree
+	 */
+	public static List<Integer> parallel(int[] adjacency, int degree,
+			int source, int[] distances, ForkJoinPool pool) {
+		int n = adjacency.length / degree;
+		Arrays.fill(distances, 0, n, -1);
+		AtomicLongArray visited = new AtomicLongArray((n + 63) >>> 6);
+		int[] frontier = new int[n];
+		int[] next = new int[n];
+		// number of nodes copied to the next frontier
+		AtomicInteger size = new AtomicInteger();
+
+		List<Integer> distributions = new ArrayList<Integer>();
+		frontier[0] = source;
+		int frontierSize = 1;
+		visited.set(source >>> 6, 1L << source);
+		distances[source] = 0;
+		distributions.add(1);
+
+		for (int weight = 1; frontierSize > 0; weight++) {
+			int chunks = (frontierSize + CHUNK - 1) / CHUNK;
+			size.set(0);
+
+			ExpandTask task = new ExpandTask(adjacency, degree, visited,
+					distances, weight, frontier, frontierSize, next, size, 0,
+					chunks);
+			if (chunks > 1) {
+				pool.invoke(task);
+			} else {
+				task.compute();
+			}
+
+			int nextSize = size.get();
+			if (nextSize > 0) {
+				distributions.add(nextSize);
+			}
+
+			int[] swap = frontier;
+			frontier = next;
+			next = swap;
+			frontierSize = nextSize;
+		}
+
+		return distributions;
+	}
+
+	/**
+	 * The buffer of each thread expanding chunks of the parallel BFS, which
+	 * holds the nodes claimed by its current chunk
+	 */
+	private static final ThreadLocal<int[]> BUFFERS = new ThreadLocal<int[]>();
+
+	/**
+	 * Expands the chunks start to end-1 of the frontier, splitting them in
+	 * halves down to a single chunk
+	 */
+	@SuppressWarnings("serial")
+	private static class ExpandTask extends RecursiveAction {
+
+		private final int[] adjacency;
+		private final int degree;
+		private final AtomicLongArray visited;
+		private final int[] distances;
+		private final int weight;
+		private final int[] frontier;
+		private final int frontierSize;
+		private final int[] next;
+		private final AtomicInteger size;
+		private final int start;
+		private final int end;
+
+		ExpandTask(int[] adjacency, int degree, AtomicLongArray visited,
+				int[] distances, int weight, int[] frontier, int frontierSize,
+				int[] next, AtomicInteger size, int start, int end) {
+			this.adjacency = adjacency;
+			this.degree = degree;
+			this.visited = visited;
+			this.distances = distances;
+			this.weight = weight;
+			this.frontier = frontier;
+			this.frontierSize = frontierSize;
+			this.next = next;
+			this.size = size;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new ExpandTask(adjacency, degree, visited,
+						distances, weight, frontier, frontierSize, next, size,
+						start, middle), new ExpandTask(adjacency, degree,
+						visited, distances, weight, frontier, frontierSize,
+						next, size, middle, end));
+				return;
+			}
+
+			int[] buffer = BUFFERS.get();
+			if (buffer == null || buffer.length < degree * CHUNK) {
+				buffer = new int[degree * CHUNK];
+				BUFFERS.set(buffer);
+			}
+			int count = 0;
+
+			int last = Math.min(frontierSize, (start + 1) * CHUNK);
+			for (int i = start * CHUNK; i < last; i++) {
+				int cur = frontier[i];
+				for (int j = degree * cur; j < degree * cur + degree; j++) {
+					int v = adjacency[j];
+					// if the neighbor is not the pruned one and this task is
+					// the first one to visit it
+					if (v >= 0 && claim(v)) {
+						distances[v] = weight;
+						buffer[count++] = v;
+					}
+				}
+			}
+			if (count > 0) {
+				System.arraycopy(buffer, 0, next, size.getAndAdd(count), count);
+			}
+		}
+
+		/**
+		 * Set the visited bit of the node
+		 *
+		 * @return true if the bit was not set before
+		 */
+		private boolean claim(int v) {
+			int w = v >>> 6;
+			long bit = 1L << v;
+			long old = visited.get(w);
+			while ((old & bit) == 0) {
+				if (visited.compareAndSet(w, old, old | bit)) {
+					return true;
+				}
+				old = visited.get(w);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Bit-parallel multi-source BFS computing the distances between all the
+	 * ordered pairs of nodes. The sources are taken in batches of 64 and bit k
+	 * of the mask of a node tells whether source k of the batch has reached
+	 * it, so one pass over the links of a node advances the BFS of all the
+	 * sources reaching it at once. The pass only visits the nodes with a
+	 * non-empty frontier mask, so the batches save work when their sources
+	 * are close to each other and their frontiers overlap. The batches are
+	 * independent and run in parallel on the pool.
+	 * 
+	 * Links are followed in their direction, so the eccentricities are the
+	 * distances from each node to the farthest node it reaches, and pruned or
+	 * failed links are just -1 in the adjacency.
+	 * 
+	 * @param adjacency
+	 *            the flat adjacency
+	 * @param sources
+	 *            all the nodes in the order they are batched, so that
+	 *            sources[64*k] to sources[64*k+63] are close to each other
+	 * @param pool
+	 *            the pool running the batches
+	 * @return the eccentricities and the number of ordered pairs at each
+	 *         distance
+	 */
+	public static DistanceStatistics allPairs(int[] adjacency, int[] sources,
+			ForkJoinPool pool) {
+		return allPairs(adjacency, 4, sources, pool);
+	}
+
+	/**
+	 * Bit-parallel all-pairs BFS on a flat adjacency of the given degree
+	 */
+	public static DistanceStatistics allPairs(int[] adjacency, int degree,
+			int[] sources, ForkJoinPool pool) {
+		int n = adjacency.length / degree;
+		int[] eccentricities = new int[n];
+		int batches = (n + 63) >>> 6;
+		long[] distribution = pool.invoke(new AllPairsTask(adjacency, degree,
+				sources, eccentricities, 0, batches));
+
+		long pairs = 0;
+		for (long count : distribution) {
+			pairs += count;
+		}
+		return new DistanceStatistics(eccentricities, distribution,
+				pairs == (long) n * n);
+	}
+
+	/**
+	 * Runs the batches start to end-1 of the all-pairs BFS, splitting them in
+	 * halves down to a single batch, and sums their distributions
+	 */
+	@SuppressWarnings("serial")
+	private static class AllPairsTask extends RecursiveTask<long[]> {
+
+		private final int[] adjacency;
+		private final int degree;
+		private final int[] sources;
+		private final int[] eccentricities;
+		private final int start;
+		private final int end;
+
+		AllPairsTask(int[] adjacency, int degree, int[] sources,
+				int[] eccentricities, int start, int end) {
+			this.adjacency = adjacency;
+			this.degree = degree;
+			this.sources = sources;
+			this.eccentricities = eccentricities;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				AllPairsTask left = new AllPairsTask(adjacency, degree,
+						sources, eccentricities, start, middle);
+				left.fork();
+				long[] right = new AllPairsTask(adjacency, degree, sources,
+						eccentricities, middle, end).compute();
+				long[] sum = left.join();
+				if (sum.length < right.length) {
+					long[] swap = sum;
+					sum = right;
+					right = swap;
+				}
+				for (int s = 0; s < right.length; s++) {
+					sum[s] += right[s];
+				}
+				return sum;
+			}
+			return batch(start << 6);
+		}
+
+		/**
+		 * BFS from sources[first] to sources[first+63] at once
+		 * 
+		 * @return number of pairs of a source and a node at each distance
+		 */
+		private long[] batch(int first) {
+			int n = adjacency.length / degree;
+			int count = Math.min(64, n - first);
+			long[] seen = new long[n];
+			long[] frontier = new long[n];
+			long[] next = new long[n];
+			// the nodes with a non-empty mask in frontier and in next
+			int[] active = new int[n];
+			int[] nextActive = new int[n];
+			int activeSize = 0;
+			long[] distribution = new long[16];
+
+			for (int k = 0; k < count; k++) {
+				int source = sources[first + k];
+				seen[source] = 1L << k;
+				frontier[source] = 1L << k;
+				active[activeSize++] = source;
+			}
+			distribution[0] = count;
+
+			for (int weight = 1; activeSize > 0; weight++) {
+				int nextSize = 0;
+				for (int i = 0; i < activeSize; i++) {
+					int cur = active[i];
+					long mask = frontier[cur];
+					frontier[cur] = 0;
+					for (int j = degree * cur; j < degree * cur + degree; j++) {
+						int v = adjacency[j];
+						// the sources reaching the neighbor for the first time
+						long reaching = (v >= 0) ? mask & ~seen[v] : 0;
+						if (reaching != 0) {
+							if (next[v] == 0) {
+								nextActive[nextSize++] = v;
+							}
+							next[v] |= reaching;
+						}
+					}
+				}
+
+				long reached = 0;
+				long pairs = 0;
+				for (int i = 0; i < nextSize; i++) {
+					int v = nextActive[i];
+					long mask = next[v];
+					next[v] = 0;
+					seen[v] |= mask;
+					frontier[v] = mask;
+					reached |= mask;
+					pairs += Long.bitCount(mask);
+				}
+				if (nextSize == 0) {
+					break;
+				}
+
+				if (weight == distribution.length) {
+					distribution = Arrays.copyOf(distribution, 2 * weight);
+				}
+				distribution[weight] = pairs;
+				// the sources reaching a node at this distance have not
+				// reached their farthest node yet
+				while (reached != 0) {
+					eccentricities[sources[first
+							+ Long.numberOfTrailingZeros(reached)]] = weight;
+					reached &= reached - 1;
+				}
+
+				int[] swap = active;
+				active = nextActive;
+				nextActive = swap;
+				activeSize = nextSize;
+			}
+
+			int diameter = distribution.length - 1;
+			while (diameter > 0 && distribution[diameter] == 0) {
+				diameter--;
+			}
+			return Arrays.copyOf(distribution, diameter + 1);
+		}
+	}
+
+	/**
+	 * Build the links into every node. Every link of the degree 4 network
+	 * has a link back, so every node has at most four links into it, even
+	 * after pruning to the honeycomb network where some links lose their link
+	 * back.
+	 *
+	 * @return the flat adjacency of the reversed links
+	 */
+	public static int[] reverseAdjacency(int[] adjacency) {
+		return reverseAdjacency(adjacency, 4);
+	}
+
+	/**
+	 * Build the links into every node of a network of the given degree,
+	 * where every link has a link back before pruning
+	 *
+	 * @return the flat adjacency of the reversed links
+	 */
+	public static int[] reverseAdjacency(int[] adjacency, int degree) {
+		int n = adjacency.length / degree;
+		int[] reverse = new int[adjacency.length];
+		int[] inDegree = new int[n];
+		Arrays.fill(reverse, -1);
+
+		for (int u = 0; u < n; u++) {
+			for (int j = degree * u; j < degree * u + degree; j++) {
+				int v = adjacency[j];
+				if (v >= 0) {
+					reverse[degree * v + inDegree[v]++] = u;
+				}
+			}
+		}
+		return reverse;
+	}
+
+}
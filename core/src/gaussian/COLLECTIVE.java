@@ -0,0 +1,11 @@
+package gaussian;
+
+/**
+ * The collective communications Collectives can schedule. BROADCAST and
+ * REDUCE go from and to one root, ALL_REDUCE leaves the reduced message on
+ * every node and in ALL_TO_ALL every node sends its own message to every
+ * other node.
+ */
+public enum COLLECTIVE {
+	BROADCAST, REDUCE, ALL_REDUCE, ALL_TO_ALL
+}
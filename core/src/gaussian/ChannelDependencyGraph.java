@@ -0,0 +1,451 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The channel dependency graph of a routing function, built by
+ * DeadlockAnalyzer. Its vertices are the virtual channels of the links, the
+ * channel c of the link of node u in direction j at
+ * virtualChannels*(4u+j)+c, and a channel depends on another when a packet
+ * holding the first may wait for the second. The routing cannot deadlock
+ * when the graph has no cycle.
+ *
+ * The strongly connected components are found in parallel by the
+ * forward-backward algorithm: the channels reached forward and backward
+ * from a pivot form its component, and the channels reached only forward,
+ * only backward or not at all hold the other components in three
+ * independent parts, which are split again in parallel. The channels
+ * without dependencies within their part are trimmed first, and the small
+ * parts are left to Tarjan's algorithm.
+ */
+public class ChannelDependencyGraph {
+
+	// parts up to this many channels are split by Tarjan's algorithm
+	private static final int SEQUENTIAL = 4096;
+	// the color of the channels whose component is known
+	private static final int DONE = -1;
+
+	private final int virtualChannels;
+	private final int[] starts;
+	private final int[] targets;
+	private final int[] reverseStarts;
+	private final int[] reverseTargets;
+
+	private final int[] components;
+	private final int componentCount;
+	// the channels of each component, 0 for the components without a cycle
+	private final int[] cycleSizes;
+	private final int cyclicComponents;
+	private final int largestCyclicComponent;
+
+	// the part of each channel while the components are found, and its
+	// index in the part
+	private int[] colors;
+	private int[] slots;
+	private AtomicInteger colorCount;
+	private AtomicInteger nextComponent;
+
+	/**
+	 * @param starts
+	 *            the dependencies of the channel v are targets[starts[v]] to
+	 *            targets[starts[v+1]-1]
+	 */
+	ChannelDependencyGraph(int virtualChannels, int[] starts, int[] targets) {
+		this.virtualChannels = virtualChannels;
+		this.starts = starts;
+		this.targets = targets;
+		int channels = starts.length - 1;
+		reverseStarts = new int[channels + 1];
+		for (int k = 0; k < targets.length; k++) {
+			reverseStarts[targets[k] + 1]++;
+		}
+		for (int v = 0; v < channels; v++) {
+			reverseStarts[v + 1] += reverseStarts[v];
+		}
+		reverseTargets = new int[targets.length];
+		int[] fill = Arrays.copyOf(reverseStarts, channels);
+		for (int v = 0; v < channels; v++) {
+			for (int k = starts[v]; k < starts[v + 1]; k++) {
+				reverseTargets[fill[targets[k]]++] = v;
+			}
+		}
+
+		components = new int[channels];
+		colors = new int[channels];
+		slots = new int[channels];
+		colorCount = new AtomicInteger(1);
+		nextComponent = new AtomicInteger();
+		int[] all = new int[channels];
+		for (int v = 0; v < channels; v++) {
+			all[v] = v;
+		}
+		ForkJoinPool.commonPool().invoke(new ComponentTask(this, all, 0));
+		colors = null;
+		slots = null;
+		componentCount = nextComponent.get();
+
+		int[] sizes = new int[componentCount];
+		for (int v = 0; v < channels; v++) {
+			sizes[components[v]]++;
+		}
+		cycleSizes = new int[componentCount];
+		int cyclic = 0;
+		int largest = 0;
+		for (int v = 0; v < channels; v++) {
+			int component = components[v];
+			if (cycleSizes[component] > 0) {
+				continue;
+			}
+			boolean isCycle = sizes[component] > 1;
+			for (int k = starts[v]; k < starts[v + 1] && !isCycle; k++) {
+				isCycle = targets[k] == v;
+			}
+			if (isCycle) {
+				cycleSizes[component] = sizes[component];
+				cyclic++;
+				largest = Math.max(largest, sizes[component]);
+			}
+		}
+		cyclicComponents = cyclic;
+		largestCyclicComponent = largest;
+	}
+
+	/**
+	 * @return whether no channel depends on itself, so the routing cannot
+	 *         deadlock
+	 */
+	public boolean isAcyclic() {
+		return cyclicComponents == 0;
+	}
+
+	public int getVirtualChannels() {
+		return virtualChannels;
+	}
+
+	/**
+	 * @return number of channels, of the four link directions of every node
+	 *         including the links the honeycomb network lacks
+	 */
+	public int getChannels() {
+		return components.length;
+	}
+
+	/**
+	 * @return number of dependencies between the channels
+	 */
+	public int getDependencies() {
+		return targets.length;
+	}
+
+	public int getComponents() {
+		return componentCount;
+	}
+
+	/**
+	 * @return the strongly connected component of a channel
+	 */
+	public int getComponent(int channel) {
+		return components[channel];
+	}
+
+	/**
+	 * @return number of strongly connected components with a cycle
+	 */
+	public int getCyclicComponents() {
+		return cyclicComponents;
+	}
+
+	/**
+	 * @return number of channels of the largest component with a cycle, 0
+	 *         if there is none
+	 */
+	public int getLargestCyclicComponent() {
+		return largestCyclicComponent;
+	}
+
+	/**
+	 * @return the channels of a cycle in the largest component with one, each
+	 *         depending on the next and the last on the first, or an empty
+	 *         array if the graph is acyclic
+	 */
+	public int[] getCycle() {
+		int start = -1;
+		for (int v = 0; v < components.length && start < 0; v++) {
+			if (cycleSizes[components[v]] == largestCyclicComponent
+					&& largestCyclicComponent > 0) {
+				start = v;
+			}
+		}
+		if (start < 0) {
+			return new int[0];
+		}
+		// walk within the component until a channel repeats
+		int[] positions = new int[components.length];
+		Arrays.fill(positions, -1);
+		int[] path = new int[largestCyclicComponent + 1];
+		int length = 0;
+		int v = start;
+		while (positions[v] < 0) {
+			positions[v] = length;
+			path[length++] = v;
+			int next = -1;
+			for (int k = starts[v]; k < starts[v + 1] && next < 0; k++) {
+				if (components[targets[k]] == components[v]) {
+					next = targets[k];
+				}
+			}
+			v = next;
+		}
+		return Arrays.copyOfRange(path, positions[v], length);
+	}
+
+	/**
+	 * @return the node at the start of the link of a channel
+	 */
+	public int getNode(int channel) {
+		return channel / (4 * virtualChannels);
+	}
+
+	/**
+	 * @return the adjacency direction of the link of a channel
+	 */
+	public int getDirection(int channel) {
+		return channel / virtualChannels % 4;
+	}
+
+	/**
+	 * @return the virtual channel of a channel on its link
+	 */
+	public int getVirtualChannel(int channel) {
+		return channel % virtualChannels;
+	}
+
+	/**
+	 * Remove the channels of a part which depend on no channel of the part,
+	 * or no channel of which depends on, each is a component by itself
+	 *
+	 * @return the channels left in the part
+	 */
+	private int[] trim(int[] part, int color) {
+		int[] inDegrees = new int[part.length];
+		int[] outDegrees = new int[part.length];
+		int[] queue = new int[part.length];
+		int queued = 0;
+		for (int i = 0; i < part.length; i++) {
+			int v = part[i];
+			slots[v] = i;
+			for (int k = starts[v]; k < starts[v + 1]; k++) {
+				outDegrees[i] += (colors[targets[k]] == color) ? 1 : 0;
+			}
+			for (int k = reverseStarts[v]; k < reverseStarts[v + 1]; k++) {
+				inDegrees[i] += (colors[reverseTargets[k]] == color) ? 1 : 0;
+			}
+		}
+		for (int i = 0; i < part.length; i++) {
+			if (inDegrees[i] == 0 || outDegrees[i] == 0) {
+				queue[queued++] = i;
+				colors[part[i]] = DONE;
+			}
+		}
+		for (int head = 0; head < queued; head++) {
+			int v = part[queue[head]];
+			components[v] = nextComponent.getAndIncrement();
+			for (int k = starts[v]; k < starts[v + 1]; k++) {
+				int w = targets[k];
+				if (colors[w] == color) {
+					int i = slots[w];
+					if (--inDegrees[i] == 0) {
+						queue[queued++] = i;
+						colors[w] = DONE;
+					}
+				}
+			}
+			for (int k = reverseStarts[v]; k < reverseStarts[v + 1]; k++) {
+				int w = reverseTargets[k];
+				if (colors[w] == color) {
+					int i = slots[w];
+					if (--outDegrees[i] == 0) {
+						queue[queued++] = i;
+						colors[w] = DONE;
+					}
+				}
+			}
+		}
+		if (queued == 0) {
+			return part;
+		}
+		int[] left = new int[part.length - queued];
+		int count = 0;
+		for (int v : part) {
+			if (colors[v] == color) {
+				left[count++] = v;
+			}
+		}
+		return left;
+	}
+
+	/**
+	 * Find the components of a part by Tarjan's algorithm
+	 */
+	private void tarjan(int[] part, int color) {
+		for (int i = 0; i < part.length; i++) {
+			slots[part[i]] = i;
+		}
+		// the order of the visit and the lowest order reachable, by the index
+		// of a channel in the part
+		int[] order = new int[part.length];
+		int[] low = new int[part.length];
+		boolean[] onStack = new boolean[part.length];
+		Arrays.fill(order, -1);
+		int[] stack = new int[part.length];
+		int stackSize = 0;
+		int[] calls = new int[part.length];
+		int[] nextEdges = new int[part.length];
+		int callCount = 0;
+		int visits = 0;
+		for (int root = 0; root < part.length; root++) {
+			if (order[root] >= 0) {
+				continue;
+			}
+			order[root] = low[root] = visits++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			calls[callCount] = root;
+			nextEdges[callCount++] = starts[part[root]];
+			while (callCount > 0) {
+				int i = calls[callCount - 1];
+				int v = part[i];
+				if (nextEdges[callCount - 1] < starts[v + 1]) {
+					int w = targets[nextEdges[callCount - 1]++];
+					if (colors[w] != color) {
+						continue;
+					}
+					int k = slots[w];
+					if (order[k] < 0) {
+						order[k] = low[k] = visits++;
+						stack[stackSize++] = k;
+						onStack[k] = true;
+						calls[callCount] = k;
+						nextEdges[callCount++] = starts[w];
+					} else if (onStack[k]) {
+						low[i] = Math.min(low[i], order[k]);
+					}
+					continue;
+				}
+				callCount--;
+				if (low[i] == order[i]) {
+					int component = nextComponent.getAndIncrement();
+					int k;
+					do {
+						k = stack[--stackSize];
+						onStack[k] = false;
+						components[part[k]] = component;
+					} while (k != i);
+				}
+				if (callCount > 0) {
+					int caller = calls[callCount - 1];
+					low[caller] = Math.min(low[caller], low[i]);
+				}
+			}
+		}
+		for (int v : part) {
+			colors[v] = DONE;
+		}
+	}
+
+	/**
+	 * Finds the components of a part, the channels of one color
+	 */
+	@SuppressWarnings("serial")
+	private static class ComponentTask extends RecursiveAction {
+
+		private final ChannelDependencyGraph graph;
+		private final int[] part;
+		private final int color;
+
+		ComponentTask(ChannelDependencyGraph graph, int[] part, int color) {
+			this.graph = graph;
+			this.part = part;
+			this.color = color;
+		}
+
+		@Override
+		protected void compute() {
+			int[] left = (part.length > SEQUENTIAL) ? graph.trim(part, color)
+					: part;
+			if (left.length == 0) {
+				return;
+			}
+			if (left.length <= SEQUENTIAL) {
+				graph.tarjan(left, color);
+				return;
+			}
+			int[] colors = graph.colors;
+			int forward = graph.colorCount.getAndIncrement();
+			int backward = graph.colorCount.getAndIncrement();
+			int pivot = left[0];
+
+			int[] queue = new int[left.length];
+			int queued = 0;
+			colors[pivot] = forward;
+			queue[queued++] = pivot;
+			for (int head = 0; head < queued; head++) {
+				int v = queue[head];
+				for (int k = graph.starts[v]; k < graph.starts[v + 1]; k++) {
+					int w = graph.targets[k];
+					if (colors[w] == color) {
+						colors[w] = forward;
+						queue[queued++] = w;
+					}
+				}
+			}
+
+			// the channels reached both ways are the component of the pivot
+			int component = graph.nextComponent.getAndIncrement();
+			queued = 0;
+			colors[pivot] = DONE;
+			graph.components[pivot] = component;
+			queue[queued++] = pivot;
+			for (int head = 0; head < queued; head++) {
+				int v = queue[head];
+				for (int k = graph.reverseStarts[v]; k < graph.reverseStarts[v + 1]; k++) {
+					int w = graph.reverseTargets[k];
+					if (colors[w] == forward) {
+						colors[w] = DONE;
+						graph.components[w] = component;
+						queue[queued++] = w;
+					} else if (colors[w] == color) {
+						colors[w] = backward;
+						queue[queued++] = w;
+					}
+				}
+			}
+
+			int[] counts = new int[3];
+			for (int v : left) {
+				int c = colors[v];
+				if (c != DONE) {
+					counts[(c == forward) ? 0 : (c == backward) ? 1 : 2]++;
+				}
+			}
+			int[][] parts = { new int[counts[0]], new int[counts[1]],
+					new int[counts[2]] };
+			Arrays.fill(counts, 0);
+			for (int v : left) {
+				int c = colors[v];
+				if (c == DONE) {
+					continue;
+				}
+				int k = (c == forward) ? 0 : (c == backward) ? 1 : 2;
+				parts[k][counts[k]++] = v;
+			}
+			invokeAll(new ComponentTask(graph, parts[0], forward),
+					new ComponentTask(graph, parts[1], backward),
+					new ComponentTask(graph, parts[2], color));
+		}
+	}
+
+}
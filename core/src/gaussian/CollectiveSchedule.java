@@ -0,0 +1,141 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * A schedule of a collective communication as a sequence of synchronous
+ * steps. In each step every message crosses one link, the link 4*u+j from
+ * node u in the direction j of the adjacency. Every node can use its four
+ * links in the same step, and the messages crossing the same link in a step
+ * are sent one after the other, so the time of a step grows with its
+ * contention, the largest number of messages on one link.
+ *
+ * The contention of every step is counted once when the schedule is made,
+ * so evaluating the completion time for a cost model only takes a pass over
+ * the steps.
+ */
+public class CollectiveSchedule {
+
+	private final COLLECTIVE collective;
+	private final int norm;
+	private final int[][] steps;
+	private final int[] contentions;
+	private final int maxContention;
+	private final long transfers;
+	private final double messageFraction;
+
+	/**
+	 * @param collective
+	 *            the collective communication scheduled
+	 * @param norm
+	 *            number of nodes of the network
+	 * @param steps
+	 *            the links crossed in each step, a link appears once for each
+	 *            message crossing it
+	 * @param messageFraction
+	 *            the size of the messages crossing the links as a fraction of
+	 *            the message of the collective
+	 */
+	CollectiveSchedule(COLLECTIVE collective, int norm, int[][] steps,
+			double messageFraction) {
+		this.collective = collective;
+		this.norm = norm;
+		this.steps = steps;
+		this.messageFraction = messageFraction;
+
+		// count the messages of each link in the current step, the stamp
+		// tells which step the count belongs to
+		int[] counts = new int[4 * norm];
+		int[] stamps = new int[4 * norm];
+		Arrays.fill(stamps, -1);
+		contentions = new int[steps.length];
+		int max = 0;
+		long total = 0;
+		for (int s = 0; s < steps.length; s++) {
+			int contention = 0;
+			for (int link : steps[s]) {
+				if (stamps[link] != s) {
+					stamps[link] = s;
+					counts[link] = 0;
+				}
+				contention = Math.max(contention, ++counts[link]);
+			}
+			contentions[s] = contention;
+			max = Math.max(max, contention);
+			total += steps[s].length;
+		}
+		this.maxContention = max;
+		this.transfers = total;
+	}
+
+	/**
+	 * The completion time when a step costs the latency plus the time to
+	 * send its messages over its most contended link
+	 *
+	 * @param latency
+	 *            the time to start a step
+	 * @param transferTime
+	 *            the time to send the whole message of the collective over
+	 *            one link
+	 * @return the time to complete all the steps
+	 */
+	public double getCompletionTime(double latency, double transferTime) {
+		double time = 0;
+		for (int s = 0; s < contentions.length; s++) {
+			time += latency + contentions[s] * messageFraction * transferTime;
+		}
+		return time;
+	}
+
+	public COLLECTIVE getCollective() {
+		return collective;
+	}
+
+	public int getNorm() {
+		return norm;
+	}
+
+	/**
+	 * @return number of communication steps
+	 */
+	public int getStepCount() {
+		return steps.length;
+	}
+
+	/**
+	 * @return a copy of the links crossed in the step
+	 */
+	public int[] getLinks(int step) {
+		return steps[step].clone();
+	}
+
+	/**
+	 * @return the largest number of messages crossing one link in the step
+	 */
+	public int getContention(int step) {
+		return contentions[step];
+	}
+
+	/**
+	 * @return the largest number of messages crossing one link in a step
+	 */
+	public int getMaxContention() {
+		return maxContention;
+	}
+
+	/**
+	 * @return number of messages sent over a link in all the steps
+	 */
+	public long getTransfers() {
+		return transfers;
+	}
+
+	/**
+	 * @return the size of the messages crossing the links as a fraction of
+	 *         the message of the collective
+	 */
+	public double getMessageFraction() {
+		return messageFraction;
+	}
+
+}
@@ -0,0 +1,397 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Makes the schedules of the collective communications on a built network.
+ *
+ * The broadcast follows the BFS tree of the root, as the levels of
+ * setDistanceDistributions: in step s the nodes at distance s-1 send to
+ * their children at distance s. Every node has one parent, so no link
+ * carries two messages in a step. The reduce runs the tree of the links
+ * towards the root from the leaves up, and the all-reduce is a reduce
+ * followed by a broadcast.
+ *
+ * The all-to-all personalized exchange runs one phase for every offset g
+ * from the center to another node, in which every node u sends its message
+ * to the node congruent to u+g. In a Gaussian network the route of every
+ * message of a phase goes along the real axis and then along the imaginary
+ * axis of the shortest Gaussian integer congruent to g, so in each step all
+ * the nodes use the same direction and no link carries two messages. In a
+ * honeycomb network the messages follow BFS routes and may contend.
+ */
+public final class Collectives {
+
+	private Collectives() {
+	}
+
+	/**
+	 * @param network
+	 *            a built Gaussian or honeycomb network
+	 * @param collective
+	 *            the collective communication to schedule
+	 * @param root
+	 *            index of the root of BROADCAST, REDUCE and ALL_REDUCE,
+	 *            ignored by ALL_TO_ALL
+	 * @return the schedule
+	 */
+	public static CollectiveSchedule create(GaussianNetwork network,
+			COLLECTIVE collective, int root) {
+		switch (collective) {
+		case BROADCAST:
+			return broadcast(network, root);
+		case REDUCE:
+			return reduce(network, root);
+		case ALL_REDUCE:
+			return allReduce(network, root);
+		case ALL_TO_ALL:
+			return allToAll(network);
+		default:
+			throw new IllegalArgumentException("Unknown collective "
+					+ collective);
+		}
+	}
+
+	/**
+	 * @return the schedule sending the message of the root to every node
+	 */
+	public static CollectiveSchedule broadcast(GaussianNetwork network,
+			int root) {
+		return new CollectiveSchedule(COLLECTIVE.BROADCAST,
+				network.getNorm(), broadcastSteps(network, root), 1);
+	}
+
+	/**
+	 * @return the schedule combining the messages of all the nodes on the
+	 *         root
+	 */
+	public static CollectiveSchedule reduce(GaussianNetwork network, int root) {
+		return new CollectiveSchedule(COLLECTIVE.REDUCE, network.getNorm(),
+				reduceSteps(network, root), 1);
+	}
+
+	/**
+	 * @return the schedule combining the messages of all the nodes on the
+	 *         root and sending the result back to every node
+	 */
+	public static CollectiveSchedule allReduce(GaussianNetwork network,
+			int root) {
+		int[][] reduce = reduceSteps(network, root);
+		int[][] broadcast = broadcastSteps(network, root);
+		int[][] steps = Arrays.copyOf(reduce, reduce.length + broadcast.length);
+		System.arraycopy(broadcast, 0, steps, reduce.length, broadcast.length);
+		return new CollectiveSchedule(COLLECTIVE.ALL_REDUCE,
+				network.getNorm(), steps, 1);
+	}
+
+	/**
+	 * All-reduce on rings through all the nodes, such as the Hamiltonian
+	 * cycles of HamiltonianCycles. The message is split between the rings
+	 * and into one chunk per node on each ring. In each of the n-1 steps of
+	 * the reduce-scatter and the n-1 steps of the all-gather every node sends
+	 * one chunk to its successor on every ring, so edge-disjoint rings have
+	 * no contention.
+	 *
+	 * @param rings
+	 *            the node orderings of the rings
+	 * @return the schedule combining the messages of all the nodes on every
+	 *         node
+	 */
+	public static CollectiveSchedule ringAllReduce(GaussianNetwork network,
+			int[]... rings) {
+		NetworkRequirements.requireDegreeFour(network, "The ring all-reduce");
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		if (rings.length == 0) {
+			throw new IllegalArgumentException("No ring given");
+		}
+
+		int[] links = new int[rings.length * n];
+		for (int r = 0; r < rings.length; r++) {
+			if (rings[r].length != n) {
+				throw new IllegalArgumentException("Ring " + r + " has "
+						+ rings[r].length + " of the " + n + " nodes");
+			}
+			for (int k = 0; k < n; k++) {
+				links[r * n + k] = link(adjacency, rings[r][k], rings[r][(k + 1)
+						% n]);
+			}
+		}
+
+		// every step uses the same links
+		int[][] steps = new int[2 * (n - 1)][];
+		Arrays.fill(steps, links);
+		return new CollectiveSchedule(COLLECTIVE.ALL_REDUCE, n, steps,
+				1.0 / ((double) rings.length * n));
+	}
+
+	/**
+	 * The schedule has one message for every ordered pair of nodes, the
+	 * honeycomb networks run two BFS from every node, so it is meant for
+	 * networks of a few thousand nodes.
+	 *
+	 * @return the schedule sending a different message from every node to
+	 *         every other node
+	 */
+	public static CollectiveSchedule allToAll(GaussianNetwork network) {
+		NetworkRequirements.requireGaussian(network, "The all-to-all exchange");
+		int[][] steps;
+		if (network.getNetwork() == NETWORK.GAUSSIAN) {
+			steps = gaussianAllToAll(network);
+		} else {
+			steps = honeycombAllToAll(network);
+		}
+		return new CollectiveSchedule(COLLECTIVE.ALL_TO_ALL,
+				network.getNorm(), steps, 1);
+	}
+
+	private static int[][] broadcastSteps(GaussianNetwork network, int root) {
+		NetworkRequirements.requireDegreeFour(network, "The broadcast");
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		int[] parents = new int[n];
+		int[] distances = network.getDistancesFrom(root, parents);
+		return treeSteps(adjacency, distances, parents, root, false);
+	}
+
+	/**
+	 * BFS from the root over the links into each node, so the tree holds a
+	 * route to the root from every node even if some links only go one way
+	 */
+	private static int[][] reduceSteps(GaussianNetwork network, int root) {
+		NetworkRequirements.requireDegreeFour(network, "The reduce");
+		int[] adjacency = network.getFlatAdjacency();
+		int[] reverse = network.getReverseAdjacency();
+		int n = adjacency.length / 4;
+		int[] distances = new int[n];
+		int[] next = new int[n];
+		Arrays.fill(distances, -1);
+		int[] queue = new int[n];
+		int head = 0, tail = 0;
+		queue[tail++] = root;
+		distances[root] = 0;
+		while (head < tail) {
+			int cur = queue[head++];
+			for (int j = 4 * cur; j < 4 * cur + 4; j++) {
+				int from = reverse[j];
+				if (from >= 0 && distances[from] < 0) {
+					distances[from] = distances[cur] + 1;
+					next[from] = cur;
+					queue[tail++] = from;
+				}
+			}
+		}
+		return treeSteps(adjacency, distances, next, root, true);
+	}
+
+	/**
+	 * @param distances
+	 *            the depth of every node in the tree
+	 * @param parents
+	 *            the parent of every node
+	 * @param isToRoot
+	 *            send from the leaves to the root instead of from the root
+	 * @return the links of the tree by step, one level per step
+	 */
+	private static int[][] treeSteps(int[] adjacency, int[] distances,
+			int[] parents, int root, boolean isToRoot) {
+		int depth = 0;
+		for (int v = 0; v < distances.length; v++) {
+			if (distances[v] < 0) {
+				throw new IllegalArgumentException("Node " + v
+						+ " is not connected to the root " + root);
+			}
+			depth = Math.max(depth, distances[v]);
+		}
+
+		// the nodes at distance s are reached in step s-1 of the broadcast
+		// and send in step depth-s of the reduce
+		int[][] steps = new int[depth][];
+		int[] counts = new int[depth + 1];
+		for (int v = 0; v < distances.length; v++) {
+			counts[distances[v]]++;
+		}
+		for (int s = 1; s <= depth; s++) {
+			steps[isToRoot ? depth - s : s - 1] = new int[counts[s]];
+		}
+		int[] filled = new int[depth];
+		for (int v = 0; v < distances.length; v++) {
+			if (v == root) {
+				continue;
+			}
+			int step = isToRoot ? depth - distances[v] : distances[v] - 1;
+			steps[step][filled[step]++] = isToRoot ? link(adjacency, v,
+					parents[v]) : link(adjacency, parents[v], v);
+		}
+		return steps;
+	}
+
+	private static int[][] gaussianAllToAll(GaussianNetwork network) {
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		Residues residues = new Residues(network.getA(), network.getB(),
+				REPRESENTATION.SQUARE);
+		List<Node> nodes = network.getNodes();
+		Node center = nodes.get(network.getCenterIndex());
+
+		// the directions of the route of each phase
+		int[][] directions = new int[n][];
+		int stepCount = 0;
+		for (int k = 0, phase = 0; k < n; k++) {
+			if (k == network.getCenterIndex()) {
+				continue;
+			}
+			long shortest = residues.shortest((long) nodes.get(k).x
+					- center.x, (long) nodes.get(k).y - center.y);
+			int dx = Residues.unpackX(shortest);
+			int dy = Residues.unpackY(shortest);
+			int[] route = new int[Math.abs(dx) + Math.abs(dy)];
+			for (int h = 0; h < route.length; h++) {
+				route[h] = (h < Math.abs(dx)) ? ((dx > 0) ? 0 : 1)
+						: ((dy > 0) ? 2 : 3);
+			}
+			directions[phase++] = route;
+			stepCount += route.length;
+		}
+
+		int[][] steps = new int[stepCount][];
+		int[] current = new int[n];
+		for (int k = 0, s = 0; k < n - 1; k++) {
+			for (int u = 0; u < n; u++) {
+				current[u] = u;
+			}
+			for (int direction : directions[k]) {
+				int[] links = new int[n];
+				for (int u = 0; u < n; u++) {
+					links[u] = 4 * current[u] + direction;
+					current[u] = adjacency[links[u]];
+				}
+				steps[s++] = links;
+			}
+		}
+		return steps;
+	}
+
+	/**
+	 * The first pass of BFS finds the length of every phase and the number
+	 * of messages still on their way after each hop, the second one fills
+	 * the steps
+	 */
+	private static int[][] honeycombAllToAll(GaussianNetwork network) {
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		Residues residues = new Residues(network.getA(), network.getB(),
+				network.getRepresentation());
+		List<Node> nodes = network.getNodes();
+		Node center = nodes.get(network.getCenterIndex());
+		int centerIndex = network.getCenterIndex();
+		int[] parents = new int[n];
+
+		// lengths[k][d] is the number of messages of phase k with a route
+		// of length d
+		int[][] lengths = new int[n][];
+		for (int u = 0; u < n; u++) {
+			int[] distances = network.getDistancesFrom(u, null);
+			for (int k = 0; k < n; k++) {
+				if (k == centerIndex) {
+					continue;
+				}
+				int d = distances[partner(network, residues, nodes, center,
+						u, k)];
+				if (d < 0) {
+					throw new IllegalArgumentException("Node " + u
+							+ " is not connected to every node");
+				}
+				if (lengths[k] == null) {
+					lengths[k] = new int[8];
+				}
+				if (d >= lengths[k].length) {
+					lengths[k] = Arrays.copyOf(lengths[k],
+							Math.max(d + 1, 2 * lengths[k].length));
+				}
+				lengths[k][d]++;
+			}
+		}
+
+		// the phase k starts at phaseStart[k] and its step h holds the
+		// messages with a route longer than h
+		int[] phaseStart = new int[n + 1];
+		int[][] counts = new int[n][];
+		for (int k = 0; k < n; k++) {
+			int length = 0;
+			if (k != centerIndex) {
+				for (int d = 0; d < lengths[k].length; d++) {
+					if (lengths[k][d] > 0) {
+						length = d;
+					}
+				}
+				counts[k] = new int[length];
+				int remaining = n;
+				for (int h = 0; h < length; h++) {
+					remaining -= lengths[k][h];
+					counts[k][h] = remaining;
+				}
+			}
+			phaseStart[k + 1] = phaseStart[k] + length;
+		}
+
+		int[][] steps = new int[phaseStart[n]][];
+		int[] filled = new int[phaseStart[n]];
+		for (int k = 0; k < n; k++) {
+			for (int h = 0; h < phaseStart[k + 1] - phaseStart[k]; h++) {
+				steps[phaseStart[k] + h] = new int[counts[k][h]];
+			}
+		}
+
+		int[] route = new int[n];
+		for (int u = 0; u < n; u++) {
+			network.getDistancesFrom(u, parents);
+			for (int k = 0; k < n; k++) {
+				if (k == centerIndex) {
+					continue;
+				}
+				int length = 0;
+				int v = partner(network, residues, nodes, center, u, k);
+				for (; v != u; v = parents[v]) {
+					route[length++] = v;
+				}
+				route[length] = u;
+				// the route is stored from the destination back to u
+				for (int h = 0; h < length; h++) {
+					int step = phaseStart[k] + h;
+					steps[step][filled[step]++] = link(adjacency, route[length
+							- h], route[length - h - 1]);
+				}
+			}
+		}
+		return steps;
+	}
+
+	/**
+	 * @return index of the node congruent to node u plus the offset from
+	 *         the center to node k
+	 */
+	private static int partner(GaussianNetwork network, Residues residues,
+			List<Node> nodes, Node center, int u, int k) {
+		long representative = residues.representative((long) nodes.get(u).x
+				+ nodes.get(k).x - center.x, (long) nodes.get(u).y
+				+ nodes.get(k).y - center.y);
+		return network.indexOf(Residues.unpackX(representative),
+				Residues.unpackY(representative));
+	}
+
+	/**
+	 * @return the link from node u to its neighbor v
+	 */
+	private static int link(int[] adjacency, int u, int v) {
+		for (int j = 4 * u; j < 4 * u + 4; j++) {
+			if (adjacency[j] == v) {
+				return j;
+			}
+		}
+		throw new IllegalStateException("Node " + v
+				+ " is not a neighbor of node " + u);
+	}
+
+}
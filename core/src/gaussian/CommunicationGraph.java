@@ -0,0 +1,239 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * The messages between the ranks of an application, as directed edges
+ * weighted by the bytes they carry. The edges of each rank are also kept as
+ * lists of outgoing and incoming partners, so a mapper can find the cost of
+ * moving a rank from its own edges only.
+ */
+public class CommunicationGraph {
+
+	private final PATTERN pattern;
+	private final int rows;
+	private final int cols;
+	private final int ranks;
+	private final int[] sources;
+	private final int[] targets;
+	private final long[] weights;
+
+	// the edges out of rank r are outTargets[outStart[r]] to
+	// outTargets[outStart[r+1]-1], and likewise the edges into it
+	private final int[] outStart;
+	private final int[] outTargets;
+	private final long[] outWeights;
+	private final int[] inStart;
+	private final int[] inSources;
+	private final long[] inWeights;
+
+	private CommunicationGraph(PATTERN pattern, int rows, int cols,
+			int ranks, int[] sources, int[] targets, long[] weights) {
+		this.pattern = pattern;
+		this.rows = rows;
+		this.cols = cols;
+		this.ranks = ranks;
+		this.sources = sources;
+		this.targets = targets;
+		this.weights = weights;
+
+		outStart = new int[ranks + 1];
+		inStart = new int[ranks + 1];
+		for (int e = 0; e < sources.length; e++) {
+			outStart[sources[e] + 1]++;
+			inStart[targets[e] + 1]++;
+		}
+		for (int r = 0; r < ranks; r++) {
+			outStart[r + 1] += outStart[r];
+			inStart[r + 1] += inStart[r];
+		}
+		outTargets = new int[sources.length];
+		outWeights = new long[sources.length];
+		inSources = new int[sources.length];
+		inWeights = new long[sources.length];
+		int[] outFill = Arrays.copyOf(outStart, ranks);
+		int[] inFill = Arrays.copyOf(inStart, ranks);
+		for (int e = 0; e < sources.length; e++) {
+			int k = outFill[sources[e]]++;
+			outTargets[k] = targets[e];
+			outWeights[k] = weights[e];
+			k = inFill[targets[e]]++;
+			inSources[k] = sources[e];
+			inWeights[k] = weights[e];
+		}
+	}
+
+	/**
+	 * A 2D stencil without wraparound, rank r is at row r / cols and column
+	 * r % cols and sends weight bytes to each of its neighbors
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a size or the weight is not positive
+	 */
+	public static CommunicationGraph mesh(int rows, int cols, long weight) {
+		return stencil(PATTERN.MESH, rows, cols, weight);
+	}
+
+	/**
+	 * A 2D stencil with wraparound, the ranks are numbered as in mesh
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a size or the weight is not positive
+	 */
+	public static CommunicationGraph torus(int rows, int cols, long weight) {
+		return stencil(PATTERN.TORUS, rows, cols, weight);
+	}
+
+	/**
+	 * A ring whose rank r sends weight bytes to the ranks r-1 and r+1
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the size or the weight is not positive
+	 */
+	public static CommunicationGraph ring(int ranks, long weight) {
+		CommunicationGraph torus = stencil(PATTERN.TORUS, 1, ranks, weight);
+		return new CommunicationGraph(PATTERN.RING, 1, ranks, ranks,
+				torus.sources, torus.targets, torus.weights);
+	}
+
+	/**
+	 * Any application given by its messages
+	 *
+	 * @param ranks
+	 *            number of ranks
+	 * @param sources
+	 *            the sending rank of each message
+	 * @param targets
+	 *            the receiving rank of each message
+	 * @param weights
+	 *            the bytes of each message
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length, a rank is out of range, a
+	 *             rank sends to itself or a weight is negative
+	 */
+	public static CommunicationGraph edges(int ranks, int[] sources,
+			int[] targets, long[] weights) {
+		if (ranks <= 0) {
+			throw new IllegalArgumentException(
+					"The number of ranks should be positive");
+		}
+		if (targets.length != sources.length
+				|| weights.length != sources.length) {
+			throw new IllegalArgumentException(
+					"The messages should have a source, a target and a weight");
+		}
+		for (int e = 0; e < sources.length; e++) {
+			if (sources[e] < 0 || sources[e] >= ranks || targets[e] < 0
+					|| targets[e] >= ranks) {
+				throw new IllegalArgumentException("The message " + e
+						+ " has a rank out of range");
+			}
+			if (sources[e] == targets[e] || weights[e] < 0) {
+				throw new IllegalArgumentException("The message " + e
+						+ " is a self message or has a negative weight");
+			}
+		}
+		return new CommunicationGraph(PATTERN.EDGES, 0, 0, ranks,
+				sources.clone(), targets.clone(), weights.clone());
+	}
+
+	private static CommunicationGraph stencil(PATTERN pattern, int rows,
+			int cols, long weight) {
+		if (rows <= 0 || cols <= 0 || weight <= 0) {
+			throw new IllegalArgumentException(
+					"The sizes and the weight should be positive");
+		}
+		boolean isTorus = (pattern == PATTERN.TORUS);
+		int ranks = rows * cols;
+		int[] sources = new int[4 * ranks];
+		int[] targets = new int[4 * ranks];
+		int count = 0;
+		for (int r = 0; r < ranks; r++) {
+			int row = r / cols;
+			int col = r % cols;
+			// right and down, each link gives a message both ways
+			int[] next = {
+					(col + 1 < cols) ? r + 1 : (isTorus && cols > 2) ? r
+							- col : -1,
+					(row + 1 < rows) ? r + cols
+							: (isTorus && rows > 2) ? col : -1 };
+			for (int v : next) {
+				if (v >= 0 && v != r) {
+					sources[count] = r;
+					targets[count++] = v;
+					sources[count] = v;
+					targets[count++] = r;
+				}
+			}
+		}
+		long[] weights = new long[count];
+		Arrays.fill(weights, weight);
+		return new CommunicationGraph(pattern, rows, cols, ranks,
+				Arrays.copyOf(sources, count), Arrays.copyOf(targets, count),
+				weights);
+	}
+
+	public PATTERN getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return the rows of a MESH or TORUS, 1 for a RING and 0 for EDGES
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the columns of a MESH or TORUS, the ranks of a RING and 0 for
+	 *         EDGES
+	 */
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRanks() {
+		return ranks;
+	}
+
+	public int getEdgeCount() {
+		return sources.length;
+	}
+
+	public int getSource(int edge) {
+		return sources[edge];
+	}
+
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+
+	public long getWeight(int edge) {
+		return weights[edge];
+	}
+
+	int[] getOutStart() {
+		return outStart;
+	}
+
+	int[] getOutTargets() {
+		return outTargets;
+	}
+
+	long[] getOutWeights() {
+		return outWeights;
+	}
+
+	int[] getInStart() {
+		return inStart;
+	}
+
+	int[] getInSources() {
+		return inSources;
+	}
+
+	long[] getInWeights() {
+		return inWeights;
+	}
+
+}
@@ -0,0 +1,8 @@
+package gaussian;
+
+/**
+ * Gaussian are degree-4 networks whereas honeycomb are degree-3 network
+ */
+public enum DEGREE {
+	THREE, FOUR
+}
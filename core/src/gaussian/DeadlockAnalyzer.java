@@ -0,0 +1,513 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the channel dependencies of a routing function on a Gaussian or
+ * honeycomb network, and the virtual channels which make it deadlock free.
+ * For every destination the packets are followed from every source over the
+ * links the routing function allows, and each link a packet takes at the
+ * end of another link is a dependency of that link. The destinations are
+ * followed in parallel. The Gaussian routings of routing(network, routing)
+ * only depend on the difference of a node and the destination, so a packet
+ * takes the same links at a node as one at the difference takes to 0, and
+ * their dependencies are found from the runs of links along each direction
+ * towards 0, without following every destination.
+ *
+ * The virtual channels are assigned by datelines on the wraparound links,
+ * the links out of the NODE_TYPE.BOUNDARY nodes which leave the
+ * representation: a packet takes the virtual channel of the number of
+ * wraparound links it crossed since it turned into the dimension of the
+ * link, or the last one if it crossed more. Each ring of real or of
+ * imaginary links crosses the border of the representation, so a routing
+ * which only turns from one dimension to the other, like the dimension
+ * order routing, has no cycle within a virtual channel once a packet never
+ * crosses more wraparound links of a dimension than it has virtual channels
+ * above the first.
+ */
+public final class DeadlockAnalyzer {
+
+	// the most virtual channels a dateline assignment is tried with
+	public static final int MAX_VIRTUAL_CHANNELS = 8;
+
+	private final int n;
+	private final int[] adjacency;
+	// whether each link leaves the representation
+	private final boolean[] isWraparound;
+	private final int wraparoundLinks;
+	// the links taken at the end of each link, bit j for the direction j,
+	// by the wraparound links crossed before it in its dimension at
+	// MAX_VIRTUAL_CHANNELS*link+crossings
+	private final byte[] dependencies;
+	private int maxCrossings;
+
+	/**
+	 * @param network
+	 *            a built network
+	 * @param routing
+	 *            the links to each destination, which should only be links
+	 *            of the network and reach the destination
+	 * @throws IllegalArgumentException
+	 *             if the routing takes a missing link or leaves a packet
+	 *             without a link before its destination
+	 */
+	public DeadlockAnalyzer(GaussianNetwork network, RoutingFunction routing) {
+		NetworkRequirements.requireDegreeFour(network, "The deadlock analysis");
+		n = network.getNorm();
+		adjacency = network.getFlatAdjacency();
+		List<Node> nodes = network.getNodes();
+		isWraparound = new boolean[4 * n];
+		int wraparound = 0;
+		for (int u = 0; u < n; u++) {
+			Node node = nodes.get(u);
+			if (node.getNodeType() != NODE_TYPE.BOUNDARY) {
+				continue;
+			}
+			for (int j = 0; j < 4; j++) {
+				int v = adjacency[4 * u + j];
+				if (v >= 0
+						&& (nodes.get(v).x != node.x + Residues.DX[j] || nodes
+								.get(v).y != node.y + Residues.DY[j])) {
+					isWraparound[4 * u + j] = true;
+					wraparound++;
+				}
+			}
+		}
+		wraparoundLinks = wraparound;
+		dependencies = new byte[MAX_VIRTUAL_CHANNELS * 4 * n];
+		if (routing instanceof GaussianRouting) {
+			followRuns(((GaussianRouting) routing).toZero());
+		} else {
+			ForkJoinPool.commonPool().invoke(
+					new DestinationTask(this, routing, 0, n));
+		}
+	}
+
+	/**
+	 * The routing of the routed channels of TrafficSimulator: the
+	 * DETERMINISTIC links, or all the links of the shortest routes for the
+	 * ADAPTIVE routing
+	 *
+	 * @throws IllegalArgumentException
+	 *             for the VALIANT and UGAL routings, which route in two
+	 *             phases, each a DETERMINISTIC or ADAPTIVE routing
+	 */
+	public static RoutingFunction routing(GaussianNetwork network,
+			ROUTING routing) {
+		if (routing != ROUTING.DETERMINISTIC && routing != ROUTING.ADAPTIVE) {
+			throw new IllegalArgumentException("The " + routing
+					+ " routing depends on the intermediate node of a packet");
+		}
+		if (network.getNetwork() == NETWORK.GAUSSIAN
+				&& network.getTopology() == TOPOLOGY.GAUSSIAN) {
+			return new GaussianRouting(network, routing);
+		}
+		NetworkRequirements.requireDegreeFour(network, "The shortest routing");
+		return new ShortestRouting(network.getFlatAdjacency(), routing);
+	}
+
+	/**
+	 * Follow the packets to the destinations from start to end-1 and add the
+	 * dependencies they create
+	 */
+	private void follow(RoutingFunction routing, int start, int end) {
+		int[] directions = new int[n];
+		byte[] found = new byte[dependencies.length];
+		// the crossings each link was reached with, a bit per crossing count
+		int[] reached = new int[4 * n];
+		int[] queue = new int[MAX_VIRTUAL_CHANNELS * 4 * n];
+		int most = 0;
+		for (int d = start; d < end; d++) {
+			routing.route(d, directions);
+			Arrays.fill(reached, 0);
+			int queued = 0;
+			for (int u = 0; u < n; u++) {
+				if (u == d) {
+					continue;
+				}
+				if (directions[u] == 0) {
+					throw new IllegalArgumentException("The routing gives no link from node "
+							+ u + " to node " + d);
+				}
+				for (int j = 0; j < 4; j++) {
+					if ((directions[u] & (1 << j)) != 0) {
+						int link = 4 * u + j;
+						check(link);
+						reached[link] = 1;
+						queue[queued++] = MAX_VIRTUAL_CHANNELS * link;
+					}
+				}
+			}
+			for (int head = 0; head < queued; head++) {
+				int state = queue[head];
+				int link = state / MAX_VIRTUAL_CHANNELS;
+				int crossings = state % MAX_VIRTUAL_CHANNELS;
+				int v = adjacency[link];
+				if (v == d) {
+					continue;
+				}
+				found[state] |= (byte) directions[v];
+				for (int j = 0; j < 4; j++) {
+					if ((directions[v] & (1 << j)) == 0) {
+						continue;
+					}
+					int next = 4 * v + j;
+					check(next);
+					int nextCrossings = crossings(link, crossings, j);
+					if ((reached[next] & (1 << nextCrossings)) == 0) {
+						reached[next] |= 1 << nextCrossings;
+						queue[queued++] = MAX_VIRTUAL_CHANNELS * next
+								+ nextCrossings;
+						most = Math.max(most, nextCrossings);
+					}
+				}
+			}
+		}
+		synchronized (dependencies) {
+			for (int k = 0; k < found.length; k++) {
+				dependencies[k] |= found[k];
+			}
+			maxCrossings = Math.max(maxCrossings, most);
+		}
+	}
+
+	/**
+	 * Add the dependencies of a routing which only depends on the difference
+	 * of a node and the destination. A packet which came over the link l in
+	 * direction j into the node v after m links in direction j can be one to
+	 * any destination, so it takes any of the links of the nodes w to 0 which
+	 * are reached after m links in direction j, and the wraparound links it
+	 * crossed are the ones of the m-1 links in direction j before l.
+	 *
+	 * @param toZero
+	 *            the links of every node to 0
+	 */
+	private void followRuns(int[] toZero) {
+		int most = 0;
+		for (int j = 0; j < 4; j++) {
+			// the most links in direction j a packet can take to each node,
+			// and the links out of the nodes reached after at least m links
+			int[] runs = new int[n];
+			Arrays.fill(runs, -1);
+			int[] path = new int[n];
+			int longest = 0;
+			for (int w = 0; w < n; w++) {
+				// walk back to a node with a known run or the start of the run,
+				// marking the nodes on the walk by -2
+				int length = 0;
+				int v = w;
+				int run;
+				while (true) {
+					if (runs[v] >= 0) {
+						run = runs[v];
+						break;
+					}
+					if (runs[v] == -2) {
+						// a ring of links in direction j, the run never starts
+						run = n;
+						break;
+					}
+					runs[v] = -2;
+					path[length++] = v;
+					int before = adjacency[4 * v + (j ^ 1)];
+					if (before < 0 || (toZero[before] & (1 << j)) == 0) {
+						run = -1;
+						break;
+					}
+					v = before;
+				}
+				for (int k = length - 1; k >= 0; k--) {
+					run = Math.min(run + 1, n);
+					runs[path[k]] = run;
+				}
+				longest = Math.max(longest, runs[w]);
+			}
+			int[] after = new int[longest + 2];
+			for (int w = 0; w < n; w++) {
+				after[runs[w]] |= toZero[w];
+			}
+			for (int m = longest - 1; m >= 1; m--) {
+				after[m] |= after[m + 1];
+			}
+			for (int u = 0; u < n; u++) {
+				int link = 4 * u + j;
+				if (adjacency[link] < 0) {
+					continue;
+				}
+				int crossings = 0;
+				int before = u;
+				for (int m = 1; m <= longest; m++) {
+					if (after[m] != 0) {
+						dependencies[MAX_VIRTUAL_CHANNELS * link + crossings] |= (byte) after[m];
+						if ((after[m] & (3 << (j & 2))) != 0) {
+							most = Math.max(most, crossings(link, crossings,
+									j));
+						}
+					}
+					// the link of the next longer run before l
+					before = adjacency[4 * before + (j ^ 1)];
+					if (before < 0) {
+						break;
+					}
+					crossings = Math.min(crossings
+							+ (isWraparound[4 * before + j] ? 1 : 0),
+							MAX_VIRTUAL_CHANNELS - 1);
+				}
+			}
+		}
+		maxCrossings = most;
+	}
+
+	private void check(int link) {
+		if (adjacency[link] < 0) {
+			throw new IllegalArgumentException("The routing takes the missing link "
+					+ (link & 3) + " of node " + (link >> 2));
+		}
+	}
+
+	/**
+	 * @return the wraparound links crossed in the dimension of the direction
+	 *         j before the link out of the end of a link, up to the last
+	 *         virtual channel
+	 */
+	private int crossings(int link, int crossings, int j) {
+		if ((link & 3) >> 1 != j >> 1) {
+			return 0;
+		}
+		return Math.min(crossings + (isWraparound[link] ? 1 : 0),
+				MAX_VIRTUAL_CHANNELS - 1);
+	}
+
+	/**
+	 * Build the channel dependency graph with a number of virtual channels
+	 * per link, assigned by datelines
+	 */
+	public ChannelDependencyGraph graph(int virtualChannels) {
+		if (virtualChannels < 1 || virtualChannels > MAX_VIRTUAL_CHANNELS) {
+			throw new IllegalArgumentException("The links should have 1 to "
+					+ MAX_VIRTUAL_CHANNELS + " virtual channels");
+		}
+		int channels = virtualChannels * 4 * n;
+		// the dependencies of each channel, bit virtualChannels*j+c for the
+		// channel c of the link in direction j
+		int[] masks = new int[channels];
+		int count = 0;
+		for (int link = 0; link < 4 * n; link++) {
+			for (int crossings = 0; crossings < MAX_VIRTUAL_CHANNELS; crossings++) {
+				int turns = dependencies[MAX_VIRTUAL_CHANNELS * link
+						+ crossings];
+				for (int j = 0; j < 4; j++) {
+					if ((turns & (1 << j)) != 0) {
+						int c = Math.min(
+								crossings(link, crossings, j),
+								virtualChannels - 1);
+						masks[virtualChannels * link
+								+ Math.min(crossings, virtualChannels - 1)] |= 1 << (virtualChannels
+								* j + c);
+					}
+				}
+			}
+		}
+		for (int mask : masks) {
+			count += Integer.bitCount(mask);
+		}
+		int[] starts = new int[channels + 1];
+		int[] targets = new int[count];
+		for (int channel = 0; channel < channels; channel++) {
+			starts[channel + 1] = starts[channel];
+			int v = adjacency[channel / virtualChannels];
+			for (int mask = masks[channel]; mask != 0; mask &= mask - 1) {
+				int bit = Integer.numberOfTrailingZeros(mask);
+				targets[starts[channel + 1]++] = virtualChannels * 4 * v + bit;
+			}
+		}
+		return new ChannelDependencyGraph(virtualChannels, starts, targets);
+	}
+
+	/**
+	 * @return the fewest virtual channels per link with which the routing
+	 *         has no cycle of dependencies, or -1 if datelines with up to
+	 *         MAX_VIRTUAL_CHANNELS do not break the cycles
+	 */
+	public int minimalVirtualChannels() {
+		// the channels above the most crossings would stay unused
+		int most = Math.min(maxCrossings + 1, MAX_VIRTUAL_CHANNELS);
+		for (int c = 1; c <= most; c++) {
+			if (graph(c).isAcyclic()) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the most wraparound links a packet crosses in one dimension
+	 *         before the link it takes, up to MAX_VIRTUAL_CHANNELS-1
+	 */
+	public int getMaxCrossings() {
+		return maxCrossings;
+	}
+
+	/**
+	 * @return number of links out of the boundary nodes which leave the
+	 *         representation
+	 */
+	public int getWraparoundLinks() {
+		return wraparoundLinks;
+	}
+
+	public boolean isWraparound(int node, int direction) {
+		return isWraparound[4 * node + direction];
+	}
+
+	/**
+	 * The routing of the Gaussian networks by the shortest vector from a node
+	 * to the destination, which only depends on the difference of the two
+	 * nodes
+	 */
+	private static class GaussianRouting implements RoutingFunction {
+
+		private final int[] xs;
+		private final int[] ys;
+		private final Residues residues;
+		// the links to 0 of each node, by the index of its residue
+		private final int[] offsetDirections;
+
+		GaussianRouting(GaussianNetwork network, ROUTING routing) {
+			int n = network.getNorm();
+			int[] adjacency = network.getFlatAdjacency();
+			List<Node> nodes = network.getNodes();
+			xs = new int[n];
+			ys = new int[n];
+			for (int u = 0; u < n; u++) {
+				xs[u] = nodes.get(u).x;
+				ys[u] = nodes.get(u).y;
+			}
+			residues = new Residues(network.getA(), network.getB(),
+					network.getRepresentation());
+			int[] distances = new int[n];
+			int[] deterministic = new int[n];
+			for (int w = 0; w < n; w++) {
+				// the shortest vector from w to 0
+				long shortest = residues.shortest(-xs[w], -ys[w]);
+				int dx = Residues.unpackX(shortest);
+				int dy = Residues.unpackY(shortest);
+				distances[w] = Math.abs(dx) + Math.abs(dy);
+				deterministic[w] = (dx > 0) ? 0 : (dx < 0) ? 1 : (dy > 0) ? 2
+						: 3;
+			}
+			offsetDirections = new int[n];
+			for (int w = 0; w < n; w++) {
+				int residue = (int) residues.indexOf(xs[w], ys[w]);
+				if (distances[w] == 0) {
+					continue;
+				}
+				if (routing == ROUTING.DETERMINISTIC) {
+					offsetDirections[residue] = 1 << deterministic[w];
+					continue;
+				}
+				for (int j = 0; j < 4; j++) {
+					if (distances[adjacency[4 * w + j]] == distances[w] - 1) {
+						offsetDirections[residue] |= 1 << j;
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return the links of every node of the network to 0
+		 */
+		int[] toZero() {
+			int[] directions = new int[xs.length];
+			for (int w = 0; w < xs.length; w++) {
+				directions[w] = offsetDirections[(int) residues.indexOf(xs[w],
+						ys[w])];
+			}
+			return directions;
+		}
+
+		@Override
+		public void route(int destination, int[] directions) {
+			for (int u = 0; u < xs.length; u++) {
+				// u routes to the destination as u-destination routes to 0
+				directions[u] = offsetDirections[(int) residues.indexOf(
+						(long) xs[u] - xs[destination], (long) ys[u]
+								- ys[destination])];
+			}
+		}
+	}
+
+	/**
+	 * The routing by the distances to each destination, found by a search
+	 * over the reversed links: the first link of a shortest route in the
+	 * order of the directions, or all of them for the ADAPTIVE routing
+	 */
+	private static class ShortestRouting implements RoutingFunction {
+
+		private final int[] adjacency;
+		private final int[] reverse;
+		private final boolean isAdaptive;
+
+		ShortestRouting(int[] adjacency, ROUTING routing) {
+			this.adjacency = adjacency;
+			this.reverse = BreadthFirstSearch.reverseAdjacency(adjacency);
+			this.isAdaptive = routing == ROUTING.ADAPTIVE;
+		}
+
+		@Override
+		public void route(int destination, int[] directions) {
+			int n = adjacency.length / 4;
+			int[] distances = new int[n];
+			BreadthFirstSearch.directionOptimizing(reverse, adjacency,
+					destination, distances);
+			for (int u = 0; u < n; u++) {
+				directions[u] = 0;
+				for (int j = 0; j < 4; j++) {
+					int v = adjacency[4 * u + j];
+					if (v >= 0 && distances[v] == distances[u] - 1
+							&& (isAdaptive || directions[u] == 0)) {
+						directions[u] |= 1 << j;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Follows the packets to a range of destinations
+	 */
+	@SuppressWarnings("serial")
+	private static class DestinationTask extends RecursiveAction {
+
+		private final DeadlockAnalyzer analyzer;
+		private final RoutingFunction routing;
+		private final int start;
+		private final int end;
+
+		DestinationTask(DeadlockAnalyzer analyzer, RoutingFunction routing,
+				int start, int end) {
+			this.analyzer = analyzer;
+			this.routing = routing;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			// a few ranges per thread, each with its own tables
+			int chunk = Math.max(1, analyzer.n
+					/ (4 * ForkJoinPool.getCommonPoolParallelism()));
+			if (end - start > chunk) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new DestinationTask(analyzer, routing, start, middle),
+						new DestinationTask(analyzer, routing, middle, end));
+				return;
+			}
+			analyzer.follow(routing, start, end);
+		}
+	}
+
+}
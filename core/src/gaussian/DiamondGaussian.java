@@ -0,0 +1,426 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Diamond representation of a Guassian network
+ *
+ */
+public final class DiamondGaussian extends GaussianNetwork {
+
+	public DiamondGaussian(int a, int b) {
+		this(a, b, GENERATION.SEQUENTIAL);
+	}
+
+	public DiamondGaussian(int a, int b, GENERATION generation) {
+		super(a, b, REPRESENTATION.DIAMOND, generation);
+		makeNetwork();
+	}
+
+	/**
+	 * Build the network of a+bi from the network of a neighboring
+	 * generator, such as a+(b+1)i or (a+1)+bi from a+bi. The shells of the
+	 * great diamond up to the smaller of their last full shells hold the
+	 * same nodes in the same order in both networks, so their nodes,
+	 * distances and inner links are copied. Only the outer shells, their
+	 * links and the wraparound links are generated and searched again, and
+	 * the distances come from the shells instead of a BFS.
+	 * 
+	 * @param previous
+	 *            a built network which was not pruned to a honeycomb
+	 *            network, it is not modified
+	 */
+	public DiamondGaussian(DiamondGaussian previous, int a, int b) {
+		this.a = a;
+		this.b = b;
+		this.representation = REPRESENTATION.DIAMOND;
+		this.generation = previous.generation;
+		initialize();
+
+		int inner = Math.min(previous.getDiamondEnd(), getDiamondEnd());
+		computeWeightDistributions();
+		generateNodes(previous, inner);
+		// the nodes inside the last copied shell have all their neighbors in
+		// the copied shells
+		int interior = (inner > 0) ? 2 * inner * (inner - 1) + 1 : 0;
+		buildAdjacencyMatrix(previous.adjacencyMatrix, interior);
+		setShellDistances(inner + 1);
+	}
+
+	
+	/**
+	 * Compute the weight distributions based on the distance properties
+	 * given in the paper
+	 * "Modeling Toroidal Network with the Gaussian Integers"
+	 */
+	public void computeWeightDistributions() {
+		// the shells are counted by GaussianAnalytics, which also covers the
+		// square representation
+		for (int s = 0; s < weightDistribution.length; s++) {
+			weightDistribution[s] = (int) GaussianAnalytics.countAtDistance(a,
+					b, s);
+		}
+
+//		System.out.println("Weight Distributions:");
+//		System.out.print("[");
+//		for (int i = 0; i < weightDistribution.length; i++) {
+//			System.out.print(weightDistribution[i]);
+//			if ( i != weightDistribution.length - 1)
+//				System.out.print(", ");
+//		}
+//		System.out.print("]");
+//		System.out.println();
+	}
+
+	@Override
+	protected void makeNetwork() {
+		computeWeightDistributions();
+		generateNodes();
+		buildAdjacencyMatrix();
+		setDistanceDistributions(NETWORK.GAUSSIAN);	
+	}
+	
+
+	/**
+	 * Generate the nodes for the network 
+	 * assuming norm > 4
+	 * 
+	 * The nodes are written into a preallocated array where the first node at
+	 * distance s is at offsets[s], the prefix sum of weightDistribution. Each
+	 * shell of the great diamond and of the triangles is written at its own
+	 * offset, so in PARALLEL generation the shells are filled concurrently
+	 * and the nodes keep the order of SEQUENTIAL generation.
+	 */
+	protected void generateNodes() {
+		generateNodes(null, 0);
+	}
+
+	/**
+	 * Generate the nodes, copying the shells up to inner from another
+	 * network
+	 * 
+	 * @param previous
+	 *            the network to copy from, null if inner is 0
+	 * @param inner
+	 *            the last copied shell, a full shell of the great diamond in
+	 *            both networks
+	 */
+	private void generateNodes(DiamondGaussian previous, int inner) {
+		centerIndex = 0;
+		Node[] diamond = new Node[norm];
+
+		int[] offsets = new int[weightDistribution.length + 1];
+		for (int s = 0; s < weightDistribution.length; s++) {
+			offsets[s + 1] = offsets[s] + weightDistribution[s];
+		}
+
+		if (previous == null) {
+			// generate origin
+			diamond[0] = new Node(0, 0, NODE_REGION.ORIGIN);
+		} else {
+			// the nodes are not shared, the networks set their links and
+			// weights
+			for (int i = 0; i < offsets[inner + 1]; i++) {
+				Node node = previous.nodes.get(i);
+				diamond[i] = new Node(node.x, node.y, node.getRegion());
+				diamond[i].setWeight(node.getWeight(NETWORK.GAUSSIAN),
+						NETWORK.GAUSSIAN);
+			}
+		}
+
+		// generate the nodes in the main diamond and the 4 triangles
+		if (generation == GENERATION.PARALLEL) {
+			new ShellTask(diamond, offsets, inner + 1, b - 1).invoke();
+		} else {
+			for (int s = inner + 1; s <= b - 1; s++) {
+				generateShell(diamond, offsets[s], s);
+			}
+		}
+
+		if (isNormEven) {
+			generateNodesEven(diamond, offsets[t]);
+		}
+
+		nodes = Arrays.asList(diamond);
+	}
+
+	/**
+	 * @return the last shell of the great diamond which is full, of 4s
+	 *         nodes
+	 */
+	private int getDiamondEnd() {
+		// if norm is even the diamond ends at t-1 otherwise it ends at t
+		return isNormEven ? t - 1 : t;
+	}
+
+	/**
+	 * Set the distance distributions and the weights of the nodes from the
+	 * shells, where the nodes at distance s start at the sum of the weight
+	 * distributions below s
+	 * 
+	 * @param first
+	 *            the first shell whose nodes get their weight
+	 */
+	private void setShellDistances(int first) {
+		distanceDistributions = new ArrayList<Integer>();
+		int offset = 0;
+		for (int s = 0; s < weightDistribution.length; s++) {
+			distanceDistributions.add(weightDistribution[s]);
+			if (s >= first) {
+				for (int i = offset; i < offset + weightDistribution[s]; i++) {
+					nodes.get(i).setWeight(s, NETWORK.GAUSSIAN);
+				}
+			}
+			offset += weightDistribution[s];
+		}
+	}
+
+	/**
+	 * Generate the nodes of the shell s
+	 * 
+	 * @param diamond
+	 *            the nodes of the network
+	 * @param offset
+	 *            index of the first node of the shell
+	 * @param s
+	 *            the distance of the shell from the origin
+	 */
+	private void generateShell(Node[] diamond, int offset, int s) {
+		if (s <= getDiamondEnd()) {
+			generateDiamond(diamond, offset, s);
+		} else if (s > t) {
+			generateTriangles(diamond, offset, s);
+		}
+		// if norm is even the shell t is made of the 4 lines
+	}
+
+	/**
+	 * Generate the 4 lines at distance t and the last node (the even node)
+	 * 
+	 * @param diamond
+	 *            the nodes of the network
+	 * @param offset
+	 *            index of the first node of the lines
+	 */
+	private void generateNodesEven(Node[] diamond, int offset) {
+		// generate the 4 lines
+		offset = generateUpperRightLine(diamond, offset);
+		offset = generateUpperLeftLine(diamond, offset);
+		offset = generateLowerLeftLine(diamond, offset);
+		generateLowerRightLine(diamond, offset);
+
+		// set the last node coordinates
+		if (b < a + 4) {
+			lastX = t;
+			lastY = 1;
+		} else if (b == a + 4) {
+			lastX = t;
+			lastY = 2;
+		} else {
+			// right of the last node of q1 of the outermost triangle
+			int q = weightDistribution[b - 1] / 4;
+			lastX = t - q + 1;
+			lastY = triangleShift(b - 1) + q - 1;
+		}
+
+		if (a != b) {
+			// generate the last node (the even node)
+			diamond[norm - 1] = new Node(lastX, lastY, NODE_REGION.EVEN);
+		}
+	}
+
+	/**
+	 * Generates a range of shells in parallel by splitting it in halves
+	 * until the shells hold only a few nodes
+	 */
+	@SuppressWarnings("serial")
+	private class ShellTask extends RecursiveAction {
+
+		// shells with fewer nodes are generated by a single task
+		private static final int THRESHOLD = 1 << 13;
+
+		private final Node[] diamond;
+		private final int[] offsets;
+		private final int start;
+		private final int end;
+
+		ShellTask(Node[] diamond, int[] offsets, int start, int end) {
+			this.diamond = diamond;
+			this.offsets = offsets;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (start == end
+					|| offsets[end + 1] - offsets[start] <= THRESHOLD) {
+				for (int s = start; s <= end; s++) {
+					generateShell(diamond, offsets[s], s);
+				}
+			} else {
+				int middle = (start + end) / 2;
+				invokeAll(new ShellTask(diamond, offsets, start, middle),
+						new ShellTask(diamond, offsets, middle + 1, end));
+			}
+		}
+	}
+
+	/**
+	 * @return the distance of the first triangle node of the shell s from the
+	 *         axis
+	 */
+	private int triangleShift(int s) {
+		int shift = isNormEven ? 2 : 1;
+		return shift + s - (t + 1);
+	}
+
+	/**
+	 * Generate the nodes of the shell s of the four triangles on the four
+	 * quarters
+	 * 
+	 * @param diamond
+	 *            the nodes of the network
+	 * @param offset
+	 *            index of the first node of the shell
+	 * @param s
+	 *            the distance of the shell from the origin, t < s < b
+	 */
+	private void generateTriangles(Node[] diamond, int offset, int s) {
+		int i = triangleShift(s);
+
+		// divide number of the nodes for each quarter
+		int q = weightDistribution[s] / 4;
+
+		// do q1
+		for (int j = 0, k = i; j < q; j++, k++) {
+			int y;
+			if (isNormEven)
+				y = t - j - 1;
+			else
+				y = t - j;
+
+			diamond[offset++] = new Node(y, k, NODE_REGION.TRIANGLE);
+		}
+
+		// do q2
+		for (int j = 0, k = -1 * i; j < q; j++, k--) {
+			int y;
+			if (isNormEven)
+				y = t - j - 1;
+			else
+				y = t - j;
+
+			diamond[offset++] = new Node(k, y, NODE_REGION.TRIANGLE);
+		}
+
+		// do q3
+		for (int j = 0, k = -1 * i; j < q; j++, k--) {
+			int y;
+			if (isNormEven)
+				y = t - j - 1;
+			else
+				y = t - j;
+
+			diamond[offset++] = new Node(-1 * y, k, NODE_REGION.TRIANGLE);
+		}
+
+		// do q4
+		for (int j = 0, k = i; j < q; j++, k++) {
+			int y;
+			if (isNormEven)
+				y = t - j - 1;
+			else
+				y = t - j;
+
+			diamond[offset++] = new Node(k, -1 * y, NODE_REGION.TRIANGLE);
+		}
+
+	}
+
+	private int generateUpperRightLine(Node[] diamond, int offset) {
+		if (a == b) {
+			for (int e1a = b - 1, e1b = 1; e1a >= 0; e1a--, e1b++)
+				diamond[offset++] = new Node(e1a, e1b, NODE_REGION.LINE);
+		} else {
+			for (int a1a = t - 1, a1b = 1; a1a >= 0; a1a--, a1b++)
+				diamond[offset++] = new Node(a1a, a1b, NODE_REGION.LINE);
+		}
+		return offset;
+	}
+
+	private int generateUpperLeftLine(Node[] diamond, int offset) {
+		if (a == b) {
+			for (int e2a = -1, e2b = b - 1; e2a >= -b + 1; e2a--, e2b--)
+				diamond[offset++] = new Node(e2a, e2b, NODE_REGION.LINE);
+		} else {
+			for (int c1a = -1, c1b = t - 1; c1a >= -t; c1a--, c1b--)
+				diamond[offset++] = new Node(c1a, c1b, NODE_REGION.LINE);
+		}
+		return offset;
+	}
+
+	private int generateLowerLeftLine(Node[] diamond, int offset) {
+		for (int a2a = -1 - a, a2b = t + 1 - b; a2a >= 1 - t; a2a--, a2b++)
+			diamond[offset++] = new Node(a2a, a2b, NODE_REGION.LINE);
+		return offset;
+	}
+
+	private int generateLowerRightLine(Node[] diamond, int offset) {
+		for (int c2a = t - a - 1, c2b = -1 - a; c2a >= 1; c2a--, c2b--)
+			diamond[offset++] = new Node(c2a, c2b, NODE_REGION.LINE);
+		return offset;
+	}
+
+	/**
+	 * Generate the nodes of the shell s in the great diamond
+	 * 
+	 * @param diamond
+	 *            the nodes of the network
+	 * @param offset
+	 *            index of the first node of the shell
+	 * @param s
+	 *            the distance of the shell from the origin, from 1 to t-1 if
+	 *            norm is even otherwise to t
+	 */
+	private void generateDiamond(Node[] diamond, int offset, int s) {
+		// divide number of the nodes for each quarter
+		int q = weightDistribution[s] / 4;
+
+		// do quarter1
+		for (int j = 0, k = 0; j < q; j++, k++)
+			diamond[offset++] = new Node(s - j, k, NODE_REGION.DIAMOND);
+
+		// do quarter2
+		for (int j = 0, k = 0; j < q; j++, k--)
+			diamond[offset++] = new Node(k, s - j, NODE_REGION.DIAMOND);
+
+		// do quarter3
+		for (int j = 0, k = 0; j < q; j++, k--)
+			diamond[offset++] = new Node(-1 * (s - j), k, NODE_REGION.DIAMOND);
+
+		// do quarter4
+		for (int j = 0, k = 0; j < q; j++, k++)
+			diamond[offset++] = new Node(k, -1 * (s - j), NODE_REGION.DIAMOND);
+	}
+
+
+	public static void main(String[] args) {
+		Scanner scan = new Scanner(System.in);
+		System.out
+				.println("Please enter a and b for the Gaussian network generator: ");
+
+		GaussianNetwork gaussianNetwork = new DiamondGaussian(scan.nextInt(),
+				scan.nextInt());
+		gaussianNetwork.printParameters();
+
+		gaussianNetwork.printNodes(NETWORK.GAUSSIAN);
+		
+		gaussianNetwork.printAdjacencyMatrix();
+
+	}
+
+}
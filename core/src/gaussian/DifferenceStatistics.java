@@ -0,0 +1,126 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of the DIFFERENCE weights, the distance of each node from the
+ * center in the honeycomb network minus its distance in the Gaussian
+ * network: how often each difference occurs, the largest difference in each
+ * shell of the Gaussian network and the nodes where the honeycomb network
+ * stretches the distance most.
+ *
+ * They are computed from the weights as int arrays. The differences and
+ * their range are found by a plain counted loop, which the JIT compiles to
+ * SIMD instructions, and the histogram and the shells by a second loop.
+ *
+ * The statistics are immutable, so a snapshot can share them between
+ * threads. The getters of the arrays return copies.
+ */
+public class DifferenceStatistics {
+
+	private final long[] histogram;
+	private final int[] shellMaxima;
+	private final int[] maxNodes;
+	private final double averageDifference;
+
+	private DifferenceStatistics(long[] histogram, int[] shellMaxima,
+			int[] maxNodes, double averageDifference) {
+		this.histogram = histogram;
+		this.shellMaxima = shellMaxima;
+		this.maxNodes = maxNodes;
+		this.averageDifference = averageDifference;
+	}
+
+	/**
+	 * Compute the statistics of the differences of the weights of each node
+	 *
+	 * @param gaussianWeights
+	 *            the distance of each node from the center in the Gaussian
+	 *            network
+	 * @param honeycombWeights
+	 *            the distance of each node from the center in the honeycomb
+	 *            network, in the same order
+	 * @return the statistics, whose nodes are indices of the arrays
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length or a honeycomb weight is
+	 *             below the Gaussian one
+	 */
+	public static DifferenceStatistics compute(int[] gaussianWeights,
+			int[] honeycombWeights) {
+		int n = gaussianWeights.length;
+		if (honeycombWeights.length != n || n == 0) {
+			throw new IllegalArgumentException(
+					"The weights should be given for the same nodes");
+		}
+
+		int[] differences = new int[n];
+		int minDifference = 0, maxDifference = 0, maxShell = 0;
+		long sum = 0;
+		for (int i = 0; i < n; i++) {
+			int difference = honeycombWeights[i] - gaussianWeights[i];
+			differences[i] = difference;
+			minDifference = Math.min(minDifference, difference);
+			maxDifference = Math.max(maxDifference, difference);
+			maxShell = Math.max(maxShell, gaussianWeights[i]);
+			sum += difference;
+		}
+		// the honeycomb network is a subgraph, so its distances are never
+		// shorter unless a node was not reached
+		if (minDifference < 0) {
+			throw new IllegalArgumentException(
+					"A honeycomb weight is below the Gaussian weight");
+		}
+
+		long[] histogram = new long[maxDifference + 1];
+		int[] shellMaxima = new int[maxShell + 1];
+		int[] maxNodes = new int[16];
+		int maxCount = 0;
+		for (int i = 0; i < n; i++) {
+			int difference = differences[i];
+			int shell = gaussianWeights[i];
+			histogram[difference]++;
+			shellMaxima[shell] = Math.max(shellMaxima[shell], difference);
+			if (difference == maxDifference) {
+				if (maxCount == maxNodes.length) {
+					maxNodes = Arrays.copyOf(maxNodes, 2 * maxCount);
+				}
+				maxNodes[maxCount++] = i;
+			}
+		}
+
+		return new DifferenceStatistics(histogram, shellMaxima,
+				Arrays.copyOf(maxNodes, maxCount), (double) sum / n);
+	}
+
+	/**
+	 * @return a copy of the number of nodes at each difference
+	 */
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * @return a copy of the largest difference among the nodes at each
+	 *         distance from the center in the Gaussian network
+	 */
+	public int[] getShellMaxima() {
+		return shellMaxima.clone();
+	}
+
+	/**
+	 * @return a copy of the indices of the nodes with the largest
+	 *         difference, in increasing order
+	 */
+	public int[] getMaxNodes() {
+		return maxNodes.clone();
+	}
+
+	public int getMaxDifference() {
+		return histogram.length - 1;
+	}
+
+	public double getAverageDifference() {
+		return averageDifference;
+	}
+
+}
@@ -0,0 +1,138 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Exact distance statistics over all the ordered pairs of nodes of a network,
+ * as computed by BreadthFirstSearch.allPairs, or by compute from a built
+ * network. They are needed for the networks which are not vertex-transitive,
+ * such as the honeycomb network, where the distances from the center do not
+ * tell the distances between the other nodes.
+ */
+public class DistanceStatistics {
+
+	private final int[] eccentricities;
+	private final long[] distribution;
+	private final boolean isConnected;
+
+	/**
+	 * @param eccentricities
+	 *            the largest distance from every node to the nodes it reaches
+	 * @param distribution
+	 *            number of ordered pairs at each distance
+	 * @param isConnected
+	 *            whether every node reaches every other node
+	 */
+	public DistanceStatistics(int[] eccentricities, long[] distribution,
+			boolean isConnected) {
+		this.eccentricities = eccentricities;
+		this.distribution = distribution;
+		this.isConnected = isConnected;
+	}
+
+	/**
+	 * Compute the distances between all the pairs of nodes with the
+	 * bit-parallel BFS. The honeycomb network is not vertex-transitive, so
+	 * its distances from the center do not give its exact diameter and
+	 * average distance.
+	 *
+	 * @param network
+	 *            a built network
+	 * @return the all-pairs distance statistics
+	 */
+	public static DistanceStatistics compute(GaussianNetwork network) {
+		final List<Node> nodes = network.getNodes();
+		int minX = 0, minY = 0;
+		for (Node node : nodes) {
+			minX = Math.min(minX, node.x);
+			minY = Math.min(minY, node.y);
+		}
+
+		// batch the sources in Z-order of their coordinates, so the 64
+		// sources of a batch are mostly an 8x8 block
+		final long[] keys = new long[nodes.size()];
+		Integer[] order = new Integer[nodes.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = interleave(nodes.get(i).x - minX)
+					| (interleave(nodes.get(i).y - minY) << 1);
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				return Long.compare(keys[i], keys[j]);
+			}
+		});
+
+		int[] sources = new int[order.length];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = order[i];
+		}
+		return BreadthFirstSearch.allPairs(network.getFlatAdjacency(),
+				network.getDegree(), sources, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Spread the bits of a non-negative int to the even bits of a long
+	 */
+	private static long interleave(int value) {
+		long bits = value & 0xffffffffL;
+		bits = (bits | (bits << 16)) & 0x0000ffff0000ffffL;
+		bits = (bits | (bits << 8)) & 0x00ff00ff00ff00ffL;
+		bits = (bits | (bits << 4)) & 0x0f0f0f0f0f0f0f0fL;
+		bits = (bits | (bits << 2)) & 0x3333333333333333L;
+		bits = (bits | (bits << 1)) & 0x5555555555555555L;
+		return bits;
+	}
+
+	/**
+	 * @return the largest distance from every node to the nodes it reaches
+	 */
+	public int[] getEccentricities() {
+		return eccentricities;
+	}
+
+	/**
+	 * @return number of ordered pairs of nodes at each distance, including
+	 *         the pairs of a node with itself at distance 0
+	 */
+	public long[] getDistribution() {
+		return distribution;
+	}
+
+	/**
+	 * @return whether every node reaches every other node, otherwise the
+	 *         statistics only cover the pairs with a route
+	 */
+	public boolean isConnected() {
+		return isConnected;
+	}
+
+	public int getDiameter() {
+		return distribution.length - 1;
+	}
+
+	public int getRadius() {
+		int radius = Integer.MAX_VALUE;
+		for (int eccentricity : eccentricities) {
+			radius = Math.min(radius, eccentricity);
+		}
+		return radius;
+	}
+
+	/**
+	 * @return the average distance between two different nodes
+	 */
+	public double getAverageDistance() {
+		long sum = 0, pairs = 0;
+		for (int s = 1; s < distribution.length; s++) {
+			sum += s * distribution[s];
+			pairs += distribution[s];
+		}
+		return (pairs == 0) ? 0 : (double) sum / pairs;
+	}
+
+}
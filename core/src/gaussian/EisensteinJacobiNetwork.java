@@ -0,0 +1,111 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Eisenstein-Jacobi network generated by alpha = a + b*omega, where
+ * omega = (1 + i*sqrt(3))/2: the Eisenstein-Jacobi integers modulo alpha,
+ * each linked to the six nodes differing by a unit +-1, +-omega and
+ * +-omega^2 = -+(1 - omega). It is the hexagonal counterpart of the
+ * Gaussian network with norm a^2 + ab + b^2.
+ * 
+ * The node x + y*omega is stored with the coordinates (x, y). The nodes are
+ * the points of the parallelogram with corners 0, alpha, (1+omega)alpha and
+ * omega*alpha, as in the square representation of the Gaussian network.
+ * With S = (a+b)x + by and T = ay - bx, the point is s*alpha + t*omega*alpha
+ * for s = S/norm and t = T/norm, so it is inside for 0 <= S < norm and
+ * 0 <= T < norm.
+ */
+public final class EisensteinJacobiNetwork extends BaselineNetwork {
+
+	// the units of the directions, in the order +1, -1, +omega, -omega,
+	// +omega^2 and -omega^2
+	private static final int[] DX = { 1, -1, 0, 0, -1, 1 };
+	private static final int[] DY = { 0, 0, 1, -1, 1, -1 };
+
+	/**
+	 * @param a
+	 *            the Eisenstein-Jacobi network parameter a
+	 * @param b
+	 *            the Eisenstein-Jacobi network parameter b
+	 */
+	public EisensteinJacobiNetwork(int a, int b) {
+		super(TOPOLOGY.EISENSTEIN_JACOBI, check(a, b), b, (long) a * a
+				+ (long) a * b + (long) b * b, 6);
+		makeNetwork();
+	}
+
+	private static int check(int a, int b) {
+		if (a < 0 || b < 0 || a + b == 0) {
+			throw new IllegalArgumentException(
+					"a and b must be non-negative and not both zero");
+		}
+		return a;
+	}
+
+	@Override
+	protected void generateNodes() {
+		List<Node> parallelogram = new ArrayList<Node>(norm);
+		long n = norm;
+		for (int y = 0; y < a + 2 * b; y++) {
+			// 0 <= (a+b)x + by < norm
+			long xMin = ceilDiv(-(long) b * y, a + b);
+			long xMax = ceilDiv(n - (long) b * y, a + b) - 1;
+
+			// 0 <= ay - bx < norm
+			if (b > 0) {
+				xMin = Math.max(xMin, Math.floorDiv((long) a * y - n, b) + 1);
+				xMax = Math.min(xMax, Math.floorDiv((long) a * y, b));
+			} else if ((long) a * y >= n) {
+				continue;
+			}
+
+			for (long x = xMin; x <= xMax; x++) {
+				parallelogram.add(new Node((int) x, y, NODE_REGION.DIAMOND));
+			}
+		}
+
+		if (parallelogram.size() != norm) {
+			throw new IllegalStateException("Generated "
+					+ parallelogram.size()
+					+ " nodes for the Eisenstein-Jacobi network of " + a + "+"
+					+ b + "w instead of " + norm);
+		}
+		nodes = parallelogram;
+		// the origin is the first node of the first row
+		centerIndex = 0;
+	}
+
+	/**
+	 * Find the neighbor of the node by adding the unit of the direction and
+	 * subtracting the multiples of alpha and omega*alpha which bring it back
+	 * into the parallelogram
+	 */
+	@Override
+	protected int findNeighborIndex(Node node, int neighborNumber) {
+		long x = node.x + DX[neighborNumber];
+		long y = node.y + DY[neighborNumber];
+		long s = Math.floorDiv((a + b) * x + b * y, norm);
+		long t = Math.floorDiv(a * y - b * x, norm);
+		if (s != 0 || t != 0) {
+			node.setNodeType(NODE_TYPE.BOUNDARY);
+		}
+		// alpha is (a, b) and omega*alpha is (-b, a+b)
+		return indexOf((int) (x - s * a + t * b), (int) (y - s * b - t
+				* (a + b)));
+	}
+
+	/**
+	 * @return the smallest integer greater than or equal to n/d for d > 0
+	 */
+	private static long ceilDiv(long n, long d) {
+		return -Math.floorDiv(-n, d);
+	}
+
+	@Override
+	public TOPOLOGY getTopology() {
+		return TOPOLOGY.EISENSTEIN_JACOBI;
+	}
+
+}
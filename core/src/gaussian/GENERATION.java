@@ -0,0 +1,10 @@
+package gaussian;
+
+/**
+ * How the nodes of a network are generated: one after the other, or with
+ * the independent parts of the network generated in parallel. Both modes
+ * generate the nodes in the same order.
+ */
+public enum GENERATION {
+	SEQUENTIAL, PARALLEL
+}
@@ -0,0 +1,348 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Distance statistics of the networks computed without building them.
+ *
+ * A Gaussian network is vertex-transitive and its distance distribution
+ * only depends on a and b, not on the representation of the nodes, so it is
+ * given by closed formulas for any a and b. The honeycomb network is pruned
+ * from the nodes of a representation and no formula is known for it, so its
+ * distributions are computed by a BFS which only keeps a visited bit per
+ * node and the frontier, and finds the neighbors of a node by reducing its
+ * coordinates modulo alpha.
+ */
+public final class GaussianAnalytics {
+
+	private GaussianAnalytics() {
+	}
+
+	/**
+	 * Number of nodes at distance s from any node of the Gaussian network
+	 * generated by a+bi
+	 *
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param s
+	 *            the distance
+	 * @return the number of nodes at distance s, 0 beyond the diameter
+	 */
+	public static long countAtDistance(int a, int b, int s) {
+		long[] ab = normalize(a, b);
+		a = (int) ab[0];
+		b = (int) ab[1];
+		boolean isNormEven = (((long) a + b) % 2 == 0);
+		long t = ((long) a + b) / 2;
+
+		if (s == 0) {
+			return 1;
+		} else if (s < 0 || s > getDiameter(a, b)) {
+			return 0;
+		}
+
+		if (!isNormEven) {
+			return (s <= t) ? 4L * s : 4L * (b - s);
+		} else if (a == b) {
+			return (s < b) ? 4L * s : 2L * b - 1;
+		} else if (s < t) {
+			return 4L * s;
+		} else if (s == t) {
+			return 2L * (b - 1);
+		} else if (s < b) {
+			return 4L * (b - s);
+		}
+		// the even node
+		return 1;
+	}
+
+	/**
+	 * @return the diameter of the Gaussian network generated by a+bi
+	 */
+	public static int getDiameter(int a, int b) {
+		long[] ab = normalize(a, b);
+		if (ab[0] * ab[0] + ab[1] * ab[1] == 1) {
+			return 0;
+		}
+		return ((ab[0] + ab[1]) % 2 == 0) ? (int) ab[1] : (int) ab[1] - 1;
+	}
+
+	/**
+	 * The average distance from a node to all the nodes, itself included, as
+	 * GaussianNetwork.getAverageDistance, from the closed form of the sum of
+	 * the distances
+	 *
+	 * @return the average distance in the Gaussian network generated by a+bi
+	 */
+	public static double getAverageDistance(int a, int b) {
+		long[] ab = normalize(a, b);
+		long norm = getNorm(a, b);
+		int d = getDiameter(a, b);
+		long lastCount = countAtDistance(a, b, d);
+		long bb = ab[1];
+		long t = (ab[0] + bb) / 2;
+		long total;
+
+		// the shells of the great diamond grow by 4 and the shells of the
+		// triangles shrink by 4, the middle and the last shells are apart
+		if ((ab[0] + bb) % 2 == 1) {
+			// shells 1..t are 4s and t+1..b-1 are 4(b-s)
+			total = 4 * squares(1, t) + 4
+					* (bb * sum(t + 1, bb - 1) - squares(t + 1, bb - 1));
+		} else if (ab[0] == bb) {
+			total = 4 * squares(1, bb - 1) + bb * lastCount;
+		} else {
+			total = 4 * squares(1, t - 1) + t * 2 * (bb - 1) + 4
+					* (bb * sum(t + 1, bb - 1) - squares(t + 1, bb - 1)) + bb
+					* lastCount;
+		}
+		return (double) total / norm;
+	}
+
+	/**
+	 * @return the number of nodes at each distance in the Gaussian network
+	 *         generated by a+bi
+	 */
+	public static long[] getDistanceDistributions(int a, int b) {
+		int d = getDiameter(a, b);
+		long[] distributions = new long[d + 1];
+		for (int s = 0; s <= d; s++) {
+			distributions[s] = countAtDistance(a, b, s);
+		}
+		return distributions;
+	}
+
+	/**
+	 * The number of nodes at each distance from the center of the network,
+	 * as getDistanceDistributions of the built network
+	 *
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            either square or diamond, the honeycomb network depends on
+	 *            it
+	 * @param network
+	 *            either GAUSSIAN or HONEYCOMB
+	 * @return the number of nodes at each distance
+	 */
+	public static long[] getDistanceDistributions(int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		switch (network) {
+		case GAUSSIAN:
+			return getDistanceDistributions(a, b);
+		case HONEYCOMB:
+			return honeycombDistributions(a, b, representation);
+		default:
+			throw new IllegalArgumentException("Unknown network " + network);
+		}
+	}
+
+	/**
+	 * @return the diameter of the network, in O(1) for the Gaussian network
+	 */
+	public static int getDiameter(int a, int b, REPRESENTATION representation,
+			NETWORK network) {
+		if (network == NETWORK.GAUSSIAN) {
+			return getDiameter(a, b);
+		}
+		return getDistanceDistributions(a, b, representation, network).length - 1;
+	}
+
+	/**
+	 * @return the average distance from the center of the network, in O(1)
+	 *         for the Gaussian network
+	 */
+	public static double getAverageDistance(int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		if (network == NETWORK.GAUSSIAN) {
+			return getAverageDistance(a, b);
+		}
+		long[] distributions = getDistanceDistributions(a, b, representation,
+				network);
+		long sum = 0, norm = 0;
+		for (int s = 0; s < distributions.length; s++) {
+			sum += s * distributions[s];
+			norm += distributions[s];
+		}
+		return (double) sum / norm;
+	}
+
+	/**
+	 * Compare the distances from the origin in the honeycomb network with
+	 * the ones in the Gaussian network without building them, as
+	 * HoneycombGaussian.getDifferenceStatistics. The honeycomb distances come
+	 * from the BFS of the distributions and the Gaussian distances from the
+	 * shortest congruent Gaussian integers.
+	 *
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            either square or diamond, the honeycomb network depends on
+	 *            it
+	 * @return the statistics, whose nodes are indexed in the order of the
+	 *         square representation
+	 */
+	public static DifferenceStatistics getDifferenceStatistics(int a, int b,
+			REPRESENTATION representation) {
+		Residues residues = new Residues(a, b, representation);
+		if (residues.getNorm() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The network of " + a + "+" + b
+					+ "i is too large for the differences");
+		}
+
+		int[] honeycombWeights = new int[(int) residues.getNorm()];
+		honeycombDistributions(residues, honeycombWeights);
+		int[] gaussianWeights = new int[honeycombWeights.length];
+		for (int y = 0; y < residues.getRows(); y++) {
+			int start = (int) residues.getRowStart(y);
+			int end = (int) residues.getRowStart(y + 1);
+			for (int i = start; i < end; i++) {
+				long shortest = residues.shortest(residues.getRowMin(y) + i
+						- start, y);
+				gaussianWeights[i] = Math.abs(Residues.unpackX(shortest))
+						+ Math.abs(Residues.unpackY(shortest));
+			}
+		}
+		return DifferenceStatistics.compute(gaussianWeights, honeycombWeights);
+	}
+
+	private static long[] honeycombDistributions(int a, int b,
+			REPRESENTATION representation) {
+		return honeycombDistributions(new Residues(a, b, representation), null);
+	}
+
+	/**
+	 * BFS from the origin of the honeycomb network. The visited bits are
+	 * indexed by the nodes of the square representation and the frontier
+	 * holds the coordinates of the nodes in the given representation, whose
+	 * parity tells which link is pruned.
+	 *
+	 * @param weights
+	 *            if not null, filled with the distance of every node, in the
+	 *            order of the square representation
+	 */
+	private static long[] honeycombDistributions(Residues residues,
+			int[] weights) {
+		long[] visited = new long[(int) ((residues.getNorm() + 63) >>> 6)];
+		long[] frontier = new long[16];
+		long[] next = new long[16];
+		int frontierSize = 1;
+
+		List<Long> distributions = new ArrayList<Long>();
+		frontier[0] = Residues.pack(0, 0);
+		long origin = residues.indexOf(0, 0);
+		visited[(int) (origin >>> 6)] |= 1L << origin;
+		distributions.add(1L);
+
+		while (true) {
+			int nextSize = 0;
+			for (int i = 0; i < frontierSize; i++) {
+				int x = Residues.unpackX(frontier[i]);
+				int y = Residues.unpackY(frontier[i]);
+				boolean isOdd = ((Math.abs(x) + Math.abs(y)) % 2 == 1);
+
+				for (int j = 0; j < 4; j++) {
+					// for (x,y) if |x|+|y| is odd then there is no +1 node
+					// and if it is even there is no -1 node
+					if ((j == 0 && isOdd) || (j == 1 && !isOdd)) {
+						continue;
+					}
+					long nx = x + Residues.DX[j];
+					long ny = y + Residues.DY[j];
+					long index = residues.indexOf(nx, ny);
+					int w = (int) (index >>> 6);
+					if ((visited[w] & (1L << index)) == 0) {
+						visited[w] |= 1L << index;
+						if (nextSize == next.length) {
+							next = Arrays.copyOf(next, 2 * nextSize);
+						}
+						next[nextSize++] = residues.representative(nx, ny);
+						if (weights != null) {
+							weights[(int) index] = distributions.size();
+						}
+					}
+				}
+			}
+			if (nextSize == 0) {
+				break;
+			}
+			distributions.add((long) nextSize);
+
+			long[] swap = frontier;
+			frontier = next;
+			next = swap;
+			frontierSize = nextSize;
+		}
+
+		long[] result = new long[distributions.size()];
+		for (int s = 0; s < result.length; s++) {
+			result[s] = distributions.get(s);
+		}
+		return result;
+	}
+
+	/**
+	 * Compute a*a + b*b without overflow
+	 *
+	 * @return the norm of a+bi, the number of nodes of its network
+	 * @throws IllegalArgumentException
+	 *             if the norm does not fit in a long
+	 */
+	public static long getNorm(int a, int b) {
+		try {
+			return Math.addExact(Math.multiplyExact((long) a, a),
+					Math.multiplyExact((long) b, b));
+		} catch (ArithmeticException ex) {
+			throw new IllegalArgumentException("The norm of " + a + "+" + b
+					+ "i is too large");
+		}
+	}
+
+	/**
+	 * @return |a| and |b| with a <= b, since the networks of a+bi and b+ai
+	 *         are isomorphic
+	 */
+	private static long[] normalize(int a, int b) {
+		long absA = Math.abs((long) a);
+		long absB = Math.abs((long) b);
+		if (absA + absB == 0) {
+			throw new IllegalArgumentException(
+					"a and b must be positive integer");
+		}
+		return (absA <= absB) ? new long[] { absA, absB } : new long[] { absB,
+				absA };
+	}
+
+	/**
+	 * @return from + (from+1) + ... + to
+	 */
+	private static long sum(long from, long to) {
+		if (to < from) {
+			return 0;
+		}
+		return (to * (to + 1) - (from - 1) * from) / 2;
+	}
+
+	/**
+	 * @return from^2 + (from+1)^2 + ... + to^2
+	 */
+	private static long squares(long from, long to) {
+		if (to < from) {
+			return 0;
+		}
+		return squares(to) - squares(from - 1);
+	}
+
+	private static long squares(long n) {
+		return n * (n + 1) * (2 * n + 1) / 6;
+	}
+
+}
@@ -0,0 +1,784 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * General Gaussian network generated by alpha = a + bi (a <= b)
+ * @author Arash Shamaei
+ * 
+ */
+public abstract class GaussianNetwork {
+
+	// Gaussian network parameters
+	protected int a;
+	protected int b;
+	protected int t;
+	protected int d;
+	protected int norm; // number of nodes
+	protected boolean isNormEven;
+	protected REPRESENTATION representation;
+	protected GENERATION generation = GENERATION.SEQUENTIAL;
+
+	protected int lastX;
+	protected int lastY;
+
+	protected int[] weightDistribution;
+
+	protected List<Node> nodes;
+
+	protected int[][] adjacencyMatrix;
+
+	// number of columns of the adjacency matrix, 4 but for the baselines
+	protected int degree = 4;
+
+	protected Node[] alpha = new Node[8];
+
+	protected int centerIndex;
+
+	protected List<Integer> distanceDistributions;
+
+	// the adjacency matrix in one array and the links into each node, built
+	// on first use by the BFS algorithms and dropped whenever the adjacency
+	// matrix is built or pruned
+	protected volatile int[] flatAdjacency;
+	protected volatile int[] reverseAdjacency;
+
+	// index of the node at each point of the bounding box of the nodes, so
+	// nodes are found by their coordinates without searching the list
+	private int[] grid;
+	private int gridMinX;
+	private int gridMinY;
+	private int gridWidth;
+	private int gridHeight;
+
+	/**
+	 * empty constructor
+	 */
+	public GaussianNetwork() {
+
+	}
+
+	/**
+	 * Set the parameters of the network, which the constructor of the
+	 * subclass then builds. Drawing is left to the graphical module which
+	 * reads the nodes of the constructed network.
+	 * 
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            the guassian network representation which is either square or
+	 *            diamond
+	 */
+	public GaussianNetwork(int a, int b, REPRESENTATION representation) {
+		this(a, b, representation, GENERATION.SEQUENTIAL);
+	}
+
+	/**
+	 * Set the parameters of the network, which the constructor of the
+	 * subclass then builds, generating the nodes in the given mode. The
+	 * network is not built here since makeNetwork would run before the
+	 * fields of the subclass are set.
+	 * 
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            the guassian network representation which is either square or
+	 *            diamond
+	 * @param generation
+	 *            generate the nodes sequentially or in parallel
+	 */
+	public GaussianNetwork(int a, int b, REPRESENTATION representation,
+			GENERATION generation) {
+		this.a = a;
+		this.b = b;
+		this.representation = representation;
+		this.generation = generation;
+		initialize();
+	}
+
+	// methods called from constructor should generally be declared final
+	/**
+	 * Initialize the network including set the networks parameters
+	 */
+	final void initialize() {
+		// a <= b
+		if (a > b && representation.equals(REPRESENTATION.DIAMOND)) {
+			throw new IllegalArgumentException(
+					"a should be less than or equal to b");
+		}
+
+		// Set the eight alpha
+		alpha[0] = new Node(a, b); // alpha
+		alpha[1] = new Node(-b, a); // i * alpha
+		alpha[2] = new Node(-a, -b); // i^2 * alpha
+		alpha[3] = new Node(b, -a); // i^3 * alpha
+		alpha[4] = new Node(a + b, -a + b); // alpha + i^3 * alpha = (1-i)alpha
+		alpha[5] = new Node(a - b, a + b); // i * alpha + alpha = (1+i)alpha
+		alpha[6] = new Node(-a - b, a - b); // i^2 * alpha + i * alpha =
+											// (-1+i)alpha
+		alpha[7] = new Node(-a + b, -a - b); // i^3 * alpha + i^2 * alpha =
+												// (-1-i)alpha
+
+		// Set the network's parameters
+		// the nodes are indexed by int, larger networks need OffHeapNetwork
+		long exactNorm = GaussianAnalytics.getNorm(a, b);
+		if (exactNorm > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The network of " + a + "+" + b
+					+ "i has " + exactNorm
+					+ " nodes, use OffHeapNetwork for more than "
+					+ Integer.MAX_VALUE + " nodes");
+		}
+		norm = (int) exactNorm;
+		isNormEven = (norm % 2 == 0) ? true : false;
+		if (isNormEven) {
+			t = (a + b) / 2;
+			d = b;
+		} else {
+			t = (a + b - 1) / 2;
+			d = b - 1;
+		}
+
+		adjacencyMatrix = new int[norm][degree];
+
+		weightDistribution = new int[d + 1];
+	}
+
+	/**
+	 * Build a network of the given representation. For the HONEYCOMB network
+	 * a new Gaussian network is built and pruned to degree 3, so the returned
+	 * network never shares nodes with another network.
+	 * 
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            either square or diamond
+	 * @param network
+	 *            either GAUSSIAN or HONEYCOMB
+	 * @return the constructed network
+	 */
+	public static GaussianNetwork create(int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		GaussianNetwork gaussianNetwork;
+		if (representation == REPRESENTATION.SQUARE) {
+			gaussianNetwork = new SquareGaussian(a, b);
+		} else {
+			gaussianNetwork = new DiamondGaussian(a, b);
+		}
+
+		return prune(gaussianNetwork, network);
+	}
+
+	/**
+	 * Build a network of the given topology on the same engine, for the
+	 * comparison of the Gaussian network with the baselines. The parameters
+	 * are a+bi for GAUSSIAN, the sides a x b for TORUS, the dimension a for
+	 * HYPERCUBE (b must be 0) and a+b*omega for EISENSTEIN_JACOBI.
+	 * 
+	 * @param representation
+	 *            either square or diamond, only for GAUSSIAN
+	 * @param network
+	 *            either GAUSSIAN or HONEYCOMB, which prunes the degree 4
+	 *            networks as the Gaussian network, except the torus with a
+	 *            single row, whose honeycomb network is disconnected
+	 * @return the constructed network
+	 */
+	public static GaussianNetwork create(TOPOLOGY topology, int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		switch (topology) {
+		case GAUSSIAN:
+			return create(a, b, representation, network);
+		case TORUS:
+			// with a single row the links +-i are loops, and the honeycomb keeps
+			// one of the links +-1 of a node, so the nodes only pair up
+			if (network == NETWORK.HONEYCOMB && b == 1 && a > 2) {
+				throw new IllegalArgumentException("The honeycomb network of the "
+						+ a + "x1 torus is disconnected");
+			}
+			return prune(new TorusNetwork(a, b), network);
+		case HYPERCUBE:
+			if (b != 0) {
+				throw new IllegalArgumentException(
+						"The hypercube has the single parameter a");
+			}
+			return prune(new HypercubeNetwork(a), network);
+		case EISENSTEIN_JACOBI:
+			return prune(new EisensteinJacobiNetwork(a, b), network);
+		default:
+			throw new IllegalArgumentException("Unknown topology " + topology);
+		}
+	}
+
+	private static GaussianNetwork prune(GaussianNetwork gaussianNetwork,
+			NETWORK network) {
+		switch (network) {
+		case GAUSSIAN:
+			return gaussianNetwork;
+		case HONEYCOMB:
+			gaussianNetwork = new HoneycombGaussian(gaussianNetwork);
+			gaussianNetwork.setNodeDegrees();
+			return gaussianNetwork;
+		default:
+			throw new IllegalArgumentException("Cannot build a " + network
+					+ " network");
+		}
+	}
+
+	/**
+	 * Print the parameters of the network on the console
+	 */
+	public void printParameters() {
+		System.out.println("Gaussian network with parameters: ");
+		System.out.printf("alpha=%d+%di  d=%d  t=%d  Norm=%d \n", getA(),
+				getB(), getD(), getT(), getNorm());
+	}
+
+	/**
+	 * make the network by calling the appropriate methods, called by the
+	 * constructor of the final subclasses
+	 */
+	protected abstract void makeNetwork();
+
+	/**
+	 * generate the nodes of the network based on different representation
+	 */
+	protected abstract void generateNodes();
+
+	/**
+	 * Build the adjacency matrix representing the network. The number of rows
+	 * are the same as the number of nodes. There are four columns since Gaussian
+	 * network is degree 4 Later, we prune this matrix to represent degree 3
+	 * network
+	 */
+	public void buildAdjacencyMatrix() {
+		buildAdjacencyMatrix(null, 0);
+	}
+
+	/**
+	 * Build the adjacency matrix taking the links of the first nodes from
+	 * another network, whose first nodes are the same and have all their
+	 * neighbors among them, and finding the links of the other nodes
+	 * 
+	 * @param rows
+	 *            the adjacency matrix of the other network, null if copied
+	 *            is 0
+	 * @param copied
+	 *            number of first nodes whose links are copied
+	 */
+	protected void buildAdjacencyMatrix(int[][] rows, int copied) {
+		buildGrid();
+		flatAdjacency = null;
+		reverseAdjacency = null;
+
+		for (int i = 0; i < copied; i++) {
+			for (int j = 0; j < degree; j++) {
+				if (rows[i][j] < 0) {
+					throw new IllegalArgumentException(
+							"Cannot copy the links of a pruned network");
+				}
+				adjacencyMatrix[i][j] = rows[i][j];
+				nodes.get(i).setNeighbor(j, nodes.get(adjacencyMatrix[i][j]));
+			}
+		}
+		for (int i = copied; i < nodes.size(); i++) {
+			for (int j = 0; j < degree; j++) {
+				adjacencyMatrix[i][j] = findNeighborIndex(nodes.get(i), j);
+				nodes.get(i).setNeighbor(j, nodes.get(adjacencyMatrix[i][j]));
+			}
+		}
+	}
+
+	/**
+	 * Find the neighbor index of the given node
+	 * 
+	 * @param node
+	 *            : the given node
+	 * @param neighborNumber
+	 *            : the number of required neighbor Each node has four neighbors
+	 *            that their addresses differ by node in +-1, +-i which is in
+	 *            the order of its neighbors.
+	 * @return the index of the neighbor of the node
+	 */
+	protected int findNeighborIndex(Node node, int neighborNumber) {
+		int x = 0, y = 0, neighborIndex;
+
+		switch (neighborNumber) {
+		case 0:
+			x = node.x + 1;
+			y = node.y;
+			break;
+		case 1:
+			x = node.x - 1;
+			y = node.y;
+			break;
+		case 2:
+			x = node.x;
+			y = node.y + 1;
+			break;
+		case 3:
+			x = node.x;
+			y = node.y - 1;
+			break;
+		default:
+			throw new IndexOutOfBoundsException("The neighbor number "
+					+ neighborNumber + " is out of range");
+		}
+
+		Node neighbor = new Node(x, y);
+		neighborIndex = indexOf(x, y);
+		// if neighbor exists return its index
+		// it means the current node is not a boundary node
+		if (neighborIndex >= 0)
+			return neighborIndex;
+
+		// The current node is a boundary node because one
+		// (or more) of its neighbors does not exist in the network
+		int neighborNorm = neighbor.norm();
+		node.setNodeType(NODE_TYPE.BOUNDARY);
+
+		// find the neighbor modulo alpha
+		// loop through all 8 alpha's
+		for (int i = 0; i < 8; i++) {
+			neighbor = new Node(x - alpha[i].x, y - alpha[i].y);
+
+			// this if statement has to be run only for DiamondGaussian
+			if (representation.equals(REPRESENTATION.DIAMOND)) {
+				if (neighbor.norm() > neighborNorm) {
+					// The neighbor corresponding neighbor should have the same
+					// norm
+					continue;
+				}
+			}
+			neighborIndex = indexOf(neighbor.x, neighbor.y);
+			if (neighborIndex >= 0)
+				return neighborIndex;
+		}
+
+		throw new IllegalStateException("The neighbor " + x + ":" + y
+				+ " of the node " + node + " is not congruent to a node");
+	}
+
+	/**
+	 * Consider the adjacency matrix as a graph whose center is specified by
+	 * centerIndex. Running a modified version of BFS algorithm on this graph and
+	 * updating the distance of nodes at each level of graph gives the updated
+	 * distance for all nodes.
+	 */
+	public void setDistanceDistributions(NETWORK network) {
+		// queue for performing BFS algorithm
+		Queue<Integer> queue = new LinkedList<Integer>();
+
+		distanceDistributions = new ArrayList<Integer>();
+
+		// add the center to the queue
+		queue.add(centerIndex);
+		nodes.get(centerIndex).setVisited(true);
+		distanceDistributions.add(1);
+
+		int curLevel = 1; // number of nodes in the current level of graph
+		int nextLevel = 0; // number of nodes in the next level of graph
+		int weight = 1; // weight which equals the distance from the origin
+
+		// loop the queue until it is not empty and visited all the nodes
+		while (!queue.isEmpty()) {
+			// if all the nodes in the current level are processed, continue to
+			// next level
+			if (curLevel == 0) {
+				curLevel = nextLevel;
+				nextLevel = 0;
+				weight++;
+				distanceDistributions.add(curLevel);
+			}
+
+			// get the element from the head of queue
+			int cur = queue.remove();
+			curLevel--;
+
+			// loop through the neighbors of current node
+			for (int i = 0; i < adjacencyMatrix[cur].length; i++) {
+				// get the neighbor index
+				int neighbor = adjacencyMatrix[cur][i]; 
+
+				// if the neighbor is not the pruned one
+				if (neighbor >= 0) {
+					// if the neighbor is not visited yet
+					if (!nodes.get(neighbor).isVisited()) {
+						queue.add(neighbor); // add neighbor to queue
+						
+						// set it as visited
+						nodes.get(neighbor).setVisited(true); 
+						
+						// update its weights
+						nodes.get(neighbor).setWeight(weight, network); 
+						
+						nextLevel++; // add number of nodes for next level
+					}
+				}
+			}
+			
+		}
+
+		// make nodes unvisited after running this BFS algorithm
+		// so that other call to this function doesn't have any problem
+		for (Node node : nodes) {
+			node.setVisited(false);
+		}
+
+	}
+
+	/**
+	 * Find the distance of all the nodes from the given source by running BFS
+	 * on the adjacency matrix. Unlike setDistanceDistributions it does not
+	 * modify the nodes, so it can be called concurrently on a shared network.
+	 * 
+	 * @param source
+	 *            index of the source node
+	 * @param parents
+	 *            if not null, it is filled with the index of the node each
+	 *            node was reached from (-1 for the source)
+	 * @return the distance of every node from the source
+	 */
+	public int[] getDistancesFrom(int source, int[] parents) {
+		int[][] adjacency = getAdjacencyMatrix();
+		int[] distances = new int[adjacency.length];
+		Arrays.fill(distances, -1);
+
+		// the distances array doubles as the visited flags, and the queue
+		// is a plain array since every node is added at most once
+		int[] queue = new int[adjacency.length];
+		int head = 0, tail = 0;
+		queue[tail++] = source;
+		distances[source] = 0;
+		if (parents != null) {
+			parents[source] = -1;
+		}
+
+		while (head < tail) {
+			int cur = queue[head++];
+			for (int i = 0; i < adjacency[cur].length; i++) {
+				int neighbor = adjacency[cur][i];
+				// if the neighbor is not the pruned one and not visited yet
+				if (neighbor >= 0 && distances[neighbor] < 0) {
+					distances[neighbor] = distances[cur] + 1;
+					if (parents != null) {
+						parents[neighbor] = cur;
+					}
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+
+		return distances;
+	}
+
+	/**
+	 * Find a shortest route between two nodes
+	 * 
+	 * @param source
+	 *            index of the source node
+	 * @param destination
+	 *            index of the destination node
+	 * @return indices of the nodes on the route, from source to destination
+	 */
+	public int[] getRoute(int source, int destination) {
+		int[] parents = new int[getAdjacencyMatrix().length];
+		int[] distances = getDistancesFrom(source, parents);
+		if (distances[destination] < 0) {
+			throw new IllegalArgumentException("There is no route from "
+					+ getNodes().get(source) + " to "
+					+ getNodes().get(destination));
+		}
+
+		int[] route = new int[distances[destination] + 1];
+		for (int i = route.length - 1, cur = destination; i >= 0; i--) {
+			route[i] = cur;
+			cur = parents[cur];
+		}
+		return route;
+	}
+
+	/**
+	 * Find the index of the node with the given coordinates
+	 * 
+	 * @return index of the node or -1 if it is not a node of the network
+	 */
+	public int indexOf(int x, int y) {
+		if (grid == null) {
+			return getNodes().indexOf(new Node(x, y));
+		}
+
+		x -= gridMinX;
+		y -= gridMinY;
+		if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) {
+			return -1;
+		}
+		return grid[y * gridWidth + x];
+	}
+
+	/**
+	 * Index the nodes by their coordinates in the bounding box of the
+	 * network. Without the grid (if the box is too large for an array) the
+	 * nodes are searched in the list.
+	 */
+	private void buildGrid() {
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (Node node : nodes) {
+			minX = Math.min(minX, node.x);
+			minY = Math.min(minY, node.y);
+			maxX = Math.max(maxX, node.x);
+			maxY = Math.max(maxY, node.y);
+		}
+
+		long size = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+		if (nodes.isEmpty() || size > Integer.MAX_VALUE - 8) {
+			grid = null;
+			return;
+		}
+
+		gridMinX = minX;
+		gridMinY = minY;
+		gridWidth = maxX - minX + 1;
+		gridHeight = maxY - minY + 1;
+		grid = new int[(int) size];
+		Arrays.fill(grid, -1);
+
+		// the first node with the given coordinates, as List.indexOf
+		for (int i = nodes.size() - 1; i >= 0; i--) {
+			Node node = nodes.get(i);
+			grid[(node.y - gridMinY) * gridWidth + node.x - gridMinX] = i;
+		}
+	}
+
+	/**
+	 * Run the given BFS algorithm from the center and update the distance of
+	 * the nodes, as setDistanceDistributions(network) does
+	 * 
+	 * @param network
+	 *            the weights to update, GAUSSIAN or HONEYCOMB
+	 * @param mode
+	 *            the BFS algorithm
+	 */
+	public void setDistanceDistributions(NETWORK network, BFS_MODE mode) {
+		int[] distances;
+		switch (mode) {
+		case TOP_DOWN:
+			setDistanceDistributions(network);
+			return;
+		case DIRECTION_OPTIMIZING:
+			distances = new int[nodes.size()];
+			distanceDistributions = BreadthFirstSearch.directionOptimizing(
+					getFlatAdjacency(), getDegree(), getReverseAdjacency(),
+					centerIndex, distances);
+			break;
+		case PARALLEL:
+			distances = new int[nodes.size()];
+			distanceDistributions = BreadthFirstSearch.parallel(
+					getFlatAdjacency(), getDegree(), centerIndex, distances,
+					ForkJoinPool.commonPool());
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown BFS mode " + mode);
+		}
+
+		// the weight of the center is not updated, as in the top-down BFS
+		for (int i = 0; i < distances.length; i++) {
+			if (distances[i] > 0) {
+				nodes.get(i).setWeight(distances[i], network);
+			}
+		}
+	}
+
+	/**
+	 * The adjacency matrix in one array, where the neighbors of node i are at
+	 * 4*i to 4*i+3, or at degree*i to degree*i+degree-1 for the baselines of
+	 * another degree. It is shared by all the callers and must not be
+	 * modified.
+	 * 
+	 * @return the flat adjacency
+	 */
+	public int[] getFlatAdjacency() {
+		int[] flat = flatAdjacency;
+		if (flat == null) {
+			flat = new int[degree * adjacencyMatrix.length];
+			for (int i = 0; i < adjacencyMatrix.length; i++) {
+				System.arraycopy(adjacencyMatrix[i], 0, flat, degree * i,
+						degree);
+			}
+			flatAdjacency = flat;
+		}
+		return flat;
+	}
+
+	/**
+	 * @return the links into each node in the same layout as the flat
+	 *         adjacency, shared by all the callers
+	 */
+	public int[] getReverseAdjacency() {
+		int[] reverse = reverseAdjacency;
+		if (reverse == null) {
+			reverse = BreadthFirstSearch.reverseAdjacency(getFlatAdjacency(),
+					getDegree());
+			reverseAdjacency = reverse;
+		}
+		return reverse;
+	}
+
+	public void printAdjacencyMatrix() {
+		for (int i = 0; i < nodes.size(); i++) {
+			System.out.printf("%8s:", nodes.get(i));
+			for (int j = 0; j < degree; j++) {
+				if (adjacencyMatrix[i][j] >= 0)
+					System.out.printf("%8s", nodes.get(adjacencyMatrix[i][j]));
+				else
+					System.out.printf("        ");
+			}
+			System.out.println();
+		}
+	}
+
+	public void printNodes(NETWORK network) {
+		Node curPoint;
+		int curIndex;
+
+		for (int j = (a + b); j >= -(a + b); j--) {
+			for (int i = -(a + b); i <= (a + b); i++) {
+				curPoint = new Node(i, j); // a temporary object for indexing
+											// the list
+				curIndex = nodes.indexOf(curPoint);
+				if (curIndex >= 0) {
+					System.out.printf("%3d",
+							nodes.get(curIndex).getWeight(network)); 
+					// System.out.print(nodes.get(curIndex));
+				} else {
+					System.out.printf("   "); // just print the space
+				}
+			}
+			System.out.println();
+		}
+
+	}
+
+	/**
+	 * Copy the network into an immutable snapshot which many threads can
+	 * query at the same time. Call it once the network is built.
+	 * 
+	 * @return the snapshot of the network
+	 */
+	public NetworkSnapshot snapshot() {
+		return new NetworkSnapshot(this);
+	}
+
+	/**
+	 * Copy the weights of the nodes into an array, in the order of the node
+	 * indices
+	 * 
+	 * @param network
+	 *            GAUSSIAN, HONEYCOMB or DIFFERENCE, as Node.getWeight
+	 * @return the weight of every node
+	 */
+	public int[] getWeights(NETWORK network) {
+		List<Node> nodes = getNodes();
+		int[] weights = new int[nodes.size()];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = nodes.get(i).getWeight(network);
+		}
+		return weights;
+	}
+
+	/**
+	 * @return GAUSSIAN, or HONEYCOMB for the pruned networks
+	 */
+	public NETWORK getNetwork() {
+		return NETWORK.GAUSSIAN;
+	}
+
+	/**
+	 * @return GAUSSIAN, or the baseline the network was built as
+	 */
+	public TOPOLOGY getTopology() {
+		return TOPOLOGY.GAUSSIAN;
+	}
+
+	/**
+	 * @return number of links of a node before pruning, the width of the
+	 *         adjacency matrix
+	 */
+	public int getDegree() {
+		return degree;
+	}
+
+	public int getA() {
+		return a;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return representation;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	public int getD() {
+		return d;
+	}
+
+	public int getNorm() {
+		return norm;
+	}
+
+	public void setNodeDegrees() {
+		// to be used by HoneyComb only
+	}
+
+	public List<Node> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return number of nodes at each distance from the center, computed by
+	 *         the last call to setDistanceDistributions
+	 */
+	public List<Integer> getDistanceDistributions() {
+		return distanceDistributions;
+	}
+
+	/**
+	 * The average distance from the center to all the nodes, based on the
+	 * distance distributions
+	 * 
+	 * @return the average distance
+	 */
+	public double getAverageDistance() {
+		List<Integer> distributions = getDistanceDistributions();
+		long sum = 0;
+		for (int s = 0; s < distributions.size(); s++) {
+			sum += (long) s * distributions.get(s);
+		}
+		return (double) sum / getNorm();
+	}
+
+	public int[][] getAdjacencyMatrix() {
+		return adjacencyMatrix;
+	}
+
+	public int getCenterIndex() {
+		return centerIndex;
+	}
+
+}
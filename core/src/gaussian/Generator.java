@@ -0,0 +1,73 @@
+package gaussian;
+
+/**
+ * The parameters a network is built from: a+bi, the representation and
+ * GAUSSIAN or HONEYCOMB. Generators are equal if they build the same
+ * network, so they can key the networks in a map. Isomorphism.canonical
+ * gives the one generator of the isomorphism class of a network.
+ */
+public final class Generator {
+
+	private final int a;
+	private final int b;
+	private final REPRESENTATION representation;
+	private final NETWORK network;
+
+	public Generator(int a, int b, REPRESENTATION representation,
+			NETWORK network) {
+		if (representation == null || network == null) {
+			throw new IllegalArgumentException(
+					"The representation and the network must be given");
+		}
+		this.a = a;
+		this.b = b;
+		this.representation = representation;
+		this.network = network;
+	}
+
+	public int getA() {
+		return a;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return representation;
+	}
+
+	public NETWORK getNetwork() {
+		return network;
+	}
+
+	/**
+	 * @return the network of the generator, built as GaussianNetwork.create
+	 */
+	public GaussianNetwork create() {
+		return GaussianNetwork.create(a, b, representation, network);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Generator)) {
+			return false;
+		}
+		Generator other = (Generator) o;
+		return a == other.a && b == other.b
+				&& representation == other.representation
+				&& network == other.network;
+	}
+
+	@Override
+	public int hashCode() {
+		return ((31 * a + b) * 31 + representation.hashCode()) * 31
+				+ network.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return a + "," + b + "," + representation + "," + network;
+	}
+
+}
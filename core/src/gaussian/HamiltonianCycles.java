@@ -0,0 +1,328 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * Hamiltonian cycles of the networks, as node orderings for ring based
+ * collective communications.
+ *
+ * When a and b are coprime, x+yi -> a*x + b*y mod norm maps the Gaussian
+ * network onto the circulant graph of the integers modulo the norm with the
+ * jumps a and b, and both a and b are coprime with the norm. So going +1
+ * from any node visits all the nodes before coming back, and so does going
+ * +i. The two cycles use the real and the imaginary links, so they are
+ * edge-disjoint and cover every link. The honeycomb network keeps all the
+ * imaginary links, so the +i cycle is also a Hamiltonian cycle of it.
+ *
+ * Every connected 4-regular Cayley graph of an abelian group is known to
+ * decompose into two Hamiltonian cycles, so the Gaussian networks of other
+ * a and b have them too, but they are not built here.
+ *
+ * For the other honeycomb networks, every node has a single real link, so
+ * a walk is given by the lengths of its runs along the imaginary links.
+ * The walks repeating one real link and m imaginary links in the same
+ * direction are tried first, they give a Hamiltonian cycle for every even
+ * norm up to 30+30i. Otherwise a cycle is searched by backtracking, which
+ * gives up on some of the odd norms, such as 6+9i.
+ */
+public final class HamiltonianCycles {
+
+	// number of nodes the backtracking may add to the path before giving up
+	private static final long SEARCH_LIMIT = 10000000L;
+
+	private HamiltonianCycles() {
+	}
+
+	/**
+	 * @return whether edgeDisjointCycles builds the two cycles of the
+	 *         Gaussian network generated by a+bi, which needs a and b
+	 *         coprime and at least 5 nodes
+	 */
+	public static boolean hasEdgeDisjointCycles(int a, int b) {
+		return gcd(Math.abs(a), Math.abs(b)) == 1
+				&& GaussianAnalytics.getNorm(a, b) >= 5;
+	}
+
+	/**
+	 * Build two edge-disjoint Hamiltonian cycles of a Gaussian network
+	 *
+	 * @param network
+	 *            a built Gaussian network with a and b coprime
+	 * @return the cycle along the +1 links and the cycle along the +i links,
+	 *         both starting at node 0
+	 * @throws IllegalArgumentException
+	 *             if the network does not admit the cycles
+	 */
+	public static int[][] edgeDisjointCycles(GaussianNetwork network) {
+		if (network.getNetwork() != NETWORK.GAUSSIAN
+				|| network.getTopology() != TOPOLOGY.GAUSSIAN
+				|| !hasEdgeDisjointCycles(network.getA(), network.getB())) {
+			throw new IllegalArgumentException("The " + network.getNetwork()
+					+ " network of " + network.getA() + "+" + network.getB()
+					+ "i has no axis cycles");
+		}
+		int[] adjacency = network.getFlatAdjacency();
+		return new int[][] { axisCycle(adjacency, 0), axisCycle(adjacency, 2) };
+	}
+
+	/**
+	 * Find a Hamiltonian cycle of a honeycomb network
+	 *
+	 * @param network
+	 *            a built honeycomb network
+	 * @return the nodes of the cycle starting at node 0, null if the search
+	 *         found none, which only proves there is none if it was not cut
+	 *         by its limit
+	 */
+	public static int[] honeycombCycle(GaussianNetwork network) {
+		NetworkRequirements.requireGaussian(network, "The honeycomb cycle");
+		int[] adjacency = network.getFlatAdjacency();
+		if (hasEdgeDisjointCycles(network.getA(), network.getB())) {
+			return axisCycle(adjacency, 2);
+		}
+
+		int maxRun = 2 * Math.max(network.getA(), network.getB()) + 1;
+		for (int m = 1; m <= maxRun; m++) {
+			for (int direction = 2; direction <= 3; direction++) {
+				int[] cycle = runCycle(adjacency, m, direction);
+				if (cycle != null) {
+					return cycle;
+				}
+			}
+		}
+		return search(adjacency, SEARCH_LIMIT);
+	}
+
+	/**
+	 * Check that every cycle visits all the nodes once, that its
+	 * consecutive nodes are linked in the adjacency matrix, from the last
+	 * node back to the first too, and that no two cycles share a link
+	 *
+	 * @param network
+	 *            the network of the cycles
+	 * @param cycles
+	 *            the node orderings of the cycles
+	 * @return whether the cycles are edge-disjoint Hamiltonian cycles
+	 */
+	public static boolean verify(GaussianNetwork network, int[]... cycles) {
+		NetworkRequirements.requireDegreeFour(network, "The cycle check");
+		int[][] adjacencyMatrix = network.getAdjacencyMatrix();
+		int n = adjacencyMatrix.length;
+		// the links used by the cycles, in both directions
+		boolean[] used = new boolean[4 * n];
+		for (int[] cycle : cycles) {
+			if (cycle.length != n) {
+				return false;
+			}
+			boolean[] isVisited = new boolean[n];
+			for (int k = 0; k < n; k++) {
+				int u = cycle[k];
+				int v = cycle[(k + 1) % n];
+				if (u < 0 || u >= n || isVisited[u]) {
+					return false;
+				}
+				isVisited[u] = true;
+
+				int j = 0;
+				while (j < 4 && (adjacencyMatrix[u][j] != v || used[4 * u + j])) {
+					j++;
+				}
+				if (j == 4) {
+					return false;
+				}
+				used[4 * u + j] = true;
+				// the opposite direction of +1, -1, +i and -i
+				if (adjacencyMatrix[v][j ^ 1] == u) {
+					used[4 * v + (j ^ 1)] = true;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the nodes met going from node 0 in the given direction until
+	 *         node 0 comes back, which must be all the nodes
+	 */
+	private static int[] axisCycle(int[] adjacency, int direction) {
+		int n = adjacency.length / 4;
+		int[] cycle = new int[n];
+		int cur = 0;
+		for (int k = 0; k < n; k++) {
+			if (k > 0 && cur == 0) {
+				throw new IllegalStateException("The cycle closes after " + k
+						+ " of " + n + " nodes");
+			}
+			cycle[k] = cur;
+			cur = adjacency[4 * cur + direction];
+		}
+		return cycle;
+	}
+
+	/**
+	 * Walk from node 0 taking the real link of the node and then m links in
+	 * the imaginary direction, again and again
+	 *
+	 * @return the nodes of the walk if it is a Hamiltonian cycle, otherwise
+	 *         null
+	 */
+	private static int[] runCycle(int[] adjacency, int m, int direction) {
+		int n = adjacency.length / 4;
+		int[] cycle = new int[n];
+		boolean[] isVisited = new boolean[n];
+		int cur = 0;
+		for (int k = 0; k < n; k++) {
+			if (cur < 0 || isVisited[cur]) {
+				return null;
+			}
+			isVisited[cur] = true;
+			cycle[k] = cur;
+			if (k % (m + 1) == 0) {
+				// the honeycomb keeps one of the +1 and -1 links
+				cur = (adjacency[4 * cur] >= 0) ? adjacency[4 * cur]
+						: adjacency[4 * cur + 1];
+			} else {
+				cur = adjacency[4 * cur + direction];
+			}
+		}
+		return (cur == 0) ? cycle : null;
+	}
+
+	/**
+	 * Backtracking from node 0 without recursion. The next node is the
+	 * unvisited neighbor with the fewest unvisited neighbors, and a branch is
+	 * dropped when a neighbor of the path end is left with a single way in
+	 * or out.
+	 *
+	 * @param limit
+	 *            number of nodes the search may add to the path
+	 * @return the cycle, or null if there is none or the limit was reached
+	 */
+	private static int[] search(int[] adjacency, long limit) {
+		int n = adjacency.length / 4;
+		int[] reverse = BreadthFirstSearch.reverseAdjacency(adjacency);
+		boolean[] isVisited = new boolean[n];
+		int[] path = new int[n];
+		// the candidates of each position of the path, best first, and the
+		// next one to try
+		int[][] candidates = new int[n][];
+		int[] tried = new int[n];
+
+		path[0] = 0;
+		isVisited[0] = true;
+		candidates[0] = order(adjacency, isVisited, 0);
+		int length = 1;
+		long steps = 0;
+
+		while (length > 0) {
+			int end = path[length - 1];
+			if (length == n) {
+				if (isLinked(adjacency, end, 0)) {
+					return path;
+				}
+			} else if (tried[length - 1] < candidates[length - 1].length) {
+				int next = candidates[length - 1][tried[length - 1]++];
+				if (++steps > limit) {
+					return null;
+				}
+				isVisited[next] = true;
+				if (isFeasible(adjacency, reverse, isVisited, next, n)) {
+					path[length] = next;
+					candidates[length] = order(adjacency, isVisited, next);
+					tried[length] = 0;
+					length++;
+					continue;
+				}
+				isVisited[next] = false;
+				continue;
+			}
+
+			// backtrack
+			isVisited[end] = false;
+			length--;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the unvisited neighbors of the node, the ones with the fewest
+	 *         unvisited neighbors first
+	 */
+	private static int[] order(int[] adjacency, boolean[] isVisited, int node) {
+		int[] neighbors = new int[4];
+		int[] degrees = new int[4];
+		int count = 0;
+		for (int j = 4 * node; j < 4 * node + 4; j++) {
+			int v = adjacency[j];
+			if (v < 0 || isVisited[v]) {
+				continue;
+			}
+			boolean isDuplicate = false;
+			for (int k = 0; k < count; k++) {
+				isDuplicate |= (neighbors[k] == v);
+			}
+			if (isDuplicate) {
+				continue;
+			}
+			int degree = 0;
+			for (int i = 4 * v; i < 4 * v + 4; i++) {
+				if (adjacency[i] >= 0 && !isVisited[adjacency[i]]) {
+					degree++;
+				}
+			}
+			// insertion by degree
+			int k = count++;
+			while (k > 0 && degrees[k - 1] > degree) {
+				neighbors[k] = neighbors[k - 1];
+				degrees[k] = degrees[k - 1];
+				k--;
+			}
+			neighbors[k] = v;
+			degrees[k] = degree;
+		}
+		return Arrays.copyOf(neighbors, count);
+	}
+
+	/**
+	 * After adding the node to the path, every unvisited neighbor of it
+	 * still needs a way in from an unvisited node or the node, and a way out
+	 * to an unvisited node or node 0
+	 */
+	private static boolean isFeasible(int[] adjacency, int[] reverse,
+			boolean[] isVisited, int node, int n) {
+		for (int j = 4 * node; j < 4 * node + 4; j++) {
+			int v = adjacency[j];
+			if (v < 0 || isVisited[v]) {
+				continue;
+			}
+			boolean hasOut = false;
+			for (int i = 4 * v; i < 4 * v + 4 && !hasOut; i++) {
+				int w = adjacency[i];
+				hasOut = (w >= 0 && (!isVisited[w] || w == 0));
+			}
+			boolean hasIn = false;
+			for (int i = 4 * v; i < 4 * v + 4 && !hasIn; i++) {
+				int w = reverse[i];
+				hasIn = (w >= 0 && (!isVisited[w] || w == node));
+			}
+			if (!hasOut || !hasIn) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLinked(int[] adjacency, int u, int v) {
+		for (int j = 4 * u; j < 4 * u + 4; j++) {
+			if (adjacency[j] == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int gcd(int a, int b) {
+		return (b == 0) ? a : gcd(b, a % b);
+	}
+
+}
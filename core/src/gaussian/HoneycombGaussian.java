@@ -0,0 +1,181 @@
+package gaussian;
+
+import java.util.Scanner;
+import java.util.List;
+
+/**
+ * This is the degree-3 Gaussian network
+ * 
+ * @author Arash Shamaei
+ */
+public final class HoneycombGaussian extends GaussianNetwork {
+
+	GaussianNetwork gaussianNetwork;
+
+	public HoneycombGaussian(GaussianNetwork gaussianNetwork) {
+		super();
+		// the links +-1 are pruned, which only the degree 4 networks have
+		if (gaussianNetwork.getDegree() != 4) {
+			throw new IllegalArgumentException("Cannot prune the "
+					+ gaussianNetwork.getTopology() + " network of degree "
+					+ gaussianNetwork.getDegree() + " to a honeycomb network");
+		}
+		this.gaussianNetwork = gaussianNetwork;
+
+		buildAdjacencyMatrix();
+
+		gaussianNetwork.setDistanceDistributions(NETWORK.HONEYCOMB);
+
+		// set the diameter of the network
+		gaussianNetwork.d = gaussianNetwork.distanceDistributions.size() - 1;
+	}
+
+	@Override
+	public void buildAdjacencyMatrix() {
+		// the gaussianNetwork has already an adjacency matrix
+
+		gaussianNetwork.flatAdjacency = null;
+		gaussianNetwork.reverseAdjacency = null;
+
+		// prone the adjacency matrix to get the new degree-3 one
+		for (int i = 0; i < gaussianNetwork.nodes.size(); i++) {
+			for (int j = 0; j < 4; j++) {
+
+				// for (x,y) if |x|+|y| is odd then there is no +1 node
+				if (j == 0) {
+					if ((gaussianNetwork.nodes.get(i).norm()) % 2 == 1) {
+						gaussianNetwork.adjacencyMatrix[i][j] = -1;
+					}
+				}
+				// for (x,y) if |x|+|y| is even then there is no -1 node
+				if (j == 1) {
+					if ((gaussianNetwork.nodes.get(i).norm()) % 2 == 0) {
+						gaussianNetwork.adjacencyMatrix[i][j] = -1;
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Set the node degree for Honeycomb network
+	 */
+	public void setNodeDegrees() {
+		for (Node node : gaussianNetwork.nodes) {
+			node.setNodeDegree(DEGREE.THREE);
+		}
+	}
+
+	public List<Node> getNodes() {
+		return gaussianNetwork.getNodes();
+
+	}
+
+	public void setDistanceDistributions(NETWORK network) {
+		gaussianNetwork.setDistanceDistributions(network);
+	}
+
+	public void setDistanceDistributions(NETWORK network, BFS_MODE mode) {
+		gaussianNetwork.setDistanceDistributions(network, mode);
+	}
+
+	public List<Integer> getDistanceDistributions() {
+		return gaussianNetwork.getDistanceDistributions();
+	}
+
+	public int[][] getAdjacencyMatrix() {
+		return gaussianNetwork.getAdjacencyMatrix();
+	}
+
+	public int getCenterIndex() {
+		return gaussianNetwork.getCenterIndex();
+	}
+
+	public int[] getFlatAdjacency() {
+		return gaussianNetwork.getFlatAdjacency();
+	}
+
+	public int[] getReverseAdjacency() {
+		return gaussianNetwork.getReverseAdjacency();
+	}
+
+	public int indexOf(int x, int y) {
+		return gaussianNetwork.indexOf(x, y);
+	}
+
+	public NETWORK getNetwork() {
+		return NETWORK.HONEYCOMB;
+	}
+
+	public TOPOLOGY getTopology() {
+		return gaussianNetwork.getTopology();
+	}
+
+	public int getDegree() {
+		return gaussianNetwork.getDegree();
+	}
+
+	/**
+	 * Compare the distances from the center in this network with the ones
+	 * in the Gaussian network it was pruned from, as the DIFFERENCE weights
+	 * 
+	 * @return the statistics of the differences of the node weights
+	 */
+	public DifferenceStatistics getDifferenceStatistics() {
+		return DifferenceStatistics.compute(getWeights(NETWORK.GAUSSIAN),
+				getWeights(NETWORK.HONEYCOMB));
+	}
+
+	public int getA() {
+		return gaussianNetwork.a;
+	}
+
+	public int getB() {
+		return gaussianNetwork.b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return gaussianNetwork.representation;
+	}
+
+	public int getT() {
+		return gaussianNetwork.t;
+	}
+
+	public int getD() {
+		return gaussianNetwork.d;
+	}
+
+	public int getNorm() {
+		return gaussianNetwork.norm;
+	}
+
+	public static void main(String[] args) {
+		Scanner scan = new Scanner(System.in);
+		System.out
+				.println("Please enter a and b for the Gaussian network generator: ");
+		GaussianNetwork squareGaussian = new SquareGaussian(scan.nextInt(),
+				scan.nextInt());
+		squareGaussian.printParameters();
+		GaussianNetwork hg = new HoneycombGaussian(squareGaussian);
+
+		((HoneycombGaussian) hg).gaussianNetwork.printNodes(NETWORK.GAUSSIAN);
+		((HoneycombGaussian) hg).gaussianNetwork.printAdjacencyMatrix();
+
+		((HoneycombGaussian) hg).gaussianNetwork.printNodes(NETWORK.HONEYCOMB);
+
+		((HoneycombGaussian) hg).gaussianNetwork.printNodes(NETWORK.DIFFERENCE);
+	}
+
+	@Override
+	protected void makeNetwork() {
+		// used by square or diamond gaussian network
+	}
+
+	@Override
+	protected void generateNodes() {
+		// used by square or diamond gaussian network
+	}
+
+}
@@ -0,0 +1,61 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The hypercube of the given dimension: node k is linked to the nodes whose
+ * index differs from k in one bit, neighbor j in bit j. Node k is drawn at
+ * x + yi where x holds the low half of the bits of k and y the high half.
+ */
+public final class HypercubeNetwork extends BaselineNetwork {
+
+	/**
+	 * @param dimension
+	 *            1 to 30, the degree of the nodes
+	 */
+	public HypercubeNetwork(int dimension) {
+		super(TOPOLOGY.HYPERCUBE, check(dimension), 0, 1L << dimension,
+				dimension);
+		makeNetwork();
+	}
+
+	private static int check(int dimension) {
+		if (dimension < 1 || dimension > 30) {
+			throw new IllegalArgumentException(
+					"The dimension of the hypercube must be 1 to 30");
+		}
+		return dimension;
+	}
+
+	/**
+	 * @return number of bits of the node index in the x coordinate
+	 */
+	private int lowBits() {
+		return (a + 1) / 2;
+	}
+
+	@Override
+	protected void generateNodes() {
+		List<Node> hypercube = new ArrayList<Node>(norm);
+		int mask = (1 << lowBits()) - 1;
+		for (int k = 0; k < norm; k++) {
+			hypercube.add(new Node(k & mask, k >>> lowBits(),
+					NODE_REGION.DIAMOND));
+		}
+		nodes = hypercube;
+		centerIndex = 0;
+	}
+
+	@Override
+	protected int findNeighborIndex(Node node, int neighborNumber) {
+		int k = node.x | (node.y << lowBits());
+		return k ^ (1 << neighborNumber);
+	}
+
+	@Override
+	public TOPOLOGY getTopology() {
+		return TOPOLOGY.HYPERCUBE;
+	}
+
+}
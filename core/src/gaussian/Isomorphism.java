@@ -0,0 +1,304 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Isomorphisms between the networks of different generators.
+ * 
+ * The Gaussian network of a+bi is the graph of the Gaussian integers modulo
+ * the ideal of a+bi with the links +-1 and +-i. The associates u(a+bi) of
+ * the units u = +-1, +-i generate the same ideal, and the conjugation maps
+ * the ideal of a+bi onto the ideal of a-bi and the links onto themselves, so
+ * the networks of +-a+-bi and +-b+-ai are isomorphic whatever their
+ * representation. When a+b is even, 1+i divides a+bi and the parity of x+y
+ * is the same for all the Gaussian integers congruent to x+yi, so the
+ * honeycomb network, which prunes the links by that parity, is also
+ * isomorphic for all these generators. When a+b is odd the pruning depends
+ * on the nodes chosen by the representation and the honeycomb networks are
+ * kept apart.
+ * 
+ * Built networks are compared by invariants, which tell non-isomorphic
+ * networks apart but do not prove an isomorphism.
+ */
+public final class Isomorphism {
+
+	/**
+	 * Number of spectral moments in the invariants
+	 */
+	public static final int MOMENTS = 8;
+
+	// number of tasks per thread of the pool counting the closed walks
+	private static final int TASKS_PER_THREAD = 4;
+
+	/**
+	 * The buffers of each thread counting closed walks, as large as the
+	 * largest network it counted, which its tasks share
+	 */
+	private static final ThreadLocal<Walks> WALKS = new ThreadLocal<Walks>();
+
+	private Isomorphism() {
+	}
+
+	/**
+	 * The generator of the isomorphism class of the network: |a| <= |b|
+	 * and the DIAMOND representation for the Gaussian networks and the
+	 * honeycomb networks of a+b even, the generator itself for the other
+	 * honeycomb networks
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if a and b are both 0
+	 */
+	public static Generator canonical(int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		if (a == 0 && b == 0) {
+			throw new IllegalArgumentException(
+					"a and b must be positive integer");
+		}
+		long absA = Math.abs((long) a);
+		long absB = Math.abs((long) b);
+		if (network == NETWORK.HONEYCOMB && (absA + absB) % 2 == 1) {
+			return new Generator(a, b, representation, network);
+		}
+		if (Math.max(absA, absB) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The generator " + a + "+" + b
+					+ "i is too large");
+		}
+		return new Generator((int) Math.min(absA, absB), (int) Math.max(absA,
+				absB), REPRESENTATION.DIAMOND, network);
+	}
+
+	/**
+	 * Compute the invariants of a built network. The distances and the
+	 * closed walks of the Gaussian networks and the baselines, which are
+	 * vertex-transitive, are counted from the center only, the ones of the
+	 * honeycomb networks from every node in parallel.
+	 * 
+	 * @return the invariants of the network
+	 */
+	public static NetworkInvariants invariants(GaussianNetwork network) {
+		int[] adjacency = network.getFlatAdjacency();
+		int degree = network.getDegree();
+		int n = network.getNorm();
+
+		long links = 0;
+		long[] degrees = new long[degree + 1];
+		for (int u = 0; u < n; u++) {
+			int out = 0;
+			for (int j = degree * u; j < degree * u + degree; j++) {
+				out += (adjacency[j] >= 0) ? 1 : 0;
+			}
+			degrees[out]++;
+			links += out;
+		}
+
+		long[] distances;
+		long[] moments;
+		boolean isSymmetric = isSymmetric(adjacency, degree);
+		if (network.getNetwork() == NETWORK.GAUSSIAN) {
+			List<Integer> distributions = network.getDistanceDistributions();
+			distances = new long[distributions.size()];
+			for (int s = 0; s < distances.length; s++) {
+				distances[s] = (long) n * distributions.get(s);
+			}
+			moments = new long[MOMENTS];
+			Walks.of(n).count(adjacency, degree, isSymmetric,
+					network.getCenterIndex(), moments);
+			for (int k = 0; k < MOMENTS; k++) {
+				moments[k] *= n;
+			}
+		} else {
+			distances = DistanceStatistics.compute(network).getDistribution();
+			int tasks = Math.max(1, ForkJoinPool.getCommonPoolParallelism()
+					* TASKS_PER_THREAD);
+			moments = ForkJoinPool.commonPool().invoke(
+					new MomentTask(adjacency, degree, isSymmetric, 0, n, Math
+							.max(1, (n + tasks - 1) / tasks)));
+		}
+		return new NetworkInvariants(n, links, degrees, distances, moments);
+	}
+
+	/**
+	 * @return false if the invariants of the networks differ, so they are
+	 *         not isomorphic
+	 */
+	public static boolean mayBeIsomorphic(GaussianNetwork first,
+			GaussianNetwork second) {
+		if (first.getNorm() != second.getNorm()) {
+			return false;
+		}
+		return invariants(first).equals(invariants(second));
+	}
+
+	/**
+	 * @return whether every link has a link back
+	 */
+	private static boolean isSymmetric(int[] adjacency, int degree) {
+		int n = adjacency.length / degree;
+		for (int u = 0; u < n; u++) {
+			for (int j = degree * u; j < degree * u + degree; j++) {
+				int v = adjacency[j];
+				if (v < 0) {
+					continue;
+				}
+				boolean isBack = false;
+				for (int k = degree * v; k < degree * v + degree && !isBack; k++) {
+					isBack = adjacency[k] == u;
+				}
+				if (!isBack) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the closed walks from a node with the numbers of walks from the
+	 * node to the nodes it reaches, step by step. The reached nodes get
+	 * consecutive slots, so a node costs the size of the ball the walks
+	 * reach and not the size of the network. The slots are cleared after
+	 * each count, so the buffers of a thread serve every smaller network.
+	 */
+	private static class Walks {
+
+		// slot of each node, -1 if not reached
+		private final int[] slots;
+		// node, distance from the start and walks of each slot
+		private final int[] nodes;
+		private final int[] distances;
+		private long[] current;
+		private long[] next;
+
+		/**
+		 * @return the buffers of the current thread, grown to n nodes if
+		 *         they are smaller
+		 */
+		static Walks of(int n) {
+			Walks walks = WALKS.get();
+			if (walks == null || walks.slots.length < n) {
+				walks = new Walks(n);
+				WALKS.set(walks);
+			}
+			return walks;
+		}
+
+		private Walks(int n) {
+			slots = new int[n];
+			Arrays.fill(slots, -1);
+			nodes = new int[n];
+			distances = new int[n];
+			current = new long[n];
+			next = new long[n];
+		}
+
+		/**
+		 * Add the closed walks of length 1 to MOMENTS from the node. If
+		 * every link has a link back, a walk can only return from the nodes
+		 * within the steps it has left, so the ball has the radius MOMENTS/2.
+		 */
+		void count(int[] adjacency, int degree, boolean isSymmetric, int u,
+				long[] moments) {
+			int size = 1;
+			slots[u] = 0;
+			nodes[0] = u;
+			distances[0] = 0;
+			current[0] = 1;
+
+			for (int k = 1; k <= MOMENTS; k++) {
+				int reached = size;
+				Arrays.fill(next, 0, size, 0);
+				for (int i = 0; i < reached; i++) {
+					long walks = current[i];
+					if (walks == 0) {
+						continue;
+					}
+					int cur = nodes[i];
+					for (int j = degree * cur; j < degree * cur + degree; j++) {
+						int v = adjacency[j];
+						if (v < 0) {
+							continue;
+						}
+						int slot = slots[v];
+						if (slot < 0) {
+							// first reached after k steps, at distance k
+							if (isSymmetric && 2 * k > MOMENTS) {
+								continue;
+							}
+							slot = size++;
+							slots[v] = slot;
+							nodes[slot] = v;
+							distances[slot] = k;
+							next[slot] = 0;
+						} else if (isSymmetric
+								&& distances[slot] > MOMENTS - k) {
+							continue;
+						}
+						next[slot] += walks;
+					}
+				}
+				moments[k - 1] += next[0];
+
+				long[] swap = current;
+				current = next;
+				next = swap;
+			}
+
+			for (int i = 0; i < size; i++) {
+				slots[nodes[i]] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Counts the closed walks from the nodes start to end-1, splitting them
+	 * in halves down to the grain, and sums the moments
+	 */
+	@SuppressWarnings("serial")
+	private static class MomentTask extends RecursiveTask<long[]> {
+
+		private final int[] adjacency;
+		private final int degree;
+		private final boolean isSymmetric;
+		private final int start;
+		private final int end;
+		private final int grain;
+
+		MomentTask(int[] adjacency, int degree, boolean isSymmetric,
+				int start, int end, int grain) {
+			this.adjacency = adjacency;
+			this.degree = degree;
+			this.isSymmetric = isSymmetric;
+			this.start = start;
+			this.end = end;
+			this.grain = grain;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (end - start > grain) {
+				int middle = (start + end) >>> 1;
+				MomentTask left = new MomentTask(adjacency, degree,
+						isSymmetric, start, middle, grain);
+				left.fork();
+				long[] right = new MomentTask(adjacency, degree, isSymmetric,
+						middle, end, grain).compute();
+				long[] sum = left.join();
+				for (int k = 0; k < MOMENTS; k++) {
+					sum[k] += right[k];
+				}
+				return sum;
+			}
+
+			long[] moments = new long[MOMENTS];
+			Walks walks = Walks.of(adjacency.length / degree);
+			for (int u = start; u < end; u++) {
+				walks.count(adjacency, degree, isSymmetric, u, moments);
+			}
+			return moments;
+		}
+	}
+
+}
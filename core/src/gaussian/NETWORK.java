@@ -0,0 +1,8 @@
+package gaussian;
+
+/**
+ * Three different networks supported
+ */
+public enum NETWORK {
+	GAUSSIAN, HONEYCOMB, DIFFERENCE
+}
@@ -0,0 +1,11 @@
+package gaussian;
+
+/**
+ * The part of the representation a node was generated in. The diamond
+ * representation is built from the origin, the great diamond, the four lines
+ * (even norm only), the four triangles and the last even node. Every node of
+ * the square representation except the origin belongs to DIAMOND.
+ */
+public enum NODE_REGION {
+	ORIGIN, DIAMOND, LINE, TRIANGLE, EVEN
+}
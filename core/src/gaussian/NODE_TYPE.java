@@ -0,0 +1,9 @@
+package gaussian;
+
+/**
+ * Type of a node which is either regular or boundary node
+ * 
+ */
+public enum NODE_TYPE {
+	REGULAR, BOUNDARY
+}
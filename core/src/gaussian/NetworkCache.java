@@ -0,0 +1,151 @@
+package gaussian;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A bounded cache of built networks shared between threads. The least
+ * recently used network is dropped once the capacity is reached. Concurrent
+ * requests for a network which is being built wait for that build instead
+ * of building it again.
+ *
+ * The networks are kept as immutable snapshots, so the callers can query
+ * them from any number of threads. The queries which do not depend on the
+ * coordinates of the nodes take the network of the canonical generator of
+ * its isomorphism class, so the isomorphic networks are built once.
+ */
+public class NetworkCache {
+
+	private final int capacity;
+
+	// access ordered, so the eldest entry is the least recently used one
+	private final Map<Generator, CompletableFuture<NetworkSnapshot>> networks;
+
+	/**
+	 * @param capacity
+	 *            maximum number of networks kept in the cache
+	 */
+	public NetworkCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"The cache capacity should be positive");
+		}
+		this.capacity = capacity;
+		this.networks = new LinkedHashMap<Generator, CompletableFuture<NetworkSnapshot>>(
+				16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Generator, CompletableFuture<NetworkSnapshot>> eldest) {
+				return size() > NetworkCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the network from the cache, building it if it is not there
+	 *
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            either square or diamond
+	 * @param network
+	 *            either GAUSSIAN or HONEYCOMB
+	 * @return the snapshot of the shared network
+	 */
+	public NetworkSnapshot get(int a, int b, REPRESENTATION representation,
+			NETWORK network) {
+		return get(new Generator(a, b, representation, network));
+	}
+
+	/**
+	 * Get a network isomorphic to the given one, the network of the
+	 * canonical generator of Isomorphism.canonical. It answers the queries
+	 * which do not depend on the coordinates of the nodes, such as the
+	 * diameter and the distance distributions.
+	 *
+	 * @return the snapshot of the shared network of the canonical generator
+	 */
+	public NetworkSnapshot getCanonical(int a, int b,
+			REPRESENTATION representation, NETWORK network) {
+		// the generators the networks reject are not answered either
+		if (a > b && representation == REPRESENTATION.DIAMOND) {
+			throw new IllegalArgumentException(
+					"a should be less than or equal to b");
+		}
+		return get(Isomorphism.canonical(a, b, representation, network));
+	}
+
+	/**
+	 * Get the network of the generator from the cache, building it if it is
+	 * not there
+	 *
+	 * @return the snapshot of the shared network
+	 */
+	public NetworkSnapshot get(Generator generator) {
+		CompletableFuture<NetworkSnapshot> future;
+		boolean isBuilder = false;
+
+		synchronized (networks) {
+			future = networks.get(generator);
+			if (future == null) {
+				future = new CompletableFuture<NetworkSnapshot>();
+				networks.put(generator, future);
+				isBuilder = true;
+			}
+		}
+
+		// build outside the lock so other networks can be served meanwhile
+		if (isBuilder) {
+			try {
+				future.complete(build(generator));
+			} catch (Throwable t) {
+				// do not keep the failure, the next request tries again, and
+				// release the waiting requests even on an OutOfMemoryError
+				synchronized (networks) {
+					networks.remove(generator, future);
+				}
+				future.completeExceptionally(t);
+				throw t;
+			}
+		}
+
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Build the network of the generator, called outside the lock
+	 */
+	NetworkSnapshot build(Generator generator) {
+		return generator.create().snapshot();
+	}
+
+	/**
+	 * @return number of networks in the cache, including the ones being built
+	 */
+	public int size() {
+		synchronized (networks) {
+			return networks.size();
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+}
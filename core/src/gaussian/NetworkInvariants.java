@@ -0,0 +1,101 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * Invariants of a built network under isomorphism, as computed by
+ * Isomorphism.invariants: the number of nodes and links, the number of
+ * nodes of each degree, the number of ordered pairs of nodes at each
+ * distance and the first spectral moments of the adjacency matrix. Networks
+ * with different invariants are not isomorphic, networks with equal
+ * invariants very likely are.
+ */
+public final class NetworkInvariants {
+
+	private final int norm;
+	private final long links;
+	private final long[] degrees;
+	private final long[] distances;
+	private final long[] moments;
+
+	NetworkInvariants(int norm, long links, long[] degrees, long[] distances,
+			long[] moments) {
+		this.norm = norm;
+		this.links = links;
+		this.degrees = degrees;
+		this.distances = distances;
+		this.moments = moments;
+	}
+
+	public int getNorm() {
+		return norm;
+	}
+
+	/**
+	 * @return number of links, a link and its link back being two links
+	 */
+	public long getLinks() {
+		return links;
+	}
+
+	/**
+	 * @return number of nodes with each number of links out of them
+	 */
+	public long[] getDegrees() {
+		return degrees.clone();
+	}
+
+	/**
+	 * @return number of ordered pairs of nodes at each distance, including
+	 *         the pairs of a node with itself at distance 0
+	 */
+	public long[] getDistances() {
+		return distances.clone();
+	}
+
+	/**
+	 * @return the trace of A^k for k = 1 to Isomorphism.MOMENTS, the number
+	 *         of closed walks of length k, modulo 2^64. It is the sum of the
+	 *         k-th powers of the eigenvalues of the adjacency matrix A.
+	 */
+	public long[] getMoments() {
+		return moments.clone();
+	}
+
+	public int getDiameter() {
+		return distances.length - 1;
+	}
+
+	/**
+	 * @return a hash of all the invariants, equal for isomorphic networks
+	 */
+	public long getFingerprint() {
+		long hash = norm;
+		hash = 31 * hash + links;
+		hash = 31 * hash + Arrays.hashCode(degrees);
+		hash = 31 * hash + Arrays.hashCode(distances);
+		for (long moment : moments) {
+			hash = 0x9E3779B97F4A7C15L * (hash ^ moment);
+			hash ^= hash >>> 29;
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof NetworkInvariants)) {
+			return false;
+		}
+		NetworkInvariants other = (NetworkInvariants) o;
+		return norm == other.norm && links == other.links
+				&& Arrays.equals(degrees, other.degrees)
+				&& Arrays.equals(distances, other.distances)
+				&& Arrays.equals(moments, other.moments);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(getFingerprint());
+	}
+
+}
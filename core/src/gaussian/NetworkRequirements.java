@@ -0,0 +1,44 @@
+package gaussian;
+
+/**
+ * The checks of the analyses which only work on some networks, failing with
+ * an IllegalArgumentException naming the analysis and the network given.
+ */
+final class NetworkRequirements {
+
+	private NetworkRequirements() {
+	}
+
+	/**
+	 * Check that the network is a Gaussian or honeycomb network, for the
+	 * analyses which reduce modulo alpha or take the directions +-1 and +-i
+	 * of the links
+	 *
+	 * @param analysis
+	 *            the name of the analysis, for the message
+	 */
+	static void requireGaussian(GaussianNetwork network, String analysis) {
+		if (network.getTopology() != TOPOLOGY.GAUSSIAN) {
+			throw new IllegalArgumentException(analysis
+					+ " needs a Gaussian network, not a "
+					+ network.getTopology());
+		}
+	}
+
+	/**
+	 * Check that the network has the four links of the Gaussian network,
+	 * for the analyses which take the flat adjacency as four links a node
+	 *
+	 * @param analysis
+	 *            the name of the analysis, for the message
+	 */
+	static void requireDegreeFour(GaussianNetwork network, String analysis) {
+		if (network.getDegree() != 4) {
+			throw new IllegalArgumentException(analysis
+					+ " needs a network of degree 4, not the "
+					+ network.getTopology() + " network of degree "
+					+ network.getDegree());
+		}
+	}
+
+}
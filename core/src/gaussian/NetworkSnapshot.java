@@ -0,0 +1,517 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of a built network, made by GaussianNetwork.snapshot.
+ * It keeps the coordinates and the links of the nodes in arrays which are
+ * never modified after construction and never handed out, so any number of
+ * threads can query one snapshot at the same time without locks, and the
+ * network it was copied from can be changed or dropped.
+ *
+ * The nodes have the indices of the network they were copied from. In a
+ * Gaussian network the distances and the routes come from the shortest
+ * Gaussian integer congruent to the difference of the nodes, without a BFS.
+ * In a honeycomb network and in the baselines of the other topologies every
+ * query runs its own BFS.
+ *
+ * The batch methods take the queries in int arrays and write the answers
+ * into arrays given by the caller, so millions of queries go through one
+ * call without allocating. When a and b are coprime, a+bi generates a
+ * cyclic group and the distance of a pair of Gaussian nodes is a table
+ * lookup by the residue of their difference.
+ */
+public final class NetworkSnapshot {
+
+	private final int a;
+	private final int b;
+	private final REPRESENTATION representation;
+	private final NETWORK network;
+	private final TOPOLOGY topology;
+	private final int degree;
+	private final int norm;
+	private final int t;
+	private final int d;
+	private final int centerIndex;
+	private final double averageDistance;
+	private final List<Integer> distanceDistributions;
+	// only for HONEYCOMB
+	private final DifferenceStatistics differenceStatistics;
+
+	private final int[] xs;
+	private final int[] ys;
+	// the neighbors of node i are at degree*i to degree*i+degree-1, -1 for
+	// a pruned link
+	private final int[] adjacency;
+
+	// index of the node at each point of the bounding box, null if the box
+	// is too large
+	private final int[] grid;
+	private final int gridMinX;
+	private final int gridMinY;
+	private final int gridWidth;
+	private final int gridHeight;
+
+	// reduces differences of nodes modulo alpha, only for GAUSSIAN networks
+	// of the GAUSSIAN topology
+	private final Residues residues;
+
+	// a*x + b*y of the difference of each node and the center modulo the
+	// norm, and the distance from the center of the node of each residue,
+	// only for GAUSSIAN with a and b coprime
+	private final int[] cyclicResidues;
+	private final int[] distanceByResidue;
+
+	NetworkSnapshot(GaussianNetwork gaussianNetwork) {
+		this.a = gaussianNetwork.getA();
+		this.b = gaussianNetwork.getB();
+		this.representation = gaussianNetwork.getRepresentation();
+		this.network = gaussianNetwork.getNetwork();
+		this.topology = gaussianNetwork.getTopology();
+		this.degree = gaussianNetwork.getDegree();
+		this.norm = gaussianNetwork.getNorm();
+		this.t = gaussianNetwork.getT();
+		this.centerIndex = gaussianNetwork.getCenterIndex();
+		this.averageDistance = gaussianNetwork.getAverageDistance();
+		this.distanceDistributions = Collections
+				.unmodifiableList(new ArrayList<Integer>(gaussianNetwork
+						.getDistanceDistributions()));
+		this.d = distanceDistributions.size() - 1;
+		if (network == NETWORK.HONEYCOMB) {
+			differenceStatistics = ((HoneycombGaussian) gaussianNetwork)
+					.getDifferenceStatistics();
+		} else {
+			differenceStatistics = null;
+		}
+		this.adjacency = gaussianNetwork.getFlatAdjacency().clone();
+
+		List<Node> nodes = gaussianNetwork.getNodes();
+		xs = new int[nodes.size()];
+		ys = new int[nodes.size()];
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = nodes.get(i).x;
+			ys[i] = nodes.get(i).y;
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+
+		long size = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+		if (xs.length > 0 && size <= Integer.MAX_VALUE - 8) {
+			gridMinX = minX;
+			gridMinY = minY;
+			gridWidth = maxX - minX + 1;
+			gridHeight = maxY - minY + 1;
+			grid = new int[(int) size];
+			Arrays.fill(grid, -1);
+			for (int i = 0; i < xs.length; i++) {
+				grid[(ys[i] - minY) * gridWidth + xs[i] - minX] = i;
+			}
+		} else {
+			gridMinX = gridMinY = gridWidth = gridHeight = 0;
+			grid = null;
+		}
+
+		boolean isGaussian = network == NETWORK.GAUSSIAN
+				&& topology == TOPOLOGY.GAUSSIAN;
+		residues = isGaussian ? new Residues(a, b, REPRESENTATION.SQUARE)
+				: null;
+
+		// x+yi -> a*x + b*y mod norm maps the Gaussian integers onto the
+		// integers modulo the norm, with the multiples of alpha as kernel,
+		// only if a and b are coprime
+		if (residues != null && gcd(a, b) == 1) {
+			int[] distances = bfs(centerIndex, -1, null);
+			cyclicResidues = new int[xs.length];
+			distanceByResidue = new int[xs.length];
+			for (int i = 0; i < xs.length; i++) {
+				cyclicResidues[i] = (int) Math.floorMod((long) a
+						* (xs[i] - xs[centerIndex]) + (long) b
+						* (ys[i] - ys[centerIndex]), (long) norm);
+				distanceByResidue[cyclicResidues[i]] = distances[i];
+			}
+		} else {
+			cyclicResidues = null;
+			distanceByResidue = null;
+		}
+	}
+
+	/**
+	 * Find the index of the node with the given coordinates
+	 *
+	 * @return the index, -1 if there is no such node
+	 */
+	public int indexOf(int x, int y) {
+		if (grid == null) {
+			for (int i = 0; i < xs.length; i++) {
+				if (xs[i] == x && ys[i] == y) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		x -= gridMinX;
+		y -= gridMinY;
+		if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) {
+			return -1;
+		}
+		return grid[y * gridWidth + x];
+	}
+
+	public int getX(int index) {
+		return xs[index];
+	}
+
+	public int getY(int index) {
+		return ys[index];
+	}
+
+	/**
+	 * @param neighborNumber
+	 *            0 to 3 for +1, -1, +i and -i, up to the degree for the
+	 *            baselines
+	 * @return the index of the neighbor, -1 for a pruned link
+	 */
+	public int getNeighbor(int index, int neighborNumber) {
+		if (neighborNumber < 0 || neighborNumber >= degree) {
+			throw new IllegalArgumentException(
+					"The neighbor index is out of range");
+		}
+		return adjacency[degree * index + neighborNumber];
+	}
+
+	/**
+	 * @return a copy of the neighbors of the node, -1 for a pruned link
+	 */
+	public int[] getNeighbors(int index) {
+		return Arrays.copyOfRange(adjacency, degree * index, degree * index
+				+ degree);
+	}
+
+	/**
+	 * @return the distance from the source to the destination, -1 if there
+	 *         is no route
+	 */
+	public int getDistance(int source, int destination) {
+		if (cyclicResidues != null) {
+			int residue = cyclicResidues[destination] - cyclicResidues[source];
+			return distanceByResidue[residue + ((residue >> 31) & norm)];
+		} else if (residues != null) {
+			long shortest = residues.shortest((long) xs[destination]
+					- xs[source], (long) ys[destination] - ys[source]);
+			return Math.abs(Residues.unpackX(shortest))
+					+ Math.abs(Residues.unpackY(shortest));
+		}
+		return bfs(source, destination, null)[destination];
+	}
+
+	/**
+	 * @return the distance of every node from the source, -1 for the nodes
+	 *         without a route
+	 */
+	public int[] getDistancesFrom(int source) {
+		return bfs(source, -1, null);
+	}
+
+	/**
+	 * Find a shortest route between two nodes
+	 *
+	 * @return the indices of the nodes on the route, from the source to the
+	 *         destination
+	 * @throws IllegalArgumentException
+	 *             if there is no route
+	 */
+	public int[] getRoute(int source, int destination) {
+		if (residues != null) {
+			// go along the real axis and then along the imaginary axis
+			long shortest = residues.shortest((long) xs[destination]
+					- xs[source], (long) ys[destination] - ys[source]);
+			int dx = Residues.unpackX(shortest);
+			int dy = Residues.unpackY(shortest);
+			int[] route = new int[Math.abs(dx) + Math.abs(dy) + 1];
+			route[0] = source;
+			for (int i = 1; i < route.length; i++) {
+				int j = (i <= Math.abs(dx)) ? ((dx > 0) ? 0 : 1)
+						: ((dy > 0) ? 2 : 3);
+				route[i] = adjacency[degree * route[i - 1] + j];
+			}
+			return route;
+		}
+
+		int[] parents = new int[xs.length];
+		int[] distances = bfs(source, destination, parents);
+		if (distances[destination] < 0) {
+			throw new IllegalArgumentException("There is no route from ("
+					+ xs[source] + "," + ys[source] + ") to ("
+					+ xs[destination] + "," + ys[destination] + ")");
+		}
+
+		int[] route = new int[distances[destination] + 1];
+		for (int i = route.length - 1, cur = destination; i >= 0; i--) {
+			route[i] = cur;
+			cur = parents[cur];
+		}
+		return route;
+	}
+
+	/**
+	 * Find the distances of many pairs of nodes. In a honeycomb network
+	 * there is one BFS for each run of queries with the same source, so the
+	 * queries should be grouped by source.
+	 *
+	 * @param sources
+	 *            the indices of the sources
+	 * @param destinations
+	 *            the indices of the destinations
+	 * @param distances
+	 *            filled with the distance of each pair, -1 if there is no
+	 *            route
+	 * @param count
+	 *            number of queries, from the start of the arrays
+	 */
+	public void getDistances(int[] sources, int[] destinations,
+			int[] distances, int count) {
+		checkCount(count, sources.length, destinations.length,
+				distances.length);
+
+		if (cyclicResidues != null) {
+			for (int k = 0; k < count; k++) {
+				int residue = cyclicResidues[destinations[k]]
+						- cyclicResidues[sources[k]];
+				distances[k] = distanceByResidue[residue
+						+ ((residue >> 31) & norm)];
+			}
+		} else if (residues != null) {
+			for (int k = 0; k < count; k++) {
+				distances[k] = getDistance(sources[k], destinations[k]);
+			}
+		} else {
+			int[] fromSource = new int[xs.length];
+			int[] queue = new int[xs.length];
+			int source = -1;
+			for (int k = 0; k < count; k++) {
+				if (sources[k] != source) {
+					source = sources[k];
+					bfs(source, -1, null, fromSource, queue);
+				}
+				distances[k] = fromSource[destinations[k]];
+			}
+		}
+	}
+
+	/**
+	 * Find the same neighbor of many nodes
+	 *
+	 * @param nodes
+	 *            the indices of the nodes
+	 * @param neighborNumber
+	 *            0 to 3 for +1, -1, +i and -i, up to the degree for the
+	 *            baselines
+	 * @param neighbors
+	 *            filled with the index of the neighbor of each node, -1 for a
+	 *            pruned link
+	 * @param count
+	 *            number of nodes, from the start of the arrays
+	 */
+	public void getNeighbors(int[] nodes, int neighborNumber, int[] neighbors,
+			int count) {
+		if (neighborNumber < 0 || neighborNumber >= degree) {
+			throw new IllegalArgumentException(
+					"The neighbor index is out of range");
+		}
+		checkCount(count, nodes.length, neighbors.length, count);
+
+		for (int k = 0; k < count; k++) {
+			neighbors[k] = adjacency[degree * nodes[k] + neighborNumber];
+		}
+	}
+
+	/**
+	 * Find all the neighbors of many nodes
+	 *
+	 * @param nodes
+	 *            the indices of the nodes
+	 * @param neighbors
+	 *            filled with the neighbors of node k at degree*k to
+	 *            degree*k+degree-1, -1 for a pruned link
+	 * @param count
+	 *            number of nodes, from the start of the arrays
+	 */
+	public void getNeighbors(int[] nodes, int[] neighbors, int count) {
+		checkCount(count, nodes.length, neighbors.length / degree, count);
+
+		for (int k = 0; k < count; k++) {
+			System.arraycopy(adjacency, degree * nodes[k], neighbors, degree
+					* k, degree);
+		}
+	}
+
+	/**
+	 * Find the indices of many nodes from their coordinates
+	 *
+	 * @param coordinates
+	 *            the coordinates of node k at 2*k and 2*k+1
+	 * @param indices
+	 *            filled with the index of each node, -1 if there is no such
+	 *            node
+	 * @param count
+	 *            number of nodes, from the start of the arrays
+	 */
+	public void indexOf(int[] coordinates, int[] indices, int count) {
+		checkCount(count, coordinates.length / 2, indices.length, count);
+
+		if (grid == null) {
+			for (int k = 0; k < count; k++) {
+				indices[k] = indexOf(coordinates[2 * k], coordinates[2 * k + 1]);
+			}
+			return;
+		}
+		for (int k = 0; k < count; k++) {
+			int x = coordinates[2 * k] - gridMinX;
+			int y = coordinates[2 * k + 1] - gridMinY;
+			indices[k] = (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) ? -1
+					: grid[y * gridWidth + x];
+		}
+	}
+
+	private static void checkCount(int count, int length1, int length2,
+			int length3) {
+		if (count < 0 || count > length1 || count > length2 || count > length3) {
+			throw new IllegalArgumentException("The count " + count
+					+ " does not fit the arrays");
+		}
+	}
+
+	private static int gcd(int a, int b) {
+		return (b == 0) ? a : gcd(b, a % b);
+	}
+
+	/**
+	 * BFS from the source on arrays of its own, so concurrent calls do not
+	 * interfere
+	 *
+	 * @param destination
+	 *            the BFS stops once it is reached, -1 to visit all the nodes
+	 * @param parents
+	 *            filled with the parent of every visited node if not null
+	 * @return the distances from the source, -1 for the nodes not visited
+	 */
+	private int[] bfs(int source, int destination, int[] parents) {
+		return bfs(source, destination, parents, new int[xs.length],
+				new int[xs.length]);
+	}
+
+	/**
+	 * BFS on the given arrays, which are overwritten
+	 */
+	private int[] bfs(int source, int destination, int[] parents,
+			int[] distances, int[] queue) {
+		Arrays.fill(distances, -1);
+		int head = 0, tail = 0;
+		queue[tail++] = source;
+		distances[source] = 0;
+		if (parents != null) {
+			parents[source] = -1;
+		}
+
+		while (head < tail) {
+			int cur = queue[head++];
+			if (cur == destination) {
+				break;
+			}
+			for (int j = degree * cur; j < degree * cur + degree; j++) {
+				int neighbor = adjacency[j];
+				// if the neighbor is not the pruned one and not visited yet
+				if (neighbor >= 0 && distances[neighbor] < 0) {
+					distances[neighbor] = distances[cur] + 1;
+					if (parents != null) {
+						parents[neighbor] = cur;
+					}
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return distances;
+	}
+
+	public int getA() {
+		return a;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return representation;
+	}
+
+	public NETWORK getNetwork() {
+		return network;
+	}
+
+	public TOPOLOGY getTopology() {
+		return topology;
+	}
+
+	/**
+	 * @return number of neighbors of a node in the adjacency, 4 but for the
+	 *         baselines
+	 */
+	public int getDegree() {
+		return degree;
+	}
+
+	public int getNorm() {
+		return norm;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	/**
+	 * @return the diameter found by the BFS from the center
+	 */
+	public int getD() {
+		return d;
+	}
+
+	public int getCenterIndex() {
+		return centerIndex;
+	}
+
+	/**
+	 * @return number of nodes at each distance from the center, as an
+	 *         unmodifiable list
+	 */
+	public List<Integer> getDistanceDistributions() {
+		return distanceDistributions;
+	}
+
+	public double getAverageDistance() {
+		return averageDistance;
+	}
+
+	/**
+	 * @return the statistics of the DIFFERENCE weights of the nodes, whose
+	 *         nodes are indices of this snapshot
+	 * @throws IllegalArgumentException
+	 *             if this is not a honeycomb network
+	 */
+	public DifferenceStatistics getDifferenceStatistics() {
+		if (differenceStatistics == null) {
+			throw new IllegalArgumentException(
+					"The differences are only kept for HONEYCOMB networks");
+		}
+		return differenceStatistics;
+	}
+
+}
@@ -0,0 +1,156 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * A class for holding each Gaussian integer in the 2D plane
+ *
+ * @author Arash Shamaei
+ */
+public class Node {
+
+	// coordinates of the Gaussian integer x + yi
+	public int x;
+	public int y;
+
+	// distance distribution (weight) of the node for degree 3 or degree 4
+	// network
+	private int weight3;
+	private int weight4;
+
+	private boolean isVisited;
+
+	private DEGREE nodeDegree;
+
+	private NODE_TYPE nodeType;
+
+	private NODE_REGION region;
+
+	// four neighbors of a node, more for the baselines of higher degree
+	private Node[] neighbors = new Node[4];
+
+	public Node(int x, int y) {
+		this.x = x;
+		this.y = y;
+		this.isVisited = false;
+		this.nodeDegree = DEGREE.FOUR;
+		this.nodeType = NODE_TYPE.REGULAR;
+		this.region = NODE_REGION.DIAMOND;
+	}
+
+	public Node(int x, int y, NODE_REGION region) {
+		this(x, y);
+		this.region = region;
+	}
+
+	public int norm() {
+		return Math.abs(x) + Math.abs(y);
+	}
+
+	@Override
+	public boolean equals(Object p) {
+		return ((Node) p).x == x && ((Node) p).y == y;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * x + y;
+	}
+
+	public String toString() {
+		return "(" + x + "," + y + ")";
+	}
+
+	public void setWeight(int weight, NETWORK network) {
+		switch (network) {
+		case GAUSSIAN:
+			this.weight4 = weight;
+			break;
+		case HONEYCOMB:
+			this.weight3 = weight;
+			break;
+		default:
+			throw new IllegalArgumentException("A node has no " + network
+					+ " weight to set");
+		}
+	}
+
+	public int getWeight(NETWORK network) {
+		int weight = 0;
+		switch (network) {
+		case GAUSSIAN:
+			weight = weight4;
+			break;
+		case HONEYCOMB:
+			weight = weight3;
+			break;
+		case DIFFERENCE:
+			weight = weight3 - weight4;
+			break;
+		default:
+			throw new IllegalArgumentException("A node has no " + network
+					+ " weight");
+		}
+
+		return weight;
+	}
+
+	public boolean isVisited() {
+		return isVisited;
+	}
+
+	public void setVisited(boolean isVisited) {
+		this.isVisited = isVisited;
+	}
+
+	public DEGREE getNodeDegree() {
+		return nodeDegree;
+	}
+
+	public void setNodeDegree(DEGREE nodeDegree) {
+		this.nodeDegree = nodeDegree;
+	}
+
+	public NODE_TYPE getNodeType() {
+		return nodeType;
+	}
+
+	public void setNodeType(NODE_TYPE nodeType) {
+		this.nodeType = nodeType;
+	}
+
+	public NODE_REGION getRegion() {
+		return region;
+	}
+
+	public void setRegion(NODE_REGION region) {
+		this.region = region;
+	}
+
+	public Node getNeighbor(int i) {
+		if (i < 0 || i >= neighbors.length) {
+			throw new IndexOutOfBoundsException("Invalid neighbor number " + i);
+		}
+		return neighbors[i];
+	}
+
+	public void setNeighbor(int i, Node node) {
+		if (i < 0) {
+			throw new IndexOutOfBoundsException("Invalid neighbor number " + i);
+		}
+		if (i >= neighbors.length) {
+			neighbors = Arrays.copyOf(neighbors, i + 1);
+		}
+		this.neighbors[i] = node;
+	}
+
+	public int getWeight3() {
+		return weight3;
+	}
+
+	public int getWeight4() {
+		return weight4;
+	}
+
+
+}
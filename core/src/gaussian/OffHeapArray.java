@@ -0,0 +1,89 @@
+package gaussian;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A long-indexed array of ints or longs kept outside the heap in a memory
+ * mapped temporary file. The file is mapped in chunks of 1 GiB since a
+ * single mapping is limited to 2^31 bytes, and no element crosses two
+ * chunks. The file is deleted when the array is created and its pages are
+ * only written back to the disk when the memory is needed, so the array can
+ * be larger than both the heap and the physical memory.
+ *
+ * A new array is filled with 0. Different threads may write different
+ * elements at the same time.
+ */
+final class OffHeapArray {
+
+	private static final int CHUNK_SHIFT = 30;
+	private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+	private final MappedByteBuffer[] chunks;
+	private final long length;
+
+	/**
+	 * @param directory
+	 *            the directory of the temporary file
+	 * @param length
+	 *            number of elements
+	 * @param elementSize
+	 *            4 for ints or 8 for longs
+	 */
+	OffHeapArray(Path directory, long length, int elementSize)
+			throws IOException {
+		if (elementSize != 4 && elementSize != 8) {
+			throw new IllegalArgumentException("Elements of " + elementSize
+					+ " bytes are not supported");
+		}
+		this.length = length;
+
+		long size = Math.max(1, length * elementSize);
+		chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+		Path file = Files.createTempFile(directory, "gaussian", ".bin");
+		// the mappings stay valid after the channel is closed and the file
+		// is deleted
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE)) {
+			for (int c = 0; c < chunks.length; c++) {
+				long position = (long) c << CHUNK_SHIFT;
+				chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+						position, Math.min(CHUNK_MASK + 1, size - position));
+			}
+		}
+	}
+
+	long length() {
+		return length;
+	}
+
+	int getInt(long index) {
+		long position = index << 2;
+		return chunks[(int) (position >>> CHUNK_SHIFT)]
+				.getInt((int) (position & CHUNK_MASK));
+	}
+
+	void setInt(long index, int value) {
+		long position = index << 2;
+		chunks[(int) (position >>> CHUNK_SHIFT)].putInt(
+				(int) (position & CHUNK_MASK), value);
+	}
+
+	long getLong(long index) {
+		long position = index << 3;
+		return chunks[(int) (position >>> CHUNK_SHIFT)]
+				.getLong((int) (position & CHUNK_MASK));
+	}
+
+	void setLong(long index, long value) {
+		long position = index << 3;
+		chunks[(int) (position >>> CHUNK_SHIFT)].putLong(
+				(int) (position & CHUNK_MASK), value);
+	}
+
+}
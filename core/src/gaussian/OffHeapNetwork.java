@@ -0,0 +1,286 @@
+package gaussian;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A Gaussian or honeycomb network whose nodes are indexed by long and whose
+ * coordinates, adjacency and distances are kept off the heap in memory
+ * mapped files, for networks with more than 2^31 nodes or larger than the
+ * heap. The heap only holds the first node of each row and the BFS
+ * frontier, so the garbage collector has nothing to do with the size of the
+ * network.
+ *
+ * The nodes are indexed in the order SquareGaussian generates them, row by
+ * row. Their coordinates are those of the representation, so a honeycomb
+ * network prunes the same links as HoneycombGaussian.
+ */
+public class OffHeapNetwork {
+
+	// rows with fewer nodes are built by a single task
+	private static final int THRESHOLD = 1 << 16;
+
+	private final int a;
+	private final int b;
+	private final REPRESENTATION representation;
+	private final NETWORK network;
+	private final long norm;
+	private final long centerIndex;
+	private final Residues residues;
+
+	// the packed coordinates of every node
+	private final OffHeapArray coordinates;
+	// the neighbors of node i are at 4*i to 4*i+3, -1 for a pruned link
+	private final OffHeapArray adjacency;
+	// distance from the center plus 1, 0 for the nodes not reached
+	private final OffHeapArray distances;
+	private long[] distanceDistributions;
+
+	/**
+	 * Build the network in the temporary directory
+	 */
+	public OffHeapNetwork(int a, int b, REPRESENTATION representation,
+			NETWORK network) throws IOException {
+		this(a, b, representation, network, Paths.get(System
+				.getProperty("java.io.tmpdir")));
+	}
+
+	/**
+	 * Build the network with its arrays in files of the given directory. The
+	 * files are deleted at once and their space is freed when the network is
+	 * garbage collected.
+	 *
+	 * @param a
+	 *            the gaussian network parameter a
+	 * @param b
+	 *            the gaussian network parameter b
+	 * @param representation
+	 *            either square or diamond
+	 * @param network
+	 *            either GAUSSIAN or HONEYCOMB
+	 * @param directory
+	 *            the directory of the files
+	 */
+	public OffHeapNetwork(int a, int b, REPRESENTATION representation,
+			NETWORK network, Path directory) throws IOException {
+		if (a < 0 || b < 0 || (long) a + b == 0) {
+			throw new IllegalArgumentException(
+					"a and b must be positive integer");
+		}
+		if (network == NETWORK.DIFFERENCE) {
+			throw new IllegalArgumentException("Unknown network " + network);
+		}
+		this.a = a;
+		this.b = b;
+		this.representation = representation;
+		this.network = network;
+		this.residues = new Residues(a, b, representation);
+		this.norm = residues.getNorm();
+		this.centerIndex = residues.indexOf(0, 0);
+
+		coordinates = new OffHeapArray(directory, norm, 8);
+		adjacency = new OffHeapArray(directory, 4 * norm, 8);
+		distances = new OffHeapArray(directory, norm, 4);
+
+		new BuildTask(0, residues.getRows()).invoke();
+	}
+
+	/**
+	 * Writes the coordinates and the links of the nodes of the rows start to
+	 * end-1 of the square, splitting them in halves while they hold many
+	 * nodes
+	 */
+	@SuppressWarnings("serial")
+	private class BuildTask extends RecursiveAction {
+
+		private final int start;
+		private final int end;
+
+		BuildTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1
+					&& residues.getRowStart(end) - residues.getRowStart(start) > THRESHOLD) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new BuildTask(start, middle), new BuildTask(middle,
+						end));
+				return;
+			}
+
+			for (int y = start; y < end; y++) {
+				long x = residues.getRowMin(y);
+				for (long i = residues.getRowStart(y); i < residues
+						.getRowStart(y + 1); i++, x++) {
+					long node = residues.representative(x, y);
+					coordinates.setLong(i, node);
+					int nodeX = Residues.unpackX(node);
+					int nodeY = Residues.unpackY(node);
+					boolean isOdd = ((Math.abs(nodeX) + Math.abs(nodeY)) % 2 == 1);
+
+					for (int j = 0; j < 4; j++) {
+						long neighbor = residues.indexOf(x + Residues.DX[j], y
+								+ Residues.DY[j]);
+						// for (x,y) if |x|+|y| is odd then there is no +1
+						// node and if it is even there is no -1 node
+						if (network == NETWORK.HONEYCOMB
+								&& ((j == 0 && isOdd) || (j == 1 && !isOdd))) {
+							neighbor = -1;
+						}
+						adjacency.setLong(4 * i + j, neighbor);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run a BFS from the center and set the distance of every node. Only the
+	 * frontier is kept on the heap.
+	 *
+	 * @return number of nodes at each distance from the center
+	 */
+	public long[] setDistanceDistributions() {
+		if (distanceDistributions != null) {
+			for (long i = 0; i < norm; i++) {
+				distances.setInt(i, 0);
+			}
+		}
+
+		long[] distributions = new long[16];
+		long[] frontier = new long[16];
+		long[] next = new long[16];
+		int frontierSize = 1;
+		frontier[0] = centerIndex;
+		distances.setInt(centerIndex, 1);
+		distributions[0] = 1;
+		int weight = 1;
+
+		for (; frontierSize > 0; weight++) {
+			int nextSize = 0;
+			for (int i = 0; i < frontierSize; i++) {
+				long cur = frontier[i];
+				for (long j = 4 * cur; j < 4 * cur + 4; j++) {
+					long v = adjacency.getLong(j);
+					// if the neighbor is not the pruned one and not visited
+					// yet
+					if (v >= 0 && distances.getInt(v) == 0) {
+						distances.setInt(v, weight + 1);
+						if (nextSize == next.length) {
+							next = Arrays.copyOf(next, 2 * nextSize);
+						}
+						next[nextSize++] = v;
+					}
+				}
+			}
+
+			if (weight == distributions.length) {
+				distributions = Arrays.copyOf(distributions, 2 * weight);
+			}
+			distributions[weight] = nextSize;
+
+			long[] swap = frontier;
+			frontier = next;
+			next = swap;
+			frontierSize = nextSize;
+		}
+
+		// the last level is empty
+		distanceDistributions = Arrays.copyOf(distributions, weight - 1);
+		return distanceDistributions.clone();
+	}
+
+	/**
+	 * @return number of nodes at each distance from the center, running the
+	 *         BFS the first time
+	 */
+	public long[] getDistanceDistributions() {
+		if (distanceDistributions == null) {
+			setDistanceDistributions();
+		}
+		return distanceDistributions.clone();
+	}
+
+	public int getD() {
+		return getDistanceDistributions().length - 1;
+	}
+
+	/**
+	 * @return the average distance from the center to all the nodes, as
+	 *         GaussianNetwork.getAverageDistance
+	 */
+	public double getAverageDistance() {
+		long[] distributions = getDistanceDistributions();
+		long sum = 0;
+		for (int s = 1; s < distributions.length; s++) {
+			sum += s * distributions[s];
+		}
+		return (double) sum / norm;
+	}
+
+	/**
+	 * @return the distance of the node from the center, -1 if it is not
+	 *         reached, running the BFS the first time
+	 */
+	public int getDistance(long index) {
+		if (distanceDistributions == null) {
+			setDistanceDistributions();
+		}
+		return distances.getInt(index) - 1;
+	}
+
+	/**
+	 * @return the index of the node congruent to x+yi
+	 */
+	public long indexOf(int x, int y) {
+		return residues.indexOf(x, y);
+	}
+
+	public int getX(long index) {
+		return Residues.unpackX(coordinates.getLong(index));
+	}
+
+	public int getY(long index) {
+		return Residues.unpackY(coordinates.getLong(index));
+	}
+
+	/**
+	 * @param neighborNumber
+	 *            0 to 3 for +1, -1, +i and -i
+	 * @return the index of the neighbor, -1 for a pruned link
+	 */
+	public long getNeighbor(long index, int neighborNumber) {
+		return adjacency.getLong(4 * index + neighborNumber);
+	}
+
+	public int getA() {
+		return a;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return representation;
+	}
+
+	public NETWORK getNetwork() {
+		return network;
+	}
+
+	public long getNorm() {
+		return norm;
+	}
+
+	public long getCenterIndex() {
+		return centerIndex;
+	}
+
+}
@@ -0,0 +1,11 @@
+package gaussian;
+
+/**
+ * The communication patterns of the applications TaskMapper places. MESH and
+ * TORUS are 2D stencils, whose ranks exchange messages with the ranks above,
+ * below, left and right of them, RING is a 1D torus and EDGES is any list of
+ * weighted messages.
+ */
+public enum PATTERN {
+	MESH, TORUS, RING, EDGES
+}
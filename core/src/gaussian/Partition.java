@@ -0,0 +1,79 @@
+package gaussian;
+
+/**
+ * A k-way partition of the nodes of a network, as built by Partitioner. The
+ * edge cut counts the links between nodes of different parts, a link and
+ * its link back being one link, and a boundary node has a link to or from
+ * another part.
+ */
+public class Partition {
+
+	private final int[] parts;
+	private final int[] sizes;
+	private final int[] boundaryNodes;
+	private final long edgeCut;
+
+	Partition(int[] parts, int[] sizes, int[] boundaryNodes, long edgeCut) {
+		this.parts = parts;
+		this.sizes = sizes;
+		this.boundaryNodes = boundaryNodes;
+		this.edgeCut = edgeCut;
+	}
+
+	/**
+	 * @return the part of each node, 0 to k-1
+	 */
+	public int[] getParts() {
+		return parts.clone();
+	}
+
+	public int getPart(int node) {
+		return parts[node];
+	}
+
+	public int getK() {
+		return sizes.length;
+	}
+
+	/**
+	 * @return number of nodes of each part
+	 */
+	public int[] getSizes() {
+		return sizes.clone();
+	}
+
+	public int getMaxSize() {
+		int max = 0;
+		for (int size : sizes) {
+			max = Math.max(max, size);
+		}
+		return max;
+	}
+
+	/**
+	 * @return the size of the largest part over the average size, minus 1
+	 */
+	public double getImbalance() {
+		return (double) getMaxSize() * sizes.length / parts.length - 1;
+	}
+
+	/**
+	 * @return number of boundary nodes of each part
+	 */
+	public int[] getBoundaryNodeCounts() {
+		return boundaryNodes.clone();
+	}
+
+	public int getBoundaryNodes() {
+		int sum = 0;
+		for (int count : boundaryNodes) {
+			sum += count;
+		}
+		return sum;
+	}
+
+	public long getEdgeCut() {
+		return edgeCut;
+	}
+
+}
@@ -0,0 +1,588 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Balanced k-way partitions of a network with few links between the parts,
+ * to split a network over simulator workers or boards.
+ *
+ * The partition is seeded by recursive bisection of the node coordinates
+ * of the representation, cutting each set along x, y, x+y or x-y, whichever
+ * cuts fewer links. The diamond is bounded by diagonal lines, so x+y and x-y
+ * often win there. The seed ignores the wraparound links, so it is then
+ * refined by Fiduccia-Mattheyses passes between two parts at a time. In each
+ * step the pairs of parts form a matching, the parts of a pair only move
+ * their own nodes and the gain of a node only depends on its neighbors in
+ * the two parts, so the pairs are refined in parallel.
+ *
+ * The links are taken undirected: a link and its link back are one link,
+ * and a link of the honeycomb network without a link back is one link too.
+ */
+public final class Partitioner {
+
+	// largest part over the average part, minus 1, by default
+	private static final double DEFAULT_IMBALANCE = 0.03;
+
+	// rounds over all the pairs of neighboring parts
+	private static final int MAX_ROUNDS = 20;
+
+	// FM passes over one pair of parts in a round
+	private static final int MAX_PASSES = 8;
+
+	// moves a FM pass may make after its best cut before it stops
+	private static final int MAX_BAD_MOVES = 100;
+
+	// neighbors of a node in the undirected adjacency, 4 links out and 4 in
+	private static final int SLOTS = 8;
+
+	private Partitioner() {
+	}
+
+	/**
+	 * Partition a network into k parts of at most 3% above the average size
+	 *
+	 * @throws IllegalArgumentException
+	 *             if k is not between 1 and the norm
+	 */
+	public static Partition partition(GaussianNetwork network, int k) {
+		return partition(network, k, DEFAULT_IMBALANCE);
+	}
+
+	/**
+	 * Partition a network into k parts
+	 *
+	 * @param network
+	 *            a built network
+	 * @param k
+	 *            number of parts
+	 * @param imbalance
+	 *            how much the largest part may exceed the average size, 0.03
+	 *            for 3%, the parts may always have the average size rounded
+	 *            up
+	 * @throws IllegalArgumentException
+	 *             if k is not between 1 and the norm or the imbalance is
+	 *             negative
+	 */
+	public static Partition partition(GaussianNetwork network, int k,
+			double imbalance) {
+		NetworkRequirements.requireDegreeFour(network, "The partitioner");
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		if (k < 1 || k > n) {
+			throw new IllegalArgumentException("The number of parts " + k
+					+ " should be between 1 and " + n);
+		}
+		if (imbalance < 0) {
+			throw new IllegalArgumentException(
+					"The imbalance should not be negative");
+		}
+		int[][] undirected = undirected(adjacency);
+		int[] neighbors = undirected[0];
+		int[] weights = undirected[1];
+
+		List<Node> nodes = network.getNodes();
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = nodes.get(i).x;
+			ys[i] = nodes.get(i).y;
+			order[i] = i;
+		}
+		int[] parts = new int[n];
+		seed(neighbors, weights, xs, ys, order, 0, n, 0, k, parts,
+				new int[n]);
+
+		int maxSize = (int) Math.max((n + k - 1) / k,
+				Math.floor((double) n / k * (1 + imbalance)));
+		refine(neighbors, weights, parts, k, maxSize);
+		return measure(neighbors, weights, parts, k);
+	}
+
+	/**
+	 * @return the edge cut of a partition into two halves, an upper bound of
+	 *         the bisection width
+	 */
+	public static long bisectionWidth(GaussianNetwork network) {
+		return partition(network, 2, 0).getEdgeCut();
+	}
+
+	/**
+	 * A lower bound of the bisection width, as any set S of the nodes has
+	 * at least lambda |S| (norm - |S|) / norm links out of it for the
+	 * algebraic connectivity lambda. The honeycomb connectivity comes from
+	 * Lanczos iterations, which may overestimate it on large networks.
+	 */
+	public static double bisectionLowerBound(GaussianNetwork network) {
+		Spectrum spectrum = (network.getNetwork() == NETWORK.GAUSSIAN && network
+				.getTopology() == TOPOLOGY.GAUSSIAN) ? Spectrum.gaussian(
+				network.getA(), network.getB()) : Spectrum.lanczos(network);
+		long n = network.getNorm();
+		long half = n / 2;
+		return spectrum.getAlgebraicConnectivity() * half * (n - half) / n;
+	}
+
+	/**
+	 * Merge the links out of and into every node
+	 *
+	 * @return the neighbors of node u at SLOTS*u to SLOTS*u+SLOTS-1, -1 for
+	 *         no neighbor, and the number of links between them, the larger
+	 *         of the links each way
+	 */
+	private static int[][] undirected(int[] adjacency) {
+		int n = adjacency.length / 4;
+		int[] reverse = BreadthFirstSearch.reverseAdjacency(adjacency);
+		int[] neighbors = new int[SLOTS * n];
+		int[] weights = new int[SLOTS * n];
+		Arrays.fill(neighbors, -1);
+		for (int u = 0; u < n; u++) {
+			int count = 0;
+			for (int j = 0; j < 8; j++) {
+				int v = (j < 4) ? adjacency[4 * u + j] : reverse[4 * u + j - 4];
+				boolean isNew = (v >= 0 && v != u);
+				for (int i = 0; i < count && isNew; i++) {
+					isNew = (neighbors[SLOTS * u + i] != v);
+				}
+				if (!isNew) {
+					continue;
+				}
+				int out = 0, in = 0;
+				for (int i = 0; i < 4; i++) {
+					out += (adjacency[4 * u + i] == v) ? 1 : 0;
+					in += (reverse[4 * u + i] == v) ? 1 : 0;
+				}
+				neighbors[SLOTS * u + count] = v;
+				weights[SLOTS * u + count] = Math.max(out, in);
+				count++;
+			}
+		}
+		return new int[][] { neighbors, weights };
+	}
+
+	/**
+	 * Split order[start..end) into the parts firstPart to firstPart+k-1 by
+	 * recursive bisection, the first half getting k/2 parts
+	 *
+	 * @param side
+	 *            all 0, marks the halves while their cut is counted
+	 */
+	private static void seed(int[] neighbors, int[] weights, int[] xs,
+			int[] ys, int[] order, int start, int end, int firstPart, int k,
+			int[] parts, int[] side) {
+		if (k == 1) {
+			for (int i = start; i < end; i++) {
+				parts[order[i]] = firstPart;
+			}
+			return;
+		}
+
+		int k1 = k / 2;
+		int count = end - start;
+		int size1 = (int) ((long) count * k1 / k);
+		long[] keys = new long[count];
+		long bestCut = Long.MAX_VALUE;
+		int[] best = new int[count];
+		for (int axis = 0; axis < 4; axis++) {
+			for (int i = 0; i < count; i++) {
+				int u = order[start + i];
+				long key = (axis == 0) ? xs[u] : (axis == 1) ? ys[u]
+						: (axis == 2) ? xs[u] + ys[u] : xs[u] - ys[u];
+				keys[i] = (key << 32) | u;
+			}
+			Arrays.sort(keys);
+			for (int i = 0; i < count; i++) {
+				side[(int) keys[i]] = (i < size1) ? 1 : 2;
+			}
+			long cut = 0;
+			for (int i = 0; i < size1; i++) {
+				int u = (int) keys[i];
+				for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+					int v = neighbors[j];
+					if (v >= 0 && side[v] == 2) {
+						cut += weights[j];
+					}
+				}
+			}
+			if (cut < bestCut) {
+				bestCut = cut;
+				for (int i = 0; i < count; i++) {
+					best[i] = (int) keys[i];
+				}
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			side[best[i]] = 0;
+		}
+		System.arraycopy(best, 0, order, start, count);
+
+		seed(neighbors, weights, xs, ys, order, start, start + size1,
+				firstPart, k1, parts, side);
+		seed(neighbors, weights, xs, ys, order, start + size1, end,
+				firstPart + k1, k - k1, parts, side);
+	}
+
+	/**
+	 * Refine the pairs of neighboring parts, the pairs with the largest cut
+	 * first, until a round over all of them lowers the cut no more
+	 */
+	private static void refine(int[] neighbors, int[] weights, int[] parts,
+			int k, int maxSize) {
+		int n = parts.length;
+		int[] sizes = new int[k];
+		for (int part : parts) {
+			sizes[part]++;
+		}
+		int maxGain = 0;
+		for (int u = 0; u < n; u++) {
+			int degree = 0;
+			for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+				degree += weights[j];
+			}
+			maxGain = Math.max(maxGain, degree);
+		}
+		int[] local = new int[n];
+
+		for (int round = 0; round < MAX_ROUNDS; round++) {
+			// the cut between every two neighboring parts, p*k+q for p < q
+			Map<Long, Long> cuts = new HashMap<Long, Long>();
+			for (int u = 0; u < n; u++) {
+				for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+					int v = neighbors[j];
+					if (v > u && parts[v] != parts[u]) {
+						long key = (long) Math.min(parts[u], parts[v]) * k
+								+ Math.max(parts[u], parts[v]);
+						Long cut = cuts.get(key);
+						cuts.put(key, ((cut == null) ? 0 : cut) + weights[j]);
+					}
+				}
+			}
+			// sorted by decreasing cut
+			long[][] pairs = new long[cuts.size()][];
+			int count = 0;
+			for (Map.Entry<Long, Long> entry : cuts.entrySet()) {
+				pairs[count++] = new long[] { entry.getValue(), entry.getKey() };
+			}
+			Arrays.sort(pairs, new Comparator<long[]>() {
+				@Override
+				public int compare(long[] x, long[] y) {
+					return (x[0] != y[0]) ? Long.compare(y[0], x[0]) : Long
+							.compare(x[1], y[1]);
+				}
+			});
+
+			boolean[] isDone = new boolean[pairs.length];
+			int done = 0;
+			long gain = 0;
+			while (done < pairs.length) {
+				// a matching of the remaining pairs
+				boolean[] isBusy = new boolean[k];
+				List<int[]> matching = new ArrayList<int[]>();
+				for (int i = 0; i < pairs.length; i++) {
+					int p = (int) (pairs[i][1] / k);
+					int q = (int) (pairs[i][1] % k);
+					if (!isDone[i] && !isBusy[p] && !isBusy[q]) {
+						isDone[i] = true;
+						isBusy[p] = true;
+						isBusy[q] = true;
+						matching.add(new int[] { p, q });
+						done++;
+					}
+				}
+
+				// the nodes of each part
+				int[] memberStart = new int[k + 1];
+				for (int part : parts) {
+					memberStart[part + 1]++;
+				}
+				for (int p = 0; p < k; p++) {
+					memberStart[p + 1] += memberStart[p];
+				}
+				int[] members = new int[n];
+				int[] fill = Arrays.copyOf(memberStart, k);
+				for (int u = 0; u < n; u++) {
+					members[fill[parts[u]]++] = u;
+				}
+
+				long[] gains = new long[matching.size()];
+				ForkJoinPool.commonPool().invoke(
+						new PairTask(neighbors, weights, parts, sizes,
+								maxSize, maxGain, local, members,
+								memberStart, matching, gains, 0, matching
+										.size()));
+				for (long g : gains) {
+					gain += g;
+				}
+			}
+			if (gain == 0) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Fiduccia-Mattheyses passes moving nodes between the parts p and q,
+	 * each pass rolled back to its smallest cut with balanced parts
+	 *
+	 * @param nodes
+	 *            the nodes of the two parts
+	 * @param local
+	 *            shared by all the pairs, set to the index in nodes of the
+	 *            nodes of the two parts
+	 * @return how much the cut went down
+	 */
+	private static long fm(int[] neighbors, int[] weights, int[] parts,
+			int[] sizes, int maxSize, int maxGain, int[] local, int[] nodes,
+			int p, int q) {
+		int m = nodes.length;
+		int[] gains = new int[m];
+		boolean[] isLocked = new boolean[m];
+		int[] next = new int[m];
+		int[] previous = new int[m];
+		int[] moves = new int[m];
+		// the nodes of each side by gain, and the largest non-empty gain
+		int buckets = 2 * maxGain + 1;
+		int[] heads = new int[2 * buckets];
+		int[] tops = new int[2];
+		for (int i = 0; i < m; i++) {
+			local[nodes[i]] = i;
+		}
+
+		long total = 0;
+		for (int pass = 0; pass < MAX_PASSES; pass++) {
+			Arrays.fill(heads, -1);
+			Arrays.fill(isLocked, false);
+			tops[0] = tops[1] = 0;
+			for (int i = 0; i < m; i++) {
+				int u = nodes[i];
+				int other = p + q - parts[u];
+				int gain = 0;
+				for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+					int v = neighbors[j];
+					if (v < 0) {
+						continue;
+					}
+					if (parts[v] == parts[u]) {
+						gain -= weights[j];
+					} else if (parts[v] == other) {
+						gain += weights[j];
+					}
+				}
+				gains[i] = gain;
+				insert(heads, tops, next, previous, buckets, maxGain,
+						(parts[u] == p) ? 0 : 1, i, gain);
+			}
+
+			long cumulative = 0, best = 0;
+			int moveCount = 0, bestCount = 0;
+			while (true) {
+				// the best node of each side that may move, a part may
+				// exceed the largest size by one node during the pass
+				int fromP = (sizes[q] <= maxSize) ? top(heads, tops, buckets,
+						0) : -1;
+				int fromQ = (sizes[p] <= maxSize) ? top(heads, tops, buckets,
+						1) : -1;
+				int i;
+				if (fromP < 0 && fromQ < 0) {
+					break;
+				} else if (fromQ < 0) {
+					i = fromP;
+				} else if (fromP < 0) {
+					i = fromQ;
+				} else if (gains[fromP] != gains[fromQ]) {
+					i = (gains[fromP] > gains[fromQ]) ? fromP : fromQ;
+				} else {
+					i = (sizes[p] >= sizes[q]) ? fromP : fromQ;
+				}
+
+				int u = nodes[i];
+				int from = parts[u];
+				int to = p + q - from;
+				remove(heads, next, previous, buckets, maxGain,
+						(from == p) ? 0 : 1, i, gains[i]);
+				isLocked[i] = true;
+				parts[u] = to;
+				sizes[from]--;
+				sizes[to]++;
+				cumulative += gains[i];
+				moves[moveCount++] = i;
+
+				for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+					int v = neighbors[j];
+					// the nodes of the other pairs are never in p or q
+					if (v < 0 || (parts[v] != p && parts[v] != q)
+							|| isLocked[local[v]]) {
+						continue;
+					}
+					int lv = local[v];
+					int s = (parts[v] == p) ? 0 : 1;
+					remove(heads, next, previous, buckets, maxGain, s, lv,
+							gains[lv]);
+					gains[lv] += (parts[v] == from) ? 2 * weights[j]
+							: -2 * weights[j];
+					insert(heads, tops, next, previous, buckets, maxGain, s,
+							lv, gains[lv]);
+				}
+
+				if (cumulative > best && sizes[p] <= maxSize
+						&& sizes[q] <= maxSize) {
+					best = cumulative;
+					bestCount = moveCount;
+				} else if (moveCount - bestCount > MAX_BAD_MOVES) {
+					break;
+				}
+			}
+
+			// back to the smallest cut of the pass
+			for (int h = moveCount - 1; h >= bestCount; h--) {
+				int u = nodes[moves[h]];
+				int from = parts[u];
+				int to = p + q - from;
+				parts[u] = to;
+				sizes[from]--;
+				sizes[to]++;
+			}
+			total += best;
+			if (best == 0) {
+				break;
+			}
+		}
+		return total;
+	}
+
+	private static void insert(int[] heads, int[] tops, int[] next,
+			int[] previous, int buckets, int maxGain, int side, int i, int gain) {
+		int bucket = side * buckets + gain + maxGain;
+		next[i] = heads[bucket];
+		previous[i] = -1;
+		if (heads[bucket] >= 0) {
+			previous[heads[bucket]] = i;
+		}
+		heads[bucket] = i;
+		tops[side] = Math.max(tops[side], gain + maxGain);
+	}
+
+	private static void remove(int[] heads, int[] next, int[] previous,
+			int buckets, int maxGain, int side, int i, int gain) {
+		if (previous[i] >= 0) {
+			next[previous[i]] = next[i];
+		} else {
+			heads[side * buckets + gain + maxGain] = next[i];
+		}
+		if (next[i] >= 0) {
+			previous[next[i]] = previous[i];
+		}
+	}
+
+	/**
+	 * @return a node of the side with the largest gain, -1 if the side has
+	 *         no unlocked node
+	 */
+	private static int top(int[] heads, int[] tops, int buckets, int side) {
+		while (tops[side] >= 0 && heads[side * buckets + tops[side]] < 0) {
+			tops[side]--;
+		}
+		if (tops[side] < 0) {
+			tops[side] = 0;
+			return -1;
+		}
+		return heads[side * buckets + tops[side]];
+	}
+
+	private static Partition measure(int[] neighbors, int[] weights,
+			int[] parts, int k) {
+		int n = parts.length;
+		int[] sizes = new int[k];
+		int[] boundaryNodes = new int[k];
+		long cut = 0;
+		for (int u = 0; u < n; u++) {
+			sizes[parts[u]]++;
+			boolean isBoundary = false;
+			for (int j = SLOTS * u; j < SLOTS * u + SLOTS; j++) {
+				int v = neighbors[j];
+				if (v >= 0 && parts[v] != parts[u]) {
+					isBoundary = true;
+					if (v > u) {
+						cut += weights[j];
+					}
+				}
+			}
+			if (isBoundary) {
+				boundaryNodes[parts[u]]++;
+			}
+		}
+		return new Partition(parts, sizes, boundaryNodes, cut);
+	}
+
+	/**
+	 * Refines the pairs of parts of a range of a matching
+	 */
+	@SuppressWarnings("serial")
+	private static class PairTask extends RecursiveAction {
+
+		private final int[] neighbors;
+		private final int[] weights;
+		private final int[] parts;
+		private final int[] sizes;
+		private final int maxSize;
+		private final int maxGain;
+		private final int[] local;
+		private final int[] members;
+		private final int[] memberStart;
+		private final List<int[]> matching;
+		private final long[] gains;
+		private final int start;
+		private final int end;
+
+		PairTask(int[] neighbors, int[] weights, int[] parts, int[] sizes,
+				int maxSize, int maxGain, int[] local, int[] members,
+				int[] memberStart, List<int[]> matching, long[] gains,
+				int start, int end) {
+			this.neighbors = neighbors;
+			this.weights = weights;
+			this.parts = parts;
+			this.sizes = sizes;
+			this.maxSize = maxSize;
+			this.maxGain = maxGain;
+			this.local = local;
+			this.members = members;
+			this.memberStart = memberStart;
+			this.matching = matching;
+			this.gains = gains;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new PairTask(neighbors, weights, parts, sizes,
+						maxSize, maxGain, local, members, memberStart,
+						matching, gains, start, middle), new PairTask(
+						neighbors, weights, parts, sizes, maxSize, maxGain,
+						local, members, memberStart, matching, gains, middle,
+						end));
+				return;
+			}
+			for (int i = start; i < end; i++) {
+				int p = matching.get(i)[0];
+				int q = matching.get(i)[1];
+				int[] nodes = new int[sizes[p] + sizes[q]];
+				System.arraycopy(members, memberStart[p], nodes, 0, sizes[p]);
+				System.arraycopy(members, memberStart[q], nodes, sizes[p],
+						sizes[q]);
+				gains[i] = fm(neighbors, weights, parts, sizes, maxSize,
+						maxGain, local, nodes, p, q);
+			}
+		}
+
+	}
+
+}
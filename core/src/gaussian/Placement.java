@@ -0,0 +1,48 @@
+package gaussian;
+
+/**
+ * Where TaskMapper puts the ranks of an application and how far its
+ * messages travel. The dilation is the longest route of a message, the
+ * average dilation is the average route length over the messages and the
+ * hop-bytes are the bytes of each message times its route length, summed
+ * over the messages.
+ */
+public class Placement {
+
+	private final int[] nodes;
+	private final int dilation;
+	private final double averageDilation;
+	private final long hopBytes;
+
+	Placement(int[] nodes, int dilation, double averageDilation,
+			long hopBytes) {
+		this.nodes = nodes;
+		this.dilation = dilation;
+		this.averageDilation = averageDilation;
+		this.hopBytes = hopBytes;
+	}
+
+	/**
+	 * @return the index of the node of each rank
+	 */
+	public int[] getNodes() {
+		return nodes.clone();
+	}
+
+	public int getNode(int rank) {
+		return nodes[rank];
+	}
+
+	public int getDilation() {
+		return dilation;
+	}
+
+	public double getAverageDilation() {
+		return averageDilation;
+	}
+
+	public long getHopBytes() {
+		return hopBytes;
+	}
+
+}
@@ -0,0 +1,8 @@
+package gaussian;
+
+/**
+ * So far we have implemented two ways to represent a Gaussian network
+ */
+public enum REPRESENTATION {
+	DIAMOND, SQUARE
+}
@@ -0,0 +1,14 @@
+package gaussian;
+
+/**
+ * The routing of the packets in TrafficSimulator. DETERMINISTIC takes one
+ * fixed shortest route. ADAPTIVE takes, at each node, the link of a
+ * shortest route with the most free slots at its other end. VALIANT first
+ * goes to a random node by the deterministic routes and then to the
+ * destination, and UGAL chooses at the source between the shortest route
+ * and the route through a random node, whichever has the shorter queue
+ * times hops, and then routes adaptively.
+ */
+public enum ROUTING {
+	DETERMINISTIC, ADAPTIVE, VALIANT, UGAL
+}
@@ -0,0 +1,95 @@
+package gaussian;
+
+import java.util.Locale;
+
+/**
+ * The estimate of a reliability by Monte Carlo trials: the share of the
+ * trials in which the network passed, with its 95% Wilson score interval.
+ */
+public class ReliabilityEstimate {
+
+	/**
+	 * The normal quantile of the 95% confidence interval
+	 */
+	public static final double Z = 1.959963984540054;
+
+	private final long trials;
+	private final long successes;
+
+	/**
+	 * @param trials
+	 *            number of failure patterns sampled
+	 * @param successes
+	 *            number of them in which the network passed
+	 */
+	public ReliabilityEstimate(long trials, long successes) {
+		if (trials < 1 || successes < 0 || successes > trials) {
+			throw new IllegalArgumentException("Invalid " + successes
+					+ " successes out of " + trials + " trials");
+		}
+		this.trials = trials;
+		this.successes = successes;
+	}
+
+	public long getTrials() {
+		return trials;
+	}
+
+	public long getSuccesses() {
+		return successes;
+	}
+
+	/**
+	 * @return the share of the trials in which the network passed
+	 */
+	public double getReliability() {
+		return (double) successes / trials;
+	}
+
+	/**
+	 * @return the lower end of the 95% Wilson score interval
+	 */
+	public double getLowerBound() {
+		if (successes == 0) {
+			return 0;
+		}
+		return Math.max(0, center() - halfWidth());
+	}
+
+	/**
+	 * @return the upper end of the 95% Wilson score interval
+	 */
+	public double getUpperBound() {
+		if (successes == trials) {
+			return 1;
+		}
+		return Math.min(1, center() + halfWidth());
+	}
+
+	/**
+	 * @return half the width of the 95% Wilson score interval, which unlike
+	 *         the normal interval does not vanish when no trial failed
+	 */
+	public double getHalfWidth() {
+		return halfWidth();
+	}
+
+	private double center() {
+		double z2 = Z * Z / trials;
+		return (getReliability() + z2 / 2) / (1 + z2);
+	}
+
+	private double halfWidth() {
+		double p = getReliability();
+		double z2 = Z * Z / trials;
+		return Z / (1 + z2)
+				* Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials));
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%.6f [%.6f, %.6f] in %d trials",
+				getReliability(), getLowerBound(), getUpperBound(), trials);
+	}
+
+}
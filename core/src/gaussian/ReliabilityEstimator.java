@@ -0,0 +1,481 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Estimates the reliability of a network by Monte Carlo trials: every link
+ * fails with its own probability, and a trial passes if the network still
+ * connects the nodes within a distance bound. The all-terminal reliability
+ * asks for all the pairs of nodes, which with the bound is a diameter of at
+ * most the bound, and the terminal reliability for one pair.
+ *
+ * A link fails in both directions. The honeycomb networks of a+b odd have
+ * links without a link back, and there every node must reach every other
+ * node along the links.
+ *
+ * The trials run in batches on the common pool. Every batch has its own
+ * SplittableRandom split in order from the seed, so the estimate does not
+ * depend on the number of threads, and its own buffers, reused by all its
+ * trials. The links are only sampled when a search reaches them. The trials
+ * stop when the confidence interval is narrow enough, checked after every
+ * round of batches.
+ */
+public class ReliabilityEstimator {
+
+	// trials of a batch, with one random generator and one set of buffers
+	private static final int BATCH_TRIALS = 1 << 10;
+	// batches between two checks of the confidence interval, fixed so the
+	// trials stop at the same point on any number of threads
+	private static final int ROUND_BATCHES = 64;
+
+	private final int n;
+	private final int degree;
+	private final int[] adjacency;
+	// the link of every entry of the flat adjacency, -1 for the pruned
+	// entries and the links of a node to itself
+	private final int[] slotLinks;
+	// the two nodes of every link
+	private final int[] links;
+	private final boolean isSymmetric;
+	// the links into every node, only for the networks with one-way links
+	private final int[] inStart;
+	private final int[] inSources;
+	private final int[] inLinks;
+
+	public ReliabilityEstimator(GaussianNetwork network) {
+		adjacency = network.getFlatAdjacency();
+		degree = network.getDegree();
+		n = adjacency.length / degree;
+
+		// a link pairs an entry of a node with an entry of its neighbor back
+		// to the node, the parallel links in their order
+		slotLinks = new int[adjacency.length];
+		Arrays.fill(slotLinks, -1);
+		int[] ends = new int[2 * adjacency.length];
+		int count = 0;
+		boolean isPaired = true;
+		for (int u = 0; u < n; u++) {
+			for (int j = degree * u; j < degree * u + degree; j++) {
+				int v = adjacency[j];
+				if (v < 0 || v == u || slotLinks[j] >= 0) {
+					continue;
+				}
+				slotLinks[j] = count;
+				int back = -1;
+				for (int k = degree * v; k < degree * v + degree; k++) {
+					if (adjacency[k] == u && slotLinks[k] < 0) {
+						back = k;
+						break;
+					}
+				}
+				if (back >= 0) {
+					slotLinks[back] = count;
+				} else {
+					isPaired = false;
+				}
+				ends[2 * count] = u;
+				ends[2 * count + 1] = v;
+				count++;
+			}
+		}
+		links = Arrays.copyOf(ends, 2 * count);
+		isSymmetric = isPaired;
+
+		if (isSymmetric) {
+			inStart = null;
+			inSources = null;
+			inLinks = null;
+			return;
+		}
+		inStart = new int[n + 1];
+		for (int j = 0; j < adjacency.length; j++) {
+			if (slotLinks[j] >= 0) {
+				inStart[adjacency[j] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			inStart[v + 1] += inStart[v];
+		}
+		inSources = new int[inStart[n]];
+		inLinks = new int[inStart[n]];
+		int[] fill = Arrays.copyOf(inStart, n);
+		for (int j = 0; j < adjacency.length; j++) {
+			if (slotLinks[j] >= 0) {
+				int v = adjacency[j];
+				inSources[fill[v]] = j / degree;
+				inLinks[fill[v]++] = slotLinks[j];
+			}
+		}
+	}
+
+	/**
+	 * @return number of links, each with its own failure probability
+	 */
+	public int getLinkCount() {
+		return links.length / 2;
+	}
+
+	/**
+	 * @return the nodes of the links, link k from node 2k to node 2k+1
+	 */
+	public int[] getLinks() {
+		return links.clone();
+	}
+
+	/**
+	 * @return the same failure probability for every link
+	 */
+	public double[] uniform(double failure) {
+		double[] failures = new double[getLinkCount()];
+		Arrays.fill(failures, failure);
+		return failures;
+	}
+
+	/**
+	 * Estimate the probability that every node reaches every other node
+	 * within maxDistance links
+	 *
+	 * @param failures
+	 *            the failure probability of every link, in the order of
+	 *            getLinks
+	 * @param maxDistance
+	 *            the largest distance allowed, Integer.MAX_VALUE for the
+	 *            connectivity alone
+	 * @param maxTrials
+	 *            the trials to run if the interval does not get narrower
+	 *            than halfWidth before
+	 * @param halfWidth
+	 *            the half width of the 95% confidence interval at which the
+	 *            trials stop, 0 to run all the trials
+	 * @param seed
+	 *            the seed of the random generators
+	 * @return the estimate of the all-terminal reliability
+	 */
+	public ReliabilityEstimate allTerminal(double[] failures, int maxDistance,
+			long maxTrials, double halfWidth, long seed) {
+		return estimate(-1, -1, failures, maxDistance, maxTrials, halfWidth,
+				seed);
+	}
+
+	/**
+	 * Estimate the probability that the source reaches the target within
+	 * maxDistance links, with the parameters of allTerminal
+	 *
+	 * @return the estimate of the terminal reliability
+	 */
+	public ReliabilityEstimate terminal(int source, int target,
+			double[] failures, int maxDistance, long maxTrials,
+			double halfWidth, long seed) {
+		if (source < 0 || source >= n || target < 0 || target >= n) {
+			throw new IllegalArgumentException("The terminals should be nodes "
+					+ "of the network");
+		}
+		return estimate(source, target, failures, maxDistance, maxTrials,
+				halfWidth, seed);
+	}
+
+	/**
+	 * Run rounds of batches until the interval is narrow enough
+	 *
+	 * @param source
+	 *            the source of the terminal reliability, -1 for the
+	 *            all-terminal reliability
+	 */
+	private ReliabilityEstimate estimate(int source, int target,
+			double[] failures, int maxDistance, long maxTrials,
+			double halfWidth, long seed) {
+		if (failures.length != getLinkCount()) {
+			throw new IllegalArgumentException("Expected " + getLinkCount()
+					+ " failure probabilities, got " + failures.length);
+		}
+		for (double failure : failures) {
+			if (!(failure >= 0 && failure <= 1)) {
+				throw new IllegalArgumentException(
+						"The failure probabilities should be in [0, 1]");
+			}
+		}
+		if (maxDistance < 0 || maxTrials < 1 || !(halfWidth >= 0)) {
+			throw new IllegalArgumentException("Invalid maxDistance "
+					+ maxDistance + ", maxTrials " + maxTrials
+					+ " or halfWidth " + halfWidth);
+		}
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long trials = 0;
+		long successes = 0;
+		while (true) {
+			long left = maxTrials - trials;
+			int size = (int) Math.min(ROUND_BATCHES, (left + BATCH_TRIALS - 1)
+					/ BATCH_TRIALS);
+			Batch[] batches = new Batch[size];
+			for (int k = 0; k < size; k++) {
+				int batchTrials = (int) Math.min(BATCH_TRIALS, left - (long) k
+						* BATCH_TRIALS);
+				batches[k] = new Batch(random.split(), batchTrials, source,
+						target, failures, maxDistance);
+			}
+			ForkJoinPool.commonPool()
+					.invoke(new BatchTask(batches, 0, size));
+
+			for (Batch batch : batches) {
+				trials += batch.trials;
+				successes += batch.successes;
+			}
+			ReliabilityEstimate estimate = new ReliabilityEstimate(trials,
+					successes);
+			if (trials >= maxTrials || estimate.getHalfWidth() <= halfWidth) {
+				return estimate;
+			}
+		}
+	}
+
+	/**
+	 * The trials of a batch with their random generator and buffers
+	 */
+	private class Batch {
+
+		private final SplittableRandom random;
+		private final int trials;
+		private final int source;
+		private final int target;
+		private final double[] failures;
+		private final int maxDistance;
+
+		private int successes;
+
+		// the trial in which every link was sampled, and whether it works
+		private int[] sampled;
+		private boolean[] alive;
+		private int trial;
+		// the search in which every node was reached
+		private int[] visited;
+		private int search;
+		private int[] queue;
+		// the buffers of the bit-parallel BFS, allocated on first use
+		private long[] seen;
+		private long[] frontier;
+		private long[] next;
+		private int[] nextQueue;
+
+		Batch(SplittableRandom random, int trials, int source, int target,
+				double[] failures, int maxDistance) {
+			this.random = random;
+			this.trials = trials;
+			this.source = source;
+			this.target = target;
+			this.failures = failures;
+			this.maxDistance = maxDistance;
+		}
+
+		void run() {
+			sampled = new int[getLinkCount()];
+			alive = new boolean[getLinkCount()];
+			visited = new int[n];
+			queue = new int[n];
+			for (int k = 0; k < trials; k++) {
+				trial++;
+				boolean isPassed = (source < 0) ? isAllConnected()
+						: isConnected();
+				successes += isPassed ? 1 : 0;
+			}
+		}
+
+		/**
+		 * Sample the link the first time a search reaches it in the trial
+		 */
+		private boolean isAlive(int link) {
+			if (sampled[link] != trial) {
+				sampled[link] = trial;
+				alive[link] = random.nextDouble() >= failures[link];
+			}
+			return alive[link];
+		}
+
+		/**
+		 * @return whether every node reaches every other node within
+		 *         maxDistance
+		 */
+		private boolean isAllConnected() {
+			if (reached(0, false) < n) {
+				return false;
+			}
+			if (!isSymmetric && reached(0, true) < n) {
+				return false;
+			}
+			// a connected network has a diameter below n
+			return maxDistance >= n - 1 || isWithin(maxDistance);
+		}
+
+		/**
+		 * BFS from the node along the working links, or against them
+		 *
+		 * @return number of nodes reached
+		 */
+		private int reached(int from, boolean isReverse) {
+			int mark = ++search;
+			visited[from] = mark;
+			queue[0] = from;
+			int head = 0, tail = 1;
+			while (head < tail) {
+				int u = queue[head++];
+				if (isReverse) {
+					for (int k = inStart[u]; k < inStart[u + 1]; k++) {
+						int v = inSources[k];
+						if (visited[v] != mark && isAlive(inLinks[k])) {
+							visited[v] = mark;
+							queue[tail++] = v;
+						}
+					}
+					continue;
+				}
+				for (int j = degree * u; j < degree * u + degree; j++) {
+					int link = slotLinks[j];
+					if (link >= 0 && visited[adjacency[j]] != mark
+							&& isAlive(link)) {
+						visited[adjacency[j]] = mark;
+						queue[tail++] = adjacency[j];
+					}
+				}
+			}
+			return tail;
+		}
+
+		/**
+		 * BFS from the source level by level until it finds the target
+		 *
+		 * @return whether the source reaches the target within maxDistance
+		 */
+		private boolean isConnected() {
+			if (source == target) {
+				return true;
+			}
+			int mark = ++search;
+			visited[source] = mark;
+			queue[0] = source;
+			int head = 0, tail = 1;
+			for (int distance = 1; head < tail && distance <= maxDistance;
+					distance++) {
+				int end = tail;
+				while (head < end) {
+					int u = queue[head++];
+					for (int j = degree * u; j < degree * u + degree; j++) {
+						int v = adjacency[j];
+						if (slotLinks[j] >= 0 && visited[v] != mark
+								&& isAlive(slotLinks[j])) {
+							if (v == target) {
+								return true;
+							}
+							visited[v] = mark;
+							queue[tail++] = v;
+						}
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Bit-parallel BFS from 64 sources at a time, as
+		 * BreadthFirstSearch.allPairs, on the working links
+		 *
+		 * @return whether every source reaches every node within the bound
+		 */
+		private boolean isWithin(int bound) {
+			if (seen == null) {
+				seen = new long[n];
+				frontier = new long[n];
+				next = new long[n];
+				nextQueue = new int[n];
+			}
+
+			for (int first = 0; first < n; first += 64) {
+				int count = Math.min(64, n - first);
+				long full = (count == 64) ? -1L : (1L << count) - 1;
+				Arrays.fill(seen, 0);
+				int size = 0;
+				int complete = 0;
+				for (int k = 0; k < count; k++) {
+					seen[first + k] = 1L << k;
+					frontier[first + k] = 1L << k;
+					queue[size++] = first + k;
+					complete += (seen[first + k] == full) ? 1 : 0;
+				}
+
+				for (int level = 1; level <= bound && size > 0
+						&& complete < n; level++) {
+					int nextSize = 0;
+					for (int i = 0; i < size; i++) {
+						int u = queue[i];
+						long mask = frontier[u];
+						frontier[u] = 0;
+						for (int j = degree * u; j < degree * u + degree; j++) {
+							int v = adjacency[j];
+							int link = slotLinks[j];
+							// the sources reaching the neighbor for the first
+							// time
+							long reaching = (link >= 0) ? mask & ~seen[v] : 0;
+							if (reaching != 0 && isAlive(link)) {
+								if (next[v] == 0) {
+									nextQueue[nextSize++] = v;
+								}
+								next[v] |= reaching;
+							}
+						}
+					}
+					for (int i = 0; i < nextSize; i++) {
+						int v = nextQueue[i];
+						seen[v] |= next[v];
+						frontier[v] = next[v];
+						next[v] = 0;
+						complete += (seen[v] == full) ? 1 : 0;
+					}
+					int[] swap = queue;
+					queue = nextQueue;
+					nextQueue = swap;
+					size = nextSize;
+				}
+
+				// the frontier is left empty for the next sources
+				for (int i = 0; i < size; i++) {
+					frontier[queue[i]] = 0;
+				}
+				if (complete < n) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Runs a range of the batches
+	 */
+	@SuppressWarnings("serial")
+	private static class BatchTask extends RecursiveAction {
+
+		private final Batch[] batches;
+		private final int start;
+		private final int end;
+
+		BatchTask(Batch[] batches, int start, int end) {
+			this.batches = batches;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new BatchTask(batches, start, middle), new BatchTask(
+						batches, middle, end));
+				return;
+			}
+			batches[start].run();
+		}
+	}
+
+}
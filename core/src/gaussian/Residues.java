@@ -0,0 +1,242 @@
+package gaussian;
+
+/**
+ * Reduces Gaussian integers modulo alpha to the nodes of a representation,
+ * and indexes the nodes by their rank in the square representation, row by
+ * row from left to right as SquareGaussian generates them. It only keeps the
+ * first x and the first index of the a+b rows, so the networks can be
+ * explored without building them. It is immutable and can be shared by
+ * threads.
+ */
+final class Residues {
+
+	// the offsets of the neighbors in the order of the adjacency matrix
+	static final int[] DX = { 1, -1, 0, 0 };
+	static final int[] DY = { 0, 0, 1, -1 };
+
+	private final long a;
+	private final long b;
+	private final long norm;
+	private final REPRESENTATION representation;
+	private final long t;
+	// the first x and the index of the first node of each row of the square
+	private final long[] rowMin;
+	private final long[] rowStart;
+
+	/**
+	 * @param a
+	 *            the gaussian network parameter a, a >= 0
+	 * @param b
+	 *            the gaussian network parameter b, b >= 0
+	 * @param representation
+	 *            the representation of the nodes returned by representative
+	 */
+	Residues(int a, int b, REPRESENTATION representation) {
+		if (a > b && representation == REPRESENTATION.DIAMOND) {
+			throw new IllegalArgumentException(
+					"a should be less than or equal to b");
+		}
+		this.a = a;
+		this.b = b;
+		this.norm = GaussianAnalytics.getNorm(a, b);
+		this.representation = representation;
+		this.t = ((long) a + b) / 2;
+
+		// 0 <= a*x + b*y < norm and 0 <= a*y - b*x < norm, as in
+		// SquareGaussian
+		int rows = a + b;
+		rowMin = new long[rows];
+		rowStart = new long[rows + 1];
+		for (int y = 0; y < rows; y++) {
+			long xMin = Long.MIN_VALUE;
+			long xMax = Long.MAX_VALUE;
+			if (a > 0) {
+				xMin = -Math.floorDiv(this.b * y, this.a);
+				xMax = -Math.floorDiv(this.b * y - norm, this.a) - 1;
+			}
+			if (b > 0) {
+				xMin = Math.max(xMin,
+						Math.floorDiv(this.a * y - norm, this.b) + 1);
+				xMax = Math.min(xMax, Math.floorDiv(this.a * y, this.b));
+			}
+			rowMin[y] = xMin;
+			rowStart[y + 1] = rowStart[y] + Math.max(0, xMax - xMin + 1);
+		}
+		if (rowStart[rows] != norm) {
+			throw new IllegalStateException("The Gaussian square of " + a
+					+ "+" + b + "i has " + rowStart[rows]
+					+ " nodes instead of " + norm);
+		}
+	}
+
+	long getNorm() {
+		return norm;
+	}
+
+	int getRows() {
+		return rowMin.length;
+	}
+
+	/**
+	 * @return the x of the first node of the row y of the square
+	 */
+	long getRowMin(int y) {
+		return rowMin[y];
+	}
+
+	/**
+	 * @return the index of the first node of the row y of the square, the
+	 *         number of nodes for y = a+b
+	 */
+	long getRowStart(int y) {
+		return rowStart[y];
+	}
+
+	/**
+	 * @return the index of the node congruent to x+yi
+	 */
+	long indexOf(long x, long y) {
+		// x+yi = (u+vi)/(a-bi) and the square holds 0 <= u,v < norm
+		long p = Math.floorDiv(a * x + b * y, norm);
+		long q = Math.floorDiv(a * y - b * x, norm);
+		x -= p * a - q * b;
+		y -= p * b + q * a;
+		return rowStart[(int) y] + x - rowMin[(int) y];
+	}
+
+	/**
+	 * @return the coordinates of the node of the given index in the square,
+	 *         packed by pack
+	 */
+	long coordinates(long index) {
+		// the last row starting at or before the index
+		int low = 0;
+		int high = rowMin.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (rowStart[middle] <= index) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return pack((int) (rowMin[low] + index - rowStart[low]), low);
+	}
+
+	/**
+	 * Find the node congruent to x+yi in the representation
+	 *
+	 * @return the coordinates of the node packed by pack
+	 */
+	long representative(long x, long y) {
+		long p = Math.floorDiv(a * x + b * y, norm);
+		long q = Math.floorDiv(a * y - b * x, norm);
+		x -= p * a - q * b;
+		y -= p * b + q * a;
+		if (representation == REPRESENTATION.SQUARE) {
+			return pack((int) x, (int) y);
+		}
+
+		// the node of the diamond has the smallest norm among the corners
+		// (x,y) - w*alpha for w in {0, 1, i, 1+i}, when the norm is even
+		// there are ties on the border of the diamond
+		long bestX = 0, bestY = 0, bestNorm = Long.MAX_VALUE;
+		for (int wx = 0; wx <= 1; wx++) {
+			for (int wy = 0; wy <= 1; wy++) {
+				long cx = x - (wx * a - wy * b);
+				long cy = y - (wx * b + wy * a);
+				long cNorm = Math.abs(cx) + Math.abs(cy);
+				if (cNorm < bestNorm
+						|| (cNorm == bestNorm && isDiamondNode(cx, cy))) {
+					bestX = cx;
+					bestY = cy;
+					bestNorm = cNorm;
+				}
+			}
+		}
+		return pack((int) bestX, (int) bestY);
+	}
+
+	/**
+	 * Find a shortest Gaussian integer congruent to x+yi, its norm |x|+|y| is
+	 * the distance of x+yi from 0 in the Gaussian network
+	 *
+	 * @return the coordinates packed by pack
+	 */
+	long shortest(long x, long y) {
+		long p = Math.floorDiv(a * x + b * y, norm);
+		long q = Math.floorDiv(a * y - b * x, norm);
+		x -= p * a - q * b;
+		y -= p * b + q * a;
+
+		long bestX = x, bestY = y;
+		for (int wx = 0; wx <= 1; wx++) {
+			for (int wy = 0; wy <= 1; wy++) {
+				long cx = x - (wx * a - wy * b);
+				long cy = y - (wx * b + wy * a);
+				if (Math.abs(cx) + Math.abs(cy) < Math.abs(bestX)
+						+ Math.abs(bestY)) {
+					bestX = cx;
+					bestY = cy;
+				}
+			}
+		}
+		return pack((int) bestX, (int) bestY);
+	}
+
+	/**
+	 * Tell whether a point on the border of the diamond of an even norm is
+	 * one of the nodes DiamondGaussian generates: the 4 lines at distance t,
+	 * the 4 triangles beyond t and the even node.
+	 */
+	private boolean isDiamondNode(long x, long y) {
+		long s = Math.abs(x) + Math.abs(y);
+		if (s < t) {
+			return true;
+		} else if (s == t) {
+			if (x >= 0 && y >= 1) {
+				// upper right line
+				return true;
+			} else if (x <= -1 && y >= 0) {
+				// upper left line
+				return y >= ((a == b) ? 1 : 0);
+			} else if (x < 0) {
+				// lower left line
+				return y < 0 && x >= 1 - t && x <= -1 - a;
+			}
+			// lower right line
+			return y < 0 && x >= 1 && x <= t - a - 1;
+		} else if (s == b) {
+			return a != b && x == t && y == b - t;
+		}
+
+		// rotate the triangle to the first quarter, where its shell s holds
+		// y from s-t+1 to b-t
+		long rotatedY;
+		if (x > 0 && y > 0) {
+			rotatedY = y;
+		} else if (x < 0 && y > 0) {
+			rotatedY = -x;
+		} else if (x < 0 && y < 0) {
+			rotatedY = -y;
+		} else if (x > 0 && y < 0) {
+			rotatedY = x;
+		} else {
+			return false;
+		}
+		return rotatedY >= s - t + 1 && rotatedY <= b - t;
+	}
+
+	static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+
+	static int unpackX(long packed) {
+		return (int) (packed >> 32);
+	}
+
+	static int unpackY(long packed) {
+		return (int) packed;
+	}
+
+}
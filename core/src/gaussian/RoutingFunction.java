@@ -0,0 +1,20 @@
+package gaussian;
+
+/**
+ * A routing function of a network: the links a packet at a node may take to
+ * its destination, one for a deterministic routing and several for an
+ * adaptive one. DeadlockAnalyzer calls it from several threads at once, for
+ * different destinations.
+ */
+public interface RoutingFunction {
+
+	/**
+	 * @param destination
+	 *            index of the destination node
+	 * @param directions
+	 *            filled with the links of every node to the destination, bit
+	 *            j for the adjacency direction j, and 0 at the destination
+	 */
+	void route(int destination, int[] directions);
+
+}
@@ -0,0 +1,467 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Laplacian eigenvalues of a network and what they tell about it. The
+ * Laplacian is D - W, where W is the adjacency matrix made symmetric,
+ * (A + A^T) / 2, counting multiple links and loops, and D holds the degrees
+ * of W. The Gaussian networks are 4-regular, so their adjacency eigenvalues
+ * are 4 minus the Laplacian eigenvalues.
+ *
+ * The algebraic connectivity is the smallest non-zero eigenvalue. The
+ * spectral gap is the one of the lazy random walk I - L/(2*degree), which
+ * moves along each link with probability 1/(2*degree) and spreads a load
+ * evenly over the nodes, and the mixing time is the number of its steps
+ * after which the load of every node is within epsilon of the average. The
+ * edge expansion, the fewest links leaving a set of at most half of the
+ * nodes per node of the set, is bounded by Cheeger's inequalities.
+ *
+ * The Gaussian network generated by alpha = a+bi is the Cayley graph of the
+ * Gaussian integers modulo alpha with the generators +-1 and +-i, so its
+ * eigenvectors are the characters of the group. The character of the
+ * residue x+yi sends 1 to (a*x + b*y) / norm and i to (a*y - b*x) / norm
+ * turns, so the eigenvalues are computed in O(norm) without any matrix:
+ * 4 - 2cos(2pi(a*x + b*y) / norm) - 2cos(2pi(a*y - b*x) / norm). The
+ * honeycomb networks are not Cayley graphs of their nodes, their extreme
+ * eigenvalues are found by Lanczos iterations over the flat adjacency.
+ */
+public class Spectrum {
+
+	// largest network dense builds and diagonalizes
+	private static final int MAX_DENSE_NODES = 1024;
+
+	// Lanczos steps, limited by the memory of the Lanczos vectors
+	private static final int MAX_LANCZOS_STEPS = 300;
+	private static final long MAX_LANCZOS_ENTRIES = 50000000L;
+
+	// Lanczos steps between two checks of convergence
+	private static final int CHECK_STEPS = 10;
+
+	private static final double TOLERANCE = 1e-10;
+
+	private final int norm;
+	private final double degree;
+	private final double[] eigenvalues;
+	private final double algebraicConnectivity;
+	private final double largest;
+
+	private Spectrum(int norm, double degree, double[] eigenvalues,
+			double algebraicConnectivity, double largest) {
+		this.norm = norm;
+		this.degree = degree;
+		this.eigenvalues = eigenvalues;
+		this.algebraicConnectivity = algebraicConnectivity;
+		this.largest = largest;
+	}
+
+	/**
+	 * The whole spectrum of the Gaussian network generated by a+bi from the
+	 * characters of the group, without building the network
+	 *
+	 * @param a
+	 *            the gaussian network parameter a, a >= 0
+	 * @param b
+	 *            the gaussian network parameter b, b >= 0
+	 * @throws IllegalArgumentException
+	 *             if a or b is negative, both are 0 or the norm does not
+	 *             fit in an int
+	 */
+	public static Spectrum gaussian(int a, int b) {
+		if (a < 0 || b < 0 || (a == 0 && b == 0)) {
+			throw new IllegalArgumentException(
+					"The network parameters should be non-negative and not both 0");
+		}
+		long longNorm = GaussianAnalytics.getNorm(a, b);
+		if (longNorm > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("The norm " + longNorm
+					+ " is too large for a whole spectrum");
+		}
+		int norm = (int) longNorm;
+
+		// the residues of the Gaussian square, row after row
+		Residues residues = new Residues(a, b, REPRESENTATION.SQUARE);
+		double[] eigenvalues = new double[norm];
+		double turn = 2 * Math.PI / norm;
+		for (int y = 0, k = 0; y < residues.getRows(); y++) {
+			long x = residues.getRowMin(y);
+			long count = residues.getRowStart(y + 1) - residues.getRowStart(y);
+			for (long end = x + count; x < end; x++, k++) {
+				long first = Math.floorMod(a * x + (long) b * y, longNorm);
+				long second = Math.floorMod(a * (long) y - b * x, longNorm);
+				eigenvalues[k] = 4 - 2 * Math.cos(turn * first) - 2
+						* Math.cos(turn * second);
+			}
+		}
+		Arrays.sort(eigenvalues);
+		return fromEigenvalues(norm, 4, eigenvalues);
+	}
+
+	/**
+	 * The whole spectrum of a built network by Jacobi rotations of its
+	 * dense Laplacian, to check the other methods on small networks
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the network has more than 1024 nodes
+	 */
+	public static Spectrum dense(GaussianNetwork network) {
+		NetworkRequirements.requireDegreeFour(network, "The dense spectrum");
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		if (n > MAX_DENSE_NODES) {
+			throw new IllegalArgumentException(
+					"The dense spectrum is limited to " + MAX_DENSE_NODES
+							+ " nodes");
+		}
+		double[] degrees = degrees(adjacency);
+		double[][] laplacian = new double[n][n];
+		for (int u = 0; u < n; u++) {
+			laplacian[u][u] += degrees[u];
+			for (int j = 4 * u; j < 4 * u + 4; j++) {
+				int v = adjacency[j];
+				if (v >= 0) {
+					laplacian[u][v] -= 0.5;
+					laplacian[v][u] -= 0.5;
+				}
+			}
+		}
+		double[] eigenvalues = jacobi(laplacian);
+		Arrays.sort(eigenvalues);
+		return fromEigenvalues(n, max(degrees), eigenvalues);
+	}
+
+	/**
+	 * The algebraic connectivity and the largest eigenvalue of a built
+	 * network by Lanczos iterations, with the constant vector of the
+	 * eigenvalue 0 projected out. Only these eigenvalues are known, so
+	 * getEigenvalues gives 0, the algebraic connectivity and the largest
+	 * eigenvalue. On large networks the iterations may stop before the
+	 * algebraic connectivity has converged, then it is overestimated.
+	 */
+	public static Spectrum lanczos(GaussianNetwork network) {
+		NetworkRequirements.requireDegreeFour(network, "The Lanczos spectrum");
+		int[] adjacency = network.getFlatAdjacency();
+		int n = adjacency.length / 4;
+		double[] degrees = degrees(adjacency);
+		double degree = max(degrees);
+		if (n <= 2) {
+			return dense(network);
+		}
+
+		int steps = (int) Math.min(Math.min(n - 1, MAX_LANCZOS_STEPS),
+				MAX_LANCZOS_ENTRIES / n);
+		double[][] vectors = new double[steps + 1][];
+		double[] alphas = new double[steps];
+		double[] betas = new double[steps];
+		double constant = 1 / Math.sqrt(n);
+
+		// a random start without the constant component
+		Random random = new Random(1);
+		double[] v = new double[n];
+		for (int i = 0; i < n; i++) {
+			v[i] = random.nextDouble() - 0.5;
+		}
+		orthogonalize(v, null, 0, constant);
+		scale(v, 1 / norm2(v));
+		vectors[0] = v;
+
+		double smallest = Double.NaN, largest = Double.NaN;
+		int m = 0;
+		while (m < steps) {
+			double[] w = multiply(adjacency, degrees, vectors[m]);
+			alphas[m] = dot(w, vectors[m]);
+			// full reorthogonalization keeps the Ritz values from repeating
+			orthogonalize(w, vectors, m + 1, constant);
+			orthogonalize(w, vectors, m + 1, constant);
+			betas[m] = norm2(w);
+			m++;
+			boolean isInvariant = betas[m - 1] < TOLERANCE;
+			if (!isInvariant) {
+				scale(w, 1 / betas[m - 1]);
+				vectors[m] = w;
+			}
+
+			if (isInvariant || m % CHECK_STEPS == 0 || m == steps) {
+				double newSmallest = tridiagonalEigenvalue(alphas, betas, m, 0);
+				double newLargest = tridiagonalEigenvalue(alphas, betas, m,
+						m - 1);
+				boolean isConverged = Math.abs(newSmallest - smallest) < TOLERANCE
+						* newLargest
+						&& Math.abs(newLargest - largest) < TOLERANCE
+								* newLargest;
+				smallest = newSmallest;
+				largest = newLargest;
+				if (isInvariant || isConverged) {
+					break;
+				}
+			}
+		}
+		return new Spectrum(n, degree, new double[] { 0, smallest, largest },
+				smallest, largest);
+	}
+
+	private static Spectrum fromEigenvalues(int norm, double degree,
+			double[] eigenvalues) {
+		return new Spectrum(norm, degree, eigenvalues,
+				(norm > 1) ? eigenvalues[1] : 0, eigenvalues[norm - 1]);
+	}
+
+	/**
+	 * @return the degree of each node in the symmetric adjacency, the links
+	 *         out of it and into it over 2
+	 */
+	private static double[] degrees(int[] adjacency) {
+		double[] degrees = new double[adjacency.length / 4];
+		for (int j = 0; j < adjacency.length; j++) {
+			if (adjacency[j] >= 0) {
+				degrees[j / 4] += 0.5;
+				degrees[adjacency[j]] += 0.5;
+			}
+		}
+		return degrees;
+	}
+
+	/**
+	 * @return the Laplacian times the vector
+	 */
+	private static double[] multiply(int[] adjacency, double[] degrees,
+			double[] x) {
+		int n = x.length;
+		double[] y = new double[n];
+		for (int u = 0; u < n; u++) {
+			y[u] += degrees[u] * x[u];
+			for (int j = 4 * u; j < 4 * u + 4; j++) {
+				int v = adjacency[j];
+				if (v >= 0) {
+					y[u] -= 0.5 * x[v];
+					y[v] -= 0.5 * x[u];
+				}
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * Remove from w its components along the constant vector and the first
+	 * count vectors
+	 */
+	private static void orthogonalize(double[] w, double[][] vectors,
+			int count, double constant) {
+		double sum = 0;
+		for (double value : w) {
+			sum += value;
+		}
+		double c = sum * constant;
+		for (int i = 0; i < w.length; i++) {
+			w[i] -= c * constant;
+		}
+		for (int k = 0; k < count; k++) {
+			double[] v = vectors[k];
+			double d = dot(w, v);
+			for (int i = 0; i < w.length; i++) {
+				w[i] -= d * v[i];
+			}
+		}
+	}
+
+	/**
+	 * Find an eigenvalue of the symmetric tridiagonal matrix with the
+	 * diagonal alphas and the off-diagonal betas by bisection on its Sturm
+	 * sequence
+	 *
+	 * @param size
+	 *            number of rows of the matrix
+	 * @param index
+	 *            the rank of the eigenvalue, 0 for the smallest
+	 */
+	static double tridiagonalEigenvalue(double[] alphas, double[] betas,
+			int size, int index) {
+		// Gershgorin bounds
+		double low = Double.MAX_VALUE, high = -Double.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			double radius = ((i > 0) ? Math.abs(betas[i - 1]) : 0)
+					+ ((i + 1 < size) ? Math.abs(betas[i]) : 0);
+			low = Math.min(low, alphas[i] - radius);
+			high = Math.max(high, alphas[i] + radius);
+		}
+		for (int iteration = 0; iteration < 200 && high - low > 1e-14
+				* Math.max(1, Math.abs(high)); iteration++) {
+			double middle = (low + high) / 2;
+			// number of eigenvalues below middle
+			int count = 0;
+			double q = 1;
+			for (int i = 0; i < size; i++) {
+				double off = (i > 0) ? betas[i - 1] * betas[i - 1] / q : 0;
+				q = alphas[i] - middle - off;
+				if (q == 0) {
+					q = 1e-300;
+				}
+				if (q < 0) {
+					count++;
+				}
+			}
+			if (count > index) {
+				high = middle;
+			} else {
+				low = middle;
+			}
+		}
+		return (low + high) / 2;
+	}
+
+	/**
+	 * Diagonalize a symmetric matrix by cyclic Jacobi rotations
+	 *
+	 * @param matrix
+	 *            the matrix, which is overwritten
+	 * @return the eigenvalues, in no particular order
+	 */
+	static double[] jacobi(double[][] matrix) {
+		int n = matrix.length;
+		for (int sweep = 0; sweep < 100; sweep++) {
+			double off = 0;
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					off += matrix[p][q] * matrix[p][q];
+				}
+			}
+			if (off < 1e-22) {
+				break;
+			}
+
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					double apq = matrix[p][q];
+					if (Math.abs(apq) < 1e-300) {
+						continue;
+					}
+					// the rotation that zeroes matrix[p][q]
+					double theta = (matrix[q][q] - matrix[p][p]) / (2 * apq);
+					double t = Math.signum(theta)
+							/ (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					if (theta == 0) {
+						t = 1;
+					}
+					double c = 1 / Math.sqrt(t * t + 1);
+					double s = t * c;
+					for (int k = 0; k < n; k++) {
+						double akp = matrix[k][p];
+						double akq = matrix[k][q];
+						matrix[k][p] = c * akp - s * akq;
+						matrix[k][q] = s * akp + c * akq;
+					}
+					for (int k = 0; k < n; k++) {
+						double apk = matrix[p][k];
+						double aqk = matrix[q][k];
+						matrix[p][k] = c * apk - s * aqk;
+						matrix[q][k] = s * apk + c * aqk;
+					}
+				}
+			}
+		}
+		double[] eigenvalues = new double[n];
+		for (int i = 0; i < n; i++) {
+			eigenvalues[i] = matrix[i][i];
+		}
+		return eigenvalues;
+	}
+
+	private static double dot(double[] x, double[] y) {
+		double sum = 0;
+		for (int i = 0; i < x.length; i++) {
+			sum += x[i] * y[i];
+		}
+		return sum;
+	}
+
+	private static double norm2(double[] x) {
+		return Math.sqrt(dot(x, x));
+	}
+
+	private static void scale(double[] x, double factor) {
+		for (int i = 0; i < x.length; i++) {
+			x[i] *= factor;
+		}
+	}
+
+	private static double max(double[] values) {
+		double max = 0;
+		for (double value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+
+	public int getNorm() {
+		return norm;
+	}
+
+	/**
+	 * @return the largest degree of the symmetric adjacency
+	 */
+	public double getDegree() {
+		return degree;
+	}
+
+	/**
+	 * @return the known Laplacian eigenvalues in increasing order, all of
+	 *         them unless the spectrum comes from lanczos
+	 */
+	public double[] getEigenvalues() {
+		return eigenvalues.clone();
+	}
+
+	/**
+	 * @return the smallest non-zero Laplacian eigenvalue, 0 if the network
+	 *         is not connected or has a single node
+	 */
+	public double getAlgebraicConnectivity() {
+		return algebraicConnectivity;
+	}
+
+	public double getLargestEigenvalue() {
+		return largest;
+	}
+
+	/**
+	 * @return 1 minus the second largest eigenvalue of the lazy random walk
+	 */
+	public double getSpectralGap() {
+		return algebraicConnectivity / (2 * degree);
+	}
+
+	/**
+	 * @return the lower Cheeger bound of the edge expansion, half the
+	 *         algebraic connectivity
+	 */
+	public double getExpansionLowerBound() {
+		return algebraicConnectivity / 2;
+	}
+
+	/**
+	 * @return the upper Cheeger bound of the edge expansion,
+	 *         sqrt(lambda (2 degree - lambda)) for the algebraic connectivity
+	 *         lambda
+	 */
+	public double getExpansionUpperBound() {
+		return Math.sqrt(algebraicConnectivity
+				* (2 * degree - algebraicConnectivity));
+	}
+
+	/**
+	 * @param epsilon
+	 *            the largest deviation from the uniform distribution, in
+	 *            total variation
+	 * @return the steps of the lazy random walk bounding its mixing time,
+	 *         ln(norm / epsilon) / gap, Long.MAX_VALUE if it does not mix
+	 */
+	public long getMixingTime(double epsilon) {
+		double gap = getSpectralGap();
+		if (gap <= 0) {
+			return Long.MAX_VALUE;
+		}
+		return (long) Math.ceil(Math.log(norm / epsilon) / gap);
+	}
+
+}
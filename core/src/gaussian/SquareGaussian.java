@@ -0,0 +1,107 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.Scanner;
+
+
+public final class SquareGaussian extends GaussianNetwork{
+
+	public SquareGaussian(int a, int b) {
+		super(a, b, REPRESENTATION.SQUARE);
+		makeNetwork();
+	}
+
+
+	@Override
+	protected void makeNetwork() {
+		generateNodes();
+		buildAdjacencyMatrix();
+		setDistanceDistributions(NETWORK.GAUSSIAN);
+	}
+
+
+	/**
+	 * Generate the nodes of the Gaussian square with corners 0, alpha,
+	 * (1+i)alpha and i*alpha. A point p = x + yi is inside the square when
+	 * p = s*alpha + t*i*alpha with 0 <= s < 1 and 0 <= t < 1, that is
+	 * 
+	 * 0 <= a*x + b*y < norm and 0 <= a*y - b*x < norm
+	 * 
+	 * so the sides through the origin belong to the square and the other two
+	 * sides do not. For each row y these two conditions give the span of x
+	 * directly, hence exactly norm nodes are generated, row by row from left
+	 * to right.
+	 */
+	@Override
+	protected void generateNodes() {
+		Node[] square = new Node[norm];
+		int count = 0;
+
+		for (int y = 0; y < a + b; y++) {
+			int xMin = Integer.MIN_VALUE;
+			int xMax = Integer.MAX_VALUE;
+
+			// 0 <= a*x + b*y < norm
+			if (a > 0) {
+				xMin = Math.max(xMin, (int) ceilDiv(-(long) b * y, a));
+				xMax = Math.min(xMax, (int) ceilDiv(norm - (long) b * y, a) - 1);
+			} else if (b * y >= norm) {
+				continue;
+			}
+
+			// 0 <= a*y - b*x < norm
+			if (b > 0) {
+				xMin = Math.max(xMin,
+						(int) Math.floorDiv((long) a * y - norm, b) + 1);
+				xMax = Math.min(xMax, (int) Math.floorDiv((long) a * y, b));
+			} else if (a * y >= norm) {
+				continue;
+			}
+
+			if (count + xMax - xMin + 1 > norm) {
+				throw new IllegalStateException("More than " + norm
+						+ " nodes in the Gaussian square of " + a + "+" + b
+						+ "i");
+			}
+			for (int x = xMin; x <= xMax; x++) {
+				if (x == 0 && y == 0) {
+					centerIndex = count;
+				}
+				square[count++] = new Node(x, y, NODE_REGION.DIAMOND);
+			}
+		}
+
+		if (count != norm) {
+			throw new IllegalStateException("Generated " + count
+					+ " nodes for the Gaussian square of " + a + "+" + b
+					+ "i instead of " + norm);
+		}
+
+		nodes = Arrays.asList(square);
+		nodes.get(centerIndex).setRegion(NODE_REGION.ORIGIN);
+	}
+
+	/**
+	 * @return the smallest integer greater than or equal to n/d for d > 0
+	 */
+	private static long ceilDiv(long n, long d) {
+		return -Math.floorDiv(-n, d);
+	}
+
+
+	public static void main(String[] args) {
+		Scanner scan = new Scanner(System.in);
+		System.out
+				.println("Please enter a and b for the Gaussian network generator: ");
+
+		GaussianNetwork squareGaussian =  new SquareGaussian(scan.nextInt(),
+				scan.nextInt());
+		squareGaussian.printParameters();
+
+		squareGaussian.printNodes(NETWORK.GAUSSIAN);
+
+		squareGaussian.printAdjacencyMatrix();
+	}
+
+
+}
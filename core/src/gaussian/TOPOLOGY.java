@@ -0,0 +1,9 @@
+package gaussian;
+
+/**
+ * The Gaussian networks and the baseline topologies they are compared with,
+ * built on the same engine
+ */
+public enum TOPOLOGY {
+	GAUSSIAN, TORUS, HYPERCUBE, EISENSTEIN_JACOBI
+}
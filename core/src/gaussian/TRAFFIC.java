@@ -0,0 +1,12 @@
+package gaussian;
+
+/**
+ * The destinations of the packets TrafficSimulator generates. UNIFORM picks
+ * a random other node for every packet. The others send all the packets of
+ * the node x+yi to one node: TRANSPOSE to y+xi, COMPLEMENT to -x-yi and
+ * TORNADO to x+t+yi, where t is the farthest a shortest route goes along
+ * the real axis. A node sent to itself generates no packets.
+ */
+public enum TRAFFIC {
+	UNIFORM, TRANSPOSE, COMPLEMENT, TORNADO
+}
@@ -0,0 +1,592 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Places the ranks of an application on the nodes of a network, one rank
+ * per node, so that its messages travel few links.
+ *
+ * A placement is first built from the pattern of the application. A MESH or
+ * TORUS is laid on the Gaussian integers around the center, rank (row, col)
+ * going to the node congruent to col + row*i, so every mesh link is a link
+ * of the Gaussian network as long as no two ranks are congruent. A RING
+ * with as many ranks as nodes follows a Hamiltonian cycle, a smaller ring
+ * with an even number of ranks goes around a rectangle. Otherwise, or when
+ * the rectangle does not fit, the ranks are taken in BFS order of the
+ * application and given the nodes closest to the center.
+ *
+ * The placement is then refined by moving ranks to a free node or swapping
+ * them with the rank of the node, among the nodes around their partners.
+ * The moves are compared first by the number of messages as long as the
+ * dilation, whose removal lowers the dilation, then by the hop-bytes, and
+ * no move makes a message longer than the dilation. The best move of every
+ * rank is searched in parallel on the current placement, and the moves are
+ * applied one after the other when they still improve the placement, the
+ * ones shortening the longest messages first.
+ *
+ * Distances are looked up in O(1), by residues in the Gaussian network and
+ * in a table of all the pairs in the honeycomb network.
+ */
+public final class TaskMapper {
+
+	// number of rounds of moves the refinement may apply
+	private static final int MAX_ROUNDS = 100;
+
+	// number of ranks whose moves are searched by one task
+	private static final int CHUNK = 64;
+
+	/**
+	 * The largest honeycomb network mapped, its distance table takes
+	 * 2*norm^2 bytes, 128 MB at this size
+	 */
+	public static final int MAX_TABLE_NODES = 8192;
+
+	private final GaussianNetwork network;
+	private final NetworkSnapshot snapshot;
+	private final int n;
+	// the distances of the honeycomb network, from u to v at u*n+v
+	private final short[] table;
+
+	/**
+	 * @param network
+	 *            a built GAUSSIAN or HONEYCOMB network
+	 * @throws IllegalArgumentException
+	 *             if the network is a honeycomb network with more than
+	 *             MAX_TABLE_NODES nodes
+	 */
+	public TaskMapper(GaussianNetwork network) {
+		NetworkRequirements.requireGaussian(network, "The task mapper");
+		this.network = network;
+		this.snapshot = network.snapshot();
+		this.n = snapshot.getNorm();
+		if (snapshot.getNetwork() == NETWORK.HONEYCOMB) {
+			if (n > MAX_TABLE_NODES) {
+				throw new IllegalArgumentException(
+						"The distance table of a honeycomb network is limited to "
+								+ MAX_TABLE_NODES + " nodes, not " + n);
+			}
+			table = new short[n * n];
+			ForkJoinPool.commonPool().invoke(
+					new TableTask(snapshot, table, 0, n));
+		} else {
+			table = null;
+		}
+	}
+
+	/**
+	 * @return the distance from the node u to the node v, -1 if there is no
+	 *         route
+	 */
+	public int getDistance(int u, int v) {
+		return (table == null) ? snapshot.getDistance(u, v) : table[u * n + v];
+	}
+
+	/**
+	 * Build a placement and refine it
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the application has more ranks than the network has
+	 *             nodes
+	 */
+	public Placement map(CommunicationGraph graph) {
+		return refine(graph, construct(graph).getNodes());
+	}
+
+	/**
+	 * Build a placement from the pattern of the application, without
+	 * refining it
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the application has more ranks than the network has
+	 *             nodes
+	 */
+	public Placement construct(CommunicationGraph graph) {
+		int ranks = graph.getRanks();
+		if (ranks > n) {
+			throw new IllegalArgumentException("The " + ranks
+					+ " ranks do not fit on " + n + " nodes");
+		}
+
+		int[] nodes = null;
+		switch (graph.getPattern()) {
+		case MESH:
+		case TORUS:
+			nodes = rectangle(graph.getRows(), graph.getCols(), null);
+			break;
+		case RING:
+			nodes = ring(ranks);
+			break;
+		default:
+			break;
+		}
+		if (nodes == null) {
+			nodes = nearest(graph);
+		}
+		return evaluate(graph, nodes);
+	}
+
+	/**
+	 * Refine a placement by moving ranks while the dilation or the number of
+	 * messages as long as the dilation or the hop-bytes go down
+	 *
+	 * @param nodes
+	 *            the node of each rank
+	 * @return the refined placement, whose dilation is not above the one of
+	 *         the given placement
+	 */
+	public Placement refine(CommunicationGraph graph, int[] nodes) {
+		nodes = nodes.clone();
+		int ranks = graph.getRanks();
+		int[] occupants = occupants(graph, nodes);
+		int dilation = evaluate(graph, nodes).getDilation();
+
+		int[] targets = new int[ranks];
+		long[] longest = new long[ranks];
+		long[] deltas = new long[ranks];
+		long[] change = new long[2];
+		for (int round = 0; round < MAX_ROUNDS; round++) {
+			ForkJoinPool.commonPool().invoke(
+					new MoveTask(this, graph, nodes, occupants, dilation,
+							targets, longest, deltas, 0, ranks));
+
+			int moves = 0;
+			// the moves which shorten the longest messages, then the others
+			for (int pass = 0; pass < 2; pass++) {
+				for (int r = 0; r < ranks; r++) {
+					if ((pass == 0) != (longest[r] < 0)
+							|| !isImprovement(longest[r], deltas[r])) {
+						continue;
+					}
+					// the earlier moves of the round may have changed the gain
+					int t = targets[r];
+					if (delta(graph, nodes, occupants, dilation, r, t, change)
+							&& isImprovement(change[0], change[1])) {
+						int p = nodes[r];
+						int j = occupants[t];
+						nodes[r] = t;
+						occupants[t] = r;
+						occupants[p] = j;
+						if (j >= 0) {
+							nodes[j] = p;
+						}
+						moves++;
+					}
+				}
+			}
+			if (moves == 0) {
+				break;
+			}
+			dilation = evaluate(graph, nodes).getDilation();
+		}
+		return evaluate(graph, nodes);
+	}
+
+	/**
+	 * Measure a placement
+	 *
+	 * @param nodes
+	 *            the node of each rank
+	 * @throws IllegalArgumentException
+	 *             if two ranks share a node, a node is out of range or a
+	 *             message has no route
+	 */
+	public Placement evaluate(CommunicationGraph graph, int[] nodes) {
+		occupants(graph, nodes);
+		int dilation = 0;
+		long sum = 0, hopBytes = 0;
+		int edges = graph.getEdgeCount();
+		for (int e = 0; e < edges; e++) {
+			int d = getDistance(nodes[graph.getSource(e)],
+					nodes[graph.getTarget(e)]);
+			if (d < 0) {
+				throw new IllegalArgumentException("The message " + e
+						+ " has no route");
+			}
+			dilation = Math.max(dilation, d);
+			sum += d;
+			hopBytes += graph.getWeight(e) * d;
+		}
+		return new Placement(nodes.clone(), dilation,
+				(edges == 0) ? 0 : (double) sum / edges, hopBytes);
+	}
+
+	/**
+	 * @return the rank on each node, -1 for a free node
+	 */
+	private int[] occupants(CommunicationGraph graph, int[] nodes) {
+		if (nodes.length != graph.getRanks()) {
+			throw new IllegalArgumentException("The placement has "
+					+ nodes.length + " ranks instead of " + graph.getRanks());
+		}
+		int[] occupants = new int[n];
+		Arrays.fill(occupants, -1);
+		for (int r = 0; r < nodes.length; r++) {
+			if (nodes[r] < 0 || nodes[r] >= n || occupants[nodes[r]] >= 0) {
+				throw new IllegalArgumentException("The node of rank " + r
+						+ " is out of range or taken");
+			}
+			occupants[nodes[r]] = r;
+		}
+		return occupants;
+	}
+
+	/**
+	 * Put rank k at the node congruent to xs[k] + ys[k]*i relative to the
+	 * center, or row k / cols and column k % cols of a rectangle when the
+	 * coordinates are not given
+	 *
+	 * @return the node of each rank, null if two ranks are congruent
+	 */
+	private int[] rectangle(int rows, int cols, int[][] coordinates) {
+		Residues residues = new Residues(snapshot.getA(), snapshot.getB(),
+				snapshot.getRepresentation());
+		int center = snapshot.getCenterIndex();
+		int cx = snapshot.getX(center) - cols / 2;
+		int cy = snapshot.getY(center) - rows / 2;
+		int ranks = rows * cols;
+		int[] nodes = new int[ranks];
+		boolean[] isTaken = new boolean[n];
+		for (int k = 0; k < ranks; k++) {
+			int x = (coordinates == null) ? k % cols : coordinates[k][0];
+			int y = (coordinates == null) ? k / cols : coordinates[k][1];
+			long representative = residues.representative((long) cx + x,
+					(long) cy + y);
+			int node = snapshot.indexOf(Residues.unpackX(representative),
+					Residues.unpackY(representative));
+			if (isTaken[node]) {
+				return null;
+			}
+			isTaken[node] = true;
+			nodes[k] = node;
+		}
+		return nodes;
+	}
+
+	/**
+	 * @return the nodes of a ring of the given size with consecutive ranks
+	 *         on linked nodes, null if none is known
+	 */
+	private int[] ring(int ranks) {
+		if (ranks == n) {
+			if (snapshot.getNetwork() == NETWORK.GAUSSIAN) {
+				if (HamiltonianCycles.hasEdgeDisjointCycles(snapshot.getA(),
+						snapshot.getB())) {
+					return HamiltonianCycles.edgeDisjointCycles(network)[0];
+				}
+			} else {
+				int[] cycle = HamiltonianCycles.honeycombCycle(network);
+				if (cycle != null) {
+					return cycle;
+				}
+			}
+		}
+		if (ranks < 4 || ranks % 2 != 0) {
+			return null;
+		}
+
+		// the most square rectangle with an even number of rows
+		int rows = 2;
+		for (int r = 2; r * r <= ranks; r += 2) {
+			if (ranks % r == 0) {
+				rows = r;
+			}
+		}
+		int cols = ranks / rows;
+		if (cols < 2) {
+			return null;
+		}
+		// along the first row, back and forth over the other columns and up
+		// the first column
+		int[][] coordinates = new int[ranks][];
+		int k = 0;
+		for (int x = 0; x < cols; x++) {
+			coordinates[k++] = new int[] { x, 0 };
+		}
+		for (int y = 1; y < rows; y++) {
+			for (int i = 1; i < cols; i++) {
+				int x = (y % 2 == 1) ? cols - i : i;
+				coordinates[k++] = new int[] { x, y };
+			}
+		}
+		for (int y = rows - 1; y >= 1; y--) {
+			coordinates[k++] = new int[] { 0, y };
+		}
+		return rectangle(rows, cols, coordinates);
+	}
+
+	/**
+	 * @return the nodes closest to the center for the ranks in BFS order of
+	 *         the application
+	 */
+	private int[] nearest(CommunicationGraph graph) {
+		int ranks = graph.getRanks();
+		int[] distances = snapshot.getDistancesFrom(snapshot.getCenterIndex());
+		// counting sort of the nodes by distance, unreachable nodes last
+		int maxDistance = 0;
+		for (int d : distances) {
+			maxDistance = Math.max(maxDistance, d);
+		}
+		int[] start = new int[maxDistance + 3];
+		for (int d : distances) {
+			start[((d < 0) ? maxDistance + 1 : d) + 1]++;
+		}
+		for (int d = 0; d + 1 < start.length; d++) {
+			start[d + 1] += start[d];
+		}
+		int[] byDistance = new int[n];
+		for (int v = 0; v < n; v++) {
+			int d = (distances[v] < 0) ? maxDistance + 1 : distances[v];
+			byDistance[start[d]++] = v;
+		}
+
+		int[] outStart = graph.getOutStart();
+		int[] outTargets = graph.getOutTargets();
+		int[] inStart = graph.getInStart();
+		int[] inSources = graph.getInSources();
+		int[] nodes = new int[ranks];
+		Arrays.fill(nodes, -1);
+		int[] queue = new int[ranks];
+		int head = 0, tail = 0;
+		for (int root = 0; root < ranks; root++) {
+			if (nodes[root] >= 0) {
+				continue;
+			}
+			nodes[root] = byDistance[tail];
+			queue[tail++] = root;
+			while (head < tail) {
+				int r = queue[head++];
+				for (int k = outStart[r]; k < outStart[r + 1]; k++) {
+					int s = outTargets[k];
+					if (nodes[s] < 0) {
+						nodes[s] = byDistance[tail];
+						queue[tail++] = s;
+					}
+				}
+				for (int k = inStart[r]; k < inStart[r + 1]; k++) {
+					int s = inSources[k];
+					if (nodes[s] < 0) {
+						nodes[s] = byDistance[tail];
+						queue[tail++] = s;
+					}
+				}
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * @return whether a move with the given change of the messages as long
+	 *         as the dilation and of the hop-bytes improves the placement
+	 */
+	private static boolean isImprovement(long longest, long hopBytes) {
+		return longest < 0 || (longest == 0 && hopBytes < 0);
+	}
+
+	/**
+	 * The change of the number of messages as long as the dilation and of
+	 * the hop-bytes when the rank r moves to the node t and the rank of t, if
+	 * any, moves to the node of r
+	 *
+	 * @param change
+	 *            set to the change of the messages as long as the dilation
+	 *            and to the change of the hop-bytes
+	 * @return false if a message would get longer than the dilation
+	 */
+	private boolean delta(CommunicationGraph graph, int[] nodes,
+			int[] occupants, int dilation, int r, int t, long[] change) {
+		int p = nodes[r];
+		int j = occupants[t];
+		change[0] = 0;
+		change[1] = 0;
+
+		int[] outStart = graph.getOutStart();
+		int[] outTargets = graph.getOutTargets();
+		long[] outWeights = graph.getOutWeights();
+		int[] inStart = graph.getInStart();
+		int[] inSources = graph.getInSources();
+		long[] inWeights = graph.getInWeights();
+		for (int k = outStart[r]; k < outStart[r + 1]; k++) {
+			int s = outTargets[k];
+			if (!add(change, dilation, outWeights[k],
+					getDistance(p, (s == j) ? t : nodes[s]),
+					getDistance(t, (s == j) ? p : nodes[s]))) {
+				return false;
+			}
+		}
+		for (int k = inStart[r]; k < inStart[r + 1]; k++) {
+			int s = inSources[k];
+			if (!add(change, dilation, inWeights[k],
+					getDistance((s == j) ? t : nodes[s], p),
+					getDistance((s == j) ? p : nodes[s], t))) {
+				return false;
+			}
+		}
+		if (j < 0) {
+			return true;
+		}
+
+		// the messages between r and j were counted above
+		for (int k = outStart[j]; k < outStart[j + 1]; k++) {
+			int s = outTargets[k];
+			if (s != r
+					&& !add(change, dilation, outWeights[k],
+							getDistance(t, nodes[s]), getDistance(p, nodes[s]))) {
+				return false;
+			}
+		}
+		for (int k = inStart[j]; k < inStart[j + 1]; k++) {
+			int s = inSources[k];
+			if (s != r
+					&& !add(change, dilation, inWeights[k],
+							getDistance(nodes[s], t), getDistance(nodes[s], p))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Add the change of a message of the given weight whose length goes from
+	 * before to after
+	 *
+	 * @return false if the message would get longer than the dilation
+	 */
+	private static boolean add(long[] change, int dilation, long weight,
+			int before, int after) {
+		if (after < 0 || after > dilation) {
+			return false;
+		}
+		change[0] += ((after == dilation) ? 1 : 0)
+				- ((before == dilation) ? 1 : 0);
+		change[1] += weight * (after - before);
+		return true;
+	}
+
+	/**
+	 * Finds the best move of each rank of a range, among the nodes of its
+	 * partners and their neighbors, without changing the placement
+	 */
+	@SuppressWarnings("serial")
+	private static class MoveTask extends RecursiveAction {
+
+		private final TaskMapper mapper;
+		private final CommunicationGraph graph;
+		private final int[] nodes;
+		private final int[] occupants;
+		private final int dilation;
+		private final int[] targets;
+		// the change of the messages as long as the dilation and of the
+		// hop-bytes of the best move of each rank
+		private final long[] longest;
+		private final long[] deltas;
+		private final int start;
+		private final int end;
+		private final long[] change = new long[2];
+
+		MoveTask(TaskMapper mapper, CommunicationGraph graph, int[] nodes,
+				int[] occupants, int dilation, int[] targets, long[] longest,
+				long[] deltas, int start, int end) {
+			this.mapper = mapper;
+			this.graph = graph;
+			this.nodes = nodes;
+			this.occupants = occupants;
+			this.dilation = dilation;
+			this.targets = targets;
+			this.longest = longest;
+			this.deltas = deltas;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > CHUNK) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new MoveTask(mapper, graph, nodes, occupants,
+						dilation, targets, longest, deltas, start, middle),
+						new MoveTask(mapper, graph, nodes, occupants,
+								dilation, targets, longest, deltas, middle,
+								end));
+				return;
+			}
+
+			int[] outStart = graph.getOutStart();
+			int[] outTargets = graph.getOutTargets();
+			int[] inStart = graph.getInStart();
+			int[] inSources = graph.getInSources();
+			for (int r = start; r < end; r++) {
+				longest[r] = 0;
+				deltas[r] = 0;
+				for (int k = outStart[r]; k < outStart[r + 1]; k++) {
+					around(r, nodes[outTargets[k]]);
+				}
+				for (int k = inStart[r]; k < inStart[r + 1]; k++) {
+					around(r, nodes[inSources[k]]);
+				}
+			}
+		}
+
+		/**
+		 * Try the node of a partner of r and its neighbors as targets of r
+		 */
+		private void around(int r, int node) {
+			for (int j = -1; j < 4; j++) {
+				int t = (j < 0) ? node : mapper.snapshot.getNeighbor(node, j);
+				if (t < 0 || t == nodes[r]) {
+					continue;
+				}
+				if (!mapper.delta(graph, nodes, occupants, dilation, r, t,
+						change)) {
+					continue;
+				}
+				if (change[0] < longest[r]
+						|| (change[0] == longest[r] && change[1] < deltas[r])) {
+					longest[r] = change[0];
+					deltas[r] = change[1];
+					targets[r] = t;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Fills the rows of the distance table of a range of source nodes
+	 */
+	@SuppressWarnings("serial")
+	private static class TableTask extends RecursiveAction {
+
+		private final NetworkSnapshot snapshot;
+		private final short[] table;
+		private final int start;
+		private final int end;
+
+		TableTask(NetworkSnapshot snapshot, short[] table, int start, int end) {
+			this.snapshot = snapshot;
+			this.table = table;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > CHUNK) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new TableTask(snapshot, table, start, middle),
+						new TableTask(snapshot, table, middle, end));
+				return;
+			}
+			int n = snapshot.getNorm();
+			for (int u = start; u < end; u++) {
+				int[] distances = snapshot.getDistancesFrom(u);
+				for (int v = 0; v < n; v++) {
+					table[u * n + v] = (short) distances[v];
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The 2D torus of width x height nodes x + yi with 0 <= x < width and
+ * 0 <= y < height. The neighbors are +1, -1, +i and -i as in the Gaussian
+ * network, modulo the width and the height. The k x k torus is the Gaussian
+ * network of k+0i, the rectangular ones have no Gaussian counterpart.
+ */
+public final class TorusNetwork extends BaselineNetwork {
+
+	/**
+	 * @param width
+	 *            number of nodes in a row
+	 * @param height
+	 *            number of nodes in a column
+	 */
+	public TorusNetwork(int width, int height) {
+		super(TOPOLOGY.TORUS, check(width, height), height, (long) width
+				* height, 4);
+		makeNetwork();
+	}
+
+	private static int check(int width, int height) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException(
+					"The sides of the torus must be positive");
+		}
+		return width;
+	}
+
+	@Override
+	protected void generateNodes() {
+		List<Node> torus = new ArrayList<Node>(norm);
+		for (int y = 0; y < b; y++) {
+			for (int x = 0; x < a; x++) {
+				torus.add(new Node(x, y, NODE_REGION.DIAMOND));
+			}
+		}
+		nodes = torus;
+		centerIndex = 0;
+	}
+
+	@Override
+	protected int findNeighborIndex(Node node, int neighborNumber) {
+		int x = node.x + Residues.DX[neighborNumber];
+		int y = node.y + Residues.DY[neighborNumber];
+		if (x < 0 || y < 0 || x >= a || y >= b) {
+			node.setNodeType(NODE_TYPE.BOUNDARY);
+		}
+		return indexOf(Math.floorMod(x, a), Math.floorMod(y, b));
+	}
+
+	@Override
+	public TOPOLOGY getTopology() {
+		return TOPOLOGY.TORUS;
+	}
+
+}
@@ -0,0 +1,254 @@
+package gaussian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The nodes of one shard of a traffic simulation: the nodes it owns, and
+ * its halo, the nodes of the other shards at the other end of a link out of
+ * or into an owned node, with their shard. The nodes are given by their
+ * index in the square representation, as Residues indexes them, so a
+ * TrafficSimulator builds its shard from the parameters of the network
+ * without building the network. It is immutable, and is written to and read
+ * from a buffer to hand it to a worker process.
+ */
+public final class TrafficShard {
+
+	private final int a;
+	private final int b;
+	private final REPRESENTATION representation;
+	private final NETWORK network;
+	private final int shard;
+	// the owned and the halo nodes in increasing order, and the shard of
+	// each halo node
+	private final int[] nodes;
+	private final int[] halo;
+	private final int[] haloShards;
+
+	TrafficShard(int a, int b, REPRESENTATION representation,
+			NETWORK network, int shard, int[] nodes, int[] halo,
+			int[] haloShards) {
+		if (network != NETWORK.GAUSSIAN && network != NETWORK.HONEYCOMB) {
+			throw new IllegalArgumentException(
+					"The traffic simulator needs a GAUSSIAN or HONEYCOMB network, not "
+							+ network);
+		}
+		long n = GaussianAnalytics.getNorm(a, b);
+		if (n < 2 || n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The network of " + a + "+" + b
+					+ "i should have from 2 to " + Integer.MAX_VALUE + " nodes");
+		}
+		if (!isIncreasing(nodes, n) || !isIncreasing(halo, n)
+				|| halo.length != haloShards.length) {
+			throw new IllegalArgumentException(
+					"The nodes and the halo of a shard should be increasing node indices");
+		}
+		for (int s : haloShards) {
+			if (s < 0 || s == shard) {
+				throw new IllegalArgumentException("A halo node of shard "
+						+ shard + " is in shard " + s);
+			}
+		}
+		this.a = a;
+		this.b = b;
+		this.representation = representation;
+		this.network = network;
+		this.shard = shard;
+		this.nodes = nodes;
+		this.halo = halo;
+		this.haloShards = haloShards;
+	}
+
+	private static boolean isIncreasing(int[] indices, long n) {
+		for (int k = 0; k < indices.length; k++) {
+			if (indices[k] < 0 || indices[k] >= n
+					|| (k > 0 && indices[k] <= indices[k - 1])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Take the nodes of a shard and its halo from a built network
+	 *
+	 * @param network
+	 *            a built GAUSSIAN or HONEYCOMB network
+	 * @param shards
+	 *            the shard of each node of the network
+	 * @param shard
+	 *            the shard taken
+	 * @throws IllegalArgumentException
+	 *             if the network is not a Gaussian network or the shards are
+	 *             not given for every node
+	 */
+	public static TrafficShard create(GaussianNetwork network, int[] shards,
+			int shard) {
+		NetworkRequirements.requireGaussian(network, "The traffic simulator");
+		int n = network.getNorm();
+		if (shards.length != n || shard < 0) {
+			throw new IllegalArgumentException(
+					"The shards should be given for every node of the network");
+		}
+		Residues residues = new Residues(network.getA(), network.getB(),
+				network.getRepresentation());
+		List<Node> nodes = network.getNodes();
+		int[] adjacency = network.getFlatAdjacency();
+		// a halo node at the end of a link out of an owned node, or at the
+		// start of a link into one
+		boolean[] isHalo = new boolean[n];
+		int ownedCount = 0;
+		for (int u = 0; u < n; u++) {
+			for (int j = 0; j < 4; j++) {
+				int v = adjacency[4 * u + j];
+				if (v < 0 || (shards[u] == shard) == (shards[v] == shard)) {
+					continue;
+				}
+				isHalo[(shards[u] == shard) ? v : u] = true;
+			}
+			ownedCount += (shards[u] == shard) ? 1 : 0;
+		}
+		int[] owned = new int[ownedCount];
+		long[] haloNodes = new long[n - ownedCount];
+		int haloCount = 0;
+		for (int u = 0, i = 0; u < n; u++) {
+			int index = (int) residues.indexOf(nodes.get(u).x, nodes.get(u).y);
+			if (shards[u] == shard) {
+				owned[i++] = index;
+			} else if (isHalo[u]) {
+				haloNodes[haloCount++] = ((long) index << 32) | shards[u];
+			}
+		}
+		Arrays.sort(owned);
+		Arrays.sort(haloNodes, 0, haloCount);
+		int[] halo = new int[haloCount];
+		int[] haloShards = new int[haloCount];
+		for (int k = 0; k < haloCount; k++) {
+			halo[k] = (int) (haloNodes[k] >>> 32);
+			haloShards[k] = (int) haloNodes[k];
+		}
+		return new TrafficShard(network.getA(), network.getB(),
+				network.getRepresentation(), network.getNetwork(), shard,
+				owned, halo, haloShards);
+	}
+
+	/**
+	 * Read a shard written by write
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not hold a valid shard
+	 */
+	public static TrafficShard read(ByteBuffer buffer) {
+		int a = buffer.getInt();
+		int b = buffer.getInt();
+		int representation = buffer.getInt();
+		int network = buffer.getInt();
+		if (representation < 0
+				|| representation >= REPRESENTATION.values().length
+				|| network < 0 || network >= NETWORK.values().length) {
+			throw new IllegalArgumentException(
+					"The buffer does not hold a traffic shard");
+		}
+		int shard = buffer.getInt();
+		int[] nodes = new int[buffer.getInt()];
+		int[] halo = new int[buffer.getInt()];
+		int[] haloShards = new int[halo.length];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = buffer.getInt();
+		}
+		for (int k = 0; k < halo.length; k++) {
+			halo[k] = buffer.getInt();
+			haloShards[k] = buffer.getInt();
+		}
+		return new TrafficShard(a, b, REPRESENTATION.values()[representation],
+				NETWORK.values()[network], shard, nodes, halo, haloShards);
+	}
+
+	/**
+	 * @return the bytes write puts in a buffer
+	 */
+	public int getBytes() {
+		return 4 * (7 + nodes.length + 2 * halo.length);
+	}
+
+	/**
+	 * Put the shard at the position of the buffer, which needs getBytes
+	 * bytes of room
+	 */
+	public void write(ByteBuffer buffer) {
+		buffer.putInt(a).putInt(b).putInt(representation.ordinal())
+				.putInt(network.ordinal()).putInt(shard)
+				.putInt(nodes.length).putInt(halo.length);
+		for (int node : nodes) {
+			buffer.putInt(node);
+		}
+		for (int k = 0; k < halo.length; k++) {
+			buffer.putInt(halo[k]).putInt(haloShards[k]);
+		}
+	}
+
+	public int getA() {
+		return a;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public REPRESENTATION getRepresentation() {
+		return representation;
+	}
+
+	public NETWORK getNetwork() {
+		return network;
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	/**
+	 * @return number of nodes of the network
+	 */
+	public int getNorm() {
+		return (int) GaussianAnalytics.getNorm(a, b);
+	}
+
+	/**
+	 * @return the indices of the owned nodes in increasing order
+	 */
+	public int[] getNodes() {
+		return nodes.clone();
+	}
+
+	/**
+	 * @return the indices of the halo nodes in increasing order
+	 */
+	public int[] getHalo() {
+		return halo.clone();
+	}
+
+	/**
+	 * @return the shard of each halo node
+	 */
+	public int[] getHaloShards() {
+		return haloShards.clone();
+	}
+
+	/**
+	 * @return the owned nodes, not copied for the simulator
+	 */
+	int[] nodes() {
+		return nodes;
+	}
+
+	int[] halo() {
+		return halo;
+	}
+
+	int[] haloShards() {
+		return haloShards;
+	}
+
+}
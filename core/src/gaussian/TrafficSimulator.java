@@ -0,0 +1,1065 @@
+package gaussian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Cycle by cycle packet simulation of a network under a TRAFFIC pattern.
+ * Every cycle each node generates a packet with the injection probability,
+ * to a random other node or the node of the pattern, into its injection
+ * buffer. Each node has input buffers for its incoming links, and each link
+ * carries one packet per cycle from the head of an input buffer, picked
+ * round-robin, to an input buffer at the other end which has room. Packets
+ * leave at their destination. With DETERMINISTIC routing the Gaussian
+ * packets go along the real axis and then along the imaginary axis of the
+ * shortest congruent vector, the honeycomb packets take the first link on a
+ * shortest route. The adaptive routings pick among the links of the shortest
+ * routes the one with the most credits, and the Valiant routings carry a
+ * random intermediate node, which the packet visits first.
+ *
+ * The room of the input buffers is known by credits, which come back one
+ * cycle after the buffer frees a slot. Each link has three channels with
+ * their own input buffers: the routed channel and two escape channels,
+ * taken when the routed buffer is full. A packet on the escape channels
+ * stays on them to its destination. It first goes along a staircase, the
+ * real link of each node in the direction of the real part of its shortest
+ * vector, or the imaginary link of the same sign where the honeycomb node
+ * has no such real link, until it took as many real links as that real
+ * part. Then it goes the shorter way round the imaginary ring, which holds
+ * the destination, on the other escape channel. The staircases and the
+ * imaginary rings are rings of channels, and a packet entering a ring needs
+ * two free slots. That bubble keeps a free slot on every ring, so the
+ * escape packets always move and the network cannot deadlock.
+ *
+ * The nodes can be split into shards, each simulated by its own simulator
+ * from a TrafficShard, its nodes and its halo, the nodes of the other
+ * shards at the other end of its links. The packets and credits crossing to
+ * another shard are queued per shard and exchanged as frames between the
+ * cycles by writeFrame and readFrame. The nodes are numbered by their index
+ * in the square representation, and the random numbers of a node only
+ * depend on the seed, the node and the cycle, so a sharded simulation
+ * delivers exactly the packets of the whole simulation.
+ *
+ * A shard only keeps the coordinates, links and buffers of its nodes and of
+ * its halo, so its memory shrinks with the number of shards. The Gaussian
+ * routes and the positions on the imaginary rings come from the residues
+ * modulo alpha. The honeycomb network of an even a+b looks the same from
+ * all the nodes of the same parity, so its distances come from the
+ * distances of an even and an odd node to all the nodes. The one of an odd
+ * a+b does not, and keeps the distances from each node of the shard and its
+ * halo to all the nodes, at most MAX_ROUTING_ENTRIES of them, so it needs
+ * more shards as it grows. Its UGAL packets have no distance from their
+ * intermediate node, and count the Gaussian distance from it instead.
+ */
+public class TrafficSimulator {
+
+	/**
+	 * The most honeycomb distances a shard keeps, which the shards of an odd
+	 * a+b reach first with their nodes and halo times the nodes of the
+	 * network, as many as the whole network of 46340 nodes
+	 */
+	public static final long MAX_ROUTING_ENTRIES = 46340L * 46340;
+
+	// ints of a packet: destination, source, generation cycle, hops, the
+	// real links left on its escape staircase and the intermediate node or -1
+	private static final int PACKET_INTS = 6;
+
+	// the channels of a link: routed, escape along a staircase and escape
+	// along an imaginary ring
+	private static final int CHANNELS = 3;
+	private static final int ROUTED = 0;
+	private static final int STAIRCASE = 1;
+	private static final int RING = 2;
+
+	// the input buffers of a node, one per channel of each link direction at
+	// CHANNELS*direction+channel, and the injection buffer
+	private static final int PORTS = 4 * CHANNELS + 1;
+	private static final int INJECTION = 4 * CHANNELS;
+
+	// ints of the frame header: bytes, cycle, packets and credits
+	private static final int HEADER_INTS = 4;
+
+	private final int n;
+	private final Residues residues;
+	private final boolean isHoneycomb;
+	// the owned nodes then the halo nodes, each in increasing order, whose
+	// position is their local index, and the shard of the halo nodes
+	private final int[] nodes;
+	private final int ownedCount;
+	private final int[] haloShards;
+	// the coordinates of the local nodes in the representation
+	private final int[] xs;
+	private final int[] ys;
+	// the local node at the end of each link out of an owned node and at the
+	// start of the link into each of its input buffers
+	private final int[] adjacency;
+	private final int[] upstream;
+	// the length of the imaginary rings, and the factor of the real part of
+	// a vector in the position on its ring
+	private final long ringLength;
+	private final long ringFactor;
+	// the honeycomb distances from the even node 0 and the odd node 1 to
+	// every node, or from every local node to every node at local*n+node
+	private final short[][] translations;
+	private final short[] rows;
+	// whether the staircase link out of each local node is on a ring, for
+	// the +1 and the -1 staircases
+	private final boolean[][] onStaircaseRing;
+
+	private final int shard;
+	private final int[] peers;
+
+	private final ROUTING routing;
+	// the destination of each owned node, or null for uniform traffic
+	private final int[] permutation;
+	private final double injectionRate;
+	private final int bufferSize;
+	private final long seed;
+
+	// the input buffers of the owned nodes as rings of packets
+	private final int[] buffers;
+	private final int[] heads;
+	private final int[] counts;
+	// free slots at the end of each channel out of the owned nodes, at
+	// PORTS-1 ints per node
+	private final int[] credits;
+	private final int[] roundRobin;
+
+	// the packets of the next cycle after their input buffer, and the
+	// channels of the credits of the next cycle
+	private int[] arrivals = new int[64];
+	private int arrivalInts;
+	private int[] creditChannels = new int[64];
+	private int creditCount;
+	// the packets and credits for each other shard, a packet after the node
+	// and the input buffer it goes to, 4*CHANNELS*node+CHANNELS*direction+
+	// channel, and a credit as the node and the channel it goes back to
+	private final int[][] outPackets;
+	private final int[] outPacketInts;
+	private final int[][] outCredits;
+	private final int[] outCreditCounts;
+
+	private long generated;
+	private long refused;
+	private long delivered;
+	private long latencySum;
+	private long hopSum;
+	private long maxLatency;
+
+	/**
+	 * Simulate the whole network under uniform traffic with deterministic
+	 * routing
+	 *
+	 * @see #TrafficSimulator(TrafficShard, TRAFFIC, ROUTING, double, int,
+	 *      long)
+	 */
+	public TrafficSimulator(GaussianNetwork network, double injectionRate,
+			int bufferSize, long seed) {
+		this(network, new int[network.getNorm()], 0, TRAFFIC.UNIFORM,
+				ROUTING.DETERMINISTIC, injectionRate, bufferSize, seed);
+	}
+
+	/**
+	 * Simulate the whole network
+	 *
+	 * @see #TrafficSimulator(TrafficShard, TRAFFIC, ROUTING, double, int,
+	 *      long)
+	 */
+	public TrafficSimulator(GaussianNetwork network, TRAFFIC traffic,
+			ROUTING routing, double injectionRate, int bufferSize, long seed) {
+		this(network, new int[network.getNorm()], 0, traffic, routing,
+				injectionRate, bufferSize, seed);
+	}
+
+	/**
+	 * Simulate one shard of the network under uniform traffic with
+	 * deterministic routing
+	 *
+	 * @see #TrafficSimulator(TrafficShard, TRAFFIC, ROUTING, double, int,
+	 *      long)
+	 */
+	public TrafficSimulator(GaussianNetwork network, int[] shards, int shard,
+			double injectionRate, int bufferSize, long seed) {
+		this(network, shards, shard, TRAFFIC.UNIFORM, ROUTING.DETERMINISTIC,
+				injectionRate, bufferSize, seed);
+	}
+
+	/**
+	 * Simulate one shard of a built network
+	 *
+	 * @param shards
+	 *            the shard of each node of the network
+	 * @param shard
+	 *            the shard simulated
+	 * @see #TrafficSimulator(TrafficShard, TRAFFIC, ROUTING, double, int,
+	 *      long)
+	 */
+	public TrafficSimulator(GaussianNetwork network, int[] shards, int shard,
+			TRAFFIC traffic, ROUTING routing, double injectionRate,
+			int bufferSize, long seed) {
+		this(TrafficShard.create(network, shards, shard), traffic, routing,
+				injectionRate, bufferSize, seed);
+	}
+
+	/**
+	 * Simulate one shard of a network, without building the network
+	 *
+	 * @param shard
+	 *            the nodes of the shard and its halo in a GAUSSIAN or
+	 *            HONEYCOMB network
+	 * @param traffic
+	 *            the destinations of the packets
+	 * @param routing
+	 *            the routing of the packets
+	 * @param injectionRate
+	 *            probability that a node generates a packet in a cycle
+	 * @param bufferSize
+	 *            packets each input buffer holds, at least 2
+	 * @param seed
+	 *            seed of the random numbers, the same for all the shards
+	 * @throws IllegalArgumentException
+	 *             if a parameter is out of range, the halo misses a node at
+	 *             the end of a link of the shard, or the shard of a
+	 *             honeycomb network of an odd a+b needs more than
+	 *             MAX_ROUTING_ENTRIES distances
+	 */
+	public TrafficSimulator(TrafficShard shard, TRAFFIC traffic,
+			ROUTING routing, double injectionRate, int bufferSize, long seed) {
+		if (injectionRate < 0 || injectionRate > 1 || bufferSize < 2) {
+			throw new IllegalArgumentException(
+					"The injection rate should be a probability and the buffers should hold 2 packets");
+		}
+		n = shard.getNorm();
+		residues = new Residues(shard.getA(), shard.getB(),
+				shard.getRepresentation());
+		isHoneycomb = shard.getNetwork() == NETWORK.HONEYCOMB;
+		this.shard = shard.getShard();
+		ownedCount = shard.nodes().length;
+		haloShards = shard.haloShards();
+		nodes = Arrays.copyOf(shard.nodes(), ownedCount + haloShards.length);
+		System.arraycopy(shard.halo(), 0, nodes, ownedCount,
+				haloShards.length);
+		int localCount = nodes.length;
+		xs = new int[localCount];
+		ys = new int[localCount];
+		for (int k = 0; k < localCount; k++) {
+			long square = residues.coordinates(nodes[k]);
+			long representative = residues.representative(
+					Residues.unpackX(square), Residues.unpackY(square));
+			xs[k] = Residues.unpackX(representative);
+			ys[k] = Residues.unpackY(representative);
+		}
+		adjacency = new int[4 * ownedCount];
+		upstream = new int[4 * ownedCount];
+		for (int i = 0; i < ownedCount; i++) {
+			for (int j = 0; j < 4; j++) {
+				long x = xs[i], y = ys[i];
+				adjacency[4 * i + j] = hasLink(x, y, j) ? local(residues
+						.indexOf(x + Residues.DX[j], y + Residues.DY[j])) : -1;
+				long start = residues.representative(x - Residues.DX[j], y
+						- Residues.DY[j]);
+				x = Residues.unpackX(start);
+				y = Residues.unpackY(start);
+				upstream[4 * i + j] = hasLink(x, y, j) ? local(residues
+						.indexOf(x, y)) : -1;
+			}
+		}
+
+		// x+yi is at y-x*ringFactor along +i on the imaginary ring of 0,
+		// modulo the ring length, as x+yi minus that multiple of i is a
+		// multiple of alpha when x is a multiple of g = gcd(a,b)
+		long[] bezout = bezout(shard.getA(), shard.getB());
+		long g = bezout[2];
+		ringLength = n / g;
+		ringFactor = Math.floorMod(bezout[0] * (shard.getB() / g) - bezout[1]
+				* (shard.getA() / g), ringLength);
+
+		if (routingEntries(shard) > MAX_ROUTING_ENTRIES) {
+			throw new IllegalArgumentException("The shard of " + localCount
+					+ " nodes with its halo in the network of " + n
+					+ " nodes needs more than " + MAX_ROUTING_ENTRIES
+					+ " distances, use more shards");
+		}
+		onStaircaseRing = new boolean[2][localCount];
+		if (isHoneycomb && (shard.getA() + shard.getB()) % 2 != 0) {
+			translations = null;
+			int[] indexAdjacency = indexAdjacency();
+			rows = rows(indexAdjacency);
+			for (int family = 0; family < 2; family++) {
+				boolean[] onRing = staircaseRings(indexAdjacency, family);
+				for (int k = 0; k < localCount; k++) {
+					onStaircaseRing[family][k] = onRing[nodes[k]];
+				}
+			}
+		} else {
+			// the staircases of the Gaussian network go along the real axis,
+			// and the honeycomb ones alternate a real link and an imaginary
+			// link, one node to one node, so every node is on a ring
+			translations = isHoneycomb ? new short[][] { distancesFrom(0, 0),
+					distancesFrom(1, 0) } : null;
+			rows = null;
+			Arrays.fill(onStaircaseRing[0], true);
+			Arrays.fill(onStaircaseRing[1], true);
+		}
+
+		this.routing = routing;
+		permutation = (traffic == TRAFFIC.UNIFORM) ? null
+				: permutation(traffic);
+		this.injectionRate = injectionRate;
+		this.bufferSize = bufferSize;
+		this.seed = seed;
+		int shardCount = 0;
+		for (int s : haloShards) {
+			shardCount = Math.max(shardCount, s + 1);
+		}
+		boolean[] isPeer = new boolean[shardCount];
+		int peerCount = 0;
+		for (int s : haloShards) {
+			peerCount += isPeer[s] ? 0 : 1;
+			isPeer[s] = true;
+		}
+		peers = new int[peerCount];
+		for (int s = 0, k = 0; s < shardCount; s++) {
+			if (isPeer[s]) {
+				peers[k++] = s;
+			}
+		}
+
+		buffers = new int[ownedCount * PORTS * bufferSize * PACKET_INTS];
+		heads = new int[ownedCount * PORTS];
+		counts = new int[ownedCount * PORTS];
+		credits = new int[4 * CHANNELS * ownedCount];
+		for (int i = 0; i < ownedCount; i++) {
+			for (int j = 0; j < 4; j++) {
+				if (adjacency[4 * i + j] >= 0) {
+					Arrays.fill(credits, 4 * CHANNELS * i + CHANNELS * j, 4
+							* CHANNELS * i + CHANNELS * (j + 1), bufferSize);
+				}
+			}
+		}
+		roundRobin = new int[ownedCount];
+		outPackets = new int[shardCount][];
+		outPacketInts = new int[shardCount];
+		outCredits = new int[shardCount][];
+		outCreditCounts = new int[shardCount];
+		for (int s : peers) {
+			outPackets[s] = new int[64];
+			outCredits[s] = new int[64];
+		}
+	}
+
+	/**
+	 * @return the honeycomb distances a shard keeps to route its packets, at
+	 *         most MAX_ROUTING_ENTRIES
+	 */
+	public static long routingEntries(TrafficShard shard) {
+		if (shard.getNetwork() != NETWORK.HONEYCOMB) {
+			return 0;
+		} else if ((shard.getA() + shard.getB()) % 2 == 0) {
+			return 2L * shard.getNorm();
+		}
+		return (long) (shard.nodes().length + shard.halo().length)
+				* shard.getNorm();
+	}
+
+	/**
+	 * @return u, v and g = gcd(a, b) with a*u + b*v = g
+	 */
+	private static long[] bezout(long a, long b) {
+		long u = 1, v = 0, nextU = 0, nextV = 1;
+		while (b != 0) {
+			long q = a / b;
+			long r = a - q * b;
+			a = b;
+			b = r;
+			long t = u - q * nextU;
+			u = nextU;
+			nextU = t;
+			t = v - q * nextV;
+			v = nextV;
+			nextV = t;
+		}
+		return new long[] { u, v, a };
+	}
+
+	/**
+	 * @return whether the node at x+yi of the representation has the link in
+	 *         the direction j, the honeycomb nodes have +1 where |x|+|y| is
+	 *         even and -1 where it is odd
+	 */
+	private boolean hasLink(long x, long y, int j) {
+		return !isHoneycomb || j >= 2 || ((Math.abs(x) + Math.abs(y)) & 1) == j;
+	}
+
+	/**
+	 * @return the local index of the node of an index
+	 * @throws IllegalArgumentException
+	 *             if the node is neither in the shard nor in its halo
+	 */
+	private int local(long index) {
+		int k = Arrays.binarySearch(nodes, 0, ownedCount, (int) index);
+		if (k < 0) {
+			k = Arrays.binarySearch(nodes, ownedCount, nodes.length,
+					(int) index);
+		}
+		if (k < 0) {
+			throw new IllegalArgumentException("The halo of shard " + shard
+					+ " misses the node " + index + " at the end of a link");
+		}
+		return k;
+	}
+
+	/**
+	 * @return the local index of an owned node, for the frames
+	 */
+	private int owned(int index) {
+		int i = Arrays.binarySearch(nodes, 0, ownedCount, index);
+		if (i < 0) {
+			throw new IllegalArgumentException("A frame holds the node "
+					+ index + " which is not in shard " + shard);
+		}
+		return i;
+	}
+
+	/**
+	 * @return the flat adjacency of the network by node index
+	 */
+	private int[] indexAdjacency() {
+		int[] indexAdjacency = new int[4 * n];
+		for (int y = 0; y < residues.getRows(); y++) {
+			long x = residues.getRowMin(y);
+			for (long u = residues.getRowStart(y); u < residues
+					.getRowStart(y + 1); u++, x++) {
+				long representative = residues.representative(x, y);
+				long rx = Residues.unpackX(representative);
+				long ry = Residues.unpackY(representative);
+				for (int j = 0; j < 4; j++) {
+					indexAdjacency[(int) (4 * u + j)] = hasLink(rx, ry, j) ? (int) residues
+							.indexOf(rx + Residues.DX[j], ry + Residues.DY[j])
+							: -1;
+				}
+			}
+		}
+		return indexAdjacency;
+	}
+
+	/**
+	 * @return the distances from every local node to every node, from the
+	 *         local node k to the node v at k*n+v
+	 */
+	private short[] rows(int[] indexAdjacency) {
+		int[] reverse = BreadthFirstSearch.reverseAdjacency(indexAdjacency);
+		short[] table = new short[nodes.length * n];
+		int[] distances = new int[n];
+		for (int k = 0; k < nodes.length; k++) {
+			BreadthFirstSearch.directionOptimizing(indexAdjacency, reverse,
+					nodes[k], distances);
+			for (int v = 0; v < n; v++) {
+				table[k * n + v] = (short) distances[v];
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * @return the distances from the node congruent to x+yi to every node,
+	 *         by a BFS which finds the links from the residues
+	 */
+	private short[] distancesFrom(long x, long y) {
+		short[] distances = new short[n];
+		Arrays.fill(distances, (short) -1);
+		int[] queue = new int[n];
+		int source = (int) residues.indexOf(x, y);
+		distances[source] = 0;
+		queue[0] = source;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int u = queue[head];
+			if (distances[u] == Short.MAX_VALUE) {
+				throw new IllegalArgumentException("The network of " + n
+						+ " nodes has distances beyond " + Short.MAX_VALUE);
+			}
+			long square = residues.coordinates(u);
+			long representative = residues.representative(
+					Residues.unpackX(square), Residues.unpackY(square));
+			long ux = Residues.unpackX(representative);
+			long uy = Residues.unpackY(representative);
+			for (int j = 0; j < 4; j++) {
+				if (!hasLink(ux, uy, j)) {
+					continue;
+				}
+				int v = (int) residues.indexOf(ux + Residues.DX[j], uy
+						+ Residues.DY[j]);
+				if (distances[v] < 0) {
+					distances[v] = (short) (distances[u] + 1);
+					queue[tail++] = v;
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * @return the destination of the packets of each owned node
+	 */
+	private int[] permutation(TRAFFIC traffic) {
+		// the farthest real node a shortest route reaches along the real axis
+		int shift = 0;
+		for (int k = 1; k < n; k++) {
+			long shortest = residues.shortest(k, 0);
+			if (Math.abs(Residues.unpackX(shortest))
+					+ Math.abs(Residues.unpackY(shortest)) == k) {
+				shift = k;
+			}
+		}
+		int[] permutation = new int[ownedCount];
+		for (int i = 0; i < ownedCount; i++) {
+			long x = xs[i];
+			long y = ys[i];
+			if (traffic == TRAFFIC.TRANSPOSE) {
+				permutation[i] = (int) residues.indexOf(y, x);
+			} else if (traffic == TRAFFIC.COMPLEMENT) {
+				permutation[i] = (int) residues.indexOf(-x, -y);
+			} else {
+				permutation[i] = (int) residues.indexOf(x + shift, y);
+			}
+		}
+		return permutation;
+	}
+
+	/**
+	 * @return the direction of the staircase link out of u, the real link
+	 *         along the family, 0 for +1 and 1 for -1, or else the imaginary
+	 *         link of the same sign
+	 */
+	private static int staircase(int[] adjacency, int u, int family) {
+		return (adjacency[4 * u + family] >= 0) ? family : 2 + family;
+	}
+
+	/**
+	 * Follow the staircase links of a family out of every node. Each node has
+	 * one, so the staircases end up on rings.
+	 *
+	 * @return whether the staircase link out of each node is on a ring
+	 * @throws IllegalArgumentException
+	 *             if a ring has no real link, it would never leave its
+	 *             imaginary ring
+	 */
+	private static boolean[] staircaseRings(int[] adjacency, int family) {
+		int n = adjacency.length / 4;
+		boolean[] onRing = new boolean[n];
+		// the start of the walk which reached each node first
+		int[] walks = new int[n];
+		Arrays.fill(walks, -1);
+		for (int u = 0; u < n; u++) {
+			int v = u;
+			while (walks[v] < 0) {
+				walks[v] = u;
+				v = adjacency[4 * v + staircase(adjacency, v, family)];
+			}
+			if (walks[v] != u) {
+				continue;
+			}
+			// the walk closed a ring at v
+			boolean isMoving = false;
+			int w = v;
+			do {
+				onRing[w] = true;
+				int j = staircase(adjacency, w, family);
+				isMoving |= j == family;
+				w = adjacency[4 * w + j];
+			} while (w != v);
+			if (!isMoving) {
+				throw new IllegalArgumentException(
+						"A staircase of the network has no real link");
+			}
+		}
+		return onRing;
+	}
+
+	/**
+	 * Simulate the whole network, or a shard without peers
+	 *
+	 * @param cycles
+	 *            number of cycles after the warmup
+	 * @param warmup
+	 *            number of cycles before the measure
+	 * @return the statistics of the measured cycles
+	 */
+	public TrafficStatistics run(int cycles, int warmup) {
+		if (peers.length > 0) {
+			throw new IllegalStateException(
+					"A shard with peers needs its frames exchanged");
+		}
+		for (int cycle = 0; cycle < warmup + cycles; cycle++) {
+			cycle(cycle, cycle >= warmup);
+		}
+		return getStatistics(cycles);
+	}
+
+	/**
+	 * Simulate one cycle: take in the packets and credits sent in the last
+	 * cycle, generate the new packets and move the packets over the links
+	 *
+	 * @param cycle
+	 *            the cycle number, from 0
+	 * @param isMeasured
+	 *            whether the statistics count this cycle
+	 */
+	public void cycle(int cycle, boolean isMeasured) {
+		for (int k = 0; k < arrivalInts; k += 1 + PACKET_INTS) {
+			push(arrivals[k], arrivals, k + 1);
+		}
+		arrivalInts = 0;
+		for (int k = 0; k < creditCount; k++) {
+			credits[creditChannels[k]]++;
+		}
+		creditCount = 0;
+
+		int[] packet = new int[PACKET_INTS];
+		for (int i = 0; i < ownedCount; i++) {
+			int u = nodes[i];
+			if (permutation != null && permutation[i] == u) {
+				continue;
+			}
+			long random = mix(mix(seed + u) + cycle);
+			if ((random >>> 11) * 0x1.0p-53 >= injectionRate) {
+				continue;
+			}
+			if (isMeasured) {
+				generated++;
+			}
+			int port = i * PORTS + INJECTION;
+			if (counts[port] == bufferSize) {
+				if (isMeasured) {
+					refused++;
+				}
+				continue;
+			}
+			packet[0] = (permutation != null) ? permutation[i]
+					: (int) ((u + 1 + Long.remainderUnsigned(mix(random), n - 1)) % n);
+			packet[1] = u;
+			packet[2] = cycle;
+			packet[3] = 0;
+			packet[4] = 0;
+			packet[5] = -1;
+			if (routing == ROUTING.VALIANT || routing == ROUTING.UGAL) {
+				int intermediate = (int) Long.remainderUnsigned(
+						mix(mix(random)), n);
+				if (intermediate != u && intermediate != packet[0]) {
+					packet[5] = intermediate;
+				}
+			}
+			push(port, packet, 0);
+		}
+
+		for (int i = 0; i < ownedCount; i++) {
+			int u = nodes[i];
+			// the links already taken in this cycle
+			int granted = 0;
+			for (int k = 0; k < PORTS; k++) {
+				int input = (roundRobin[i] + k) % PORTS;
+				int port = i * PORTS + input;
+				if (counts[port] == 0) {
+					continue;
+				}
+				int head = (port * bufferSize + heads[port]) * PACKET_INTS;
+				int destination = buffers[head];
+				if (buffers[head + 5] == u) {
+					buffers[head + 5] = -1;
+				}
+				if (destination == u) {
+					if (isMeasured) {
+						int latency = cycle - buffers[head + 2];
+						delivered++;
+						latencySum += latency;
+						hopSum += buffers[head + 3];
+						maxLatency = Math.max(maxLatency, latency);
+					}
+					pop(port, i, input);
+					continue;
+				}
+
+				int output;
+				// whether a UGAL packet leaves its source by a shortest route
+				boolean isMinimal = false;
+				if (input == INJECTION || input % CHANNELS == ROUTED) {
+					int target = (buffers[head + 5] >= 0) ? buffers[head + 5]
+							: destination;
+					output = CHANNELS * direction(i, target) + ROUTED;
+					if (routing == ROUTING.UGAL && input == INJECTION
+							&& target != destination) {
+						int minimal = CHANNELS * direction(i, destination)
+								+ ROUTED;
+						// the queue at the end of each first link times the hops
+						long minimalCost = (long) (bufferSize + 1 - credits[4
+								* CHANNELS * i + minimal])
+								* distance(i, destination);
+						long valiantCost = (long) (bufferSize + 1 - credits[4
+								* CHANNELS * i + output])
+								* (distance(i, target) + distanceBetween(target,
+										destination));
+						if (minimalCost <= valiantCost) {
+							output = minimal;
+							isMinimal = true;
+						}
+					}
+					if (credits[4 * CHANNELS * i + output] == 0) {
+						output = escape(i, -1, head);
+					}
+				} else {
+					output = escape(i, input, head);
+				}
+				int j = output / CHANNELS;
+				// a packet entering a ring needs a bubble behind it
+				int needed = (output % CHANNELS == ROUTED || isContinuing(i,
+						input, output)) ? 1 : 2;
+				if ((granted & (1 << j)) != 0
+						|| credits[4 * CHANNELS * i + output] < needed) {
+					continue;
+				}
+				granted |= 1 << j;
+				credits[4 * CHANNELS * i + output]--;
+				if (isMinimal) {
+					buffers[head + 5] = -1;
+				}
+				buffers[head + 3]++;
+				if (output % CHANNELS == STAIRCASE && j < 2) {
+					buffers[head + 4]--;
+				}
+				send(i, output, buffers, head);
+				pop(port, i, input);
+			}
+			roundRobin[i] = (roundRobin[i] + 1) % PORTS;
+		}
+	}
+
+	/**
+	 * @param i
+	 *            the local index of an owned node
+	 * @return the direction of the next routed link from the node to the
+	 *         target of a packet
+	 */
+	private int direction(int i, int target) {
+		int best = route(i, target);
+		if (routing == ROUTING.DETERMINISTIC || routing == ROUTING.VALIANT) {
+			return best;
+		}
+		// the other links of the shortest routes, if they have more credits
+		int remaining = distance(i, target);
+		for (int j = 0; j < 4; j++) {
+			int v = adjacency[4 * i + j];
+			if (v >= 0
+					&& credits[4 * CHANNELS * i + CHANNELS * j + ROUTED] > credits[4
+							* CHANNELS * i + CHANNELS * best + ROUTED]
+					&& distance(v, target) == remaining - 1) {
+				best = j;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @param k
+	 *            the local index of a node of the shard or its halo
+	 * @return the number of links from the node to the destination
+	 */
+	private int distance(int k, int destination) {
+		if (!isHoneycomb) {
+			return gaussianDistance(xs[k], ys[k], destination);
+		} else if (rows != null) {
+			return rows[k * n + destination];
+		}
+		return translatedDistance(xs[k], ys[k], destination);
+	}
+
+	/**
+	 * @return the number of links between two nodes of the network, where
+	 *         the honeycomb network of an odd a+b counts the Gaussian ones
+	 */
+	private int distanceBetween(int source, int destination) {
+		long square = residues.coordinates(source);
+		if (isHoneycomb && rows == null) {
+			return translatedDistance(Residues.unpackX(square),
+					Residues.unpackY(square), destination);
+		}
+		return gaussianDistance(Residues.unpackX(square),
+				Residues.unpackY(square), destination);
+	}
+
+	/**
+	 * @return the number of Gaussian links from x+yi to the destination
+	 */
+	private int gaussianDistance(long x, long y, int destination) {
+		long square = residues.coordinates(destination);
+		long shortest = residues.shortest(Residues.unpackX(square) - x,
+				Residues.unpackY(square) - y);
+		return Math.abs(Residues.unpackX(shortest))
+				+ Math.abs(Residues.unpackY(shortest));
+	}
+
+	/**
+	 * @return the number of honeycomb links from x+yi to the destination, as
+	 *         from the node 0 or 1 of the same parity to the destination
+	 *         moved along
+	 */
+	private int translatedDistance(long x, long y, int destination) {
+		int parity = (int) ((x + y) & 1);
+		long square = residues.coordinates(destination);
+		return translations[parity][(int) residues.indexOf(
+				Residues.unpackX(square) - x + parity, Residues.unpackY(square)
+						- y)];
+	}
+
+	/**
+	 * @return the direction of the next link from the owned node i to the
+	 *         destination
+	 */
+	private int route(int i, int destination) {
+		if (!isHoneycomb) {
+			long square = residues.coordinates(destination);
+			long shortest = residues.shortest(Residues.unpackX(square)
+					- (long) xs[i], Residues.unpackY(square) - (long) ys[i]);
+			int dx = Residues.unpackX(shortest);
+			int dy = Residues.unpackY(shortest);
+			return (dx > 0) ? 0 : (dx < 0) ? 1 : (dy > 0) ? 2 : 3;
+		}
+		int remaining = distance(i, destination);
+		for (int j = 0; j < 3; j++) {
+			int v = adjacency[4 * i + j];
+			if (v >= 0 && distance(v, destination) == remaining - 1) {
+				return j;
+			}
+		}
+		return 3;
+	}
+
+	/**
+	 * @param i
+	 *            the local index of the owned node holding the packet
+	 * @param input
+	 *            the input buffer of the packet, or -1 if it leaves the
+	 *            routed channels
+	 * @param head
+	 *            the packet, which gets the real links of its staircase when
+	 *            it leaves the routed channels
+	 * @return the escape channel out of the node to the destination, at
+	 *         CHANNELS*direction+channel
+	 */
+	private int escape(int i, int input, int head) {
+		if (input >= 0 && input % CHANNELS == RING) {
+			return input;
+		}
+		long square = residues.coordinates(buffers[head]);
+		long dx = Residues.unpackX(square) - (long) xs[i];
+		long dy = Residues.unpackY(square) - (long) ys[i];
+		int family;
+		if (input >= 0) {
+			family = (input / CHANNELS) & 1;
+		} else {
+			int shortestX = Residues.unpackX(residues.shortest(dx, dy));
+			family = (shortestX > 0) ? 0 : 1;
+			buffers[head + 4] = Math.abs(shortestX);
+		}
+		if (buffers[head + 4] > 0) {
+			return CHANNELS * staircase(adjacency, i, family) + STAIRCASE;
+		}
+		// the destination is on the imaginary ring of the node
+		long ahead = Math.floorMod(dy - Math.floorMod(dx, ringLength)
+				* ringFactor, ringLength);
+		return CHANNELS * ((ahead <= ringLength - ahead) ? 2 : 3) + RING;
+	}
+
+	/**
+	 * @return whether a packet going from the input buffer to the output
+	 *         channel of the owned node i stays on the same escape ring
+	 */
+	private boolean isContinuing(int i, int input, int output) {
+		if (input == INJECTION || input % CHANNELS != output % CHANNELS) {
+			return false;
+		}
+		if (output % CHANNELS == RING) {
+			return input == output;
+		}
+		int direction = input / CHANNELS;
+		return onStaircaseRing[direction & 1][upstream[4 * i + direction]];
+	}
+
+	private void push(int port, int[] packet, int offset) {
+		int slot = (heads[port] + counts[port]) % bufferSize;
+		System.arraycopy(packet, offset, buffers, (port * bufferSize + slot)
+				* PACKET_INTS, PACKET_INTS);
+		counts[port]++;
+	}
+
+	/**
+	 * Remove the head packet of an input buffer of the owned node i and send
+	 * a credit back over the channel into the buffer
+	 */
+	private void pop(int port, int i, int input) {
+		heads[port] = (heads[port] + 1) % bufferSize;
+		counts[port]--;
+		if (input == INJECTION) {
+			return;
+		}
+		// the input buffer is the channel of the link into it
+		int w = upstream[4 * i + input / CHANNELS];
+		if (w < ownedCount) {
+			if (creditCount == creditChannels.length) {
+				creditChannels = Arrays.copyOf(creditChannels, 2 * creditCount);
+			}
+			creditChannels[creditCount++] = 4 * CHANNELS * w + input;
+		} else {
+			int s = haloShards[w - ownedCount];
+			if (outCreditCounts[s] == outCredits[s].length) {
+				outCredits[s] = Arrays.copyOf(outCredits[s],
+						2 * outCreditCounts[s]);
+			}
+			outCredits[s][outCreditCounts[s]++] = 4 * CHANNELS * nodes[w]
+					+ input;
+		}
+	}
+
+	/**
+	 * Queue a packet over a channel out of the owned node i for the next
+	 * cycle
+	 */
+	private void send(int i, int output, int[] packet, int offset) {
+		int v = adjacency[4 * i + output / CHANNELS];
+		if (v < ownedCount) {
+			if (arrivalInts + 1 + PACKET_INTS > arrivals.length) {
+				arrivals = Arrays.copyOf(arrivals, 2 * arrivals.length);
+			}
+			arrivals[arrivalInts] = v * PORTS + output;
+			System.arraycopy(packet, offset, arrivals, arrivalInts + 1,
+					PACKET_INTS);
+			arrivalInts += 1 + PACKET_INTS;
+		} else {
+			int s = haloShards[v - ownedCount];
+			if (outPacketInts[s] + 1 + PACKET_INTS > outPackets[s].length) {
+				outPackets[s] = Arrays.copyOf(outPackets[s],
+						2 * outPackets[s].length);
+			}
+			outPackets[s][outPacketInts[s]] = 4 * CHANNELS * nodes[v] + output;
+			System.arraycopy(packet, offset, outPackets[s],
+					outPacketInts[s] + 1, PACKET_INTS);
+			outPacketInts[s] += 1 + PACKET_INTS;
+		}
+	}
+
+	/**
+	 * @return the bytes of the next frame for a peer
+	 */
+	public int getFrameBytes(int peer) {
+		return 4 * (HEADER_INTS + outPacketInts[peer] + outCreditCounts[peer]);
+	}
+
+	/**
+	 * Write the packets and credits of the cycle for a peer as a frame and
+	 * forget them
+	 *
+	 * @param buffer
+	 *            the frame is put at its position, it needs getFrameBytes
+	 *            bytes of room
+	 */
+	public void writeFrame(int peer, int cycle, ByteBuffer buffer) {
+		buffer.putInt(getFrameBytes(peer));
+		buffer.putInt(cycle);
+		buffer.putInt(outPacketInts[peer] / (1 + PACKET_INTS));
+		buffer.putInt(outCreditCounts[peer]);
+		int[] packets = outPackets[peer];
+		for (int k = 0; k < outPacketInts[peer]; k++) {
+			buffer.putInt(packets[k]);
+		}
+		int[] peerCredits = outCredits[peer];
+		for (int k = 0; k < outCreditCounts[peer]; k++) {
+			buffer.putInt(peerCredits[k]);
+		}
+		outPacketInts[peer] = 0;
+		outCreditCounts[peer] = 0;
+	}
+
+	/**
+	 * Take in a frame of a peer for the next cycle
+	 *
+	 * @param buffer
+	 *            holds the frame at its position, which is moved past it
+	 * @return the cycle the frame was written in
+	 */
+	public int readFrame(ByteBuffer buffer) {
+		buffer.getInt();
+		int cycle = buffer.getInt();
+		int packetCount = buffer.getInt();
+		int frameCredits = buffer.getInt();
+		int ints = packetCount * (1 + PACKET_INTS);
+		if (arrivalInts + ints > arrivals.length) {
+			arrivals = Arrays.copyOf(arrivals,
+					Math.max(2 * arrivals.length, arrivalInts + ints));
+		}
+		for (int k = 0; k < ints; k += 1 + PACKET_INTS) {
+			int channel = buffer.getInt();
+			arrivals[arrivalInts++] = owned(channel / (4 * CHANNELS)) * PORTS
+					+ channel % (4 * CHANNELS);
+			for (int m = 0; m < PACKET_INTS; m++) {
+				arrivals[arrivalInts++] = buffer.getInt();
+			}
+		}
+		if (creditCount + frameCredits > creditChannels.length) {
+			creditChannels = Arrays.copyOf(creditChannels,
+					Math.max(2 * creditChannels.length, creditCount + frameCredits));
+		}
+		for (int k = 0; k < frameCredits; k++) {
+			int channel = buffer.getInt();
+			creditChannels[creditCount++] = 4 * CHANNELS
+					* owned(channel / (4 * CHANNELS)) + channel % (4 * CHANNELS);
+		}
+		return cycle;
+	}
+
+	/**
+	 * @return the node at the end of the link in the direction j out of a
+	 *         node of this shard, or -1 if the node has no such link
+	 */
+	int getNeighbor(int node, int j) {
+		int v = adjacency[4 * owned(node) + j];
+		return (v < 0) ? -1 : nodes[v];
+	}
+
+	/**
+	 * @return the shards this shard exchanges packets or credits with, in
+	 *         increasing order
+	 */
+	public int[] getPeers() {
+		return peers.clone();
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	/**
+	 * @return number of nodes of this shard
+	 */
+	public int getNodes() {
+		return ownedCount;
+	}
+
+	/**
+	 * @param cycles
+	 *            number of measured cycles
+	 * @return the statistics of the nodes of this shard
+	 */
+	public TrafficStatistics getStatistics(long cycles) {
+		return new TrafficStatistics(ownedCount, cycles, generated,
+				refused, delivered, latencySum, hopSum, maxLatency);
+	}
+
+	/**
+	 * The SplitMix64 finalizer, a random number from any number
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,122 @@
+package gaussian;
+
+/**
+ * Counts of a traffic simulation over its measured cycles, the cycles after
+ * the warmup. The counts of the shards of a sharded simulation add up to
+ * the counts of the whole network.
+ */
+public class TrafficStatistics {
+
+	private final long nodes;
+	private final long cycles;
+	private final long generated;
+	private final long refused;
+	private final long delivered;
+	private final long latencySum;
+	private final long hopSum;
+	private final long maxLatency;
+
+	/**
+	 * @param nodes
+	 *            number of nodes simulated
+	 * @param cycles
+	 *            number of measured cycles
+	 * @param generated
+	 *            packets generated by the sources
+	 * @param refused
+	 *            generated packets dropped as the injection buffer was full
+	 * @param delivered
+	 *            packets that reached their destination
+	 * @param latencySum
+	 *            sum of the cycles from generation to delivery of the
+	 *            delivered packets
+	 * @param hopSum
+	 *            sum of the links taken by the delivered packets
+	 * @param maxLatency
+	 *            largest latency of a delivered packet
+	 */
+	public TrafficStatistics(long nodes, long cycles, long generated,
+			long refused, long delivered, long latencySum, long hopSum,
+			long maxLatency) {
+		this.nodes = nodes;
+		this.cycles = cycles;
+		this.generated = generated;
+		this.refused = refused;
+		this.delivered = delivered;
+		this.latencySum = latencySum;
+		this.hopSum = hopSum;
+		this.maxLatency = maxLatency;
+	}
+
+	/**
+	 * @return the statistics of this shard and another shard of the same
+	 *         simulation together
+	 */
+	public TrafficStatistics add(TrafficStatistics other) {
+		if (other.cycles != cycles) {
+			throw new IllegalArgumentException(
+					"The shards should measure the same cycles");
+		}
+		return new TrafficStatistics(nodes + other.nodes, cycles, generated
+				+ other.generated, refused + other.refused, delivered
+				+ other.delivered, latencySum + other.latencySum, hopSum
+				+ other.hopSum, Math.max(maxLatency, other.maxLatency));
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getCycles() {
+		return cycles;
+	}
+
+	public long getGenerated() {
+		return generated;
+	}
+
+	public long getRefused() {
+		return refused;
+	}
+
+	public long getDelivered() {
+		return delivered;
+	}
+
+	public long getLatencySum() {
+		return latencySum;
+	}
+
+	public long getHopSum() {
+		return hopSum;
+	}
+
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * @return packets generated per node and cycle
+	 */
+	public double getOfferedLoad() {
+		return (nodes * cycles == 0) ? 0 : (double) generated
+				/ (nodes * cycles);
+	}
+
+	/**
+	 * @return packets delivered per node and cycle
+	 */
+	public double getThroughput() {
+		return (nodes * cycles == 0) ? 0 : (double) delivered
+				/ (nodes * cycles);
+	}
+
+	public double getAverageLatency() {
+		return (delivered == 0) ? 0 : (double) latencySum / delivered;
+	}
+
+	public double getAverageHops() {
+		return (delivered == 0) ? 0 : (double) hopSum / delivered;
+	}
+
+}
@@ -0,0 +1,64 @@
+package gaussian.benchmark;
+
+import gaussian.DistanceStatistics;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times the exact all-pairs distance statistics of one network with the
+ * bit-parallel BFS, against a BFS from every node estimated from the first
+ * sources.
+ *
+ * Usage: AllPairsBenchmark [a b] [GAUSSIAN|HONEYCOMB]
+ */
+public class AllPairsBenchmark {
+
+	// number of single-source BFS timed for the estimate
+	private static final int SAMPLES = 256;
+
+	public static void main(String[] args) {
+		int a = 100;
+		int b = 101;
+		NETWORK network = NETWORK.HONEYCOMB;
+		if (args.length >= 2) {
+			a = Integer.parseInt(args[0]);
+			b = Integer.parseInt(args[1]);
+		}
+		if (args.length >= 3) {
+			network = NETWORK.valueOf(args[2].toUpperCase(Locale.ROOT));
+		}
+
+		GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+				REPRESENTATION.DIAMOND, network);
+		int n = gaussianNetwork.getNorm();
+		System.out.printf("%s %d+%di with %d nodes, %d threads%n", network, a,
+				b, n, ForkJoinPool.commonPool().getParallelism());
+
+		// the first run warms up the JIT
+		DistanceStatistics.compute(gaussianNetwork);
+		long start = System.nanoTime();
+		DistanceStatistics statistics = DistanceStatistics.compute(gaussianNetwork);
+		double bitParallel = (System.nanoTime() - start) / 1e6;
+
+		int samples = Math.min(SAMPLES, n);
+		start = System.nanoTime();
+		for (int source = 0; source < samples; source++) {
+			gaussianNetwork.getDistancesFrom(source, null);
+		}
+		double perSource = (System.nanoTime() - start) / 1e6 / samples;
+
+		System.out.printf(Locale.ROOT,
+				"diameter %d, radius %d, average distance %.6f%s%n",
+				statistics.getDiameter(), statistics.getRadius(),
+				statistics.getAverageDistance(),
+				statistics.isConnected() ? "" : " (not connected)");
+		System.out.printf("bit-parallel       %10.1f ms%n", bitParallel);
+		System.out.printf("BFS from every node %9.1f ms (estimated)  speedup %5.2f%n",
+				perSource * n, perSource * n / bitParallel);
+	}
+
+}
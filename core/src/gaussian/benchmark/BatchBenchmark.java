@@ -0,0 +1,78 @@
+package gaussian.benchmark;
+
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.NetworkSnapshot;
+import gaussian.REPRESENTATION;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Times random distance and neighbor queries on one network, one call per
+ * query against the batch methods of NetworkSnapshot.
+ *
+ * Usage: BatchBenchmark [a b] [queries]
+ */
+public class BatchBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		int a = 300;
+		int b = 301;
+		int queries = 4000000;
+		if (args.length >= 2) {
+			a = Integer.parseInt(args[0]);
+			b = Integer.parseInt(args[1]);
+		}
+		if (args.length >= 3) {
+			queries = Integer.parseInt(args[2]);
+		}
+
+		NetworkSnapshot snapshot = GaussianNetwork.create(a, b,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN).snapshot();
+		int n = snapshot.getNorm();
+		Random random = new Random(1);
+		int[] sources = new int[queries];
+		int[] destinations = new int[queries];
+		int[] results = new int[queries];
+		for (int k = 0; k < queries; k++) {
+			sources[k] = random.nextInt(n);
+			destinations[k] = random.nextInt(n);
+		}
+		System.out.printf("GAUSSIAN %d+%di with %d nodes, %d queries%n", a, b,
+				n, queries);
+
+		// the last round of each is timed, the others warm up the JIT
+		long check = 0;
+		double single = 0, batch = 0, neighbors = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int k = 0; k < queries; k++) {
+				results[k] = snapshot.getDistance(sources[k], destinations[k]);
+			}
+			single = (System.nanoTime() - start) / 1e6;
+			check += results[queries - 1];
+
+			start = System.nanoTime();
+			snapshot.getDistances(sources, destinations, results, queries);
+			batch = (System.nanoTime() - start) / 1e6;
+			check += results[queries - 1];
+
+			start = System.nanoTime();
+			snapshot.getNeighbors(sources, 0, results, queries);
+			neighbors = (System.nanoTime() - start) / 1e6;
+			check += results[queries - 1];
+		}
+
+		System.out.printf(Locale.ROOT, "getDistance   %8.1f ms%n", single);
+		System.out.printf(Locale.ROOT,
+				"getDistances  %8.1f ms  speedup %5.2f%n", batch, single
+						/ batch);
+		System.out.printf(Locale.ROOT, "getNeighbors  %8.1f ms%n", neighbors);
+		// keeps the JIT from dropping the loops
+		System.out.println("checksum " + check);
+	}
+
+}
@@ -0,0 +1,79 @@
+package gaussian.benchmark;
+
+import gaussian.BFS_MODE;
+import gaussian.DiamondGaussian;
+import gaussian.GENERATION;
+import gaussian.GaussianNetwork;
+import gaussian.HoneycombGaussian;
+import gaussian.NETWORK;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times setDistanceDistributions with every BFS mode on one large network,
+ * first on the Gaussian network and then on the honeycomb network pruned
+ * from it, and checks that all the modes find the same distributions.
+ *
+ * Usage: BfsBenchmark [a b] [repetitions]
+ */
+public class BfsBenchmark {
+
+	public static void main(String[] args) {
+		int a = 1000;
+		int b = 1001;
+		int repetitions = 5;
+		if (args.length >= 2) {
+			a = Integer.parseInt(args[0]);
+			b = Integer.parseInt(args[1]);
+		}
+		if (args.length >= 3) {
+			repetitions = Integer.parseInt(args[2]);
+		}
+
+		long start = System.nanoTime();
+		GaussianNetwork gaussianNetwork = new DiamondGaussian(a, b,
+				GENERATION.PARALLEL);
+		System.out.printf("Built %d+%di with %d nodes in %.1f ms%n", a, b,
+				gaussianNetwork.getNorm(), (System.nanoTime() - start) / 1e6);
+		System.out.printf("Parallel BFS runs on %d threads%n", ForkJoinPool
+				.commonPool().getParallelism());
+
+		run(gaussianNetwork, NETWORK.GAUSSIAN, repetitions);
+
+		new HoneycombGaussian(gaussianNetwork);
+		run(gaussianNetwork, NETWORK.HONEYCOMB, repetitions);
+	}
+
+	/**
+	 * Time every BFS mode and compare it with the top-down BFS
+	 */
+	private static void run(GaussianNetwork gaussianNetwork, NETWORK network,
+			int repetitions) {
+		gaussianNetwork.setDistanceDistributions(network, BFS_MODE.TOP_DOWN);
+		List<Integer> expected = gaussianNetwork.getDistanceDistributions();
+		double baseline = 0;
+
+		for (BFS_MODE mode : BFS_MODE.values()) {
+			// the first run warms up the JIT
+			gaussianNetwork.setDistanceDistributions(network, mode);
+			long best = Long.MAX_VALUE;
+			for (int r = 0; r < repetitions; r++) {
+				long start = System.nanoTime();
+				gaussianNetwork.setDistanceDistributions(network, mode);
+				best = Math.min(best, System.nanoTime() - start);
+			}
+
+			boolean isSame = expected.equals(gaussianNetwork
+					.getDistanceDistributions());
+			double ms = best / 1e6;
+			if (mode == BFS_MODE.TOP_DOWN) {
+				baseline = ms;
+			}
+			System.out.printf("%-9s %-20s %10.1f ms  speedup %5.2f  %s%n",
+					network, mode, ms, baseline / ms, isSame ? "same"
+							: "DIFFERENT DISTRIBUTION");
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package gaussian.benchmark;
+
+import gaussian.DiamondGaussian;
+import gaussian.NETWORK;
+
+import java.util.Arrays;
+
+/**
+ * Times a sweep of the networks a+bi for b from bFrom to bTo, building
+ * every network from scratch and then growing each one from the network of
+ * the previous b, and checks that both give the same distances.
+ *
+ * Usage: GrowthBenchmark [a bFrom bTo] [repetitions]
+ */
+public class GrowthBenchmark {
+
+	public static void main(String[] args) {
+		int a = 400;
+		int bFrom = 600;
+		int bTo = 620;
+		int repetitions = 3;
+		if (args.length >= 3) {
+			a = Integer.parseInt(args[0]);
+			bFrom = Integer.parseInt(args[1]);
+			bTo = Integer.parseInt(args[2]);
+		}
+		if (args.length >= 4) {
+			repetitions = Integer.parseInt(args[3]);
+		}
+		if (a < 0 || bFrom < Math.max(a, 1) || bTo < bFrom) {
+			System.err
+					.println("Usage: GrowthBenchmark [a bFrom bTo] [repetitions]");
+			System.exit(1);
+		}
+
+		double full = Double.MAX_VALUE;
+		double grown = Double.MAX_VALUE;
+		boolean isSame = true;
+		long nodes = 0;
+		for (int r = 0; r < repetitions; r++) {
+			long start = System.nanoTime();
+			DiamondGaussian last = null;
+			for (int b = bFrom; b <= bTo; b++) {
+				last = new DiamondGaussian(a, b);
+			}
+			full = Math.min(full, (System.nanoTime() - start) / 1e6);
+			int[] expected = last.getWeights(NETWORK.GAUSSIAN);
+
+			start = System.nanoTime();
+			DiamondGaussian network = new DiamondGaussian(a, bFrom);
+			nodes = network.getNorm();
+			for (int b = bFrom + 1; b <= bTo; b++) {
+				network = new DiamondGaussian(network, a, b);
+				nodes += network.getNorm();
+			}
+			grown = Math.min(grown, (System.nanoTime() - start) / 1e6);
+			isSame &= Arrays.equals(expected,
+					network.getWeights(NETWORK.GAUSSIAN))
+					&& last.getDistanceDistributions().equals(
+							network.getDistanceDistributions());
+		}
+
+		System.out.printf("%d networks %d+%di to %d+%di, %d nodes%n", bTo
+				- bFrom + 1, a, bFrom, a, bTo, nodes);
+		System.out.printf("built  %10.1f ms%n", full);
+		System.out.printf("grown  %10.1f ms  speedup %5.2f  %s%n", grown, full
+				/ grown, isSame ? "same" : "DIFFERENT DISTANCES");
+	}
+
+}
@@ -0,0 +1,66 @@
+package gaussian.benchmark;
+
+import gaussian.GaussianAnalytics;
+import gaussian.NETWORK;
+import gaussian.OffHeapNetwork;
+import gaussian.REPRESENTATION;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Builds one network in memory mapped files and runs the BFS on it, showing
+ * the heap it used. Run it with a small -Xmx to check that the network does
+ * not need the heap.
+ *
+ * Usage: OffHeapBenchmark [a b] [GAUSSIAN|HONEYCOMB] [directory]
+ */
+public class OffHeapBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int a = 3000;
+		int b = 3001;
+		NETWORK network = NETWORK.GAUSSIAN;
+		Path directory = Paths.get(System.getProperty("java.io.tmpdir"));
+		if (args.length >= 2) {
+			a = Integer.parseInt(args[0]);
+			b = Integer.parseInt(args[1]);
+		}
+		if (args.length >= 3) {
+			network = NETWORK.valueOf(args[2].toUpperCase(Locale.ROOT));
+		}
+		if (args.length >= 4) {
+			directory = Paths.get(args[3]);
+		}
+
+		long start = System.nanoTime();
+		OffHeapNetwork offHeapNetwork = new OffHeapNetwork(a, b,
+				REPRESENTATION.DIAMOND, network, directory);
+		System.out.printf("Built %s %d+%di with %d nodes in %.1f s%n",
+				network, a, b, offHeapNetwork.getNorm(),
+				(System.nanoTime() - start) / 1e9);
+
+		start = System.nanoTime();
+		long[] distributions = offHeapNetwork.setDistanceDistributions();
+		System.out.printf(Locale.ROOT,
+				"BFS in %.1f s, diameter %d, average distance %.6f%n",
+				(System.nanoTime() - start) / 1e9, distributions.length - 1,
+				offHeapNetwork.getAverageDistance());
+
+		if (network == NETWORK.GAUSSIAN) {
+			boolean isSame = Arrays.equals(distributions,
+					GaussianAnalytics.getDistanceDistributions(a, b));
+			System.out.println(isSame ? "Same distribution as the formulas"
+					: "DIFFERENT DISTRIBUTION FROM THE FORMULAS");
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+		System.out.printf("Heap used %d MB of %d MB%n",
+				(runtime.totalMemory() - runtime.freeMemory()) >> 20,
+				runtime.maxMemory() >> 20);
+	}
+
+}
@@ -0,0 +1,514 @@
+package gaussian.cli;
+
+import gaussian.DifferenceStatistics;
+import gaussian.GaussianAnalytics;
+import gaussian.NETWORK;
+import gaussian.NetworkCache;
+import gaussian.NetworkSnapshot;
+import gaussian.REPRESENTATION;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-interactive command line interface answering a stream of queries on
+ * Gaussian and honeycomb networks.
+ *
+ * Each input line is a query in the form
+ *
+ * <pre>
+ * a b representation metric [network]
+ * </pre>
+ *
+ * where representation is DIAMOND or SQUARE, metric is one of NORM, T, D,
+ * DISTRIBUTION, AVERAGE, GRAPH or DIFFERENCE and network is GAUSSIAN
+ * (default) or HONEYCOMB. Empty lines and lines starting with # are
+ * skipped. DIFFERENCE compares the distances from the center in a honeycomb
+ * network with the ones in its Gaussian network.
+ *
+ * The queries are answered in parallel and every result is written as soon
+ * as it is ready, either as one JSON object per line or as CSV. The results
+ * carry the line number of their query because they are not written in the
+ * input order. The metrics of the Gaussian networks are computed from
+ * formulas, the honeycomb networks and the graphs are built, kept in a cache
+ * and reused by the following queries. The metrics which do not depend on
+ * the coordinates are computed on the network of the canonical generator,
+ * shared by the isomorphic networks.
+ */
+public class BatchQuery {
+
+	enum FORMAT {
+		JSON, CSV
+	}
+
+	enum METRIC {
+		NORM, T, D, DISTRIBUTION, AVERAGE, GRAPH, DIFFERENCE
+	}
+
+	private static final String CSV_HEADER = "line,a,b,representation,network,metric,value,error";
+
+	private final NetworkCache cache;
+	private final FORMAT format;
+	private final PrintWriter out;
+
+	public BatchQuery(NetworkCache cache, FORMAT format, PrintWriter out) {
+		this.cache = cache;
+		this.format = format;
+		this.out = out;
+	}
+
+	/**
+	 * Answer all the queries read from the input using the given number of
+	 * threads. Returns when all the results are written.
+	 *
+	 * @param in
+	 *            the queries, one per line
+	 * @param threads
+	 *            number of worker threads
+	 */
+	public void run(BufferedReader in, int threads) throws IOException,
+			InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		// limit the number of queries in flight so a large input is not read
+		// into memory at once
+		Semaphore inFlight = new Semaphore(4 * threads);
+
+		if (format == FORMAT.CSV) {
+			write(CSV_HEADER);
+		}
+
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = in.readLine()) != null) {
+				lineNumber++;
+				final String query = line.trim();
+				if (query.isEmpty() || query.startsWith("#")) {
+					continue;
+				}
+
+				final int curLine = lineNumber;
+				inFlight.acquire();
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							write(answer(curLine, query));
+						} finally {
+							inFlight.release();
+						}
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+			out.flush();
+		}
+	}
+
+	/**
+	 * Parse and answer a single query
+	 *
+	 * @return the formatted result, or the formatted error if the query
+	 *         cannot be answered. On an Error the formatted error is written
+	 *         and the Error is thrown again.
+	 */
+	String answer(int lineNumber, String query) {
+		String[] tokens = query.split("\\s+");
+		Record record = new Record(lineNumber);
+		try {
+			if (tokens.length < 4 || tokens.length > 5) {
+				throw new IllegalArgumentException(
+						"expected: a b representation metric [network]");
+			}
+			record.a = Integer.parseInt(tokens[0]);
+			record.b = Integer.parseInt(tokens[1]);
+			record.representation = REPRESENTATION.valueOf(tokens[2]
+					.toUpperCase(Locale.ROOT));
+			record.metric = METRIC.valueOf(tokens[3].toUpperCase(Locale.ROOT));
+			record.network = (tokens.length == 5) ? NETWORK.valueOf(tokens[4]
+					.toUpperCase(Locale.ROOT)) : NETWORK.GAUSSIAN;
+			if (record.a < 0 || record.b < 0 || record.a + record.b == 0) {
+				throw new IllegalArgumentException(
+						"a and b must be positive integer");
+			}
+
+			if (record.network == NETWORK.GAUSSIAN
+					&& record.metric != METRIC.GRAPH) {
+				// the Gaussian metrics do not need the graph
+				record.value = analyticValue(record);
+			} else {
+				NetworkSnapshot snapshot = isInvariant(record.metric) ? cache
+						.getCanonical(record.a, record.b,
+								record.representation, record.network)
+						: cache.get(record.a, record.b, record.representation,
+								record.network);
+				record.value = (format == FORMAT.JSON) ? jsonValue(snapshot,
+						record.metric) : csvValue(snapshot, record.metric);
+			}
+		} catch (RuntimeException ex) {
+			record.error = message(ex);
+		} catch (Error err) {
+			// an OutOfMemoryError or StackOverflowError on a large query still
+			// gets its line of output before it reaches the worker thread
+			record.error = message(err);
+			write(format(record));
+			throw err;
+		}
+
+		return format(record);
+	}
+
+	private String format(Record record) {
+		return (format == FORMAT.JSON) ? record.toJson() : record.toCsv();
+	}
+
+	private static String message(Throwable t) {
+		return (t.getMessage() != null) ? t.getMessage() : t.toString();
+	}
+
+	/**
+	 * @return whether the metric is the same on isomorphic networks, so it
+	 *         can be computed on the network of the canonical generator
+	 */
+	private static boolean isInvariant(METRIC metric) {
+		return metric != METRIC.GRAPH && metric != METRIC.DIFFERENCE;
+	}
+
+	/**
+	 * Compute the metric of a Gaussian network from the formulas of
+	 * GaussianAnalytics, without building the network
+	 */
+	private String analyticValue(Record record) {
+		int a = record.a;
+		int b = record.b;
+		if (a > b && record.representation == REPRESENTATION.DIAMOND) {
+			throw new IllegalArgumentException(
+					"a should be less than or equal to b");
+		}
+
+		switch (record.metric) {
+		case NORM:
+			return String.valueOf(GaussianAnalytics.getNorm(a, b));
+		case T:
+			return String.valueOf((a + b) / 2);
+		case D:
+			return String.valueOf(GaussianAnalytics.getDiameter(a, b));
+		case AVERAGE:
+			return String.format(Locale.ROOT, "%.6f",
+					GaussianAnalytics.getAverageDistance(a, b));
+		case DISTRIBUTION:
+			StringBuilder sb = new StringBuilder();
+			String separator = (format == FORMAT.JSON) ? "," : " ";
+			int d = GaussianAnalytics.getDiameter(a, b);
+			for (int s = 0; s <= d; s++) {
+				if (s > 0)
+					sb.append(separator);
+				sb.append(GaussianAnalytics.countAtDistance(a, b, s));
+			}
+			return (format == FORMAT.JSON) ? "[" + sb + "]" : sb.toString();
+		case DIFFERENCE:
+			throw new IllegalArgumentException(
+					"DIFFERENCE is only available for HONEYCOMB networks");
+		default:
+			throw new IllegalArgumentException("Unknown metric "
+					+ record.metric);
+		}
+	}
+
+	/**
+	 * Compute the metric on the network as a JSON value
+	 */
+	private String jsonValue(NetworkSnapshot snapshot, METRIC metric) {
+		switch (metric) {
+		case DISTRIBUTION:
+			return snapshot.getDistanceDistributions().toString()
+					.replace(" ", "");
+		case GRAPH:
+			return jsonGraph(snapshot);
+		case DIFFERENCE:
+			return jsonDifference(snapshot);
+		default:
+			return scalarValue(snapshot, metric);
+		}
+	}
+
+	/**
+	 * Compute the metric on the network as a CSV field. Lists are space
+	 * separated and the nodes of a graph are separated by semicolons.
+	 */
+	private String csvValue(NetworkSnapshot snapshot, METRIC metric) {
+		switch (metric) {
+		case DISTRIBUTION:
+			StringBuilder sb = new StringBuilder();
+			for (int count : snapshot.getDistanceDistributions()) {
+				if (sb.length() > 0)
+					sb.append(' ');
+				sb.append(count);
+			}
+			return sb.toString();
+		case GRAPH:
+			return csvGraph(snapshot);
+		case DIFFERENCE:
+			return csvDifference(snapshot);
+		default:
+			return scalarValue(snapshot, metric);
+		}
+	}
+
+	private String scalarValue(NetworkSnapshot snapshot, METRIC metric) {
+		switch (metric) {
+		case NORM:
+			return String.valueOf(snapshot.getNorm());
+		case T:
+			return String.valueOf(snapshot.getT());
+		case D:
+			return String.valueOf(snapshot.getD());
+		case AVERAGE:
+			return String.format(Locale.ROOT, "%.6f",
+					snapshot.getAverageDistance());
+		default:
+			throw new IllegalArgumentException("Unknown metric " + metric);
+		}
+	}
+
+	/**
+	 * Export the graph as the coordinates of the nodes and the adjacency
+	 * matrix, both in the order of the node indices. The pruned links of
+	 * the honeycomb network are -1.
+	 */
+	private String jsonGraph(NetworkSnapshot snapshot) {
+		StringBuilder sb = new StringBuilder("{\"nodes\":[");
+		for (int i = 0; i < snapshot.getNorm(); i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append('[').append(snapshot.getX(i)).append(',')
+					.append(snapshot.getY(i)).append(']');
+		}
+		sb.append("],\"adjacency\":[");
+		for (int i = 0; i < snapshot.getNorm(); i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append('[');
+			for (int j = 0; j < snapshot.getDegree(); j++) {
+				if (j > 0)
+					sb.append(',');
+				sb.append(snapshot.getNeighbor(i, j));
+			}
+			sb.append(']');
+		}
+		return sb.append("]}").toString();
+	}
+
+	/**
+	 * Export the graph as "x y n0 n1 n2 n3" for every node, in the order of
+	 * the node indices, with more neighbors for the baselines of a higher
+	 * degree
+	 */
+	private String csvGraph(NetworkSnapshot snapshot) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < snapshot.getNorm(); i++) {
+			if (i > 0)
+				sb.append(';');
+			sb.append(snapshot.getX(i)).append(' ').append(snapshot.getY(i));
+			for (int j = 0; j < snapshot.getDegree(); j++) {
+				sb.append(' ').append(snapshot.getNeighbor(i, j));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Export the statistics of the differences with the nodes of the
+	 * largest difference as coordinates
+	 */
+	private String jsonDifference(NetworkSnapshot snapshot) {
+		DifferenceStatistics statistics = snapshot.getDifferenceStatistics();
+		StringBuilder sb = new StringBuilder("{\"max\":");
+		sb.append(statistics.getMaxDifference());
+		sb.append(String.format(Locale.ROOT, ",\"average\":%.6f",
+				statistics.getAverageDifference()));
+		sb.append(",\"histogram\":").append(
+				Arrays.toString(statistics.getHistogram()).replace(" ", ""));
+		sb.append(",\"shellMaxima\":").append(
+				Arrays.toString(statistics.getShellMaxima()).replace(" ", ""));
+		sb.append(",\"maxNodes\":[");
+		int[] maxNodes = statistics.getMaxNodes();
+		for (int i = 0; i < maxNodes.length; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append('[').append(snapshot.getX(maxNodes[i])).append(',')
+					.append(snapshot.getY(maxNodes[i])).append(']');
+		}
+		return sb.append("]}").toString();
+	}
+
+	/**
+	 * Export the statistics of the differences as "max;average;histogram;
+	 * shell maxima;x y;x y;..." where the lists are space separated and the
+	 * nodes of the largest difference come last
+	 */
+	private String csvDifference(NetworkSnapshot snapshot) {
+		DifferenceStatistics statistics = snapshot.getDifferenceStatistics();
+		StringBuilder sb = new StringBuilder();
+		sb.append(statistics.getMaxDifference()).append(';');
+		sb.append(String.format(Locale.ROOT, "%.6f",
+				statistics.getAverageDifference()));
+		sb.append(';');
+		long[] histogram = statistics.getHistogram();
+		for (int i = 0; i < histogram.length; i++) {
+			if (i > 0)
+				sb.append(' ');
+			sb.append(histogram[i]);
+		}
+		sb.append(';');
+		int[] shellMaxima = statistics.getShellMaxima();
+		for (int i = 0; i < shellMaxima.length; i++) {
+			if (i > 0)
+				sb.append(' ');
+			sb.append(shellMaxima[i]);
+		}
+		for (int node : statistics.getMaxNodes()) {
+			sb.append(';').append(snapshot.getX(node)).append(' ')
+					.append(snapshot.getY(node));
+		}
+		return sb.toString();
+	}
+
+	private void write(String result) {
+		synchronized (out) {
+			out.println(result);
+			out.flush();
+		}
+	}
+
+	/**
+	 * One line of output
+	 */
+	private static class Record {
+		final int line;
+		int a;
+		int b;
+		REPRESENTATION representation;
+		NETWORK network;
+		METRIC metric;
+		String value;
+		String error;
+
+		Record(int line) {
+			this.line = line;
+		}
+
+		String toJson() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("{\"line\":").append(line);
+			if (metric != null) {
+				sb.append(",\"a\":").append(a).append(",\"b\":").append(b)
+						.append(",\"representation\":\"")
+						.append(representation).append("\",\"network\":\"")
+						.append(network).append("\",\"metric\":\"")
+						.append(metric).append('"');
+			}
+			if (error == null) {
+				sb.append(",\"value\":").append(value);
+			} else {
+				sb.append(",\"error\":\"").append(escape(error)).append('"');
+			}
+			return sb.append('}').toString();
+		}
+
+		String toCsv() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(line).append(',');
+			if (metric != null) {
+				sb.append(a).append(',').append(b).append(',')
+						.append(representation).append(',').append(network)
+						.append(',').append(metric).append(',');
+			} else {
+				sb.append(",,,,,");
+			}
+			if (error == null) {
+				sb.append(value).append(',');
+			} else {
+				sb.append(",\"").append(error.replace("\"", "\"\""))
+						.append('"');
+			}
+			return sb.toString();
+		}
+
+		private static String escape(String s) {
+			StringBuilder sb = new StringBuilder();
+			for (char c : s.toCharArray()) {
+				if (c == '"' || c == '\\') {
+					sb.append('\\').append(c);
+				} else if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+			return sb.toString();
+		}
+	}
+
+	private static void usage() {
+		System.err
+				.println("Usage: BatchQuery [-csv] [-threads n] [-cache n] [file]\n"
+						+ "Each input line: a b DIAMOND|SQUARE NORM|T|D|DISTRIBUTION|AVERAGE|GRAPH|DIFFERENCE [GAUSSIAN|HONEYCOMB]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+		FORMAT format = FORMAT.JSON;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int capacity = 64;
+		String fileName = null;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-csv")) {
+					format = FORMAT.CSV;
+				} else if (args[i].equals("-threads")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-cache")) {
+					capacity = Integer.parseInt(args[++i]);
+				} else if (fileName == null && !args[i].startsWith("-")) {
+					fileName = args[i];
+				} else {
+					usage();
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (threads < 1 || capacity < 1) {
+			usage();
+		}
+
+		InputStream input = (fileName == null) ? System.in
+				: new FileInputStream(fileName);
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(
+				input, StandardCharsets.UTF_8))) {
+			PrintWriter out = new PrintWriter(new BufferedWriter(
+					new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+			new BatchQuery(new NetworkCache(capacity), format, out).run(in,
+					threads);
+		}
+	}
+
+}
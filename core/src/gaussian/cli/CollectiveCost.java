@@ -0,0 +1,98 @@
+package gaussian.cli;
+
+import gaussian.COLLECTIVE;
+import gaussian.CollectiveSchedule;
+import gaussian.Collectives;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the collective communications on candidate networks a+bi. For
+ * every network and collective it writes the number of steps, the largest
+ * contention on a link, the number of link transfers and the completion
+ * time as CSV. A step takes the latency plus the transfer time of its
+ * messages over its most contended link, the transfer time being the time
+ * to send the whole message over one link. The root is the center.
+ *
+ * Usage: CollectiveCost [-honeycomb] [-square] [-latency t] [-transfer t]
+ * [-collective NAME] a b [a b ...]
+ */
+public class CollectiveCost {
+
+	private static void usage() {
+		System.err
+				.println("Usage: CollectiveCost [-honeycomb] [-square] [-latency t] [-transfer t] [-collective "
+						+ "BROADCAST|REDUCE|ALL_REDUCE|ALL_TO_ALL] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		double latency = 1;
+		double transfer = 1;
+		List<COLLECTIVE> collectives = new ArrayList<COLLECTIVE>();
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					network = NETWORK.HONEYCOMB;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-latency")) {
+					latency = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-transfer")) {
+					transfer = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-collective")) {
+					collectives.add(COLLECTIVE.valueOf(args[++i]
+							.toUpperCase(Locale.ROOT)));
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0) {
+			usage();
+		}
+		if (collectives.isEmpty()) {
+			for (COLLECTIVE collective : COLLECTIVE.values()) {
+				collectives.add(collective);
+			}
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,collective,steps,max_contention,transfers,time");
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+					representation, network);
+			for (COLLECTIVE collective : collectives) {
+				CollectiveSchedule schedule = Collectives.create(
+						gaussianNetwork, collective,
+						gaussianNetwork.getCenterIndex());
+				out.printf(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%d,%.3f%n", a, b,
+						gaussianNetwork.getNorm(), collective,
+						schedule.getStepCount(), schedule.getMaxContention(),
+						schedule.getTransfers(),
+						schedule.getCompletionTime(latency, transfer));
+			}
+			out.flush();
+		}
+		out.flush();
+	}
+
+}
@@ -0,0 +1,126 @@
+package gaussian.cli;
+
+import gaussian.ChannelDependencyGraph;
+import gaussian.DeadlockAnalyzer;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.ROUTING;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the channel dependency analysis of the DETERMINISTIC and ADAPTIVE
+ * routings of networks a+bi as CSV: the wraparound links, the most of them
+ * a packet crosses in one dimension, the dependencies and the cycles of
+ * the channels without virtual channels, and the fewest virtual channels
+ * per link with which datelines on the wraparound links break every cycle,
+ * or none. With -cycle the start of a cycle of channels is written to the
+ * standard error for every routing with one.
+ *
+ * Usage: DeadlockReport [-honeycomb] [-square] [-routing r] [-cycle] a b [a
+ * b ...]
+ */
+public class DeadlockReport {
+
+	// links of a cycle written before the rest is left out
+	private static final int CYCLE_LINKS = 16;
+
+	private static void usage() {
+		System.err
+				.println("Usage: DeadlockReport [-honeycomb] [-square] [-routing r] [-cycle] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		ROUTING[] routings = { ROUTING.DETERMINISTIC, ROUTING.ADAPTIVE };
+		boolean isCycleShown = false;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					network = NETWORK.HONEYCOMB;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-routing")) {
+					routings = new ROUTING[] { ROUTING.valueOf(args[++i]
+							.toUpperCase(Locale.ROOT)) };
+				} else if (args[i].equals("-cycle")) {
+					isCycleShown = true;
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,network,routing,channels,wraparound_links,max_crossings,"
+				+ "dependencies,cyclic_components,largest_cyclic_component,"
+				+ "virtual_channels,ms");
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+					representation, network);
+			for (ROUTING routing : routings) {
+				long start = System.nanoTime();
+				DeadlockAnalyzer analyzer = new DeadlockAnalyzer(
+						gaussianNetwork, DeadlockAnalyzer.routing(
+								gaussianNetwork, routing));
+				ChannelDependencyGraph graph = analyzer.graph(1);
+				int virtualChannels = analyzer.minimalVirtualChannels();
+				long nanos = System.nanoTime() - start;
+				out.printf(Locale.ROOT, "%d,%d,%d,%s,%s,%d,%d,%d,%d,%d,%d,%s,%.0f%n",
+						a, b, gaussianNetwork.getNorm(), network, routing,
+						graph.getChannels(), analyzer.getWraparoundLinks(),
+						analyzer.getMaxCrossings(), graph.getDependencies(),
+						graph.getCyclicComponents(),
+						graph.getLargestCyclicComponent(),
+						(virtualChannels < 0) ? "none" : String
+								.valueOf(virtualChannels), nanos / 1e6);
+				out.flush();
+				if (isCycleShown && !graph.isAcyclic()) {
+					System.err.println(a + "+" + b + "i " + routing + ": "
+							+ cycle(gaussianNetwork, graph));
+				}
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * @return the first links of a cycle of the graph as node and direction,
+	 *         and its length
+	 */
+	private static String cycle(GaussianNetwork network,
+			ChannelDependencyGraph graph) {
+		String[] directions = { "+1", "-1", "+i", "-i" };
+		int[] cycle = graph.getCycle();
+		StringBuilder builder = new StringBuilder();
+		for (int k = 0; k < Math.min(cycle.length, CYCLE_LINKS); k++) {
+			builder.append(network.getNodes().get(graph.getNode(cycle[k])))
+					.append(directions[graph.getDirection(cycle[k])]).append(' ');
+		}
+		if (cycle.length > CYCLE_LINKS) {
+			builder.append("... ");
+		}
+		return builder.append("(").append(cycle.length).append(" links)")
+				.toString();
+	}
+
+}
@@ -0,0 +1,173 @@
+package gaussian.cli;
+
+import gaussian.CommunicationGraph;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.Placement;
+import gaussian.REPRESENTATION;
+import gaussian.TaskMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Places an application on the network a+bi and writes the dilation, the
+ * average dilation and the hop-bytes of the constructed and of the refined
+ * placement as CSV, followed by the node of each rank with -placement. The
+ * edges file has one message "source target bytes" per line, the ranks being
+ * numbered from 0, and # starts a comment.
+ *
+ * Usage: MapTasks [-honeycomb] [-square] [-placement] a b (mesh rows cols |
+ * torus rows cols | ring ranks | edges file)
+ */
+public class MapTasks {
+
+	private static void usage() {
+		System.err
+				.println("Usage: MapTasks [-honeycomb] [-square] [-placement] a b "
+						+ "(mesh rows cols | torus rows cols | ring ranks | edges file)");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		boolean isPlacement = false;
+		int i = 0;
+		for (; i < args.length && args[i].startsWith("-"); i++) {
+			if (args[i].equals("-honeycomb")) {
+				network = NETWORK.HONEYCOMB;
+			} else if (args[i].equals("-square")) {
+				representation = REPRESENTATION.SQUARE;
+			} else if (args[i].equals("-placement")) {
+				isPlacement = true;
+			} else {
+				usage();
+			}
+		}
+		if (args.length - i < 4) {
+			usage();
+		}
+
+		int a = 0, b = 0;
+		CommunicationGraph graph = null;
+		try {
+			a = Integer.parseInt(args[i]);
+			b = Integer.parseInt(args[i + 1]);
+			String pattern = args[i + 2];
+			if (pattern.equals("mesh") && args.length - i == 5) {
+				graph = CommunicationGraph.mesh(Integer.parseInt(args[i + 3]),
+						Integer.parseInt(args[i + 4]), 1);
+			} else if (pattern.equals("torus") && args.length - i == 5) {
+				graph = CommunicationGraph.torus(
+						Integer.parseInt(args[i + 3]),
+						Integer.parseInt(args[i + 4]), 1);
+			} else if (pattern.equals("ring") && args.length - i == 4) {
+				graph = CommunicationGraph.ring(Integer.parseInt(args[i + 3]),
+						1);
+			} else if (pattern.equals("edges") && args.length - i == 4) {
+				graph = readEdges(args[i + 3]);
+			}
+		} catch (NumberFormatException ex) {
+			usage();
+		} catch (IOException ex) {
+			System.err.println("Cannot read " + args[i + 3] + ": "
+					+ ex.getMessage());
+			System.exit(1);
+		}
+		if (graph == null) {
+			usage();
+		}
+
+		// the honeycomb distances come from a table of all the pairs
+		if (network == NETWORK.HONEYCOMB
+				&& (long) a * a + (long) b * b > TaskMapper.MAX_TABLE_NODES) {
+			System.err.println("The honeycomb network of " + a + "+" + b
+					+ "i has more than " + TaskMapper.MAX_TABLE_NODES
+					+ " nodes, the largest honeycomb network mapped");
+			System.exit(1);
+		}
+
+		GaussianNetwork gaussianNetwork;
+		Placement constructed;
+		Placement refined;
+		try {
+			gaussianNetwork = GaussianNetwork.create(a, b, representation,
+					network);
+			TaskMapper mapper = new TaskMapper(gaussianNetwork);
+			constructed = mapper.construct(graph);
+			refined = mapper.refine(graph, constructed.getNodes());
+		} catch (IllegalArgumentException ex) {
+			System.err.println(a + " " + b + ": " + ex.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("placement,dilation,average_dilation,hop_bytes");
+		out.printf(Locale.ROOT, "constructed,%d,%.3f,%d%n",
+				constructed.getDilation(), constructed.getAverageDilation(),
+				constructed.getHopBytes());
+		out.printf(Locale.ROOT, "refined,%d,%.3f,%d%n", refined.getDilation(),
+				refined.getAverageDilation(), refined.getHopBytes());
+		if (isPlacement) {
+			out.println();
+			out.println("rank,x,y");
+			for (int r = 0; r < graph.getRanks(); r++) {
+				int node = refined.getNode(r);
+				out.println(r + "," + gaussianNetwork.getNodes().get(node).x
+						+ "," + gaussianNetwork.getNodes().get(node).y);
+			}
+		}
+		out.flush();
+	}
+
+	private static CommunicationGraph readEdges(String file)
+			throws IOException {
+		int[] sources = new int[16];
+		int[] targets = new int[16];
+		long[] weights = new long[16];
+		int count = 0, ranks = 0;
+		try (BufferedReader in = Files.newBufferedReader(Paths.get(file),
+				StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				int comment = line.indexOf('#');
+				if (comment >= 0) {
+					line = line.substring(0, comment);
+				}
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				String[] fields = line.split("\\s+");
+				if (fields.length != 3) {
+					throw new IOException("Bad message \"" + line + "\"");
+				}
+				if (count == sources.length) {
+					sources = Arrays.copyOf(sources, 2 * count);
+					targets = Arrays.copyOf(targets, 2 * count);
+					weights = Arrays.copyOf(weights, 2 * count);
+				}
+				sources[count] = Integer.parseInt(fields[0]);
+				targets[count] = Integer.parseInt(fields[1]);
+				weights[count] = Long.parseLong(fields[2]);
+				ranks = Math.max(ranks,
+						Math.max(sources[count], targets[count]) + 1);
+				count++;
+			}
+		}
+		return CommunicationGraph.edges(ranks, Arrays.copyOf(sources, count),
+				Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+	}
+
+}
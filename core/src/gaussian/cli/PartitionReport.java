@@ -0,0 +1,85 @@
+package gaussian.cli;
+
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.Partition;
+import gaussian.Partitioner;
+import gaussian.REPRESENTATION;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Partitions the Gaussian and the honeycomb network of every a+bi into k
+ * parts and writes the edge cut, the boundary nodes, the largest part and
+ * its imbalance as CSV, with the edge cut of a bisection and the spectral
+ * lower bound of the bisection width.
+ *
+ * Usage: PartitionReport [-square] [-k parts] [-imbalance e] a b [a b ...]
+ */
+public class PartitionReport {
+
+	private static void usage() {
+		System.err
+				.println("Usage: PartitionReport [-square] [-k parts] [-imbalance e] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		int k = 4;
+		double imbalance = 0.03;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-k")) {
+					k = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-imbalance")) {
+					imbalance = Double.parseDouble(args[++i]);
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0 || k < 1
+				|| imbalance < 0) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,network,k,edge_cut,boundary_nodes,max_part,imbalance,"
+				+ "bisection_width,bisection_lower_bound");
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			for (NETWORK network : new NETWORK[] { NETWORK.GAUSSIAN,
+					NETWORK.HONEYCOMB }) {
+				GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+						representation, network);
+				Partition partition = Partitioner.partition(gaussianNetwork,
+						Math.min(k, gaussianNetwork.getNorm()), imbalance);
+				out.printf(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%d,%d,%.4f,%d,%.3f%n",
+						a, b, gaussianNetwork.getNorm(), network,
+						partition.getK(), partition.getEdgeCut(),
+						partition.getBoundaryNodes(), partition.getMaxSize(),
+						partition.getImbalance(),
+						Partitioner.bisectionWidth(gaussianNetwork),
+						Partitioner.bisectionLowerBound(gaussianNetwork));
+				out.flush();
+			}
+		}
+		out.flush();
+	}
+
+}
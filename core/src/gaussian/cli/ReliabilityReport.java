@@ -0,0 +1,140 @@
+package gaussian.cli;
+
+import gaussian.DistanceStatistics;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.ReliabilityEstimate;
+import gaussian.ReliabilityEstimator;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the reliability of the Gaussian and honeycomb networks a+bi as
+ * CSV when every link fails with the same probability: the all-terminal
+ * reliability, that all the nodes stay connected, and the terminal
+ * reliability from the center to a node farthest from it, each with its
+ * 95% confidence interval and the trials run per second. With -slack k the
+ * nodes must also stay within k links more than the diameter of the intact
+ * network. The trials stop when the half width of the interval reaches the
+ * precision or after the given number of trials.
+ *
+ * Usage: ReliabilityReport [-square] [-failure p] [-slack k] [-trials t]
+ * [-precision h] [-seed s] a b [a b ...]
+ */
+public class ReliabilityReport {
+
+	private static void usage() {
+		System.err
+				.println("Usage: ReliabilityReport [-square] [-failure p] [-slack k] [-trials t] [-precision h] [-seed s] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		double failure = 0.01;
+		int slack = -1;
+		long trials = 10000000;
+		double precision = 0.0005;
+		long seed = 1;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-failure")) {
+					failure = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-slack")) {
+					slack = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-trials")) {
+					trials = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-precision")) {
+					precision = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-seed")) {
+					seed = Long.parseLong(args[++i]);
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0
+				|| !(failure >= 0 && failure <= 1) || trials < 1
+				|| !(precision >= 0)) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,network,links,failure,max_distance,reliability,"
+				+ "trials,estimate,lower,upper,trials_per_second");
+		NETWORK[] networks = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			for (NETWORK network : networks) {
+				GaussianNetwork gaussianNetwork;
+				try {
+					gaussianNetwork = GaussianNetwork.create(a, b,
+							representation, network);
+				} catch (IllegalArgumentException ex) {
+					System.err.println(a + " " + b + ": " + ex.getMessage());
+					break;
+				}
+				int maxDistance = (slack < 0) ? Integer.MAX_VALUE
+						: DistanceStatistics.compute(gaussianNetwork)
+								.getDiameter() + slack;
+
+				// a node farthest from the center
+				int center = gaussianNetwork.getCenterIndex();
+				int[] distances = gaussianNetwork.getDistancesFrom(center, null);
+				int farthest = center;
+				for (int k = 0; k < distances.length; k++) {
+					if (distances[k] > distances[farthest]) {
+						farthest = k;
+					}
+				}
+
+				ReliabilityEstimator estimator = new ReliabilityEstimator(
+						gaussianNetwork);
+				double[] failures = estimator.uniform(failure);
+				long start = System.nanoTime();
+				ReliabilityEstimate all = estimator.allTerminal(failures,
+						maxDistance, trials, precision, seed);
+				long middle = System.nanoTime();
+				ReliabilityEstimate terminal = estimator.terminal(center,
+						farthest, failures, maxDistance, trials, precision,
+						seed);
+				long end = System.nanoTime();
+
+				print(out, gaussianNetwork, estimator, failure, maxDistance,
+						"all_terminal", all, middle - start);
+				print(out, gaussianNetwork, estimator, failure, maxDistance,
+						"terminal", terminal, end - middle);
+				out.flush();
+			}
+		}
+		out.flush();
+	}
+
+	private static void print(PrintWriter out, GaussianNetwork network,
+			ReliabilityEstimator estimator, double failure, int maxDistance,
+			String reliability, ReliabilityEstimate estimate, long nanos) {
+		out.printf(Locale.ROOT, "%d,%d,%d,%s,%d,%s,%s,%s,%d,%.6f,%.6f,%.6f,%.0f%n",
+				network.getA(), network.getB(), network.getNorm(),
+				network.getNetwork(), estimator.getLinkCount(), failure,
+				(maxDistance == Integer.MAX_VALUE) ? "" : maxDistance,
+				reliability, estimate.getTrials(), estimate.getReliability(),
+				estimate.getLowerBound(), estimate.getUpperBound(),
+				estimate.getTrials() / (nanos / 1e9));
+	}
+
+}
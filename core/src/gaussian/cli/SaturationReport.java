@@ -0,0 +1,202 @@
+package gaussian.cli;
+
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.ROUTING;
+import gaussian.TRAFFIC;
+import gaussian.TrafficSimulator;
+import gaussian.TrafficStatistics;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Writes the saturation throughput of the Gaussian and honeycomb networks
+ * a+bi for every TRAFFIC pattern and ROUTING as CSV, with the latency and
+ * hops at a low load and the throughput when every node injects a packet
+ * each cycle. The saturation is the largest injection rate, found by
+ * bisection, at which the network still delivers the offered load. The
+ * simulations of the combinations run in parallel.
+ *
+ * Usage: SaturationReport [-square] [-buffer b] [-cycles c] [-warmup w]
+ * [-seed s] a b [a b ...]
+ */
+public class SaturationReport {
+
+	// bisection steps of the saturation, and the share of the offered load a
+	// network below saturation delivers
+	private static final int STEPS = 7;
+	private static final double DELIVERED = 0.95;
+	// the injection rate of the latency measure
+	private static final double LOW_LOAD = 0.02;
+
+	private static void usage() {
+		System.err
+				.println("Usage: SaturationReport [-square] [-buffer b] [-cycles c] [-warmup w] [-seed s] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		int bufferSize = 4;
+		int cycles = 2000;
+		int warmup = 500;
+		long seed = 1;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-buffer")) {
+					bufferSize = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-cycles")) {
+					cycles = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-warmup")) {
+					warmup = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-seed")) {
+					seed = Long.parseLong(args[++i]);
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0 || bufferSize < 2
+				|| cycles < 1 || warmup < 0) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,network,traffic,routing,latency,hops,saturation,"
+				+ "full_load_throughput");
+		NETWORK[] networks = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		TRAFFIC[] traffics = TRAFFIC.values();
+		ROUTING[] routings = ROUTING.values();
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			Simulation[] simulations = new Simulation[networks.length
+					* traffics.length * routings.length];
+			int k = 0;
+			for (NETWORK network : networks) {
+				GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+						representation, network);
+				for (TRAFFIC traffic : traffics) {
+					for (ROUTING routing : routings) {
+						simulations[k++] = new Simulation(gaussianNetwork,
+								traffic, routing, bufferSize, cycles, warmup,
+								seed);
+					}
+				}
+			}
+			ForkJoinPool.commonPool().invoke(
+					new SimulationTask(simulations, 0, simulations.length));
+
+			for (Simulation simulation : simulations) {
+				out.printf(Locale.ROOT, "%d,%d,%d,%s,%s,%s,%.2f,%.2f,%.4f,%.4f%n",
+						a, b, simulation.network.getNorm(),
+						simulation.network.getNetwork(), simulation.traffic,
+						simulation.routing, simulation.latency,
+						simulation.hops, simulation.saturation,
+						simulation.fullLoadThroughput);
+			}
+			out.flush();
+		}
+		out.flush();
+	}
+
+	/**
+	 * The simulations of one network, traffic and routing
+	 */
+	private static class Simulation {
+
+		private final GaussianNetwork network;
+		private final TRAFFIC traffic;
+		private final ROUTING routing;
+		private final int bufferSize;
+		private final int cycles;
+		private final int warmup;
+		private final long seed;
+
+		private double latency;
+		private double hops;
+		private double saturation;
+		private double fullLoadThroughput;
+
+		Simulation(GaussianNetwork network, TRAFFIC traffic, ROUTING routing,
+				int bufferSize, int cycles, int warmup, long seed) {
+			this.network = network;
+			this.traffic = traffic;
+			this.routing = routing;
+			this.bufferSize = bufferSize;
+			this.cycles = cycles;
+			this.warmup = warmup;
+			this.seed = seed;
+		}
+
+		void run() {
+			TrafficStatistics low = simulate(LOW_LOAD);
+			latency = low.getAverageLatency();
+			hops = low.getAverageHops();
+			fullLoadThroughput = simulate(1).getThroughput();
+			double sustained = 0;
+			double saturated = 1;
+			for (int step = 0; step < STEPS; step++) {
+				double rate = (sustained + saturated) / 2;
+				TrafficStatistics statistics = simulate(rate);
+				if (statistics.getThroughput() >= DELIVERED
+						* statistics.getOfferedLoad()) {
+					sustained = rate;
+				} else {
+					saturated = rate;
+				}
+			}
+			saturation = sustained;
+		}
+
+		private TrafficStatistics simulate(double injectionRate) {
+			return new TrafficSimulator(network, traffic, routing,
+					injectionRate, bufferSize, seed).run(cycles, warmup);
+		}
+	}
+
+	/**
+	 * Runs a range of the simulations
+	 */
+	@SuppressWarnings("serial")
+	private static class SimulationTask extends RecursiveAction {
+
+		private final Simulation[] simulations;
+		private final int start;
+		private final int end;
+
+		SimulationTask(Simulation[] simulations, int start, int end) {
+			this.simulations = simulations;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new SimulationTask(simulations, start, middle),
+						new SimulationTask(simulations, middle, end));
+				return;
+			}
+			simulations[start].run();
+		}
+	}
+
+}
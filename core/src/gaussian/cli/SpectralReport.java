@@ -0,0 +1,127 @@
+package gaussian.cli;
+
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.Spectrum;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the algebraic connectivity, the spectral gap, the largest Laplacian
+ * eigenvalue, the Cheeger bounds of the edge expansion and the mixing time
+ * of networks a+bi as CSV. The Gaussian spectra come from the closed form,
+ * without building the networks, and the honeycomb ones from Lanczos
+ * iterations. With -dense the networks are also diagonalized as dense
+ * matrices, up to 1024 nodes, and the largest deviation of the known
+ * eigenvalues is added.
+ *
+ * Usage: SpectralReport [-honeycomb] [-square] [-dense] [-epsilon e] a b [a
+ * b ...]
+ */
+public class SpectralReport {
+
+	// largest network Spectrum.dense diagonalizes
+	private static final int MAX_DENSE_NODES = 1024;
+
+	private static void usage() {
+		System.err
+				.println("Usage: SpectralReport [-honeycomb] [-square] [-dense] [-epsilon e] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		boolean isDense = false;
+		double epsilon = 0.01;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					network = NETWORK.HONEYCOMB;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-dense")) {
+					isDense = true;
+				} else if (args[i].equals("-epsilon")) {
+					epsilon = Double.parseDouble(args[++i]);
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0 || epsilon <= 0) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,algebraic_connectivity,spectral_gap,largest_eigenvalue,"
+				+ "expansion_lower,expansion_upper,mixing_time"
+				+ (isDense ? ",dense_error" : ""));
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			GaussianNetwork gaussianNetwork = null;
+			Spectrum spectrum;
+			if (network == NETWORK.GAUSSIAN) {
+				spectrum = Spectrum.gaussian(a, b);
+			} else {
+				gaussianNetwork = GaussianNetwork.create(a, b, representation,
+						network);
+				spectrum = Spectrum.lanczos(gaussianNetwork);
+			}
+			out.printf(Locale.ROOT, "%d,%d,%d,%.9f,%.9f,%.9f,%.9f,%.9f,%d", a,
+					b, spectrum.getNorm(), spectrum.getAlgebraicConnectivity(),
+					spectrum.getSpectralGap(),
+					spectrum.getLargestEigenvalue(),
+					spectrum.getExpansionLowerBound(),
+					spectrum.getExpansionUpperBound(),
+					spectrum.getMixingTime(epsilon));
+			if (isDense && spectrum.getNorm() <= MAX_DENSE_NODES) {
+				if (gaussianNetwork == null) {
+					gaussianNetwork = GaussianNetwork.create(a, b,
+							representation, network);
+				}
+				out.printf(Locale.ROOT, ",%.3g",
+						deviation(spectrum, Spectrum.dense(gaussianNetwork)));
+			} else if (isDense) {
+				out.print(",");
+			}
+			out.println();
+			out.flush();
+		}
+		out.flush();
+	}
+
+	/**
+	 * @return the largest difference of the eigenvalues of the spectrum from
+	 *         the dense ones, only the extreme ones for a Lanczos spectrum
+	 */
+	private static double deviation(Spectrum spectrum, Spectrum dense) {
+		double[] eigenvalues = spectrum.getEigenvalues();
+		double[] denseEigenvalues = dense.getEigenvalues();
+		if (eigenvalues.length == denseEigenvalues.length) {
+			double max = 0;
+			for (int k = 0; k < eigenvalues.length; k++) {
+				max = Math.max(max,
+						Math.abs(eigenvalues[k] - denseEigenvalues[k]));
+			}
+			return max;
+		}
+		return Math.max(Math.abs(spectrum.getAlgebraicConnectivity()
+				- dense.getAlgebraicConnectivity()), Math.abs(spectrum
+				.getLargestEigenvalue() - dense.getLargestEigenvalue()));
+	}
+
+}
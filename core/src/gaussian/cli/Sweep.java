@@ -0,0 +1,137 @@
+package gaussian.cli;
+
+import gaussian.DifferenceStatistics;
+import gaussian.GaussianAnalytics;
+import gaussian.Isomorphism;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes the diameter and the average distance of every network a+bi with
+ * 0 <= a <= b and b in a range as CSV, without building the networks. The
+ * Gaussian networks take O(1) each, so the norms can reach the billions.
+ * The honeycomb networks are explored by a BFS over all their nodes.
+ *
+ * With -difference it writes the largest and the average difference of the
+ * distances from the center in the honeycomb network and in the Gaussian
+ * network instead, and the number of nodes with the largest difference.
+ *
+ * With -both it writes every network in both representations, with the
+ * representation in a column. The networks of the two representations are
+ * isomorphic, except the honeycomb networks of a+b odd, so the others are
+ * computed once.
+ *
+ * Usage: Sweep [-honeycomb | -difference] [-square | -both] bFrom bTo
+ */
+public class Sweep {
+
+	private static void usage() {
+		System.err
+				.println("Usage: Sweep [-honeycomb | -difference] [-square | -both] bFrom bTo");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		boolean isDifference = false;
+		boolean isBoth = false;
+		int bFrom = -1, bTo = -1;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					network = NETWORK.HONEYCOMB;
+				} else if (args[i].equals("-difference")) {
+					isDifference = true;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-both")) {
+					isBoth = true;
+				} else if (bFrom < 0) {
+					bFrom = Integer.parseInt(args[i]);
+				} else if (bTo < 0) {
+					bTo = Integer.parseInt(args[i]);
+				} else {
+					usage();
+				}
+			}
+		} catch (NumberFormatException ex) {
+			usage();
+		}
+		if (bFrom < 1 || bTo < bFrom
+				|| (isDifference && network == NETWORK.HONEYCOMB)
+				|| (isBoth && representation == REPRESENTATION.SQUARE)) {
+			usage();
+		}
+
+		// the difference compares the honeycomb networks with their Gaussian
+		// networks, and shares their isomorphisms
+		NETWORK built = isDifference ? NETWORK.HONEYCOMB : network;
+		REPRESENTATION[] representations = isBoth ? REPRESENTATION.values()
+				: new REPRESENTATION[] { representation };
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println((isBoth ? "representation," : "")
+				+ (isDifference ? "a,b,norm,max_difference,average_difference,max_difference_nodes"
+						: "a,b,norm,diameter,average"));
+		for (int b = bFrom; b <= bTo; b++) {
+			for (int a = 0; a <= b; a++) {
+				String row = null;
+				for (int r = 0; r < representations.length; r++) {
+					if (r == 0
+							|| !Isomorphism.canonical(a, b,
+									representations[r], built).equals(
+									Isomorphism.canonical(a, b,
+											representations[r - 1], built))) {
+						row = row(a, b, representations[r], network,
+								isDifference);
+					}
+					out.println(isBoth ? representations[r] + "," + row : row);
+				}
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * @return the CSV row of the network a+bi
+	 */
+	private static String row(int a, int b, REPRESENTATION representation,
+			NETWORK network, boolean isDifference) {
+		long norm = GaussianAnalytics.getNorm(a, b);
+		if (isDifference) {
+			DifferenceStatistics statistics = GaussianAnalytics
+					.getDifferenceStatistics(a, b, representation);
+			return String.format(Locale.ROOT, "%d,%d,%d,%d,%.6f,%d", a, b,
+					norm, statistics.getMaxDifference(),
+					statistics.getAverageDifference(),
+					statistics.getMaxNodes().length);
+		}
+
+		int diameter;
+		double average;
+		if (network == NETWORK.GAUSSIAN) {
+			diameter = GaussianAnalytics.getDiameter(a, b);
+			average = GaussianAnalytics.getAverageDistance(a, b);
+		} else {
+			long[] distributions = GaussianAnalytics.getDistanceDistributions(
+					a, b, representation, network);
+			diameter = distributions.length - 1;
+			long sum = 0;
+			for (int s = 0; s < distributions.length; s++) {
+				sum += s * distributions[s];
+			}
+			average = (double) sum / norm;
+		}
+		return String.format(Locale.ROOT, "%d,%d,%d,%d,%.6f", a, b, norm,
+				diameter, average);
+	}
+
+}
@@ -0,0 +1,169 @@
+package gaussian.cli;
+
+import gaussian.DistanceStatistics;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.TOPOLOGY;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the Gaussian network a+bi with the baselines of the same number
+ * of nodes as CSV: the most square 2D torus if its sides are at least 3,
+ * the hypercube if the norm is a power of 2 and the Eisenstein-Jacobi
+ * network if the norm is a^2+ab+b^2. With -honeycomb the honeycomb networks
+ * pruned from the Gaussian network and from the torus, if its sides are
+ * even, are added. All of them are built on the same engine and
+ * measured by the same BFS.
+ * 
+ * The link load is the average number of packets crossing a link each
+ * cycle when every node sends a packet to a uniformly chosen other node
+ * each cycle along shortest routes, that is the norm times the average
+ * distance over the number of links. Its inverse bounds the throughput of
+ * uniform traffic.
+ *
+ * Usage: TopologyReport [-honeycomb] [-square] a b [a b ...]
+ */
+public class TopologyReport {
+
+	private static void usage() {
+		System.err
+				.println("Usage: TopologyReport [-honeycomb] [-square] a b [a b ...]");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		boolean isHoneycomb = false;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					isHoneycomb = true;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.isEmpty() || sizes.size() % 2 != 0) {
+			usage();
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("topology,network,a,b,norm,degree,links,diameter,"
+				+ "average_distance,link_load");
+		for (int i = 0; i < sizes.size(); i += 2) {
+			int a = sizes.get(i);
+			int b = sizes.get(i + 1);
+			try {
+				List<GaussianNetwork> networks = baselines(a, b,
+						representation, isHoneycomb);
+				for (GaussianNetwork network : networks) {
+					print(out, network);
+				}
+			} catch (IllegalArgumentException ex) {
+				System.err.println(a + " " + b + ": " + ex.getMessage());
+			}
+			out.flush();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Build the Gaussian network and the baselines with its number of nodes
+	 */
+	private static List<GaussianNetwork> baselines(int a, int b,
+			REPRESENTATION representation, boolean isHoneycomb) {
+		List<GaussianNetwork> networks = new ArrayList<GaussianNetwork>();
+		GaussianNetwork gaussianNetwork = GaussianNetwork.create(a, b,
+				representation, NETWORK.GAUSSIAN);
+		int norm = gaussianNetwork.getNorm();
+		networks.add(gaussianNetwork);
+		if (isHoneycomb) {
+			networks.add(GaussianNetwork.create(a, b, representation,
+					NETWORK.HONEYCOMB));
+		}
+
+		// the sides of the torus are the divisors of the norm closest to
+		// its square root
+		int height = (int) Math.sqrt((double) norm);
+		while (norm % height != 0) {
+			height--;
+		}
+		if (height >= 3) {
+			networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, norm
+					/ height, height, representation, NETWORK.GAUSSIAN));
+		}
+		// the parity of the nodes only holds across the wraparound links of
+		// even sides
+		if (isHoneycomb && height >= 3 && height % 2 == 0
+				&& (norm / height) % 2 == 0) {
+			networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, norm
+					/ height, height, representation, NETWORK.HONEYCOMB));
+		}
+
+		if (Integer.bitCount(norm) == 1 && norm > 1) {
+			networks.add(GaussianNetwork.create(TOPOLOGY.HYPERCUBE,
+					Integer.numberOfTrailingZeros(norm), 0, representation,
+					NETWORK.GAUSSIAN));
+		}
+
+		// the first x+y*omega with x <= y of the norm
+		for (long x = 0; 3 * x * x <= norm; x++) {
+			for (long y = x; x * x + x * y + y * y <= norm; y++) {
+				if (x * x + x * y + y * y == norm) {
+					networks.add(GaussianNetwork.create(
+							TOPOLOGY.EISENSTEIN_JACOBI, (int) x, (int) y,
+							representation, NETWORK.GAUSSIAN));
+					return networks;
+				}
+			}
+		}
+		return networks;
+	}
+
+	/**
+	 * Write the row of a network. The baselines and the Gaussian networks
+	 * are vertex-transitive and measured from the center, the honeycomb
+	 * networks by the BFS from all the nodes.
+	 */
+	private static void print(PrintWriter out, GaussianNetwork network) {
+		int norm = network.getNorm();
+		int diameter;
+		double averageDistance;
+		if (network.getNetwork() == NETWORK.HONEYCOMB) {
+			DistanceStatistics statistics = DistanceStatistics.compute(network);
+			diameter = statistics.getDiameter();
+			averageDistance = statistics.getAverageDistance();
+		} else {
+			diameter = network.getDistanceDistributions().size() - 1;
+			// the average over the other nodes, as DistanceStatistics
+			averageDistance = (norm > 1) ? network.getAverageDistance()
+					* norm / (norm - 1) : 0;
+		}
+
+		long links = 0;
+		for (int neighbor : network.getFlatAdjacency()) {
+			links += (neighbor >= 0) ? 1 : 0;
+		}
+
+		out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%.6f,%.6f%n",
+				network.getTopology(), network.getNetwork(), network.getA(),
+				network.getB(), norm, network.getDegree(), links, diameter,
+				averageDistance, norm * averageDistance / links);
+	}
+
+}
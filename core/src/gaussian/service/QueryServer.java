@@ -0,0 +1,343 @@
+package gaussian.service;
+
+import gaussian.GaussianAnalytics;
+import gaussian.NETWORK;
+import gaussian.NetworkCache;
+import gaussian.NetworkSnapshot;
+import gaussian.REPRESENTATION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A small HTTP service answering queries on Gaussian and honeycomb networks.
+ * It only listens on the loopback interface. Every request runs on its own
+ * virtual thread and the built networks are shared as immutable snapshots
+ * through a NetworkCache, so concurrent requests for the same network wait
+ * for a single build and then query it without locks.
+ *
+ * All the queries are GET requests with the parameters a, b,
+ * representation (DIAMOND or SQUARE, default DIAMOND) and network (GAUSSIAN
+ * or HONEYCOMB, default GAUSSIAN):
+ *
+ * <pre>
+ * /diameter?a=3&amp;b=4
+ * /distribution?a=3&amp;b=4&amp;network=HONEYCOMB
+ * /distance?a=3&amp;b=4&amp;from=0,0&amp;to=2,1
+ * /route?a=3&amp;b=4&amp;representation=SQUARE&amp;from=0,0&amp;to=2,1
+ * </pre>
+ *
+ * The answers are JSON objects. Invalid queries, and queries on networks
+ * whose norm is above the maximum norm of the server, are answered with
+ * status 400. The diameter and the distribution of a Gaussian network come
+ * from the closed formulas of GaussianAnalytics without building it; for a
+ * honeycomb network they are answered by the network of the canonical
+ * generator, shared by all the isomorphic networks.
+ */
+public class QueryServer {
+
+	/**
+	 * The default maximum norm of the networks the server builds
+	 */
+	public static final long DEFAULT_MAX_NORM = 1 << 20;
+
+	private final NetworkCache cache;
+	private final long maxNorm;
+	private final HttpServer server;
+
+	/**
+	 * Create the server on the loopback interface with the default maximum
+	 * norm
+	 *
+	 * @param port
+	 *            the port to listen on, 0 for any free port
+	 * @param cache
+	 *            the cache of built networks
+	 */
+	public QueryServer(int port, NetworkCache cache) throws IOException {
+		this(port, cache, DEFAULT_MAX_NORM);
+	}
+
+	/**
+	 * Create the server on the loopback interface
+	 *
+	 * @param port
+	 *            the port to listen on, 0 for any free port
+	 * @param cache
+	 *            the cache of built networks
+	 * @param maxNorm
+	 *            the largest norm a^2+b^2 of the networks queried, so one
+	 *            request cannot make the server build a network which does
+	 *            not fit in memory
+	 */
+	public QueryServer(int port, NetworkCache cache, long maxNorm)
+			throws IOException {
+		if (maxNorm < 1) {
+			throw new IllegalArgumentException("The maximum norm " + maxNorm
+					+ " should be positive");
+		}
+		this.cache = cache;
+		this.maxNorm = maxNorm;
+		this.server = HttpServer.create(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), port), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+
+		server.createContext("/diameter", new QueryHandler(true) {
+			@Override
+			String answer(int a, int b) {
+				return diameter(GaussianAnalytics.getDiameter(a, b));
+			}
+
+			@Override
+			String answer(NetworkSnapshot snapshot,
+					Map<String, String> params) {
+				return diameter(snapshot.getD());
+			}
+		});
+		server.createContext("/distribution", new QueryHandler(true) {
+			@Override
+			String answer(int a, int b) {
+				return distribution(Arrays.toString(GaussianAnalytics
+						.getDistanceDistributions(a, b)), GaussianAnalytics
+						.getAverageDistance(a, b));
+			}
+
+			@Override
+			String answer(NetworkSnapshot snapshot,
+					Map<String, String> params) {
+				return distribution(snapshot.getDistanceDistributions()
+						.toString(), snapshot.getAverageDistance());
+			}
+		});
+		server.createContext("/distance", new QueryHandler(false) {
+			@Override
+			String answer(NetworkSnapshot snapshot,
+					Map<String, String> params) {
+				int from = node(snapshot, params, "from");
+				int to = node(snapshot, params, "to");
+				int distance = snapshot.getDistance(from, to);
+				return "{\"distance\":" + distance + "}";
+			}
+		});
+		server.createContext("/route", new QueryHandler(false) {
+			@Override
+			String answer(NetworkSnapshot snapshot,
+					Map<String, String> params) {
+				int from = node(snapshot, params, "from");
+				int to = node(snapshot, params, "to");
+				int[] route = snapshot.getRoute(from, to);
+
+				StringBuilder sb = new StringBuilder("{\"distance\":");
+				sb.append(route.length - 1).append(",\"route\":[");
+				for (int i = 0; i < route.length; i++) {
+					if (i > 0)
+						sb.append(',');
+					sb.append('[').append(snapshot.getX(route[i])).append(',')
+							.append(snapshot.getY(route[i])).append(']');
+				}
+				return sb.append("]}").toString();
+			}
+		});
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stop the server, waiting at most the given number of seconds for the
+	 * running requests
+	 */
+	public void stop(int delay) {
+		server.stop(delay);
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Parses the common parameters, finds the network in the cache and
+	 * writes the answer
+	 */
+	private abstract class QueryHandler implements HttpHandler {
+
+		private final boolean isInvariant;
+
+		/**
+		 * @param isInvariant
+		 *            whether the answer is the same on isomorphic networks,
+		 *            so it can be given by the network of the canonical
+		 *            generator
+		 */
+		QueryHandler(boolean isInvariant) {
+			this.isInvariant = isInvariant;
+		}
+
+		/**
+		 * Answer the query on the Gaussian network generated by a+bi
+		 * without building it
+		 *
+		 * @return the answer, null if it needs the built network
+		 */
+		String answer(int a, int b) {
+			return null;
+		}
+
+		abstract String answer(NetworkSnapshot snapshot,
+				Map<String, String> params);
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			int status = 200;
+			String body;
+			try {
+				if (!exchange.getRequestMethod().equals("GET")) {
+					status = 405;
+					body = error("Only GET is supported");
+				} else {
+					Map<String, String> params = parse(exchange.getRequestURI()
+							.getRawQuery());
+					int a = Integer.parseInt(required(params, "a"));
+					int b = Integer.parseInt(required(params, "b"));
+					if (a < 0 || b < 0 || a + b == 0) {
+						throw new IllegalArgumentException(
+								"a and b must be positive integer");
+					}
+					REPRESENTATION representation = REPRESENTATION
+							.valueOf(params.getOrDefault("representation",
+									"DIAMOND").toUpperCase(Locale.ROOT));
+					NETWORK network = NETWORK.valueOf(params.getOrDefault(
+							"network", "GAUSSIAN").toUpperCase(Locale.ROOT));
+					long norm = GaussianAnalytics.getNorm(a, b);
+					if (norm > maxNorm) {
+						throw new IllegalArgumentException("The norm " + norm
+								+ " is larger than the maximum norm " + maxNorm);
+					}
+
+					// the generators the networks reject are not answered either
+					if (a > b && representation == REPRESENTATION.DIAMOND) {
+						throw new IllegalArgumentException(
+								"a should be less than or equal to b");
+					}
+
+					body = (network == NETWORK.GAUSSIAN) ? answer(a, b) : null;
+					if (body == null) {
+						NetworkSnapshot snapshot = isInvariant ? cache
+								.getCanonical(a, b, representation, network)
+								: cache.get(a, b, representation, network);
+						body = answer(snapshot, params);
+					}
+				}
+			} catch (RuntimeException ex) {
+				status = 400;
+				body = error((ex.getMessage() != null) ? ex.getMessage() : ex
+						.toString());
+			}
+
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type",
+					"application/json");
+			exchange.sendResponseHeaders(status, bytes.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Find the index of the node given as "x,y" in the parameter
+	 */
+	private static int node(NetworkSnapshot snapshot,
+			Map<String, String> params, String name) {
+		String[] xy = required(params, name).split(",");
+		if (xy.length != 2) {
+			throw new IllegalArgumentException(name + " should be x,y");
+		}
+		int index = snapshot.indexOf(Integer.parseInt(xy[0].trim()),
+				Integer.parseInt(xy[1].trim()));
+		if (index < 0) {
+			throw new IllegalArgumentException(name
+					+ " is not a node of the network");
+		}
+		return index;
+	}
+
+	private static String diameter(int diameter) {
+		return "{\"diameter\":" + diameter + "}";
+	}
+
+	private static String distribution(String distribution, double average) {
+		return "{\"distribution\":" + distribution.replace(" ", "")
+				+ String.format(Locale.ROOT, ",\"average\":%.6f}", average);
+	}
+
+	private static String required(Map<String, String> params, String name) {
+		String value = params.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing parameter " + name);
+		}
+		return value;
+	}
+
+	private static Map<String, String> parse(String query) {
+		Map<String, String> params = new HashMap<String, String>();
+		if (query == null) {
+			return params;
+		}
+		for (String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0) {
+				params.put(
+						URLDecoder.decode(pair.substring(0, eq),
+								StandardCharsets.UTF_8),
+						URLDecoder.decode(pair.substring(eq + 1),
+								StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	private static String error(String message) {
+		return "{\"error\":\""
+				+ message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = 8080;
+		int capacity = 64;
+		long maxNorm = DEFAULT_MAX_NORM;
+		try {
+			if (args.length > 0)
+				port = Integer.parseInt(args[0]);
+			if (args.length > 1)
+				capacity = Integer.parseInt(args[1]);
+			if (args.length > 2)
+				maxNorm = Long.parseLong(args[2]);
+		} catch (NumberFormatException ex) {
+			System.err
+					.println("Usage: QueryServer [port] [cache capacity] [max norm]");
+			System.exit(1);
+		}
+
+		QueryServer queryServer = new QueryServer(port, new NetworkCache(
+				capacity), maxNorm);
+		queryServer.start();
+		System.out.println("Listening on http://localhost:"
+				+ queryServer.getPort());
+	}
+
+}
@@ -0,0 +1,390 @@
+package gaussian.simulation;
+
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.Partitioner;
+import gaussian.REPRESENTATION;
+import gaussian.ROUTING;
+import gaussian.TRAFFIC;
+import gaussian.TrafficShard;
+import gaussian.TrafficSimulator;
+import gaussian.TrafficStatistics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the traffic simulation of a network sharded over worker processes on
+ * this machine, for several numbers of workers, and writes the scaling as
+ * CSV: the node-cycles simulated per second, the speedup and efficiency
+ * against the first number of workers, the share of the time the workers
+ * waited for frames and the frame bytes per cycle, with the throughput and
+ * latency of the traffic.
+ *
+ * The coordinator partitions the nodes with Partitioner, starts one
+ * ShardWorker per part, sends each the parameters, the TrafficShard of its
+ * nodes and their halo and the addresses of the other workers, starts them
+ * all at once when they are connected to their peers and adds up their
+ * statistics. The workers talk over the loopback interface, or over Unix
+ * domain sockets with -unix. With -verify the statistics are checked
+ * against a simulation of the whole network in this process. The traffic is
+ * UNIFORM and the routing DETERMINISTIC unless given by -traffic and
+ * -routing.
+ *
+ * Only the coordinator builds the network. A worker keeps the state of its
+ * part and halo, so its heap shrinks with the number of workers; the
+ * honeycomb networks of an odd a+b need enough workers for the distances
+ * of each part to stay within TrafficSimulator.MAX_ROUTING_ENTRIES. The
+ * workers exchange frames every cycle, so they only run faster than one
+ * process with a core each and shards large enough for a cycle to outweigh
+ * the exchange.
+ *
+ * Usage: ShardCoordinator [-honeycomb] [-square] [-unix] [-verify] [-traffic
+ * t] [-routing r] [-rate r] [-buffer b] [-cycles c] [-warmup w] [-seed s]
+ * [-workers n,n,...] a b
+ */
+public class ShardCoordinator {
+
+	private static void usage() {
+		System.err
+				.println("Usage: ShardCoordinator [-honeycomb] [-square] [-unix] [-verify] [-traffic t] "
+						+ "[-routing r] [-rate r] [-buffer b] [-cycles c] [-warmup w] [-seed s] "
+						+ "[-workers n,n,...] a b");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) throws IOException {
+		NETWORK network = NETWORK.GAUSSIAN;
+		REPRESENTATION representation = REPRESENTATION.DIAMOND;
+		boolean isUnix = false;
+		boolean isVerified = false;
+		TRAFFIC traffic = TRAFFIC.UNIFORM;
+		ROUTING routing = ROUTING.DETERMINISTIC;
+		double injectionRate = 0.1;
+		int bufferSize = 4;
+		int cycles = 10000;
+		int warmup = 1000;
+		long seed = 1;
+		int[] workerCounts = { 1, 2, 4 };
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-honeycomb")) {
+					network = NETWORK.HONEYCOMB;
+				} else if (args[i].equals("-square")) {
+					representation = REPRESENTATION.SQUARE;
+				} else if (args[i].equals("-unix")) {
+					isUnix = true;
+				} else if (args[i].equals("-verify")) {
+					isVerified = true;
+				} else if (args[i].equals("-traffic")) {
+					traffic = TRAFFIC.valueOf(args[++i].toUpperCase(Locale.ROOT));
+				} else if (args[i].equals("-routing")) {
+					routing = ROUTING.valueOf(args[++i].toUpperCase(Locale.ROOT));
+				} else if (args[i].equals("-rate")) {
+					injectionRate = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-buffer")) {
+					bufferSize = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-cycles")) {
+					cycles = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-warmup")) {
+					warmup = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-seed")) {
+					seed = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-workers")) {
+					String[] counts = args[++i].split(",");
+					workerCounts = new int[counts.length];
+					for (int k = 0; k < counts.length; k++) {
+						workerCounts[k] = Integer.parseInt(counts[k]);
+					}
+				} else {
+					sizes.add(Integer.parseInt(args[i]));
+				}
+			}
+		} catch (RuntimeException ex) {
+			usage();
+		}
+		if (sizes.size() != 2 || cycles < 1 || warmup < 0) {
+			usage();
+		}
+		for (int workers : workerCounts) {
+			if (workers < 1) {
+				usage();
+			}
+		}
+		if (System.getProperty("jdk.module.path") == null) {
+			System.err.println("The workers need the module path, run with -p");
+			System.exit(1);
+		}
+
+		GaussianNetwork gaussianNetwork = GaussianNetwork.create(sizes.get(0),
+				sizes.get(1), representation, network);
+		int n = gaussianNetwork.getNorm();
+		TrafficStatistics whole = isVerified ? new TrafficSimulator(
+				gaussianNetwork, traffic, routing, injectionRate, bufferSize,
+				seed).run(cycles, warmup) : null;
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		out.println("a,b,norm,network,traffic,routing,transport,workers,edge_cut,cycles,wall_ms,"
+				+ "node_cycles_per_s,per_worker,speedup,efficiency,wait_fraction,"
+				+ "frame_bytes_per_cycle,offered_load,throughput,latency,hops"
+				+ (isVerified ? ",matches_whole" : ""));
+		double baseRate = 0;
+		int baseWorkers = 0;
+		for (int workers : workerCounts) {
+			workers = Math.min(workers, n);
+			int[] shards = (workers == 1) ? new int[n] : Partitioner
+					.partition(gaussianNetwork, workers).getParts();
+			TrafficShard[] parts = new TrafficShard[workers];
+			for (int id = 0; id < workers; id++) {
+				parts[id] = TrafficShard.create(gaussianNetwork, shards, id);
+				// the worker would fail building its distances
+				if (TrafficSimulator.routingEntries(parts[id])
+						> TrafficSimulator.MAX_ROUTING_ENTRIES) {
+					System.err.println("The part " + id + " of " + workers
+							+ " of the honeycomb network of " + n
+							+ " nodes needs more than "
+							+ TrafficSimulator.MAX_ROUTING_ENTRIES
+							+ " distances, use more workers");
+					System.exit(1);
+				}
+			}
+			Run run = new Run(parts, traffic, routing, injectionRate,
+					bufferSize, seed, cycles, warmup);
+			run.execute(isUnix);
+
+			double rate = (double) n * (warmup + cycles) * 1e9 / run.wallNanos;
+			if (baseWorkers == 0) {
+				baseRate = rate;
+				baseWorkers = workers;
+			}
+			double speedup = rate / baseRate;
+			TrafficStatistics statistics = run.statistics;
+			out.printf(Locale.ROOT,
+					"%d,%d,%d,%s,%s,%s,%s,%d,%d,%d,%.1f,%.0f,%.0f,%.3f,%.3f,%.3f,%.0f,%.4f,%.4f,%.2f,%.2f",
+					sizes.get(0), sizes.get(1), n, network, traffic, routing, isUnix ? "unix"
+							: "tcp", workers, edgeCut(gaussianNetwork, shards),
+					cycles, run.wallNanos / 1e6, rate, rate / workers, speedup,
+					speedup * baseWorkers / workers, run.waitNanos
+							/ (double) run.runNanos, (double) run.bytesSent
+							/ (warmup + cycles), statistics.getOfferedLoad(),
+					statistics.getThroughput(),
+					statistics.getAverageLatency(),
+					statistics.getAverageHops());
+			if (isVerified) {
+				out.print("," + matches(whole, statistics));
+			}
+			out.println();
+			out.flush();
+		}
+		out.flush();
+	}
+
+	/**
+	 * @return the links between the shards
+	 */
+	private static int edgeCut(GaussianNetwork network, int[] shards) {
+		int[] adjacency = network.getFlatAdjacency();
+		int cut = 0;
+		for (int k = 0; k < adjacency.length; k++) {
+			if (adjacency[k] >= 0 && shards[k / 4] != shards[adjacency[k]]) {
+				cut++;
+			}
+		}
+		return cut;
+	}
+
+	private static boolean matches(TrafficStatistics a, TrafficStatistics b) {
+		return a.getGenerated() == b.getGenerated()
+				&& a.getRefused() == b.getRefused()
+				&& a.getDelivered() == b.getDelivered()
+				&& a.getLatencySum() == b.getLatencySum()
+				&& a.getHopSum() == b.getHopSum()
+				&& a.getMaxLatency() == b.getMaxLatency();
+	}
+
+	/**
+	 * One simulation over worker processes
+	 */
+	private static class Run {
+
+		private final TrafficShard[] parts;
+		private final int workers;
+		private final TRAFFIC traffic;
+		private final ROUTING routing;
+		private final double injectionRate;
+		private final int bufferSize;
+		private final long seed;
+		private final int cycles;
+		private final int warmup;
+
+		private TrafficStatistics statistics;
+		private long wallNanos;
+		// the sums over the workers
+		private long runNanos;
+		private long waitNanos;
+		private long bytesSent;
+
+		/**
+		 * @param parts
+		 *            the shard of each worker
+		 */
+		Run(TrafficShard[] parts, TRAFFIC traffic, ROUTING routing,
+				double injectionRate, int bufferSize, long seed, int cycles,
+				int warmup) {
+			this.parts = parts;
+			this.workers = parts.length;
+			this.traffic = traffic;
+			this.routing = routing;
+			this.injectionRate = injectionRate;
+			this.bufferSize = bufferSize;
+			this.seed = seed;
+			this.cycles = cycles;
+			this.warmup = warmup;
+		}
+
+		void execute(boolean isUnix) throws IOException {
+			Path directory = isUnix ? Files.createTempDirectory("shards")
+					: null;
+			List<Process> processes = new ArrayList<Process>();
+			SocketChannel[] channels = new SocketChannel[workers];
+			try (ServerSocketChannel server = Sockets.listen(directory,
+					"coordinator.socket")) {
+				String address = Sockets.address(server);
+				String java = Path.of(System.getProperty("java.home"), "bin",
+						"java").toString();
+				for (int id = 0; id < workers; id++) {
+					processes.add(new ProcessBuilder(java, "-p", System
+							.getProperty("jdk.module.path"), "-m",
+							"gaussian.core/" + ShardWorker.class.getName(),
+							address, Integer.toString(id)).inheritIO().start());
+				}
+
+				String[] addresses = new String[workers];
+				for (int i = 0; i < workers; i++) {
+					SocketChannel channel = accept(server, processes);
+					ByteBuffer hello = Sockets.receive(channel, Sockets.HELLO);
+					int id = hello.getInt();
+					channels[id] = channel;
+					addresses[id] = Sockets.getString(hello);
+				}
+				for (int id = 0; id < workers; id++) {
+					Sockets.send(channels[id], Sockets.SETUP,
+							setup(parts[id], addresses));
+				}
+				for (SocketChannel channel : channels) {
+					Sockets.receive(channel, Sockets.READY);
+				}
+
+				long start = System.nanoTime();
+				for (SocketChannel channel : channels) {
+					Sockets.send(channel, Sockets.START);
+				}
+				for (SocketChannel channel : channels) {
+					ByteBuffer stats = Sockets.receive(channel, Sockets.STATS);
+					TrafficStatistics shard = new TrafficStatistics(
+							stats.getLong(), cycles, stats.getLong(),
+							stats.getLong(), stats.getLong(), stats.getLong(),
+							stats.getLong(), stats.getLong());
+					statistics = (statistics == null) ? shard : statistics
+							.add(shard);
+					runNanos += stats.getLong();
+					waitNanos += stats.getLong();
+					bytesSent += stats.getLong();
+				}
+				wallNanos = System.nanoTime() - start;
+			} finally {
+				for (SocketChannel channel : channels) {
+					if (channel != null) {
+						channel.close();
+					}
+				}
+				for (Process process : processes) {
+					try {
+						process.waitFor();
+					} catch (InterruptedException ex) {
+						process.destroy();
+						Thread.currentThread().interrupt();
+					}
+				}
+				if (directory != null) {
+					try (DirectoryStream<Path> files = Files
+							.newDirectoryStream(directory)) {
+						for (Path file : files) {
+							Files.delete(file);
+						}
+					}
+					Files.delete(directory);
+				}
+			}
+		}
+
+		/**
+		 * @return the contents of the SETUP message of the worker of a part
+		 */
+		private ByteBuffer setup(TrafficShard part, String[] addresses) {
+			int bytes = Sockets.stringBytes(traffic.name())
+					+ Sockets.stringBytes(routing.name()) + 8 + 4 + 8 + 2 * 4
+					+ part.getBytes() + 4;
+			for (String address : addresses) {
+				bytes += Sockets.stringBytes(address);
+			}
+			ByteBuffer setup = ByteBuffer.allocate(bytes);
+			Sockets.putString(setup, traffic.name());
+			Sockets.putString(setup, routing.name());
+			setup.putDouble(injectionRate).putInt(bufferSize).putLong(seed)
+					.putInt(cycles).putInt(warmup);
+			part.write(setup);
+			setup.putInt(addresses.length);
+			for (String address : addresses) {
+				Sockets.putString(setup, address);
+			}
+			setup.flip();
+			return setup;
+		}
+
+		/**
+		 * Accept the connection of a worker, or fail if a worker exited
+		 */
+		private static SocketChannel accept(ServerSocketChannel server,
+				List<Process> processes) throws IOException {
+			server.configureBlocking(false);
+			try (Selector selector = Selector.open()) {
+				server.register(selector, SelectionKey.OP_ACCEPT);
+				while (true) {
+					SocketChannel channel = server.accept();
+					if (channel != null) {
+						channel.configureBlocking(true);
+						Sockets.noDelay(channel);
+						return channel;
+					}
+					for (Process process : processes) {
+						if (!process.isAlive()) {
+							throw new IOException("A worker exited with status "
+									+ process.exitValue());
+						}
+					}
+					selector.select(100);
+				}
+			}
+		}
+
+	}
+
+}
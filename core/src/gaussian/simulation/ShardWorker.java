@@ -0,0 +1,294 @@
+package gaussian.simulation;
+
+import gaussian.ROUTING;
+import gaussian.TRAFFIC;
+import gaussian.TrafficShard;
+import gaussian.TrafficSimulator;
+import gaussian.TrafficStatistics;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+/**
+ * A worker process of a sharded traffic simulation, started by the
+ * ShardCoordinator. It gets the TrafficShard of its nodes and their halo,
+ * without the network, simulates its nodes and exchanges the packets and
+ * credits crossing the boundary links with the workers of the neighboring
+ * shards, one frame per peer and cycle. The frames are written
+ * by the simulator straight into direct buffers and sent and received on
+ * non-blocking sockets, all the peers at once. A worker waits for the frames
+ * of a cycle from all its peers before it simulates the next cycle, so the
+ * workers stay in lockstep without a global barrier.
+ *
+ * Usage: ShardWorker coordinator-address id
+ */
+public class ShardWorker {
+
+	private static final int FRAME_BUFFER_BYTES = 1 << 16;
+
+	private final TrafficSimulator simulator;
+	private final int[] peers;
+	private final SocketChannel[] channels;
+	private final Selector selector;
+	private final SelectionKey[] keys;
+	// the frame written for each peer, and the bytes received from it
+	private final ByteBuffer[] outs;
+	private final ByteBuffer[] ins;
+	private final boolean[] received;
+
+	private long waitNanos;
+	private long bytesSent;
+
+	/**
+	 * @param channels
+	 *            the connections to the peers of the simulator, in the order
+	 *            of getPeers
+	 */
+	ShardWorker(TrafficSimulator simulator, SocketChannel[] channels)
+			throws IOException {
+		this.simulator = simulator;
+		this.peers = simulator.getPeers();
+		this.channels = channels;
+		selector = Selector.open();
+		keys = new SelectionKey[peers.length];
+		outs = new ByteBuffer[peers.length];
+		ins = new ByteBuffer[peers.length];
+		received = new boolean[peers.length];
+		for (int k = 0; k < peers.length; k++) {
+			channels[k].configureBlocking(false);
+			keys[k] = channels[k].register(selector, 0, k);
+			outs[k] = ByteBuffer.allocateDirect(FRAME_BUFFER_BYTES).order(
+					ByteOrder.nativeOrder());
+			ins[k] = ByteBuffer.allocateDirect(FRAME_BUFFER_BYTES).order(
+					ByteOrder.nativeOrder());
+		}
+	}
+
+	/**
+	 * Simulate the cycles of the shard
+	 *
+	 * @return the statistics of the measured cycles
+	 */
+	TrafficStatistics run(int cycles, int warmup) throws IOException {
+		for (int cycle = 0; cycle < warmup + cycles; cycle++) {
+			simulator.cycle(cycle, cycle >= warmup);
+			// the frames of the last cycle would only matter to the next one
+			if (cycle < warmup + cycles - 1) {
+				long start = System.nanoTime();
+				exchange(cycle);
+				waitNanos += System.nanoTime() - start;
+			}
+		}
+		return simulator.getStatistics(cycles);
+	}
+
+	/**
+	 * Send the frames of a cycle to the peers and take in theirs
+	 */
+	private void exchange(int cycle) throws IOException {
+		for (int k = 0; k < peers.length; k++) {
+			int bytes = simulator.getFrameBytes(peers[k]);
+			if (bytes > outs[k].capacity()) {
+				outs[k] = ByteBuffer.allocateDirect(2 * bytes).order(
+						ByteOrder.nativeOrder());
+			}
+			outs[k].clear();
+			simulator.writeFrame(peers[k], cycle, outs[k]);
+			outs[k].flip();
+			bytesSent += bytes;
+			channels[k].write(outs[k]);
+		}
+
+		int missing = 0;
+		for (int k = 0; k < peers.length; k++) {
+			// a peer may already have sent the frame, or even the next one
+			received[k] = takeFrame(k, cycle);
+			missing += received[k] ? 0 : 1;
+		}
+		while (true) {
+			boolean isWriting = false;
+			for (int k = 0; k < peers.length; k++) {
+				int operations = (received[k] ? 0 : SelectionKey.OP_READ)
+						| (outs[k].hasRemaining() ? SelectionKey.OP_WRITE : 0);
+				keys[k].interestOps(operations);
+				isWriting |= outs[k].hasRemaining();
+			}
+			if (missing == 0 && !isWriting) {
+				return;
+			}
+			selector.select();
+			for (SelectionKey key : selector.selectedKeys()) {
+				int k = (Integer) key.attachment();
+				if (key.isWritable()) {
+					channels[k].write(outs[k]);
+				}
+				if (key.isReadable()) {
+					if (channels[k].read(ins[k]) < 0) {
+						throw new EOFException("The worker of shard "
+								+ peers[k] + " closed the connection");
+					}
+					if (takeFrame(k, cycle)) {
+						received[k] = true;
+						missing--;
+					}
+				}
+			}
+			selector.selectedKeys().clear();
+		}
+	}
+
+	/**
+	 * Give the simulator the frame received from a peer if it is all there
+	 *
+	 * @return whether the frame was there
+	 */
+	private boolean takeFrame(int k, int cycle) throws IOException {
+		ByteBuffer in = ins[k];
+		if (in.position() < 4) {
+			return false;
+		}
+		int bytes = in.getInt(0);
+		if (bytes > in.capacity()) {
+			ByteBuffer larger = ByteBuffer.allocateDirect(2 * bytes).order(
+					ByteOrder.nativeOrder());
+			in.flip();
+			larger.put(in);
+			ins[k] = larger;
+			return false;
+		}
+		if (in.position() < bytes) {
+			return false;
+		}
+		in.flip();
+		int frameCycle = simulator.readFrame(in);
+		in.compact();
+		if (frameCycle != cycle) {
+			throw new IOException("Got the frame of cycle " + frameCycle
+					+ " from the worker of shard " + peers[k] + " in cycle "
+					+ cycle);
+		}
+		return true;
+	}
+
+	long getWaitNanos() {
+		return waitNanos;
+	}
+
+	long getBytesSent() {
+		return bytesSent;
+	}
+
+	void close() throws IOException {
+		selector.close();
+		for (SocketChannel channel : channels) {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Connect to the peers: a worker connects to the peers of lower shards
+	 * and sends its shard, and accepts the peers of higher shards
+	 *
+	 * @param addresses
+	 *            the address of the listener of every worker
+	 * @return the connections in the order of getPeers
+	 */
+	private static SocketChannel[] connect(int[] peers, int shard,
+			String[] addresses, ServerSocketChannel listener)
+			throws IOException {
+		SocketChannel[] channels = new SocketChannel[peers.length];
+		int higher = 0;
+		for (int k = 0; k < peers.length; k++) {
+			if (peers[k] > shard) {
+				higher++;
+				continue;
+			}
+			channels[k] = Sockets.connect(addresses[peers[k]]);
+			ByteBuffer id = ByteBuffer.allocate(4).putInt(shard);
+			id.flip();
+			while (id.hasRemaining()) {
+				channels[k].write(id);
+			}
+		}
+		for (int i = 0; i < higher; i++) {
+			SocketChannel channel = listener.accept();
+			Sockets.noDelay(channel);
+			ByteBuffer id = ByteBuffer.allocate(4);
+			Sockets.readFully(channel, id);
+			int k = Arrays.binarySearch(peers, id.getInt(0));
+			if (k < 0 || channels[k] != null) {
+				throw new IOException("Unexpected connection from shard "
+						+ id.getInt(0));
+			}
+			channels[k] = channel;
+		}
+		return channels;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: ShardWorker coordinator-address id");
+			System.exit(1);
+		}
+		int shard = Integer.parseInt(args[1]);
+		try (SocketChannel coordinator = Sockets.connect(args[0]);
+				ServerSocketChannel listener = Sockets.listen(
+						Sockets.directory(args[0]), "worker-" + shard
+								+ ".socket")) {
+			String address = Sockets.address(listener);
+			ByteBuffer hello = ByteBuffer.allocate(4 + Sockets
+					.stringBytes(address));
+			hello.putInt(shard);
+			Sockets.putString(hello, address);
+			hello.flip();
+			Sockets.send(coordinator, Sockets.HELLO, hello);
+
+			ByteBuffer setup = Sockets.receive(coordinator, Sockets.SETUP);
+			TRAFFIC traffic = TRAFFIC.valueOf(Sockets.getString(setup));
+			ROUTING routing = ROUTING.valueOf(Sockets.getString(setup));
+			double injectionRate = setup.getDouble();
+			int bufferSize = setup.getInt();
+			long seed = setup.getLong();
+			int cycles = setup.getInt();
+			int warmup = setup.getInt();
+			TrafficShard trafficShard = TrafficShard.read(setup);
+			String[] addresses = new String[setup.getInt()];
+			for (int i = 0; i < addresses.length; i++) {
+				addresses[i] = Sockets.getString(setup);
+			}
+
+			TrafficSimulator simulator = new TrafficSimulator(trafficShard,
+					traffic, routing, injectionRate, bufferSize, seed);
+			ShardWorker worker = new ShardWorker(simulator, connect(
+					simulator.getPeers(), shard, addresses, listener));
+			Sockets.send(coordinator, Sockets.READY);
+
+			Sockets.receive(coordinator, Sockets.START);
+			long start = System.nanoTime();
+			TrafficStatistics statistics = worker.run(cycles, warmup);
+			long runNanos = System.nanoTime() - start;
+			worker.close();
+
+			ByteBuffer stats = ByteBuffer.allocate(11 * 8);
+			stats.putLong(statistics.getNodes())
+					.putLong(statistics.getGenerated())
+					.putLong(statistics.getRefused())
+					.putLong(statistics.getDelivered())
+					.putLong(statistics.getLatencySum())
+					.putLong(statistics.getHopSum())
+					.putLong(statistics.getMaxLatency()).putLong(runNanos)
+					.putLong(worker.getWaitNanos())
+					.putLong(worker.getBytesSent())
+					.putLong(simulator.getPeers().length).flip();
+			Sockets.send(coordinator, Sockets.STATS, stats);
+		}
+	}
+
+}
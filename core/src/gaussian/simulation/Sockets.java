@@ -0,0 +1,174 @@
+package gaussian.simulation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The loopback sockets of the coordinator and the workers, over TCP or Unix
+ * domain sockets, and the messages of their protocol: the bytes and the
+ * type of the message as ints, then its contents. The address of a socket
+ * is "tcp:port" or "unix:path".
+ */
+final class Sockets {
+
+	// the messages, in the order of a run
+	static final int HELLO = 1;
+	static final int SETUP = 2;
+	static final int READY = 3;
+	static final int START = 4;
+	static final int STATS = 5;
+
+	private Sockets() {
+	}
+
+	/**
+	 * @param directory
+	 *            the directory of the Unix domain socket, or null for a TCP
+	 *            socket on the loopback interface
+	 * @param name
+	 *            the file name of the Unix domain socket
+	 */
+	static ServerSocketChannel listen(Path directory, String name)
+			throws IOException {
+		if (directory == null) {
+			ServerSocketChannel server = ServerSocketChannel.open();
+			server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+					0));
+			return server;
+		}
+		Path path = directory.resolve(name);
+		Files.deleteIfExists(path);
+		ServerSocketChannel server = ServerSocketChannel
+				.open(StandardProtocolFamily.UNIX);
+		server.bind(UnixDomainSocketAddress.of(path));
+		return server;
+	}
+
+	/**
+	 * @return the address to connect to a server
+	 */
+	static String address(ServerSocketChannel server) throws IOException {
+		SocketAddress local = server.getLocalAddress();
+		if (local instanceof UnixDomainSocketAddress) {
+			return "unix:" + ((UnixDomainSocketAddress) local).getPath();
+		}
+		return "tcp:" + ((InetSocketAddress) local).getPort();
+	}
+
+	/**
+	 * @return the directory of the Unix domain socket of an address, or null
+	 *         for a TCP address
+	 */
+	static Path directory(String address) {
+		return address.startsWith("unix:") ? Path.of(address.substring(5))
+				.getParent() : null;
+	}
+
+	static SocketChannel connect(String address) throws IOException {
+		if (address.startsWith("unix:")) {
+			return SocketChannel.open(UnixDomainSocketAddress.of(address
+					.substring(5)));
+		}
+		if (!address.startsWith("tcp:")) {
+			throw new IllegalArgumentException("Unknown address " + address);
+		}
+		SocketChannel channel = SocketChannel.open(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), Integer.parseInt(address
+						.substring(4))));
+		noDelay(channel);
+		return channel;
+	}
+
+	/**
+	 * Send the small frames as soon as they are written
+	 */
+	static void noDelay(SocketChannel channel) throws IOException {
+		if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+		}
+	}
+
+	/**
+	 * Send a message on a blocking channel
+	 *
+	 * @param contents
+	 *            the contents between its position and its limit
+	 */
+	static void send(SocketChannel channel, int type, ByteBuffer contents)
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		header.putInt(8 + contents.remaining()).putInt(type).flip();
+		ByteBuffer[] message = { header, contents };
+		while (header.hasRemaining() || contents.hasRemaining()) {
+			channel.write(message);
+		}
+	}
+
+	static void send(SocketChannel channel, int type) throws IOException {
+		send(channel, type, ByteBuffer.allocate(0));
+	}
+
+	/**
+	 * Receive a message on a blocking channel
+	 *
+	 * @return the contents of the message
+	 * @throws IOException
+	 *             if the message is of another type or the channel closes
+	 */
+	static ByteBuffer receive(SocketChannel channel, int type)
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		readFully(channel, header);
+		header.flip();
+		int bytes = header.getInt();
+		int received = header.getInt();
+		if (received != type || bytes < 8) {
+			throw new IOException("Expected the message " + type + " but got "
+					+ received);
+		}
+		ByteBuffer contents = ByteBuffer.allocate(bytes - 8);
+		readFully(channel, contents);
+		contents.flip();
+		return contents;
+	}
+
+	static void readFully(SocketChannel channel, ByteBuffer buffer)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("The other end closed the connection");
+			}
+		}
+	}
+
+	static void putString(ByteBuffer buffer, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length).put(bytes);
+	}
+
+	static String getString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the bytes putString takes for a string
+	 */
+	static int stringBytes(String s) {
+		return 4 + s.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Headless topology and analysis of Gaussian and honeycomb networks, with
+ * the batch command line and the HTTP query service built on them.
+ * This module must not use java.awt.
+ */
+module gaussian.core {
+	requires jdk.httpserver;
+
+	exports gaussian;
+}
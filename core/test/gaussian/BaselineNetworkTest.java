@@ -0,0 +1,178 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests of the baseline networks of GaussianNetwork.create
+ */
+public class BaselineNetworkTest {
+
+	private BaselineNetworkTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(BaselineNetworkTest.class);
+	}
+
+	/**
+	 * The honeycomb networks of the tori are connected, but the ones of a
+	 * single row, which are rejected
+	 */
+	public static void testHoneycombTorusIsConnected() {
+		for (int width = 1; width <= 12; width++) {
+			for (int height = 1; height <= 12; height++) {
+				final int a = width;
+				final int b = height;
+				String name = "TORUS HONEYCOMB " + a + "x" + b;
+				if (b == 1 && a > 2) {
+					Tests.assertThrows(IllegalArgumentException.class,
+							new Runnable() {
+								@Override
+								public void run() {
+									GaussianNetwork.create(TOPOLOGY.TORUS, a, b,
+											REPRESENTATION.DIAMOND,
+											NETWORK.HONEYCOMB);
+								}
+							}, name);
+					continue;
+				}
+				GaussianNetwork network = GaussianNetwork.create(
+						TOPOLOGY.TORUS, a, b, REPRESENTATION.DIAMOND,
+						NETWORK.HONEYCOMB);
+				for (int source = 0; source < network.getNorm(); source++) {
+					for (int distance : network.getDistancesFrom(source, null)) {
+						Tests.assertTrue(distance >= 0, name + " from " + source
+								+ " is disconnected");
+					}
+				}
+				Tests.assertEquals((long) a * b, network.snapshot().getNorm(),
+						name + " snapshot");
+			}
+		}
+	}
+
+	/**
+	 * The hypercube of dimension d has C(d, k) nodes at distance k
+	 */
+	public static void testHypercubeDistributionIsBinomial() {
+		for (int dimension = 1; dimension <= 12; dimension++) {
+			GaussianNetwork network = GaussianNetwork.create(TOPOLOGY.HYPERCUBE,
+					dimension, 0, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+			List<Integer> expected = new ArrayList<Integer>();
+			long binomial = 1;
+			for (int k = 0; k <= dimension; k++) {
+				expected.add((int) binomial);
+				binomial = binomial * (dimension - k) / (k + 1);
+			}
+			String name = "HYPERCUBE " + dimension;
+			Tests.assertEquals(expected, network.getDistanceDistributions(),
+					name + " distribution");
+			Tests.assertEquals(dimension, network.getD(), name + " diameter");
+			Tests.assertTrue(Math.abs(network.getAverageDistance()
+					- averageOf(expected)) < 1e-12, name + " average distance");
+			checkVertexTransitive(network, name);
+		}
+	}
+
+	/**
+	 * The distribution of the torus is the one of the product of its two
+	 * rings
+	 */
+	public static void testTorusDistributionIsTheProductOfTheRings() {
+		for (int width = 1; width <= 9; width++) {
+			for (int height = 1; height <= 9; height++) {
+				GaussianNetwork network = GaussianNetwork.create(TOPOLOGY.TORUS,
+						width, height, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+				int[] row = ring(width);
+				int[] column = ring(height);
+				int[] product = new int[row.length + column.length - 1];
+				for (int i = 0; i < row.length; i++) {
+					for (int j = 0; j < column.length; j++) {
+						product[i + j] += row[i] * column[j];
+					}
+				}
+				List<Integer> expected = new ArrayList<Integer>();
+				for (int count : product) {
+					expected.add(count);
+				}
+				String name = "TORUS " + width + "x" + height;
+				Tests.assertEquals(expected, network.getDistanceDistributions(),
+						name + " distribution");
+				Tests.assertEquals(product.length - 1, network.getD(), name
+						+ " diameter");
+				Tests.assertTrue(Math.abs(network.getAverageDistance()
+						- averageOf(expected)) < 1e-12, name
+						+ " average distance");
+				checkVertexTransitive(network, name);
+			}
+		}
+	}
+
+	/**
+	 * The Eisenstein-Jacobi network has six neighbors at distance one, and
+	 * the distribution from the center is the one of every node
+	 */
+	public static void testEisensteinJacobiDistribution() {
+		for (int a = 1; a <= 8; a++) {
+			for (int b = 0; b <= a; b++) {
+				GaussianNetwork network = GaussianNetwork.create(
+						TOPOLOGY.EISENSTEIN_JACOBI, a, b, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN);
+				String name = "EISENSTEIN_JACOBI " + a + "+" + b + "w";
+				List<Integer> distributions = network.getDistanceDistributions();
+				long nodes = 0;
+				for (int count : distributions) {
+					nodes += count;
+				}
+				Tests.assertEquals((long) a * a + a * b + b * b, nodes, name
+						+ " nodes");
+				if (network.getNorm() > 7) {
+					Tests.assertEquals(6, (long) distributions.get(1), name
+							+ " neighbors");
+				}
+				checkVertexTransitive(network, name);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of nodes at each distance in a ring of k nodes
+	 */
+	private static int[] ring(int k) {
+		int[] counts = new int[k / 2 + 1];
+		counts[0] = 1;
+		for (int distance = 1; distance <= (k - 1) / 2; distance++) {
+			counts[distance] = 2;
+		}
+		if (k % 2 == 0 && k > 0) {
+			counts[k / 2] += 1;
+		}
+		return counts;
+	}
+
+	private static double averageOf(List<Integer> distributions) {
+		long sum = 0;
+		long nodes = 0;
+		for (int distance = 0; distance < distributions.size(); distance++) {
+			sum += (long) distance * distributions.get(distance);
+			nodes += distributions.get(distance);
+		}
+		return (double) sum / nodes;
+	}
+
+	/**
+	 * The diameter and the average distance are the ones from the center, so
+	 * every node must have the distribution of the center
+	 */
+	private static void checkVertexTransitive(GaussianNetwork network,
+			String name) {
+		List<Integer> expected = network.getDistanceDistributions();
+		for (int source = 0; source < network.getNorm(); source++) {
+			Tests.assertEquals(expected, BreadthFirstSearchTest
+					.distributions(network.getDistancesFrom(source, null)),
+					name + " distribution from " + source);
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests of the BFS algorithms against the top-down BFS of the adjacency
+ * matrix
+ */
+public class BreadthFirstSearchTest {
+
+	private BreadthFirstSearchTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(BreadthFirstSearchTest.class);
+	}
+
+	/**
+	 * Gaussian and honeycomb networks of both representations, whose odd
+	 * honeycombs have one-way links, and the baselines of degree 4, 6 and
+	 * the dimension of the hypercube
+	 */
+	static List<GaussianNetwork> networks() {
+		List<GaussianNetwork> networks = new ArrayList<GaussianNetwork>();
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		int[][] generators = { { 1, 2 }, { 2, 3 }, { 3, 3 }, { 4, 7 },
+				{ 0, 9 }, { 6, 11 }, { 10, 10 }, { 13, 30 } };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK network : pruning) {
+					networks.add(GaussianNetwork.create(ab[0], ab[1],
+							representation, network));
+				}
+			}
+		}
+		networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, 5, 9,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, 6, 8,
+				REPRESENTATION.DIAMOND, NETWORK.HONEYCOMB));
+		networks.add(GaussianNetwork.create(TOPOLOGY.HYPERCUBE, 7, 0,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		networks.add(GaussianNetwork.create(TOPOLOGY.EISENSTEIN_JACOBI, 4, 7,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		return networks;
+	}
+
+	static String name(GaussianNetwork network) {
+		return network.getTopology() + " " + network.getNetwork() + " "
+				+ network.getA() + "+" + network.getB() + "i "
+				+ network.getRepresentation();
+	}
+
+	/**
+	 * @return the number of nodes at each distance, as the BFS algorithms
+	 *         return them
+	 */
+	static List<Integer> distributions(int[] distances) {
+		List<Integer> distributions = new ArrayList<Integer>();
+		for (int distance : distances) {
+			if (distance >= 0) {
+				while (distributions.size() <= distance) {
+					distributions.add(0);
+				}
+				distributions.set(distance, distributions.get(distance) + 1);
+			}
+		}
+		return distributions;
+	}
+
+	public static void testDirectionOptimizingMatchesTopDown() {
+		for (GaussianNetwork network : networks()) {
+			int n = network.getNodes().size();
+			int[] distances = new int[n];
+			// the center, and a spread of other sources for the networks
+			// which are not vertex-transitive
+			for (int source = network.getCenterIndex() % 7; source < n;
+					source += 7) {
+				int[] expected = network.getDistancesFrom(source, null);
+				List<Integer> distributions = BreadthFirstSearch
+						.directionOptimizing(network.getFlatAdjacency(),
+								network.getDegree(),
+								network.getReverseAdjacency(), source,
+								distances);
+				Tests.assertEquals(expected, distances, name(network)
+						+ " distances from " + source);
+				Tests.assertEquals(distributions(expected), distributions,
+						name(network) + " distributions from " + source);
+			}
+		}
+	}
+
+	/**
+	 * The parallel BFS on a pool of several workers, also on networks whose
+	 * frontiers are split in many chunks
+	 */
+	public static void testParallelMatchesTopDown() {
+		List<GaussianNetwork> networks = networks();
+		networks.add(GaussianNetwork.create(150, 211, REPRESENTATION.DIAMOND,
+				NETWORK.GAUSSIAN));
+		networks.add(GaussianNetwork.create(150, 211, REPRESENTATION.SQUARE,
+				NETWORK.HONEYCOMB));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (GaussianNetwork network : networks) {
+				int n = network.getNodes().size();
+				int[] distances = new int[n];
+				int step = Math.max(7, n / 20);
+				for (int source = network.getCenterIndex() % step; source < n;
+						source += step) {
+					int[] expected = network.getDistancesFrom(source, null);
+					List<Integer> distributions = BreadthFirstSearch.parallel(
+							network.getFlatAdjacency(), network.getDegree(),
+							source, distances, pool);
+					Tests.assertEquals(expected, distances, name(network)
+							+ " distances from " + source);
+					Tests.assertEquals(distributions(expected),
+							distributions, name(network)
+									+ " distributions from " + source);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The bit-parallel all-pairs BFS of DistanceStatistics.compute finds the
+	 * distances of a BFS from every node
+	 */
+	public static void testAllPairsMatchesTopDown() {
+		for (GaussianNetwork network : networks()) {
+			int n = network.getNodes().size();
+			int[] eccentricities = new int[n];
+			long[] distribution = new long[n];
+			int diameter = 0;
+			boolean isConnected = true;
+			for (int source = 0; source < n; source++) {
+				for (int distance : network.getDistancesFrom(source, null)) {
+					if (distance < 0) {
+						isConnected = false;
+						continue;
+					}
+					distribution[distance]++;
+					eccentricities[source] = Math.max(eccentricities[source],
+							distance);
+					diameter = Math.max(diameter, distance);
+				}
+			}
+
+			DistanceStatistics statistics = DistanceStatistics.compute(network);
+			Tests.assertEquals(eccentricities,
+					statistics.getEccentricities(), name(network)
+							+ " eccentricities");
+			Tests.assertEquals(Arrays.copyOf(distribution, diameter + 1),
+					statistics.getDistribution(), name(network)
+							+ " distribution");
+			Tests.assertTrue(isConnected == statistics.isConnected(),
+					name(network) + " connected");
+		}
+	}
+
+	public static void testModesSetTheSameDistances() {
+		for (GaussianNetwork network : networks()) {
+			List<Integer> expected = network.getDistanceDistributions();
+			int[] weights = network.getWeights(network.getNetwork());
+			for (BFS_MODE mode : BFS_MODE.values()) {
+				network.setDistanceDistributions(network.getNetwork(), mode);
+				Tests.assertEquals(expected,
+						network.getDistanceDistributions(), name(network)
+								+ " " + mode + " distributions");
+				Tests.assertEquals(weights,
+						network.getWeights(network.getNetwork()),
+						name(network) + " " + mode + " weights");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,224 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of the schedules of Collectives: every message is sent by a node
+ * that has it, every node gets what the collective promises, and the
+ * Gaussian schedules have no contention
+ */
+public class CollectivesTest {
+
+	private CollectivesTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(CollectivesTest.class);
+	}
+
+	private static List<GaussianNetwork> networks() {
+		List<GaussianNetwork> networks = new ArrayList<GaussianNetwork>();
+		int[][] generators = { { 1, 2 }, { 2, 3 }, { 3, 3 }, { 2, 4 },
+				{ 0, 5 }, { 4, 5 }, { 3, 7 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK network : pruning) {
+					networks.add(GaussianNetwork.create(ab[0], ab[1],
+							representation, network));
+				}
+			}
+		}
+		return networks;
+	}
+
+	/**
+	 * @return the roots tried on the network, the center and a node far
+	 *         from it
+	 */
+	private static int[] roots(GaussianNetwork network) {
+		return new int[] { network.getCenterIndex(), network.getNorm() - 1 };
+	}
+
+	public static void testBroadcastReachesEveryNodeOnce() {
+		for (GaussianNetwork network : networks()) {
+			for (int root : roots(network)) {
+				String name = BreadthFirstSearchTest.name(network) + " root "
+						+ root;
+				CollectiveSchedule schedule = Collectives.broadcast(network,
+						root);
+				checkBroadcast(network, schedule, 0, root, name);
+				Tests.assertEquals(eccentricity(network, root),
+						schedule.getStepCount(), name + " steps");
+				Tests.assertEquals(1, schedule.getMaxContention(), name
+						+ " contention");
+			}
+		}
+	}
+
+	public static void testReduceCombinesEveryNode() {
+		for (GaussianNetwork network : networks()) {
+			for (int root : roots(network)) {
+				String name = BreadthFirstSearchTest.name(network) + " root "
+						+ root;
+				CollectiveSchedule schedule = Collectives.reduce(network, root);
+				checkReduce(network, schedule, schedule.getStepCount(), root,
+						name);
+				Tests.assertEquals(1, schedule.getMaxContention(), name
+						+ " contention");
+			}
+		}
+	}
+
+	public static void testAllReduceIsReduceThenBroadcast() {
+		for (GaussianNetwork network : networks()) {
+			int root = network.getCenterIndex();
+			String name = BreadthFirstSearchTest.name(network);
+			CollectiveSchedule schedule = Collectives.create(network,
+					COLLECTIVE.ALL_REDUCE, root);
+			int reduceSteps = Collectives.reduce(network, root).getStepCount();
+			checkReduce(network, schedule, reduceSteps, root, name);
+			checkBroadcast(network, schedule, reduceSteps, root, name);
+			Tests.assertEquals(reduceSteps + eccentricity(network, root),
+					schedule.getStepCount(), name + " steps");
+			Tests.assertEquals(1, schedule.getMaxContention(), name
+					+ " contention");
+		}
+	}
+
+	/**
+	 * Every message of the all-to-all goes over a shortest route, and the
+	 * Gaussian schedule moves all the nodes in the same direction in each
+	 * step
+	 */
+	public static void testAllToAllFollowsShortestRoutes() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			CollectiveSchedule schedule = Collectives.allToAll(network);
+			int n = network.getNorm();
+
+			long distances = 0;
+			for (int u = 0; u < n; u++) {
+				for (int d : network.getDistancesFrom(u, null)) {
+					distances += d;
+				}
+			}
+			Tests.assertEquals(distances, schedule.getTransfers(), name
+					+ " transfers");
+
+			if (network.getNetwork() == NETWORK.GAUSSIAN) {
+				Tests.assertEquals(1, schedule.getMaxContention(), name
+						+ " contention");
+				long fromCenter = 0;
+				for (int d : network.getDistancesFrom(
+						network.getCenterIndex(), null)) {
+					fromCenter += d;
+				}
+				Tests.assertEquals(fromCenter, schedule.getStepCount(), name
+						+ " steps");
+				for (int s = 0; s < schedule.getStepCount(); s++) {
+					int[] links = schedule.getLinks(s);
+					boolean[] isSending = new boolean[n];
+					for (int link : links) {
+						Tests.assertTrue(!isSending[link / 4], name + " step "
+								+ s + " node " + link / 4 + " sends twice");
+						isSending[link / 4] = true;
+						Tests.assertEquals(links[0] % 4, link % 4, name
+								+ " direction in step " + s);
+					}
+					Tests.assertEquals(n, links.length, name + " messages in "
+							+ s);
+				}
+			}
+		}
+	}
+
+	public static void testCompletionTime() {
+		GaussianNetwork network = GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		CollectiveSchedule schedule = Collectives.broadcast(network,
+				network.getCenterIndex());
+		Tests.assertTrue(Math.abs(schedule.getCompletionTime(2, 3)
+				- 5 * schedule.getStepCount()) < 1e-9,
+				"a step costs the latency and one message");
+	}
+
+	/**
+	 * Check the broadcast steps starting at the given step: only the nodes
+	 * that have the message send it, and every node gets it once
+	 */
+	private static void checkBroadcast(GaussianNetwork network,
+			CollectiveSchedule schedule, int first, int root, String name) {
+		int[] adjacency = network.getFlatAdjacency();
+		int n = network.getNorm();
+		boolean[] hasMessage = new boolean[n];
+		hasMessage[root] = true;
+		int received = 1;
+		for (int s = first; s < schedule.getStepCount(); s++) {
+			int[] links = schedule.getLinks(s);
+			boolean[] isReached = new boolean[n];
+			for (int link : links) {
+				int v = adjacency[link];
+				Tests.assertTrue(hasMessage[link / 4], name + " step " + s
+						+ " node " + link / 4 + " sends without the message");
+				Tests.assertTrue(!hasMessage[v] && !isReached[v], name
+						+ " step " + s + " node " + v + " gets it again");
+				isReached[v] = true;
+			}
+			for (int v = 0; v < n; v++) {
+				if (isReached[v]) {
+					hasMessage[v] = true;
+					received++;
+				}
+			}
+		}
+		Tests.assertEquals(n, received, name + " nodes reached");
+	}
+
+	/**
+	 * Check the reduce in the steps before the given step: every node but
+	 * the root sends once, after all the nodes sending to it, and the root
+	 * gets the contribution of every node
+	 */
+	private static void checkReduce(GaussianNetwork network,
+			CollectiveSchedule schedule, int end, int root, String name) {
+		int[] adjacency = network.getFlatAdjacency();
+		int n = network.getNorm();
+		int[] contributions = new int[n];
+		boolean[] hasSent = new boolean[n];
+		Arrays.fill(contributions, 1);
+		for (int s = 0; s < end; s++) {
+			int[] links = schedule.getLinks(s);
+			for (int link : links) {
+				int u = link / 4;
+				Tests.assertTrue(u != root && !hasSent[u], name + " step " + s
+						+ " node " + u + " sends again");
+				hasSent[u] = true;
+			}
+			// the partial results are combined at the end of the step
+			int[] sent = new int[links.length];
+			for (int k = 0; k < links.length; k++) {
+				sent[k] = contributions[links[k] / 4];
+			}
+			for (int k = 0; k < links.length; k++) {
+				int v = adjacency[links[k]];
+				Tests.assertTrue(!hasSent[v], name + " step " + s + " node "
+						+ v + " gets a message after sending");
+				contributions[v] += sent[k];
+			}
+		}
+		Tests.assertEquals(n, contributions[root], name
+				+ " contributions at the root");
+	}
+
+	private static int eccentricity(GaussianNetwork network, int root) {
+		int eccentricity = 0;
+		for (int d : network.getDistancesFrom(root, null)) {
+			eccentricity = Math.max(eccentricity, d);
+		}
+		return eccentricity;
+	}
+
+}
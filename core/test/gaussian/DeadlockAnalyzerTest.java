@@ -0,0 +1,77 @@
+package gaussian;
+
+/**
+ * Tests of DeadlockAnalyzer: the runs of the Gaussian routings give the
+ * dependencies of following every destination
+ */
+public class DeadlockAnalyzerTest {
+
+	private DeadlockAnalyzerTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(DeadlockAnalyzerTest.class);
+	}
+
+	/**
+	 * The routing wrapped so that the analyzer follows the packets to every
+	 * destination instead of the runs of the links to 0
+	 */
+	private static RoutingFunction wrap(final RoutingFunction routing) {
+		return new RoutingFunction() {
+			@Override
+			public void route(int destination, int[] directions) {
+				routing.route(destination, directions);
+			}
+		};
+	}
+
+	public static void testRunsMatchTheDestinations() {
+		int[][] generators = { { 1, 3 }, { 2, 3 }, { 3, 3 }, { 2, 4 },
+				{ 0, 5 }, { 4, 5 }, { 3, 7 }, { 6, 6 }, { 5, 8 } };
+		ROUTING[] routings = { ROUTING.DETERMINISTIC, ROUTING.ADAPTIVE };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				GaussianNetwork network = GaussianNetwork.create(ab[0], ab[1],
+						representation, NETWORK.GAUSSIAN);
+				for (ROUTING routing : routings) {
+					String name = BreadthFirstSearchTest.name(network) + " "
+							+ routing;
+					RoutingFunction function = DeadlockAnalyzer.routing(network,
+							routing);
+					DeadlockAnalyzer runs = new DeadlockAnalyzer(network,
+							function);
+					DeadlockAnalyzer destinations = new DeadlockAnalyzer(
+							network, wrap(function));
+					Tests.assertEquals(destinations.getWraparoundLinks(),
+							runs.getWraparoundLinks(), name + " wraparound links");
+					Tests.assertEquals(destinations.getMaxCrossings(),
+							runs.getMaxCrossings(), name + " crossings");
+					for (int c = 1; c <= 3; c++) {
+						ChannelDependencyGraph expected = destinations.graph(c);
+						ChannelDependencyGraph actual = runs.graph(c);
+						String graph = name + " " + c + " virtual channels";
+						Tests.assertEquals(expected.getDependencies(),
+								actual.getDependencies(), graph + " dependencies");
+						Tests.assertEquals(expected.getCyclicComponents(),
+								actual.getCyclicComponents(), graph
+										+ " cyclic components");
+						Tests.assertEquals(expected.getLargestCyclicComponent(),
+								actual.getLargestCyclicComponent(), graph
+										+ " largest cyclic component");
+					}
+					int virtualChannels = destinations.minimalVirtualChannels();
+					Tests.assertEquals(virtualChannels,
+							runs.minimalVirtualChannels(), name
+									+ " virtual channels");
+					// the dateline breaks the rings of the dimension order
+					// routing, while the adaptive one turns back and forth
+					Tests.assertEquals(
+							(routing == ROUTING.DETERMINISTIC) ? 2 : -1,
+							virtualChannels, name + " virtual channels");
+				}
+			}
+		}
+	}
+
+}
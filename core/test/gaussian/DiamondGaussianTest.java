@@ -0,0 +1,126 @@
+package gaussian;
+
+import java.util.List;
+
+/**
+ * Tests of the generation of the diamond representation
+ */
+public class DiamondGaussianTest {
+
+	private DiamondGaussianTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(DiamondGaussianTest.class);
+	}
+
+	/**
+	 * PARALLEL generation makes the same network as SEQUENTIAL generation,
+	 * also on networks large enough to be split between the workers
+	 */
+	public static void testParallelGenerationMatchesSequential() {
+		for (int b = 1; b <= 30; b++) {
+			for (int a = 0; a <= b; a++) {
+				checkSameNetwork(new DiamondGaussian(a, b),
+						new DiamondGaussian(a, b, GENERATION.PARALLEL), a
+								+ "+" + b + "i");
+			}
+		}
+		int[][] large = { { 90, 100 }, { 101, 101 }, { 150, 200 }, { 0, 211 } };
+		for (int[] ab : large) {
+			checkSameNetwork(new DiamondGaussian(ab[0], ab[1]),
+					new DiamondGaussian(ab[0], ab[1], GENERATION.PARALLEL),
+					ab[0] + "+" + ab[1] + "i");
+		}
+	}
+
+	/**
+	 * Growing a network from the network of a neighboring generator makes
+	 * the same network as building it, from the generators a+(b+1)i,
+	 * (a+1)+bi and (a-1)+bi and in chains of growth
+	 */
+	public static void testGrowthMatchesFreshBuild() {
+		for (int b = 1; b <= 30; b++) {
+			for (int a = 0; a <= b; a++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				DiamondGaussian previous = new DiamondGaussian(a, b);
+				int[][] nexts = { { a, b + 1 }, { a + 1, b }, { a - 1, b },
+						{ a, b - 1 } };
+				for (int[] next : nexts) {
+					if (next[0] < 0 || next[0] > next[1]
+							|| next[0] * next[0] + next[1] * next[1] < 2) {
+						continue;
+					}
+					checkSameNetwork(new DiamondGaussian(next[0], next[1]),
+							new DiamondGaussian(previous, next[0], next[1]), a
+									+ "+" + b + "i to " + next[0] + "+"
+									+ next[1] + "i");
+				}
+			}
+		}
+
+		// a sweep grows each network from the previous grown one
+		DiamondGaussian grown = new DiamondGaussian(3, 4, GENERATION.PARALLEL);
+		for (int b = 5; b <= 120; b++) {
+			grown = new DiamondGaussian(grown, 3, b);
+		}
+		checkSameNetwork(new DiamondGaussian(3, 120), grown, "3+120i grown");
+		for (int a = 4; a <= 100; a++) {
+			grown = new DiamondGaussian(grown, a, 120);
+		}
+		checkSameNetwork(new DiamondGaussian(100, 120), grown,
+				"100+120i grown");
+	}
+
+	/**
+	 * A pruned network cannot be grown, its links are not the links of the
+	 * Gaussian network
+	 */
+	public static void testGrowthFromPrunedNetworkFails() {
+		final DiamondGaussian previous = new DiamondGaussian(3, 4);
+		new HoneycombGaussian(previous);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new DiamondGaussian(previous, 3, 5);
+			}
+		}, "growth from a pruned network");
+	}
+
+	/**
+	 * Check that the networks have the same nodes in the same order, with
+	 * the same regions, types and weights, the same links and the same
+	 * distances
+	 */
+	static void checkSameNetwork(GaussianNetwork expected,
+			GaussianNetwork actual, String name) {
+		List<Node> expectedNodes = expected.getNodes();
+		List<Node> actualNodes = actual.getNodes();
+		Tests.assertEquals(expectedNodes.size(), actualNodes.size(), name
+				+ " nodes");
+		for (int i = 0; i < expectedNodes.size(); i++) {
+			Node e = expectedNodes.get(i);
+			Node n = actualNodes.get(i);
+			if (e.x != n.x || e.y != n.y) {
+				throw new AssertionError(name + " node " + i + ": expected "
+						+ e + " but was " + n);
+			}
+			Tests.assertEquals(e.getRegion(), n.getRegion(), name + " region of "
+					+ e);
+			Tests.assertEquals(e.getNodeType(), n.getNodeType(), name
+					+ " type of " + e);
+			Tests.assertEquals(e.getWeight(NETWORK.GAUSSIAN),
+					n.getWeight(NETWORK.GAUSSIAN), name + " weight of " + e);
+		}
+		Tests.assertEquals(expected.getCenterIndex(), actual.getCenterIndex(),
+				name + " center");
+		Tests.assertEquals(expected.getAdjacencyMatrix(),
+				actual.getAdjacencyMatrix(), name + " links");
+		Tests.assertEquals(expected.getDistanceDistributions(),
+				actual.getDistanceDistributions(), name
+						+ " distance distributions");
+	}
+
+}
@@ -0,0 +1,121 @@
+package gaussian;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of DifferenceStatistics
+ */
+public class DifferenceStatisticsTest {
+
+	private DifferenceStatisticsTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(DifferenceStatisticsTest.class);
+	}
+
+	/**
+	 * The statistics a snapshot shares between threads cannot be modified
+	 * through the arrays of the getters
+	 */
+	public static void testGettersReturnCopies() {
+		NetworkSnapshot snapshot = GaussianNetwork.create(3, 4,
+				REPRESENTATION.DIAMOND, NETWORK.HONEYCOMB).snapshot();
+		DifferenceStatistics statistics = snapshot.getDifferenceStatistics();
+		long[] histogram = statistics.getHistogram();
+		int[] shellMaxima = statistics.getShellMaxima();
+		int[] maxNodes = statistics.getMaxNodes();
+
+		statistics.getHistogram()[0] = -1;
+		statistics.getShellMaxima()[0] = -1;
+		statistics.getMaxNodes()[0] = -1;
+
+		statistics = snapshot.getDifferenceStatistics();
+		Tests.assertEquals(histogram, statistics.getHistogram(), "histogram");
+		Tests.assertEquals(shellMaxima, statistics.getShellMaxima(),
+				"shell maxima");
+		Tests.assertEquals(maxNodes, statistics.getMaxNodes(), "max nodes");
+	}
+
+	/**
+	 * The statistics of HoneycombGaussian and of its snapshot match the
+	 * DIFFERENCE weights that the BFS of the honeycomb network sets on the
+	 * nodes
+	 */
+	public static void testMatchesTheDifferenceWeights() {
+		for (int a = 0; a <= 12; a++) {
+			for (int b = 0; b <= 12; b++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				for (REPRESENTATION representation : REPRESENTATION.values()) {
+					if (representation == REPRESENTATION.DIAMOND && a > b) {
+						continue;
+					}
+					HoneycombGaussian network = (HoneycombGaussian) GaussianNetwork
+							.create(a, b, representation, NETWORK.HONEYCOMB);
+					String name = BreadthFirstSearchTest.name(network);
+					check(network, network.getDifferenceStatistics(), name);
+					check(network, network.snapshot()
+							.getDifferenceStatistics(), name + " snapshot");
+				}
+			}
+		}
+	}
+
+	private static void check(GaussianNetwork network,
+			DifferenceStatistics statistics, String name) {
+		List<Node> nodes = network.getNodes();
+		long[] histogram = new long[nodes.size()];
+		int[] shellMaxima = new int[nodes.size()];
+		int maxDifference = 0;
+		int maxShell = 0;
+		long sum = 0;
+		for (Node node : nodes) {
+			int difference = node.getWeight(NETWORK.DIFFERENCE);
+			int shell = node.getWeight(NETWORK.GAUSSIAN);
+			histogram[difference]++;
+			shellMaxima[shell] = Math.max(shellMaxima[shell], difference);
+			maxDifference = Math.max(maxDifference, difference);
+			maxShell = Math.max(maxShell, shell);
+			sum += difference;
+		}
+		int[] maxNodes = new int[nodes.size()];
+		int maxCount = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i).getWeight(NETWORK.DIFFERENCE) == maxDifference) {
+				maxNodes[maxCount++] = i;
+			}
+		}
+
+		Tests.assertEquals(maxDifference, statistics.getMaxDifference(), name
+				+ " max difference");
+		Tests.assertEquals(Arrays.copyOf(histogram, maxDifference + 1),
+				statistics.getHistogram(), name + " histogram");
+		Tests.assertEquals(Arrays.copyOf(shellMaxima, maxShell + 1),
+				statistics.getShellMaxima(), name + " shell maxima");
+		Tests.assertEquals(Arrays.copyOf(maxNodes, maxCount),
+				statistics.getMaxNodes(), name + " max nodes");
+		Tests.assertTrue(Math.abs((double) sum / nodes.size()
+				- statistics.getAverageDifference()) < 1e-12, name
+				+ " average difference");
+	}
+
+	public static void testComputeChecksTheWeights() {
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				DifferenceStatistics.compute(new int[] { 0, 1 }, new int[] { 0 });
+			}
+		}, "weights of different lengths");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				DifferenceStatistics.compute(new int[] { 0, 2 }, new int[] { 0,
+						1 });
+			}
+		}, "honeycomb weight below the Gaussian weight");
+	}
+
+}
@@ -0,0 +1,104 @@
+package gaussian;
+
+import java.util.List;
+
+/**
+ * Tests of the closed formulas and the residue BFS of GaussianAnalytics
+ * against the BFS of the built networks
+ */
+public class GaussianAnalyticsTest {
+
+	private GaussianAnalyticsTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(GaussianAnalyticsTest.class);
+	}
+
+	private static long[] toArray(List<Integer> list) {
+		long[] array = new long[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	public static void testGaussianFormulasMatchTheBfs() {
+		for (int b = 1; b <= 40; b++) {
+			for (int a = 0; a <= b; a++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				String name = a + "+" + b + "i";
+				GaussianNetwork network = new DiamondGaussian(a, b);
+				long[] expected = toArray(network.getDistanceDistributions());
+
+				Tests.assertEquals(expected,
+						GaussianAnalytics.getDistanceDistributions(a, b), name
+								+ " distributions");
+				for (int s = -1; s <= expected.length; s++) {
+					long count = (s >= 0 && s < expected.length) ? expected[s]
+							: 0;
+					Tests.assertEquals(count,
+							GaussianAnalytics.countAtDistance(a, b, s), name
+									+ " nodes at distance " + s);
+				}
+				Tests.assertEquals(expected.length - 1,
+						GaussianAnalytics.getDiameter(a, b), name + " diameter");
+				Tests.assertEquals(network.getD(),
+						GaussianAnalytics.getDiameter(a, b), name + " d");
+				Tests.assertTrue(Math.abs(network.getAverageDistance()
+						- GaussianAnalytics.getAverageDistance(a, b)) < 1e-9,
+						name + " average distance");
+
+				// the network of b+ai is the same network
+				Tests.assertEquals(expected,
+						GaussianAnalytics.getDistanceDistributions(b, a), name
+								+ " distributions of b+ai");
+			}
+		}
+	}
+
+	public static void testHoneycombMatchesTheBuiltNetwork() {
+		for (int b = 1; b <= 24; b++) {
+			for (int a = 0; a <= b; a++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				for (REPRESENTATION representation : REPRESENTATION.values()) {
+					String name = a + "+" + b + "i " + representation;
+					HoneycombGaussian network = (HoneycombGaussian) GaussianNetwork
+							.create(a, b, representation, NETWORK.HONEYCOMB);
+					long[] expected = toArray(network
+							.getDistanceDistributions());
+					Tests.assertEquals(expected, GaussianAnalytics
+							.getDistanceDistributions(a, b, representation,
+									NETWORK.HONEYCOMB), name
+							+ " distributions");
+					Tests.assertEquals(expected.length - 1, GaussianAnalytics
+							.getDiameter(a, b, representation,
+									NETWORK.HONEYCOMB), name + " diameter");
+					Tests.assertTrue(Math.abs(network.getAverageDistance()
+							- GaussianAnalytics.getAverageDistance(a, b,
+									representation, NETWORK.HONEYCOMB)) < 1e-9,
+							name + " average distance");
+
+					DifferenceStatistics built = network
+							.getDifferenceStatistics();
+					DifferenceStatistics analytic = GaussianAnalytics
+							.getDifferenceStatistics(a, b, representation);
+					Tests.assertEquals(built.getHistogram(),
+							analytic.getHistogram(), name
+									+ " difference histogram");
+					Tests.assertEquals(built.getShellMaxima(),
+							analytic.getShellMaxima(), name
+									+ " difference shell maxima");
+					Tests.assertTrue(Math.abs(built.getAverageDifference()
+							- analytic.getAverageDifference()) < 1e-9, name
+							+ " average difference");
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package gaussian;
+
+import java.util.Arrays;
+
+/**
+ * Tests of HamiltonianCycles
+ */
+public class HamiltonianCyclesTest {
+
+	private HamiltonianCyclesTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(HamiltonianCyclesTest.class);
+	}
+
+	public static void testEdgeDisjointCycles() {
+		for (int a = 0; a <= 12; a++) {
+			for (int b = 0; b <= 12; b++) {
+				if (!HamiltonianCycles.hasEdgeDisjointCycles(a, b)) {
+					continue;
+				}
+				for (REPRESENTATION representation : REPRESENTATION.values()) {
+					if (representation == REPRESENTATION.DIAMOND && a > b) {
+						continue;
+					}
+					GaussianNetwork network = GaussianNetwork.create(a, b,
+							representation, NETWORK.GAUSSIAN);
+					String name = BreadthFirstSearchTest.name(network);
+					int[][] cycles = HamiltonianCycles
+							.edgeDisjointCycles(network);
+					Tests.assertTrue(HamiltonianCycles.verify(network,
+							cycles[0]), name + " real cycle");
+					Tests.assertTrue(HamiltonianCycles.verify(network,
+							cycles[1]), name + " imaginary cycle");
+					Tests.assertTrue(HamiltonianCycles.verify(network, cycles),
+							name + " edge-disjoint cycles");
+					Tests.assertTrue(!HamiltonianCycles.verify(network,
+							cycles[0], cycles[0]), name
+							+ " a cycle shares its links with itself");
+
+					CollectiveSchedule schedule = Collectives.ringAllReduce(
+							network, cycles);
+					Tests.assertEquals(1, schedule.getMaxContention(), name
+							+ " ring all-reduce contention");
+					Tests.assertEquals(2 * (network.getNorm() - 1),
+							schedule.getStepCount(), name
+									+ " ring all-reduce steps");
+				}
+			}
+		}
+	}
+
+	public static void testHoneycombCycle() {
+		int found = 0;
+		for (int a = 0; a <= 10; a++) {
+			for (int b = a; b <= 10; b++) {
+				if (a * a + b * b < 5) {
+					continue;
+				}
+				for (REPRESENTATION representation : REPRESENTATION.values()) {
+					GaussianNetwork network = GaussianNetwork.create(a, b,
+							representation, NETWORK.HONEYCOMB);
+					String name = BreadthFirstSearchTest.name(network);
+					int[] cycle = HamiltonianCycles.honeycombCycle(network);
+					if (network.getNorm() % 2 == 0) {
+						Tests.assertTrue(cycle != null, name
+								+ " even norm without a cycle");
+					}
+					if (cycle != null) {
+						Tests.assertTrue(HamiltonianCycles.verify(network, cycle),
+								name + " cycle");
+						found++;
+					}
+				}
+			}
+		}
+		Tests.assertTrue(found > 0, "no honeycomb cycle found");
+	}
+
+	public static void testVerifyRejectsBrokenCycles() {
+		GaussianNetwork network = GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		int[] cycle = HamiltonianCycles.edgeDisjointCycles(network)[0];
+		int n = cycle.length;
+
+		int[] repeated = cycle.clone();
+		repeated[1] = repeated[0];
+		Tests.assertTrue(!HamiltonianCycles.verify(network, repeated),
+				"a node visited twice");
+		Tests.assertTrue(!HamiltonianCycles.verify(network,
+				Arrays.copyOf(cycle, n - 1)), "a node missing");
+
+		// node 0 and node 0+2 of the +1 cycle are two hops apart
+		int[] swapped = cycle.clone();
+		swapped[1] = cycle[2];
+		swapped[2] = cycle[1];
+		Tests.assertTrue(!HamiltonianCycles.verify(network, swapped),
+				"consecutive nodes without a link");
+	}
+
+	public static void testEdgeDisjointCyclesNeedCoprimeGenerators() {
+		final GaussianNetwork network = GaussianNetwork.create(2, 4,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Tests.assertTrue(!HamiltonianCycles.hasEdgeDisjointCycles(2, 4),
+				"2 and 4 are not coprime");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				HamiltonianCycles.edgeDisjointCycles(network);
+			}
+		}, "2+4i");
+	}
+
+}
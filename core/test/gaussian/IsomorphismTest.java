@@ -0,0 +1,119 @@
+package gaussian;
+
+/**
+ * Tests of Isomorphism: the associates and the conjugates of a generator
+ * have the same canonical generator, and their networks the same invariants
+ */
+public class IsomorphismTest {
+
+	private IsomorphismTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(IsomorphismTest.class);
+	}
+
+	/**
+	 * +-a+-bi and +-b+-ai have the canonical generator of a+bi, but the
+	 * honeycomb networks of a+b odd, which are their own canonical generator
+	 */
+	public static void testCanonicalOfTheAssociates() {
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int a = -7; a <= 7; a++) {
+			for (int b = -7; b <= 7; b++) {
+				if (a == 0 && b == 0) {
+					continue;
+				}
+				int[][] associates = { { a, b }, { -a, b }, { a, -b },
+						{ -a, -b }, { b, a }, { -b, a }, { b, -a }, { -b, -a } };
+				for (NETWORK network : pruning) {
+					Generator canonical = Isomorphism.canonical(a, b,
+							REPRESENTATION.SQUARE, network);
+					String name = network + " " + a + "+" + b + "i";
+					if (network == NETWORK.HONEYCOMB && (a + b) % 2 != 0) {
+						for (REPRESENTATION representation : REPRESENTATION
+								.values()) {
+							Tests.assertEquals(new Generator(a, b,
+									representation, network),
+									Isomorphism.canonical(a, b, representation,
+											network), name + " "
+											+ representation);
+						}
+						continue;
+					}
+					Tests.assertEquals(new Generator(Math.min(Math.abs(a),
+							Math.abs(b)), Math.max(Math.abs(a), Math.abs(b)),
+							REPRESENTATION.DIAMOND, network), canonical, name);
+					for (int[] associate : associates) {
+						for (REPRESENTATION representation : REPRESENTATION
+								.values()) {
+							Tests.assertEquals(canonical, Isomorphism.canonical(
+									associate[0], associate[1], representation,
+									network), name + " associate "
+									+ associate[0] + "+" + associate[1] + "i "
+									+ representation);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The networks of a+bi and b+ai in both representations have the
+	 * invariants of the network of their canonical generator
+	 */
+	public static void testIsomorphicNetworksHaveEqualInvariants() {
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int a = 0; a <= 9; a++) {
+			for (int b = a; b <= 9; b++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				for (NETWORK network : pruning) {
+					if (network == NETWORK.HONEYCOMB && (a + b) % 2 != 0) {
+						continue;
+					}
+					NetworkInvariants expected = Isomorphism.invariants(
+							Isomorphism.canonical(a, b, REPRESENTATION.SQUARE,
+									network).create());
+					GaussianNetwork[] isomorphic = {
+							GaussianNetwork.create(a, b, REPRESENTATION.DIAMOND,
+									network),
+							GaussianNetwork.create(a, b, REPRESENTATION.SQUARE,
+									network),
+							GaussianNetwork.create(b, a, REPRESENTATION.SQUARE,
+									network) };
+					for (GaussianNetwork built : isomorphic) {
+						String name = BreadthFirstSearchTest.name(built);
+						Tests.assertEquals(expected,
+								Isomorphism.invariants(built), name
+										+ " invariants");
+						Tests.assertEquals(expected.getFingerprint(),
+								Isomorphism.invariants(built).getFingerprint(),
+								name + " fingerprint");
+						Tests.assertTrue(Isomorphism.mayBeIsomorphic(built,
+								isomorphic[0]), name + " may be isomorphic");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The invariants tell apart networks of the same norm which are not
+	 * associates
+	 */
+	public static void testInvariantsTellNetworksApart() {
+		GaussianNetwork first = GaussianNetwork.create(0, 5,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		GaussianNetwork second = GaussianNetwork.create(3, 4,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Tests.assertTrue(!Isomorphism.mayBeIsomorphic(first, second),
+				"0+5i and 3+4i");
+		Tests.assertTrue(!Isomorphism.mayBeIsomorphic(first,
+				GaussianNetwork.create(3, 4, REPRESENTATION.DIAMOND,
+						NETWORK.HONEYCOMB)), "Gaussian and honeycomb");
+	}
+
+}
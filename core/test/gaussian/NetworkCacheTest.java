@@ -0,0 +1,144 @@
+package gaussian;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests of NetworkCache
+ */
+public class NetworkCacheTest {
+
+	private NetworkCacheTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(NetworkCacheTest.class);
+	}
+
+	/**
+	 * A cache whose first build throws an Error, once the release latch
+	 * is counted down
+	 */
+	private static class FailingCache extends NetworkCache {
+
+		private final AtomicInteger builds = new AtomicInteger();
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release;
+
+		FailingCache(CountDownLatch release) {
+			super(4);
+			this.release = release;
+		}
+
+		@Override
+		NetworkSnapshot build(Generator generator) {
+			if (builds.getAndIncrement() == 0) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				throw new OutOfMemoryError("simulated");
+			}
+			return super.build(generator);
+		}
+	}
+
+	public static void testGetSharesTheSnapshot() {
+		NetworkCache cache = new NetworkCache(2);
+		NetworkSnapshot snapshot = cache.get(2, 3, REPRESENTATION.DIAMOND,
+				NETWORK.GAUSSIAN);
+		Tests.assertTrue(snapshot == cache.get(2, 3, REPRESENTATION.DIAMOND,
+				NETWORK.GAUSSIAN), "the second get returns the cached snapshot");
+		Tests.assertTrue(snapshot == cache.getCanonical(3, 2,
+				REPRESENTATION.SQUARE, NETWORK.GAUSSIAN),
+				"isomorphic generators share the canonical snapshot");
+		cache.get(1, 4, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		cache.get(1, 5, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Tests.assertEquals(2, cache.size(), "the capacity bounds the cache");
+	}
+
+	public static void testRuntimeExceptionIsNotCached() {
+		final NetworkCache cache = new NetworkCache(2);
+		for (int k = 0; k < 2; k++) {
+			Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+				@Override
+				public void run() {
+					cache.get(3, 2, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+				}
+			}, "a > b in the diamond representation");
+		}
+		Tests.assertEquals(0, cache.size(), "the failed build is removed");
+	}
+
+	public static void testErrorIsRetried() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(0);
+		final FailingCache cache = new FailingCache(release);
+		Tests.assertThrows(OutOfMemoryError.class, new Runnable() {
+			@Override
+			public void run() {
+				cache.get(2, 3, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+			}
+		}, "the builder gets the Error");
+		Tests.assertEquals(0, cache.size(), "the failed build is removed");
+
+		NetworkSnapshot snapshot = cache.get(2, 3, REPRESENTATION.DIAMOND,
+				NETWORK.GAUSSIAN);
+		Tests.assertEquals(13, snapshot.getNorm(), "the second get builds");
+		Tests.assertEquals(2, cache.builds.get(), "builds");
+	}
+
+	public static void testErrorReleasesWaitingRequests()
+			throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		final FailingCache cache = new FailingCache(release);
+		final AtomicReference<Throwable> builderError = new AtomicReference<Throwable>();
+		final AtomicReference<Throwable> waiterError = new AtomicReference<Throwable>();
+
+		Thread builder = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					cache.get(2, 3, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+				} catch (Throwable t) {
+					builderError.set(t);
+				}
+			}
+		});
+		builder.start();
+		Tests.assertTrue(cache.started.await(10, TimeUnit.SECONDS),
+				"the build started");
+
+		// the waiter finds the build in progress and waits for it
+		Thread waiter = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					cache.get(2, 3, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+				} catch (Throwable t) {
+					waiterError.set(t);
+				}
+			}
+		});
+		waiter.start();
+		while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+			Thread.sleep(1);
+		}
+		release.countDown();
+
+		builder.join(10000);
+		waiter.join(10000);
+		Tests.assertTrue(!builder.isAlive() && !waiter.isAlive(),
+				"the requests do not hang after the Error");
+		Tests.assertTrue(builderError.get() instanceof OutOfMemoryError,
+				"the builder gets the Error");
+		Tests.assertTrue(waiterError.get() instanceof OutOfMemoryError,
+				"the waiting request gets the Error");
+		Tests.assertEquals(13, cache.get(2, 3, REPRESENTATION.DIAMOND,
+				NETWORK.GAUSSIAN).getNorm(), "a later get builds again");
+	}
+
+}
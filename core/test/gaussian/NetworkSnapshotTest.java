@@ -0,0 +1,234 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests of the distances and routes of NetworkSnapshot, which come from
+ * residues in the Gaussian networks, against the BFS of the network it was
+ * copied from
+ */
+public class NetworkSnapshotTest {
+
+	private NetworkSnapshotTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(NetworkSnapshotTest.class);
+	}
+
+	/**
+	 * Gaussian networks with a and b coprime, whose distances come from the
+	 * residue table, and not coprime, whose distances come from the
+	 * shortest congruent Gaussian integer, honeycomb networks and baselines,
+	 * whose distances come from a BFS
+	 */
+	static List<GaussianNetwork> networks() {
+		List<GaussianNetwork> networks = new ArrayList<GaussianNetwork>();
+		int[][] generators = { { 1, 1 }, { 1, 2 }, { 2, 3 }, { 3, 3 },
+				{ 2, 4 }, { 0, 5 }, { 4, 7 }, { 6, 9 }, { 5, 12 }, { 8, 8 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK network : pruning) {
+					networks.add(GaussianNetwork.create(ab[0], ab[1],
+							representation, network));
+				}
+			}
+		}
+		networks.add(GaussianNetwork.create(9, 5, REPRESENTATION.SQUARE,
+				NETWORK.GAUSSIAN));
+		networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, 4, 6,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		networks.add(GaussianNetwork.create(TOPOLOGY.EISENSTEIN_JACOBI, 3, 5,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		return networks;
+	}
+
+	public static void testDistancesAndRoutesMatchTheBfs() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			NetworkSnapshot snapshot = network.snapshot();
+			int n = network.getNodes().size();
+			int[] sources = new int[n];
+			int[] destinations = new int[n];
+			int[] distances = new int[n];
+
+			for (int source = 0; source < n; source++) {
+				int[] expected = network.getDistancesFrom(source, null);
+				Tests.assertEquals(expected,
+						snapshot.getDistancesFrom(source), name
+								+ " distances from " + source);
+
+				for (int destination = 0; destination < n; destination++) {
+					String pair = name + " " + source + " to " + destination;
+					Tests.assertEquals(expected[destination],
+							snapshot.getDistance(source, destination), pair);
+					sources[destination] = source;
+					destinations[destination] = destination;
+					if (expected[destination] >= 0) {
+						checkRoute(network, snapshot.getRoute(source,
+								destination), source, destination,
+								expected[destination], pair);
+					}
+				}
+
+				snapshot.getDistances(sources, destinations, distances, n);
+				Tests.assertEquals(expected, distances, name
+						+ " batch distances from " + source);
+			}
+		}
+	}
+
+	/**
+	 * Check that the route goes from the source to the destination through
+	 * links of the network in the given number of hops
+	 */
+	private static void checkRoute(GaussianNetwork network, int[] route,
+			int source, int destination, int distance, String pair) {
+		Tests.assertEquals(distance + 1, route.length, pair + " route length");
+		Tests.assertEquals(source, route[0], pair + " route start");
+		Tests.assertEquals(destination, route[route.length - 1], pair
+				+ " route end");
+		int[][] adjacency = network.getAdjacencyMatrix();
+		for (int i = 1; i < route.length; i++) {
+			boolean isLink = false;
+			for (int neighbor : adjacency[route[i - 1]]) {
+				isLink |= (neighbor == route[i]);
+			}
+			Tests.assertTrue(isLink, pair + " hop " + route[i - 1] + " to "
+					+ route[i]);
+		}
+	}
+
+	public static void testNodesAndNeighborsMatchTheNetwork() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			NetworkSnapshot snapshot = network.snapshot();
+			List<Node> nodes = network.getNodes();
+			int[] coordinates = new int[2 * nodes.size()];
+			for (int i = 0; i < nodes.size(); i++) {
+				Node node = nodes.get(i);
+				Tests.assertEquals(i, snapshot.indexOf(node.x, node.y), name
+						+ " " + node);
+				Tests.assertEquals(network.getAdjacencyMatrix()[i],
+						snapshot.getNeighbors(i), name + " neighbors of "
+								+ node);
+				coordinates[2 * i] = node.x;
+				coordinates[2 * i + 1] = node.y;
+			}
+
+			int[] indices = new int[nodes.size()];
+			snapshot.indexOf(coordinates, indices, indices.length);
+			for (int i = 0; i < indices.length; i++) {
+				Tests.assertEquals(i, indices[i], name + " batch index");
+			}
+			Tests.assertEquals(network.getDistanceDistributions(),
+					snapshot.getDistanceDistributions(), name
+							+ " distributions");
+		}
+	}
+
+	/**
+	 * The batch queries answer pairs in any order, fill only the first count
+	 * entries and give -1 for the coordinates of no node
+	 */
+	public static void testBatchQueriesMatchSingleQueries() {
+		Random random = new Random(37);
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			final NetworkSnapshot snapshot = network.snapshot();
+			int n = snapshot.getNorm();
+			int degree = snapshot.getDegree();
+			int count = 3 * n;
+			int[] sources = new int[count + 1];
+			int[] destinations = new int[count + 1];
+			int[] distances = new int[count + 1];
+			int[] nodes = new int[count + 1];
+			int[] coordinates = new int[2 * (count + 1)];
+			for (int k = 0; k < count; k++) {
+				sources[k] = random.nextInt(n);
+				destinations[k] = random.nextInt(n);
+				nodes[k] = random.nextInt(n);
+				// some coordinates are outside of the network
+				coordinates[2 * k] = random.nextInt(2 * n + 1) - n;
+				coordinates[2 * k + 1] = random.nextInt(2 * n + 1) - n;
+			}
+			distances[count] = -2;
+
+			snapshot.getDistances(sources, destinations, distances, count);
+			for (int k = 0; k < count; k++) {
+				Tests.assertEquals(snapshot.getDistance(sources[k],
+						destinations[k]), distances[k], name + " distance "
+						+ sources[k] + " to " + destinations[k]);
+			}
+			Tests.assertEquals(-2, distances[count], name
+					+ " entry after the count");
+
+			int[] neighbors = new int[degree * (count + 1)];
+			for (int j = 0; j < degree; j++) {
+				snapshot.getNeighbors(nodes, j, neighbors, count);
+				for (int k = 0; k < count; k++) {
+					Tests.assertEquals(snapshot.getNeighbor(nodes[k], j),
+							neighbors[k], name + " neighbor " + j + " of "
+									+ nodes[k]);
+				}
+			}
+			snapshot.getNeighbors(nodes, neighbors, count);
+			for (int k = 0; k < count; k++) {
+				for (int j = 0; j < degree; j++) {
+					Tests.assertEquals(snapshot.getNeighbor(nodes[k], j),
+							neighbors[degree * k + j], name + " neighbors of "
+									+ nodes[k]);
+				}
+			}
+
+			int[] indices = new int[count + 1];
+			snapshot.indexOf(coordinates, indices, count);
+			for (int k = 0; k < count; k++) {
+				Tests.assertEquals(snapshot.indexOf(coordinates[2 * k],
+						coordinates[2 * k + 1]), indices[k], name + " index of "
+						+ coordinates[2 * k] + "," + coordinates[2 * k + 1]);
+			}
+		}
+	}
+
+	public static void testBatchQueriesCheckTheirArguments() {
+		final NetworkSnapshot snapshot = GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN).snapshot();
+		final int[] nodes = { 0, 1, 2 };
+		final int[] results = new int[3];
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				snapshot.getDistances(nodes, nodes, results, 4);
+			}
+		}, "count larger than the arrays");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				snapshot.getDistances(nodes, nodes, results, -1);
+			}
+		}, "negative count");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				snapshot.getNeighbors(nodes, 4, results, 3);
+			}
+		}, "neighbor number larger than the degree");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				snapshot.getNeighbors(nodes, results, 3);
+			}
+		}, "neighbors array smaller than degree*count");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				snapshot.indexOf(nodes, results, 2);
+			}
+		}, "coordinates array smaller than 2*count");
+	}
+
+}
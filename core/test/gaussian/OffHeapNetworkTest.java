@@ -0,0 +1,96 @@
+package gaussian;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests of the off-heap networks against the networks built on the heap
+ */
+public class OffHeapNetworkTest {
+
+	private OffHeapNetworkTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(OffHeapNetworkTest.class);
+	}
+
+	/**
+	 * Coordinates, links and distances match the network built on the heap
+	 * for every generator up to 16+16i, in both representations, for the
+	 * Gaussian and honeycomb networks
+	 */
+	public static void testMatchesTheBuiltNetwork() throws IOException {
+		Path directory = Files.createTempDirectory("offheap");
+		try {
+			NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+			for (int a = 0; a <= 16; a++) {
+				for (int b = 0; b <= 16; b++) {
+					if (a * a + b * b < 2) {
+						continue;
+					}
+					for (REPRESENTATION representation : REPRESENTATION
+							.values()) {
+						if (representation == REPRESENTATION.DIAMOND && a > b) {
+							continue;
+						}
+						for (NETWORK network : pruning) {
+							check(GaussianNetwork.create(a, b, representation,
+									network), new OffHeapNetwork(a, b,
+									representation, network, directory));
+						}
+					}
+				}
+			}
+		} finally {
+			Files.delete(directory);
+		}
+	}
+
+	private static void check(GaussianNetwork expected, OffHeapNetwork network) {
+		String name = BreadthFirstSearchTest.name(expected);
+		List<Node> nodes = expected.getNodes();
+		Tests.assertEquals(nodes.size(), network.getNorm(), name + " norm");
+		Tests.assertEquals(expected.getCenterIndex(),
+				expected.indexOf(network.getX(network.getCenterIndex()),
+						network.getY(network.getCenterIndex())), name
+						+ " center");
+
+		int[] distances = expected.getDistancesFrom(expected.getCenterIndex(),
+				null);
+		int[] adjacency = expected.getFlatAdjacency();
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			long index = network.indexOf(node.x, node.y);
+			Tests.assertEquals(node.x, network.getX(index), name + " x of "
+					+ node);
+			Tests.assertEquals(node.y, network.getY(index), name + " y of "
+					+ node);
+			Tests.assertEquals(distances[i], network.getDistance(index), name
+					+ " distance of " + node);
+			for (int j = 0; j < 4; j++) {
+				int neighbor = adjacency[4 * i + j];
+				long expectedNeighbor = (neighbor < 0) ? -1 : network.indexOf(
+						nodes.get(neighbor).x, nodes.get(neighbor).y);
+				Tests.assertEquals(expectedNeighbor,
+						network.getNeighbor(index, j), name + " neighbor " + j
+								+ " of " + node);
+			}
+		}
+
+		List<Integer> distributions = expected.getDistanceDistributions();
+		long[] counts = network.getDistanceDistributions();
+		Tests.assertEquals(distributions.size(), counts.length, name
+				+ " diameter");
+		for (int s = 0; s < counts.length; s++) {
+			Tests.assertEquals((long) distributions.get(s), counts[s], name
+					+ " nodes at distance " + s);
+		}
+		Tests.assertTrue(Math.abs(expected.getAverageDistance()
+				- network.getAverageDistance()) < 1e-9, name
+				+ " average distance");
+	}
+
+}
@@ -0,0 +1,168 @@
+package gaussian;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests of the balance and the edge cut of the partitions of Partitioner
+ */
+public class PartitionerTest {
+
+	private PartitionerTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(PartitionerTest.class);
+	}
+
+	private static List<GaussianNetwork> networks() {
+		List<GaussianNetwork> networks = new ArrayList<GaussianNetwork>();
+		int[][] generators = { { 1, 1 }, { 2, 3 }, { 3, 3 }, { 4, 7 },
+				{ 5, 12 }, { 9, 10 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK network : pruning) {
+					networks.add(GaussianNetwork.create(ab[0], ab[1],
+							representation, network));
+				}
+			}
+		}
+		networks.add(GaussianNetwork.create(TOPOLOGY.TORUS, 6, 10,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		return networks;
+	}
+
+	/**
+	 * Every node is in one of the k parts, no part is larger than the
+	 * imbalance allows, and the edge cut and the boundary nodes are the ones
+	 * of the parts
+	 */
+	public static void testPartitionsAreBalancedAndMeasured() {
+		int[] ks = { 1, 2, 3, 4, 7, 16 };
+		double[] imbalances = { 0, 0.03, 0.2 };
+		for (GaussianNetwork network : networks()) {
+			int n = network.getNorm();
+			for (int k : ks) {
+				if (k > n) {
+					continue;
+				}
+				for (double imbalance : imbalances) {
+					String name = BreadthFirstSearchTest.name(network) + " k="
+							+ k + " imbalance " + imbalance;
+					Partition partition = Partitioner.partition(network, k,
+							imbalance);
+					check(network, partition, k, imbalance, name);
+				}
+			}
+		}
+	}
+
+	private static void check(GaussianNetwork network, Partition partition,
+			int k, double imbalance, String name) {
+		int[] adjacency = network.getFlatAdjacency();
+		int n = network.getNorm();
+		int[] parts = partition.getParts();
+		Tests.assertEquals(n, parts.length, name + " nodes");
+		Tests.assertEquals(k, partition.getK(), name + " parts");
+
+		int[] sizes = new int[k];
+		for (int u = 0; u < n; u++) {
+			Tests.assertTrue(parts[u] >= 0 && parts[u] < k, name + " part of "
+					+ u);
+			Tests.assertEquals(parts[u], partition.getPart(u), name
+					+ " part of " + u);
+			sizes[parts[u]]++;
+		}
+		Tests.assertEquals(sizes, partition.getSizes(), name + " sizes");
+		int maxSize = (int) Math.max((n + k - 1) / k,
+				Math.floor((double) n / k * (1 + imbalance)));
+		Tests.assertTrue(partition.getMaxSize() <= maxSize, name
+				+ " largest part " + partition.getMaxSize() + " above "
+				+ maxSize);
+
+		// a link and its link back are one link, the larger count of the
+		// two ways for the multiple links of the small networks
+		long edgeCut = 0;
+		boolean[] isBoundary = new boolean[n];
+		for (int u = 0; u < n; u++) {
+			for (int v = u + 1; v < n; v++) {
+				if (parts[u] == parts[v]) {
+					continue;
+				}
+				int out = 0, in = 0;
+				for (int j = 0; j < 4; j++) {
+					out += (adjacency[4 * u + j] == v) ? 1 : 0;
+					in += (adjacency[4 * v + j] == u) ? 1 : 0;
+				}
+				edgeCut += Math.max(out, in);
+				if (out + in > 0) {
+					isBoundary[u] = true;
+					isBoundary[v] = true;
+				}
+			}
+		}
+		Tests.assertEquals(edgeCut, partition.getEdgeCut(), name
+				+ " edge cut");
+		int[] boundaryNodes = new int[k];
+		for (int u = 0; u < n; u++) {
+			if (isBoundary[u]) {
+				boundaryNodes[parts[u]]++;
+			}
+		}
+		Tests.assertEquals(boundaryNodes, partition.getBoundaryNodeCounts(),
+				name + " boundary nodes");
+	}
+
+	/**
+	 * The bisection splits the nodes in halves and is never below the
+	 * spectral lower bound
+	 */
+	public static void testBisectionWidth() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			Partition bisection = Partitioner.partition(network, 2, 0);
+			Tests.assertEquals((network.getNorm() + 1) / 2,
+					bisection.getMaxSize(), name + " halves");
+			long width = Partitioner.bisectionWidth(network);
+			Tests.assertEquals(bisection.getEdgeCut(), width, name
+					+ " bisection width");
+			Tests.assertTrue(width >= Partitioner.bisectionLowerBound(network)
+					- 1e-9, name + " bisection " + width
+					+ " below the lower bound");
+		}
+	}
+
+	public static void testOnePartHasNoCut() {
+		GaussianNetwork network = GaussianNetwork.create(4, 7,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Partition partition = Partitioner.partition(network, 1);
+		Tests.assertEquals(0, partition.getEdgeCut(), "edge cut");
+		Tests.assertEquals(0, partition.getBoundaryNodes(), "boundary nodes");
+		Tests.assertTrue(partition.getImbalance() == 0, "imbalance");
+	}
+
+	public static void testArguments() {
+		final GaussianNetwork network = GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				Partitioner.partition(network, 0);
+			}
+		}, "no part");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				Partitioner.partition(network, 14);
+			}
+		}, "more parts than nodes");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				Partitioner.partition(network, 2, -0.1);
+			}
+		}, "negative imbalance");
+	}
+
+}
@@ -0,0 +1,171 @@
+package gaussian;
+
+/**
+ * Tests of ReliabilityEstimator: a seed gives the same estimate on every
+ * run, and the links that never or always fail give the reliabilities of
+ * the distances of the network
+ */
+public class ReliabilityEstimatorTest {
+
+	// more than a batch, and not a whole number of batches
+	private static final long TRIALS = 5000;
+
+	private ReliabilityEstimatorTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(ReliabilityEstimatorTest.class);
+	}
+
+	/**
+	 * Networks with links both ways and, for 2+3i, with one-way links
+	 */
+	private static GaussianNetwork[] networks() {
+		return new GaussianNetwork[] {
+				GaussianNetwork.create(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN),
+				GaussianNetwork.create(3, 5, REPRESENTATION.SQUARE,
+						NETWORK.GAUSSIAN),
+				GaussianNetwork.create(2, 4, REPRESENTATION.DIAMOND,
+						NETWORK.HONEYCOMB),
+				GaussianNetwork.create(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.HONEYCOMB),
+				GaussianNetwork.create(TOPOLOGY.TORUS, 4, 6,
+						REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN) };
+	}
+
+	public static void testSameSeedGivesTheSameEstimate() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			ReliabilityEstimator estimator = new ReliabilityEstimator(network);
+			double[] failures = estimator.uniform(0.1);
+			int diameter = diameter(network);
+			int[] bounds = { Integer.MAX_VALUE, diameter, diameter + 1 };
+			for (int bound : bounds) {
+				for (long seed = 1; seed <= 3; seed++) {
+					ReliabilityEstimate first = estimator.allTerminal(failures,
+							bound, TRIALS, 0, seed);
+					ReliabilityEstimate second = new ReliabilityEstimator(
+							network).allTerminal(failures, bound, TRIALS, 0,
+							seed);
+					check(first, second, name + " bound " + bound + " seed "
+							+ seed);
+					Tests.assertEquals(TRIALS, first.getTrials(), name
+							+ " trials");
+
+					first = estimator.terminal(0, network.getNorm() - 1,
+							failures, bound, TRIALS, 0, seed);
+					second = estimator.terminal(0, network.getNorm() - 1,
+							failures, bound, TRIALS, 0, seed);
+					check(first, second, name + " terminal bound " + bound
+							+ " seed " + seed);
+				}
+			}
+
+			// the stop on the interval is checked at the same trials
+			check(estimator.allTerminal(failures, Integer.MAX_VALUE,
+					1 << 20, 0.01, 7), estimator.allTerminal(failures,
+					Integer.MAX_VALUE, 1 << 20, 0.01, 7), name
+					+ " stopped on the interval");
+		}
+	}
+
+	/**
+	 * Without failures the network is reliable within its diameter and not
+	 * below it, and a terminal pair within its distance and not below it
+	 */
+	public static void testLinksThatNeverFail() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			ReliabilityEstimator estimator = new ReliabilityEstimator(network);
+			double[] failures = estimator.uniform(0);
+			int diameter = diameter(network);
+			checkReliability(1, estimator.allTerminal(failures,
+					Integer.MAX_VALUE, TRIALS, 0, 1), name + " connected");
+			checkReliability(1, estimator.allTerminal(failures, diameter,
+					TRIALS, 0, 1), name + " within the diameter");
+			checkReliability(0, estimator.allTerminal(failures, diameter - 1,
+					TRIALS, 0, 1), name + " below the diameter");
+
+			int target = network.getNorm() - 1;
+			int distance = network.getDistancesFrom(0, null)[target];
+			checkReliability(1, estimator.terminal(0, target, failures,
+					distance, TRIALS, 0, 1), name + " within the distance");
+			checkReliability(0, estimator.terminal(0, target, failures,
+					distance - 1, TRIALS, 0, 1), name + " below the distance");
+		}
+	}
+
+	/**
+	 * With every link failed no node reaches another one
+	 */
+	public static void testLinksThatAlwaysFail() {
+		for (GaussianNetwork network : networks()) {
+			String name = BreadthFirstSearchTest.name(network);
+			ReliabilityEstimator estimator = new ReliabilityEstimator(network);
+			double[] failures = estimator.uniform(1);
+			checkReliability(0, estimator.allTerminal(failures,
+					Integer.MAX_VALUE, TRIALS, 0, 1), name + " all-terminal");
+			checkReliability(0, estimator.terminal(0, network.getNorm() - 1,
+					failures, Integer.MAX_VALUE, TRIALS, 0, 1), name
+					+ " terminal");
+		}
+	}
+
+	public static void testArguments() {
+		final ReliabilityEstimator estimator = new ReliabilityEstimator(
+				GaussianNetwork.create(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN));
+		final double[] failures = estimator.uniform(0.1);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				estimator.allTerminal(new double[1], 3, TRIALS, 0, 1);
+			}
+		}, "a probability per link");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				estimator.allTerminal(estimator.uniform(1.5), 3, TRIALS, 0, 1);
+			}
+		}, "probability above 1");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				estimator.allTerminal(failures, 3, 0, 0, 1);
+			}
+		}, "no trial");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				estimator.terminal(0, 13, failures, 3, TRIALS, 0, 1);
+			}
+		}, "target outside the network");
+	}
+
+	private static void check(ReliabilityEstimate expected,
+			ReliabilityEstimate actual, String name) {
+		Tests.assertEquals(expected.getTrials(), actual.getTrials(), name
+				+ " trials");
+		Tests.assertEquals(expected.getSuccesses(), actual.getSuccesses(),
+				name + " successes");
+	}
+
+	private static void checkReliability(long reliability,
+			ReliabilityEstimate estimate, String name) {
+		Tests.assertEquals(TRIALS, estimate.getTrials(), name + " trials");
+		Tests.assertEquals(reliability * TRIALS, estimate.getSuccesses(), name
+				+ " successes");
+	}
+
+	private static int diameter(GaussianNetwork network) {
+		int diameter = 0;
+		for (int source = 0; source < network.getNorm(); source++) {
+			for (int distance : network.getDistancesFrom(source, null)) {
+				diameter = Math.max(diameter, distance);
+			}
+		}
+		return diameter;
+	}
+
+}
@@ -0,0 +1,118 @@
+package gaussian;
+
+/**
+ * Tests of the closed-form and Lanczos spectra against the dense
+ * eigensolver
+ */
+public class SpectrumTest {
+
+	private static final double TOLERANCE = 1e-8;
+
+	private SpectrumTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(SpectrumTest.class);
+	}
+
+	/**
+	 * The eigenvalues from the characters of the group are the ones of the
+	 * dense Laplacian of the built network
+	 */
+	public static void testGaussianMatchesDense() {
+		for (int a = 0; a <= 9; a++) {
+			for (int b = 0; b <= 9; b++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				Spectrum dense = Spectrum.dense(GaussianNetwork.create(a, b,
+						REPRESENTATION.SQUARE, NETWORK.GAUSSIAN));
+				Spectrum spectrum = Spectrum.gaussian(a, b);
+				String name = a + "+" + b + "i";
+				checkEigenvalues(dense.getEigenvalues(),
+						spectrum.getEigenvalues(), name);
+				checkExtremes(dense, spectrum, name);
+			}
+		}
+	}
+
+	/**
+	 * Both representations build the same graph, so they have the same
+	 * spectrum
+	 */
+	public static void testRepresentationsHaveTheSameSpectrum() {
+		int[][] generators = { { 2, 3 }, { 3, 3 }, { 1, 6 }, { 4, 7 } };
+		for (int[] ab : generators) {
+			String name = ab[0] + "+" + ab[1] + "i";
+			checkEigenvalues(Spectrum.gaussian(ab[0], ab[1]).getEigenvalues(),
+					Spectrum.dense(GaussianNetwork.create(ab[0], ab[1],
+							REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN))
+							.getEigenvalues(), name + " DIAMOND");
+		}
+	}
+
+	/**
+	 * The Lanczos iterations find the algebraic connectivity and the
+	 * largest eigenvalue of the dense Laplacian
+	 */
+	public static void testLanczosMatchesDense() {
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int a = 0; a <= 7; a++) {
+			for (int b = a; b <= 7; b++) {
+				if (a * a + b * b < 5) {
+					continue;
+				}
+				for (REPRESENTATION representation : REPRESENTATION.values()) {
+					for (NETWORK network : pruning) {
+						GaussianNetwork built = GaussianNetwork.create(a, b,
+								representation, network);
+						checkExtremes(Spectrum.dense(built),
+								Spectrum.lanczos(built),
+								BreadthFirstSearchTest.name(built));
+					}
+				}
+			}
+		}
+	}
+
+	public static void testDerivedQuantities() {
+		Spectrum spectrum = Spectrum.gaussian(3, 4);
+		double lambda = spectrum.getAlgebraicConnectivity();
+		Tests.assertEquals(25, spectrum.getNorm(), "norm");
+		Tests.assertTrue(spectrum.getDegree() == 4, "degree");
+		Tests.assertTrue(
+				Math.abs(spectrum.getSpectralGap() - lambda / 8) < TOLERANCE,
+				"spectral gap");
+		Tests.assertTrue(spectrum.getExpansionLowerBound() <= spectrum
+				.getExpansionUpperBound(), "Cheeger bounds");
+		Tests.assertEquals(
+				(long) Math.ceil(Math.log(25 / 0.01) / (lambda / 8)),
+				spectrum.getMixingTime(0.01), "mixing time");
+	}
+
+	private static void checkEigenvalues(double[] expected, double[] actual,
+			String name) {
+		Tests.assertEquals(expected.length, actual.length, name
+				+ " number of eigenvalues");
+		for (int k = 0; k < expected.length; k++) {
+			Tests.assertTrue(Math.abs(expected[k] - actual[k]) < TOLERANCE,
+					name + " eigenvalue " + k + ": expected " + expected[k]
+							+ " but was " + actual[k]);
+		}
+	}
+
+	private static void checkExtremes(Spectrum expected, Spectrum actual,
+			String name) {
+		Tests.assertTrue(Math.abs(expected.getAlgebraicConnectivity()
+				- actual.getAlgebraicConnectivity()) < TOLERANCE, name
+				+ " algebraic connectivity: expected "
+				+ expected.getAlgebraicConnectivity() + " but was "
+				+ actual.getAlgebraicConnectivity());
+		Tests.assertTrue(Math.abs(expected.getLargestEigenvalue()
+				- actual.getLargestEigenvalue()) < TOLERANCE, name
+				+ " largest eigenvalue: expected "
+				+ expected.getLargestEigenvalue() + " but was "
+				+ actual.getLargestEigenvalue());
+	}
+
+}
@@ -0,0 +1,83 @@
+package gaussian;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests of the enumeration of the Gaussian square
+ */
+public class SquareGaussianTest {
+
+	private SquareGaussianTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(SquareGaussianTest.class);
+	}
+
+	/**
+	 * Every node is inside the square, no two nodes are congruent modulo
+	 * alpha and there are norm of them, row by row from left to right
+	 */
+	public static void testNodesAreTheResiduesInTheSquare() {
+		for (int a = 0; a <= 20; a++) {
+			for (int b = 0; b <= 20; b++) {
+				if (a + b == 0) {
+					continue;
+				}
+				String name = a + "+" + b + "i";
+				SquareGaussian network = new SquareGaussian(a, b);
+				long norm = (long) a * a + (long) b * b;
+				List<Node> nodes = network.getNodes();
+				Tests.assertEquals(norm, nodes.size(), name + " nodes");
+
+				Set<Long> residues = new HashSet<Long>();
+				Node previous = null;
+				for (Node node : nodes) {
+					long s = (long) a * node.x + (long) b * node.y;
+					long t = (long) a * node.y - (long) b * node.x;
+					Tests.assertTrue(s >= 0 && s < norm && t >= 0 && t < norm,
+							name + " " + node + " is inside the square");
+					Tests.assertTrue(residues.add(s * norm + t), name + " "
+							+ node + " is not congruent to another node");
+					if (previous != null) {
+						Tests.assertTrue(previous.y < node.y
+								|| (previous.y == node.y && previous.x < node.x),
+								name + " " + node + " follows " + previous);
+					}
+					previous = node;
+				}
+
+				Node center = nodes.get(network.getCenterIndex());
+				Tests.assertTrue(center.x == 0 && center.y == 0, name
+						+ " center");
+			}
+		}
+	}
+
+	/**
+	 * The Gaussian network is vertex-transitive, so the square has the
+	 * distance distributions of any representation
+	 */
+	public static void testDistancesMatchTheAnalytics() {
+		for (int a = 0; a <= 12; a++) {
+			for (int b = 0; b <= 12; b++) {
+				if (a * a + b * b < 2) {
+					continue;
+				}
+				SquareGaussian network = new SquareGaussian(a, b);
+				long[] expected = GaussianAnalytics.getDistanceDistributions(
+						a, b);
+				long[] actual = new long[network.getDistanceDistributions()
+						.size()];
+				for (int s = 0; s < actual.length; s++) {
+					actual[s] = network.getDistanceDistributions().get(s);
+				}
+				Tests.assertEquals(expected, actual, a + "+" + b
+						+ "i distance distributions");
+			}
+		}
+	}
+
+}
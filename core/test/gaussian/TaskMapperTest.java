@@ -0,0 +1,197 @@
+package gaussian;
+
+/**
+ * Tests of TaskMapper: the constructions of the patterns which fit the
+ * network have dilation 1, and the refinement lowers the dilation of the
+ * placements which do not fit
+ */
+public class TaskMapperTest {
+
+	private TaskMapperTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(TaskMapperTest.class);
+	}
+
+	/**
+	 * The k x k torus is the Gaussian network of 0+ki
+	 */
+	public static void testTorusOnItsGaussianNetwork() {
+		for (int k = 3; k <= 9; k++) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				TaskMapper mapper = new TaskMapper(GaussianNetwork.create(0, k,
+						representation, NETWORK.GAUSSIAN));
+				CommunicationGraph graph = CommunicationGraph.torus(k, k, 3);
+				String name = k + "x" + k + " torus on 0+" + k + "i "
+						+ representation;
+				checkDilationOne(graph, mapper.construct(graph), name);
+				checkDilationOne(graph, mapper.map(graph), name + " refined");
+			}
+		}
+	}
+
+	/**
+	 * A mesh without congruent ranks is laid on the links of the network
+	 */
+	public static void testMeshThatFits() {
+		int[][] meshes = { { 10, 10 }, { 5, 12 }, { 1, 20 }, { 7, 9 } };
+		for (REPRESENTATION representation : REPRESENTATION.values()) {
+			TaskMapper mapper = new TaskMapper(GaussianNetwork.create(10, 11,
+					representation, NETWORK.GAUSSIAN));
+			for (int[] mesh : meshes) {
+				CommunicationGraph graph = CommunicationGraph.mesh(mesh[0],
+						mesh[1], 1);
+				checkDilationOne(graph, mapper.construct(graph), mesh[0] + "x"
+						+ mesh[1] + " mesh on 10+11i " + representation);
+			}
+		}
+	}
+
+	/**
+	 * A ring of all the nodes follows a Hamiltonian cycle, a smaller even
+	 * ring goes around a rectangle
+	 */
+	public static void testRings() {
+		int[][] generators = { { 2, 3 }, { 4, 7 }, { 5, 8 } };
+		for (int[] ab : generators) {
+			GaussianNetwork network = GaussianNetwork.create(ab[0], ab[1],
+					REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+			TaskMapper mapper = new TaskMapper(network);
+			int n = network.getNorm();
+			String name = ab[0] + "+" + ab[1] + "i";
+			CommunicationGraph graph = CommunicationGraph.ring(n, 1);
+			checkDilationOne(graph, mapper.construct(graph), name + " ring of "
+					+ n);
+			for (int ranks = 4; ranks < n / 2; ranks += 2) {
+				graph = CommunicationGraph.ring(ranks, 1);
+				checkDilationOne(graph, mapper.construct(graph), name
+						+ " ring of " + ranks);
+			}
+		}
+
+		GaussianNetwork honeycomb = GaussianNetwork.create(4, 6,
+				REPRESENTATION.DIAMOND, NETWORK.HONEYCOMB);
+		Tests.assertTrue(HamiltonianCycles.honeycombCycle(honeycomb) != null,
+				"honeycomb cycle of 4+6i");
+		CommunicationGraph graph = CommunicationGraph.ring(
+				honeycomb.getNorm(), 1);
+		checkDilationOne(graph, new TaskMapper(honeycomb).construct(graph),
+				"honeycomb ring of 4+6i");
+	}
+
+	/**
+	 * The refinement moves the ranks of the longest messages first, so it
+	 * lowers the dilation of a mesh with congruent ranks, and never raises
+	 * the dilation of a placement
+	 */
+	public static void testRefinementLowersTheDilation() {
+		TaskMapper mapper = new TaskMapper(GaussianNetwork.create(10, 11,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		CommunicationGraph graph = CommunicationGraph.mesh(13, 17, 1);
+		Placement constructed = mapper.construct(graph);
+		Placement refined = mapper.refine(graph, constructed.getNodes());
+		Tests.assertTrue(refined.getDilation() < constructed.getDilation(),
+				"13x17 mesh on 10+11i: dilation " + refined.getDilation()
+						+ " not below " + constructed.getDilation());
+		check(mapper, graph, refined, "13x17 mesh on 10+11i");
+
+		int[][] generators = { { 3, 7 }, { 6, 9 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (NETWORK network : pruning) {
+				GaussianNetwork built = GaussianNetwork.create(ab[0], ab[1],
+						REPRESENTATION.SQUARE, network);
+				mapper = new TaskMapper(built);
+				CommunicationGraph[] graphs = {
+						CommunicationGraph.mesh(5, 9, 2),
+						CommunicationGraph.torus(6, 7, 1),
+						CommunicationGraph.ring(built.getNorm() - 1, 1) };
+				for (CommunicationGraph application : graphs) {
+					String name = BreadthFirstSearchTest.name(built) + " "
+							+ application.getPattern() + " of "
+							+ application.getRanks();
+					constructed = mapper.construct(application);
+					refined = mapper.refine(application,
+							constructed.getNodes());
+					Tests.assertTrue(
+							refined.getDilation() <= constructed.getDilation(),
+							name + " dilation raised");
+					check(mapper, application, refined, name);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The distances of the mapper are the ones of the network, from the
+	 * residues or from the table of the honeycomb networks
+	 */
+	public static void testDistancesMatchTheNetwork() {
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (NETWORK network : pruning) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				GaussianNetwork built = GaussianNetwork.create(4, 7,
+						representation, network);
+				TaskMapper mapper = new TaskMapper(built);
+				for (int u = 0; u < built.getNorm(); u++) {
+					int[] distances = built.getDistancesFrom(u, null);
+					for (int v = 0; v < distances.length; v++) {
+						Tests.assertEquals(distances[v],
+								mapper.getDistance(u, v),
+								BreadthFirstSearchTest.name(built) + " from "
+										+ u + " to " + v);
+					}
+				}
+			}
+		}
+	}
+
+	public static void testEvaluateChecksThePlacement() {
+		final TaskMapper mapper = new TaskMapper(GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN));
+		final CommunicationGraph graph = CommunicationGraph.ring(4, 1);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				mapper.evaluate(graph, new int[] { 0, 1, 1, 2 });
+			}
+		}, "two ranks on a node");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				mapper.evaluate(graph, new int[] { 0, 1, 2 });
+			}
+		}, "a rank without a node");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				mapper.construct(CommunicationGraph.ring(14, 1));
+			}
+		}, "more ranks than nodes");
+	}
+
+	private static void checkDilationOne(CommunicationGraph graph,
+			Placement placement, String name) {
+		Tests.assertEquals(1, placement.getDilation(), name + " dilation");
+		long bytes = 0;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			bytes += graph.getWeight(e);
+		}
+		Tests.assertEquals(bytes, placement.getHopBytes(), name
+				+ " hop-bytes");
+	}
+
+	/**
+	 * Check that the measures of a placement are the ones of its nodes
+	 */
+	private static void check(TaskMapper mapper, CommunicationGraph graph,
+			Placement placement, String name) {
+		Placement evaluated = mapper.evaluate(graph, placement.getNodes());
+		Tests.assertEquals(evaluated.getDilation(), placement.getDilation(),
+				name + " dilation");
+		Tests.assertEquals(evaluated.getHopBytes(), placement.getHopBytes(),
+				name + " hop-bytes");
+	}
+
+}
@@ -0,0 +1,111 @@
+package gaussian;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * The assertions of the tests and their runner. A test class has public
+ * static void methods without parameters whose names start with test, and
+ * its main calls run. The tests are compiled into the gaussian.core module
+ * by scripts/test.sh, so they see the package-private members.
+ */
+public final class Tests {
+
+	private Tests() {
+	}
+
+	/**
+	 * Run the tests of the class in the order of their names, and exit with
+	 * status 1 if any failed
+	 */
+	public static void run(Class<?> testClass) {
+		Method[] methods = testClass.getDeclaredMethods();
+		Arrays.sort(methods, new Comparator<Method>() {
+			@Override
+			public int compare(Method m1, Method m2) {
+				return m1.getName().compareTo(m2.getName());
+			}
+		});
+
+		int failed = 0;
+		for (Method method : methods) {
+			if (!method.getName().startsWith("test")
+					|| !Modifier.isStatic(method.getModifiers())
+					|| method.getParameterCount() != 0) {
+				continue;
+			}
+			long start = System.nanoTime();
+			try {
+				method.invoke(null);
+				System.out.printf("ok    %s.%s (%d ms)%n",
+						testClass.getSimpleName(), method.getName(),
+						(System.nanoTime() - start) / 1000000);
+			} catch (InvocationTargetException ex) {
+				failed++;
+				System.out.printf("FAIL  %s.%s: %s%n",
+						testClass.getSimpleName(), method.getName(),
+						ex.getCause());
+				ex.getCause().printStackTrace(System.out);
+			} catch (IllegalAccessException ex) {
+				failed++;
+				System.out.printf("FAIL  %s.%s: %s%n",
+						testClass.getSimpleName(), method.getName(), ex);
+			}
+		}
+		if (failed > 0) {
+			System.exit(1);
+		}
+	}
+
+	public static void assertTrue(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void assertEquals(long expected, long actual,
+			String message) {
+		if (expected != actual) {
+			throw new AssertionError(message + ": expected " + expected
+					+ " but was " + actual);
+		}
+	}
+
+	/**
+	 * Compare two objects, arrays by their elements
+	 */
+	public static void assertEquals(Object expected, Object actual,
+			String message) {
+		if (!Objects.deepEquals(expected, actual)) {
+			throw new AssertionError(message + ": expected "
+					+ Arrays.deepToString(new Object[] { expected })
+					+ " but was "
+					+ Arrays.deepToString(new Object[] { actual }));
+		}
+	}
+
+	/**
+	 * Check that the code throws the given type
+	 *
+	 * @return the thrown exception
+	 */
+	public static <T extends Throwable> T assertThrows(Class<T> type,
+			Runnable code, String message) {
+		try {
+			code.run();
+		} catch (Throwable t) {
+			if (type.isInstance(t)) {
+				return type.cast(t);
+			}
+			throw new AssertionError(message + ": expected "
+					+ type.getSimpleName() + " but got " + t, t);
+		}
+		throw new AssertionError(message + ": expected "
+				+ type.getSimpleName());
+	}
+
+}
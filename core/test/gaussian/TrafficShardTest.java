@@ -0,0 +1,176 @@
+package gaussian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of the nodes and the halo of the shards of TrafficShard
+ */
+public class TrafficShardTest {
+
+	private TrafficShardTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(TrafficShardTest.class);
+	}
+
+	/**
+	 * @return the index of every node of the network in the square
+	 */
+	static int[] indices(GaussianNetwork network) {
+		Residues residues = new Residues(network.getA(), network.getB(),
+				network.getRepresentation());
+		List<Node> nodes = network.getNodes();
+		int[] indices = new int[nodes.size()];
+		for (int u = 0; u < indices.length; u++) {
+			indices[u] = (int) residues.indexOf(nodes.get(u).x, nodes.get(u).y);
+		}
+		return indices;
+	}
+
+	/**
+	 * The shards own every node once, and their halo is the nodes of the
+	 * other shards at the other end of their links, both ways
+	 */
+	public static void testShardsHoldTheirNodesAndHalo() {
+		int[][] generators = { { 2, 3 }, { 3, 4 }, { 4, 5 }, { 5, 9 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK pruned : pruning) {
+					GaussianNetwork network = GaussianNetwork.create(ab[0],
+							ab[1], representation, pruned);
+					for (int count : new int[] { 1, 3 }) {
+						check(network, Partitioner.partition(network, count)
+								.getParts(), count,
+								BreadthFirstSearchTest.name(network) + " "
+										+ count + " shards");
+					}
+				}
+			}
+		}
+	}
+
+	private static void check(GaussianNetwork network, int[] shards,
+			int count, String name) {
+		int n = network.getNorm();
+		int[] adjacency = network.getFlatAdjacency();
+		int[] indices = indices(network);
+		int[] owners = new int[n];
+		Arrays.fill(owners, -1);
+		for (int s = 0; s < count; s++) {
+			TrafficShard shard = TrafficShard.create(network, shards, s);
+			Tests.assertEquals(n, shard.getNorm(), name + " norm");
+			for (int index : shard.getNodes()) {
+				Tests.assertTrue(owners[index] < 0, name + " node " + index
+						+ " owned twice");
+				owners[index] = s;
+			}
+
+			int[] haloShards = new int[n];
+			Arrays.fill(haloShards, -1);
+			int haloCount = 0;
+			for (int u = 0; u < n; u++) {
+				for (int j = 0; j < 4; j++) {
+					int v = adjacency[4 * u + j];
+					if (v < 0 || (shards[u] == s) == (shards[v] == s)) {
+						continue;
+					}
+					int w = (shards[u] == s) ? v : u;
+					if (haloShards[indices[w]] < 0) {
+						haloShards[indices[w]] = shards[w];
+						haloCount++;
+					}
+				}
+			}
+			int[] halo = shard.getHalo();
+			Tests.assertEquals(haloCount, halo.length, name + " shard " + s
+					+ " halo");
+			for (int k = 0; k < halo.length; k++) {
+				Tests.assertEquals(haloShards[halo[k]],
+						shard.getHaloShards()[k], name + " shard " + s
+								+ " halo node " + halo[k]);
+			}
+			if (count == 1) {
+				Tests.assertEquals(0, halo.length, name + " halo of the whole");
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate(shard.getBytes());
+			shard.write(buffer);
+			Tests.assertEquals(buffer.capacity(), buffer.position(), name
+					+ " bytes written");
+			buffer.flip();
+			TrafficShard read = TrafficShard.read(buffer);
+			Tests.assertEquals(network.getA(), read.getA(), name + " a");
+			Tests.assertEquals(network.getB(), read.getB(), name + " b");
+			Tests.assertEquals(network.getRepresentation(),
+					read.getRepresentation(), name + " representation");
+			Tests.assertEquals(network.getNetwork(), read.getNetwork(), name
+					+ " network");
+			Tests.assertEquals(s, read.getShard(), name + " shard");
+			Tests.assertEquals(shard.getNodes(), read.getNodes(), name
+					+ " nodes read");
+			Tests.assertEquals(halo, read.getHalo(), name + " halo read");
+			Tests.assertEquals(shard.getHaloShards(), read.getHaloShards(),
+					name + " halo shards read");
+		}
+		for (int index = 0; index < n; index++) {
+			Tests.assertTrue(owners[index] >= 0, name + " node " + index
+					+ " not owned");
+		}
+	}
+
+	public static void testArguments() {
+		final GaussianNetwork network = GaussianNetwork.create(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				TrafficShard.create(network, new int[12], 0);
+			}
+		}, "shards of too few nodes");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				TrafficShard.create(GaussianNetwork.create(TOPOLOGY.TORUS, 3,
+						4, REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN),
+						new int[12], 0);
+			}
+		}, "torus");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficShard(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN, 0, new int[] { 1, 1 }, new int[0],
+						new int[0]);
+			}
+		}, "nodes not increasing");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficShard(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN, 0, new int[] { 0 }, new int[] { 13 },
+						new int[] { 1 });
+			}
+		}, "halo node beyond the network");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficShard(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.GAUSSIAN, 0, new int[] { 0 }, new int[] { 1 },
+						new int[] { 0 });
+			}
+		}, "halo node in the shard");
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficShard(2, 3, REPRESENTATION.DIAMOND,
+						NETWORK.DIFFERENCE, 0, new int[] { 0 }, new int[0],
+						new int[0]);
+			}
+		}, "difference network");
+	}
+
+}
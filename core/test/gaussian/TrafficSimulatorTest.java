@@ -0,0 +1,265 @@
+package gaussian;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Tests of the sharded traffic simulation against the simulation of the
+ * whole network. The shards run in this process and exchange their frames
+ * through buffers, as the ShardWorker processes do over sockets.
+ */
+public class TrafficSimulatorTest {
+
+	private TrafficSimulatorTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(TrafficSimulatorTest.class);
+	}
+
+	/**
+	 * Simulate the shards in lockstep, handing the frames of each cycle to
+	 * the peers before the next cycle
+	 *
+	 * @return the sum of the statistics of the shards
+	 */
+	static TrafficStatistics runSharded(GaussianNetwork network,
+			int[] shards, int count, TRAFFIC traffic, ROUTING routing,
+			double injectionRate, int bufferSize, long seed, int cycles,
+			int warmup) {
+		TrafficSimulator[] simulators = new TrafficSimulator[count];
+		for (int s = 0; s < count; s++) {
+			simulators[s] = new TrafficSimulator(network, shards, s, traffic,
+					routing, injectionRate, bufferSize, seed);
+		}
+		ByteBuffer frame = ByteBuffer.allocate(1 << 16).order(
+				ByteOrder.nativeOrder());
+		for (int cycle = 0; cycle < warmup + cycles; cycle++) {
+			for (TrafficSimulator simulator : simulators) {
+				simulator.cycle(cycle, cycle >= warmup);
+			}
+			for (TrafficSimulator simulator : simulators) {
+				for (int peer : simulator.getPeers()) {
+					int bytes = simulator.getFrameBytes(peer);
+					if (bytes > frame.capacity()) {
+						frame = ByteBuffer.allocate(2 * bytes).order(
+								ByteOrder.nativeOrder());
+					}
+					frame.clear();
+					simulator.writeFrame(peer, cycle, frame);
+					frame.flip();
+					Tests.assertEquals(cycle, simulators[peer]
+							.readFrame(frame), "frame cycle");
+					Tests.assertEquals(bytes, frame.position(), "frame bytes");
+				}
+			}
+		}
+
+		TrafficStatistics statistics = null;
+		for (TrafficSimulator simulator : simulators) {
+			TrafficStatistics shard = simulator.getStatistics(cycles);
+			statistics = (statistics == null) ? shard : statistics.add(shard);
+		}
+		return statistics;
+	}
+
+	static void checkSameStatistics(TrafficStatistics expected,
+			TrafficStatistics actual, String name) {
+		Tests.assertEquals(expected.getNodes(), actual.getNodes(), name
+				+ " nodes");
+		Tests.assertEquals(expected.getGenerated(), actual.getGenerated(),
+				name + " generated");
+		Tests.assertEquals(expected.getRefused(), actual.getRefused(), name
+				+ " refused");
+		Tests.assertEquals(expected.getDelivered(), actual.getDelivered(),
+				name + " delivered");
+		Tests.assertEquals(expected.getLatencySum(), actual.getLatencySum(),
+				name + " latency");
+		Tests.assertEquals(expected.getHopSum(), actual.getHopSum(), name
+				+ " hops");
+		Tests.assertEquals(expected.getMaxLatency(), actual.getMaxLatency(),
+				name + " maximum latency");
+	}
+
+	public static void testShardsDeliverThePacketsOfTheWholeNetwork() {
+		int[][] generators = { { 4, 5 }, { 5, 9 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (NETWORK pruned : pruning) {
+				GaussianNetwork network = GaussianNetwork.create(ab[0], ab[1],
+						REPRESENTATION.DIAMOND, pruned);
+				for (int count : new int[] { 2, 3 }) {
+					int[] shards = Partitioner.partition(network, count)
+							.getParts();
+					for (ROUTING routing : ROUTING.values()) {
+						for (TRAFFIC traffic : TRAFFIC.values()) {
+							String name = BreadthFirstSearchTest.name(network)
+									+ " " + count + " shards " + traffic + " "
+									+ routing;
+							TrafficStatistics whole = new TrafficSimulator(
+									network, traffic, routing, 0.3, 4, 7).run(
+									300, 50);
+							Tests.assertTrue(whole.getDelivered() > 0, name
+									+ " delivers packets");
+							checkSameStatistics(whole, runSharded(network,
+									shards, count, traffic, routing, 0.3, 4, 7,
+									300, 50), name);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Beyond saturation the escape channels keep the packets moving, and
+	 * the shards still agree with the whole network
+	 */
+	public static void testShardsAgreeBeyondSaturation() {
+		GaussianNetwork network = GaussianNetwork.create(7, 10,
+				REPRESENTATION.SQUARE, NETWORK.HONEYCOMB);
+		int[] shards = Partitioner.partition(network, 4).getParts();
+		TrafficStatistics whole = new TrafficSimulator(network,
+				TRAFFIC.UNIFORM, ROUTING.ADAPTIVE, 1, 2, 3).run(500, 100);
+		Tests.assertTrue(whole.getRefused() > 0, "the network is saturated");
+		checkSameStatistics(whole, runSharded(network, shards, 4,
+				TRAFFIC.UNIFORM, ROUTING.ADAPTIVE, 1, 2, 3, 500, 100),
+				"saturated honeycomb");
+	}
+
+	/**
+	 * A shard finds the links of its nodes from the residues, without the
+	 * network, and they are the links of the network
+	 */
+	public static void testShardsFindTheLinksOfTheNetwork() {
+		int[][] generators = { { 2, 3 }, { 3, 4 }, { 4, 5 }, { 5, 9 } };
+		NETWORK[] pruning = { NETWORK.GAUSSIAN, NETWORK.HONEYCOMB };
+		for (int[] ab : generators) {
+			for (REPRESENTATION representation : REPRESENTATION.values()) {
+				for (NETWORK pruned : pruning) {
+					GaussianNetwork network = GaussianNetwork.create(ab[0],
+							ab[1], representation, pruned);
+					String name = BreadthFirstSearchTest.name(network);
+					int n = network.getNorm();
+					int[] adjacency = network.getFlatAdjacency();
+					int[] indices = TrafficShardTest.indices(network);
+					int[] shards = Partitioner.partition(network, 3).getParts();
+					TrafficSimulator[] simulators = new TrafficSimulator[3];
+					for (int s = 0; s < 3; s++) {
+						simulators[s] = new TrafficSimulator(
+								TrafficShard.create(network, shards, s),
+								TRAFFIC.UNIFORM, ROUTING.ADAPTIVE, 0.1, 4, 1);
+					}
+					for (int u = 0; u < n; u++) {
+						for (int j = 0; j < 4; j++) {
+							int v = adjacency[4 * u + j];
+							Tests.assertEquals((v < 0) ? -1 : indices[v],
+									simulators[shards[u]].getNeighbor(
+											indices[u], j), name + " link "
+											+ j + " of " + u);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The shards of one node each still deliver the packets of the whole
+	 * network
+	 */
+	public static void testShardOfEveryNode() {
+		for (NETWORK pruned : new NETWORK[] { NETWORK.GAUSSIAN,
+				NETWORK.HONEYCOMB }) {
+			GaussianNetwork network = GaussianNetwork.create(2, 3,
+					REPRESENTATION.SQUARE, pruned);
+			int n = network.getNorm();
+			int[] shards = new int[n];
+			for (int u = 0; u < n; u++) {
+				shards[u] = u;
+			}
+			String name = BreadthFirstSearchTest.name(network);
+			checkSameStatistics(new TrafficSimulator(network, TRAFFIC.UNIFORM,
+					ROUTING.UGAL, 0.5, 2, 5).run(200, 20), runSharded(network,
+					shards, n, TRAFFIC.UNIFORM, ROUTING.UGAL, 0.5, 2, 5, 200,
+					20), name);
+		}
+	}
+
+	/**
+	 * The shards of the honeycomb network of an odd a+b keep the distances
+	 * from their nodes and halo only, and a shard needing more than
+	 * MAX_ROUTING_ENTRIES of them is refused
+	 */
+	public static void testRoutingEntriesShrinkWithTheShards() {
+		GaussianNetwork network = GaussianNetwork.create(7, 10,
+				REPRESENTATION.SQUARE, NETWORK.HONEYCOMB);
+		int n = network.getNorm();
+		TrafficShard whole = TrafficShard.create(network, new int[n], 0);
+		Tests.assertEquals((long) n * n, TrafficSimulator.routingEntries(whole),
+				"whole network");
+		int[] shards = Partitioner.partition(network, 4).getParts();
+		for (int s = 0; s < 4; s++) {
+			TrafficShard shard = TrafficShard.create(network, shards, s);
+			Tests.assertEquals((long) (shard.getNodes().length + shard
+					.getHalo().length) * n,
+					TrafficSimulator.routingEntries(shard), "shard " + s);
+			Tests.assertTrue(2 * TrafficSimulator.routingEntries(shard) < n
+					* n, "shard " + s + " keeps less than half the distances");
+		}
+		Tests.assertEquals(2L * 106, TrafficSimulator
+				.routingEntries(TrafficShard.create(GaussianNetwork.create(5,
+						9, REPRESENTATION.DIAMOND, NETWORK.HONEYCOMB),
+						new int[106], 0)), "even a+b");
+		Tests.assertEquals(0, TrafficSimulator.routingEntries(TrafficShard
+				.create(GaussianNetwork.create(7, 10, REPRESENTATION.SQUARE,
+						NETWORK.GAUSSIAN), new int[n], 0)), "Gaussian");
+
+		// 150+155i has 46525 nodes
+		int[] nodes = new int[46525];
+		for (int index = 0; index < nodes.length; index++) {
+			nodes[index] = index;
+		}
+		final TrafficShard tooLarge = new TrafficShard(150, 155,
+				REPRESENTATION.SQUARE, NETWORK.HONEYCOMB, 0, nodes,
+				new int[0], new int[0]);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficSimulator(tooLarge, TRAFFIC.UNIFORM,
+						ROUTING.DETERMINISTIC, 0.1, 4, 1);
+			}
+		}, "distances of 46525 nodes");
+	}
+
+	/**
+	 * A shard whose halo misses a neighbor of its nodes is refused
+	 */
+	public static void testShardNeedsItsHalo() {
+		final TrafficShard shard = new TrafficShard(2, 3,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN, 0, new int[] { 0 },
+				new int[0], new int[0]);
+		Tests.assertThrows(IllegalArgumentException.class, new Runnable() {
+			@Override
+			public void run() {
+				new TrafficSimulator(shard, TRAFFIC.UNIFORM,
+						ROUTING.DETERMINISTIC, 0.1, 4, 1);
+			}
+		}, "shard without its halo");
+	}
+
+	public static void testShardWithPeersNeedsFrames() {
+		GaussianNetwork network = GaussianNetwork.create(4, 5,
+				REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+		int[] shards = Partitioner.partition(network, 2).getParts();
+		final TrafficSimulator simulator = new TrafficSimulator(network,
+				shards, 0, 0.1, 4, 1);
+		Tests.assertThrows(IllegalStateException.class, new Runnable() {
+			@Override
+			public void run() {
+				simulator.run(10, 0);
+			}
+		}, "run on a shard with peers");
+	}
+
+}
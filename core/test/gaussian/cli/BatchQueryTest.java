@@ -0,0 +1,104 @@
+package gaussian.cli;
+
+import gaussian.NETWORK;
+import gaussian.NetworkCache;
+import gaussian.NetworkSnapshot;
+import gaussian.REPRESENTATION;
+import gaussian.Tests;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of BatchQuery
+ */
+public class BatchQueryTest {
+
+	private BatchQueryTest() {
+	}
+
+	public static void main(String[] args) {
+		Tests.run(BatchQueryTest.class);
+	}
+
+	/**
+	 * A cache whose builds of the honeycomb networks overflow the stack
+	 */
+	private static class OverflowingCache extends NetworkCache {
+
+		OverflowingCache() {
+			super(4);
+		}
+
+		@Override
+		public NetworkSnapshot get(int a, int b,
+				REPRESENTATION representation, NETWORK network) {
+			if (network == NETWORK.HONEYCOMB) {
+				throw new StackOverflowError("simulated");
+			}
+			return super.get(a, b, representation, network);
+		}
+	}
+
+	/**
+	 * Every query gets its line of output even when an Error is thrown, and
+	 * the run does not block on the permits of the failed queries
+	 */
+	public static void testErrorWritesItsRecord() throws Exception {
+		StringBuilder input = new StringBuilder();
+		int queries = 20;
+		for (int i = 0; i < queries; i++) {
+			input.append((i % 2 == 0) ? "2 3 DIAMOND DIFFERENCE HONEYCOMB\n"
+					: "2 3 DIAMOND D\n");
+		}
+
+		final CountDownLatch uncaught = new CountDownLatch(queries / 2);
+		Thread.UncaughtExceptionHandler handler = Thread
+				.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(
+				new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread thread, Throwable t) {
+				if (t instanceof StackOverflowError) {
+					uncaught.countDown();
+				}
+			}
+		});
+		StringWriter output = new StringWriter();
+		try {
+			new BatchQuery(new OverflowingCache(), BatchQuery.FORMAT.JSON,
+					new PrintWriter(output)).run(new BufferedReader(
+					new StringReader(input.toString())), 1);
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(handler);
+		}
+
+		String[] lines = output.toString().trim().split("\\R");
+		Tests.assertEquals(queries, lines.length, "lines of output");
+		int errors = 0;
+		for (String line : lines) {
+			if (line.contains("\"error\":\"simulated\"")) {
+				errors++;
+			} else {
+				Tests.assertTrue(line.contains("\"value\":2"), line);
+			}
+		}
+		Tests.assertEquals(queries / 2, errors, "error records");
+		// a worker thread may still be dying after the run returns
+		Tests.assertTrue(uncaught.await(10, TimeUnit.SECONDS),
+				"the errors are thrown again to the worker threads");
+	}
+
+	public static void testRuntimeExceptionIsAnErrorRecord() {
+		StringWriter output = new StringWriter();
+		BatchQuery query = new BatchQuery(new NetworkCache(4),
+				BatchQuery.FORMAT.CSV, new PrintWriter(output));
+		Tests.assertEquals("7,3,2,DIAMOND,GAUSSIAN,D,,\"a should be less than or equal to b\"",
+				query.answer(7, "3 2 DIAMOND D"), "CSV error record");
+	}
+
+}
@@ -0,0 +1,105 @@
+package gaussian.service;
+
+import gaussian.NETWORK;
+import gaussian.NetworkCache;
+import gaussian.NetworkSnapshot;
+import gaussian.REPRESENTATION;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Tests of QueryServer, through HTTP on the loopback interface
+ */
+public class QueryServerTest {
+
+	private QueryServerTest() {
+	}
+
+	public static void main(String[] args) {
+		gaussian.Tests.run(QueryServerTest.class);
+	}
+
+	public static void testGaussianAnswersMatchTheBuiltNetwork()
+			throws IOException {
+		NetworkCache cache = new NetworkCache(4);
+		QueryServer server = new QueryServer(0, cache, 10000);
+		server.start();
+		try {
+			for (int a = 0; a <= 12; a++) {
+				for (int b = Math.max(a, 1); b <= 12; b++) {
+					NetworkSnapshot snapshot = new NetworkCache(1).get(a, b,
+							REPRESENTATION.DIAMOND, NETWORK.GAUSSIAN);
+					String query = "?a=" + a + "&b=" + b;
+					check(server, "/diameter" + query, 200, "{\"diameter\":"
+							+ snapshot.getD() + "}");
+					check(server, "/distribution" + query, 200,
+							"{\"distribution\":"
+									+ snapshot.getDistanceDistributions()
+											.toString().replace(" ", "")
+									+ String.format(Locale.ROOT,
+											",\"average\":%.6f}",
+											snapshot.getAverageDistance()));
+				}
+			}
+			gaussian.Tests.assertEquals(0, cache.size(),
+					"the Gaussian answers do not build the network");
+
+			check(server, "/diameter?a=3&b=4&network=HONEYCOMB", 200, null);
+			gaussian.Tests.assertEquals(1, cache.size(),
+					"the honeycomb answers build the network");
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	public static void testMaxNorm() throws IOException {
+		NetworkCache cache = new NetworkCache(4);
+		QueryServer server = new QueryServer(0, cache, 25);
+		server.start();
+		try {
+			check(server, "/diameter?a=3&b=4", 200, "{\"diameter\":3}");
+			check(server, "/distance?a=3&b=4&from=0,0&to=2,1", 200,
+					"{\"distance\":3}");
+			String error = "{\"error\":\"The norm 26 is larger than the maximum norm 25\"}";
+			check(server, "/diameter?a=1&b=5", 400, error);
+			check(server, "/distribution?a=1&b=5&network=HONEYCOMB", 400,
+					error);
+			check(server, "/route?a=1&b=5&from=0,0&to=1,1", 400, error);
+			check(server, "/diameter?a=4&b=3", 400,
+					"{\"error\":\"a should be less than or equal to b\"}");
+			check(server, "/diameter?a=0&b=0", 400, null);
+			gaussian.Tests.assertEquals(1, cache.size(),
+					"the rejected networks are not built");
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static void check(QueryServer server, String path, int status,
+			String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) URI.create(
+				"http://localhost:" + server.getPort() + path).toURL()
+				.openConnection();
+		// a new connection per query, keep-alive delays the small answers
+		connection.setRequestProperty("Connection", "close");
+		gaussian.Tests.assertEquals(status, connection.getResponseCode(),
+				path);
+		InputStream in = (status < 400) ? connection.getInputStream()
+				: connection.getErrorStream();
+		String answer;
+		try {
+			answer = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+		if (body != null) {
+			gaussian.Tests.assertEquals(body, answer, path);
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+#!/bin/bash
+#
+# Load test for the query service (gaussian.service.QueryServer) running
+# on localhost. Sends a mix of distance, route, diameter and distribution
+# queries with a number of concurrent clients and reports the throughput.
+#
+# Usage: scripts/loadtest.sh [requests] [concurrency] [port]
+#
+# Start the server first, for example:
+#   java -p out -m gaussian.core/gaussian.service.QueryServer 8080
+
+REQUESTS=${1:-2000}
+CONCURRENCY=${2:-32}
+PORT=${3:-8080}
+URL="http://127.0.0.1:$PORT"
+
+if ! curl -s -o /dev/null "$URL/diameter?a=1&b=2"; then
+	echo "No query server is listening on port $PORT" >&2
+	exit 1
+fi
+
+# a small set of generators so most requests hit the cache, and several
+# clients ask for the same network at the same time
+queries() {
+	for ((i = 0; i < REQUESTS; i++)); do
+		a=$((i % 5 + 2))
+		b=$((a + i % 3))
+		case $((i % 4)) in
+		0) echo "$URL/distance?a=$a&b=$b&from=0,0&to=1,1" ;;
+		1) echo "$URL/route?a=$a&b=$b&representation=SQUARE&from=0,0&to=-1,2&network=HONEYCOMB" ;;
+		2) echo "$URL/diameter?a=$a&b=$b&network=HONEYCOMB" ;;
+		3) echo "$URL/distribution?a=$a&b=$b" ;;
+		esac
+	done
+}
+
+START=$(date +%s.%N)
+RESULTS=$(queries | xargs -P "$CONCURRENCY" -n 1 \
+	curl -s -o /dev/null -w "%{http_code} %{time_total}\n")
+END=$(date +%s.%N)
+
+echo "$RESULTS" | awk -v start="$START" -v end="$END" '
+{
+	count++
+	if ($1 != 200) errors++
+	total += $2
+	if ($2 > max) max = $2
+}
+END {
+	elapsed = end - start
+	printf "requests:     %d\n", count
+	printf "errors:       %d\n", errors
+	printf "elapsed:      %.2f s\n", elapsed
+	printf "throughput:   %.1f requests/s\n", count / elapsed
+	printf "mean latency: %.2f ms\n", 1000 * total / count
+	printf "max latency:  %.2f ms\n", 1000 * max
+}'
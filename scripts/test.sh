@@ -0,0 +1,36 @@
+#!/bin/bash
+#
+# Builds the modules and runs the tests in core/test. Any javac warning
+# fails the build. The tests are compiled into the gaussian.core module, so
+# they can reach its package-private members, and every class named *Test
+# is run.
+#
+# Usage: scripts/test.sh [TestClass ...]
+#   for example scripts/test.sh gaussian.NetworkCacheTest
+
+set -e
+cd "$(dirname "$0")/.."
+BIN=${JAVA_HOME:+$JAVA_HOME/bin/}
+OUT=out
+
+rm -rf "$OUT"
+"${BIN}javac" -Xlint:all -Werror -d "$OUT" \
+	--module-source-path gaussian.core=core/src \
+	--module-source-path gaussian.ui=ui/src --module gaussian.core,gaussian.ui
+"${BIN}javac" -Xlint:all -Werror -d "$OUT/test" -p "$OUT" \
+	--patch-module gaussian.core=core/test $(find core/test -name '*.java')
+
+if [ $# -gt 0 ]; then
+	TESTS="$*"
+else
+	TESTS=$(cd core/test && find . -name '*Test.java' | sed 's|^\./||; s|\.java$||; s|/|.|g' | sort)
+fi
+
+FAILED=0
+for TEST in $TESTS; do
+	if ! "${BIN}java" -p "$OUT" --patch-module gaussian.core="$OUT/test" \
+		-m gaussian.core/"$TEST"; then
+		FAILED=1
+	fi
+done
+exit $FAILED
@@ -16,6 +16,11 @@
  */
 package graphical;
 
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.REPRESENTATION;
+import gaussian.SquareGaussian;
+
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -42,28 +47,6 @@ import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 
-/**
- * Three different networks supported
- */
-enum NETWORK {
-	GAUSSIAN, HONEYCOMB, DIFFERENCE
-};
-
-/**
- * Gaussian are degree-4 networks whereas honeycomb are degree-3 network
- */
-enum DEGREE {
-	THREE, FOUR
-};
-
-/**
- * Type of a node which is either regular or boundary node
- * 
- */
-enum NODE_TYPE {
-	REGULAR, BOUNDARY
-};
-
 @SuppressWarnings("serial")
 public class DrawGaussianNetwork extends JFrame {
 
@@ -96,58 +79,19 @@ public class DrawGaussianNetwork extends JFrame {
 			int panelW = size.width - insets.left - insets.right;
 			int panelH = size.height - insets.top - insets.bottom;
 
-			if (jrbRepresentation == REPRESENTATION.SQUARE) {
-				switch (jrbNetwork) {
-				case GAUSSIAN:
-					gaussianNetwork = new SquareGaussian(a, b, panelW, panelH,
-							factor);
-					break;
-				case HONEYCOMB:
-					gaussianNetwork = new HoneycombGaussian(new SquareGaussian(
-							a, b, panelW, panelH, factor));
-					gaussianNetwork.setNodeDegrees();
-					break;
-				case DIFFERENCE:
-					gaussianNetwork = new HoneycombGaussian(new SquareGaussian(
-							a, b, panelW, panelH, factor));
-					gaussianNetwork.setNodeDegrees();
-					gaussianNetwork.setDifference();
-					break;
-				default:
-					System.err
-							.println("Wrong type of jradio button, Default Gaussian is running\n"
-									+ jrbNetwork);
-					System.exit(1);
-				}
-			} else if (jrbRepresentation == REPRESENTATION.DIAMOND) {
-				switch (jrbNetwork) {
-				case GAUSSIAN:
-					gaussianNetwork = new DiamondGaussian(a, b, panelW, panelH,
-							factor);
-					break;
-				case HONEYCOMB:
-					gaussianNetwork = new HoneycombGaussian(
-							new DiamondGaussian(a, b, panelW, panelH, factor));
-					gaussianNetwork.setNodeDegrees();
-					break;
-				case DIFFERENCE:
-					gaussianNetwork = new HoneycombGaussian(
-							new DiamondGaussian(a, b, panelW, panelH, factor));
-					gaussianNetwork.setNodeDegrees();
-					gaussianNetwork.setDifference();
-					break;
-				default:
-					System.err
-							.println("Wrong type of jradio button, Default Gaussian is running\n"
-									+ jrbNetwork);
-					System.exit(1);
-				}
-			} else {
-				System.err.println("Wrong type of network representatoin\n");
-				System.exit(1);
+			// the difference is drawn on top of the honeycomb network
+			NETWORK network = (jrbNetwork == NETWORK.GAUSSIAN) ? NETWORK.GAUSSIAN
+					: NETWORK.HONEYCOMB;
+			try {
+				gaussianNetwork = GaussianNetwork.create(a, b,
+						jrbRepresentation, network);
+			} catch (IllegalArgumentException ex) {
+				System.err.println(ex.getMessage());
+				System.exit(0);
 			}
 
-			gaussianNetwork.doDrawing(g2d, isWraparound);
+			new NetworkPainter(gaussianNetwork, jrbNetwork, panelW, panelH,
+					factor).doDrawing(g2d, isWraparound);
 
 			textArea.setText("Norm = " + gaussianNetwork.getNorm() + "\nt = "
 					+ gaussianNetwork.getT() + "\nd = "
@@ -0,0 +1,224 @@
+package graphical;
+
+import gaussian.DEGREE;
+import gaussian.GaussianNetwork;
+import gaussian.NETWORK;
+import gaussian.NODE_TYPE;
+import gaussian.Node;
+import gaussian.REPRESENTATION;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+
+/**
+ * Draws a network built by the headless core module. All the rendering state
+ * (panel size, magnification factor and colors) lives here, so the nodes of
+ * the network only carry their topology.
+ *
+ * @author Arash Shamaei
+ */
+public class NetworkPainter {
+
+	private static final Color clrZeroNode = Color.black;
+	private static final Color clrDiamond = Color.orange;
+	private static final Color clrLines = Color.red;
+	private static final Color clrTriangles = Color.green;
+	private static final Color clrEvenNode = Color.magenta;
+	private static final Color clrDiameter = Color.cyan;
+
+	private final GaussianNetwork gaussianNetwork;
+	private final NETWORK network;
+
+	private final int panelW;
+	private final int panelH;
+	private final int factor;
+	private final int radius;
+	private final int center;
+	private final int fontSize;
+
+	// shifts use in square representation only to adjust the shape
+	private final int shiftX;
+	private final int shiftY;
+
+	/**
+	 * @param gaussianNetwork
+	 *            the network to draw
+	 * @param network
+	 *            which weights to show: GAUSSIAN, HONEYCOMB or DIFFERENCE
+	 * @param panelW
+	 *            the width of the graphical panel
+	 * @param panelH
+	 *            the height of the graphical panel
+	 * @param factor
+	 *            the magnification factor
+	 */
+	public NetworkPainter(GaussianNetwork gaussianNetwork, NETWORK network,
+			int panelW, int panelH, int factor) {
+		this.gaussianNetwork = gaussianNetwork;
+		this.network = network;
+		this.panelW = panelW;
+		this.panelH = panelH;
+		this.factor = factor;
+		this.radius = (int) (factor * 0.7);
+		this.fontSize = (int) (factor * 0.5);
+		this.center = radius / 2;
+
+		int a = gaussianNetwork.getA();
+		int b = gaussianNetwork.getB();
+		if (gaussianNetwork.getRepresentation() == REPRESENTATION.SQUARE) {
+			shiftX = (a - b) / 2;
+			shiftY = (a + b) / 2;
+		} else {
+			shiftX = 0;
+			shiftY = 0;
+		}
+	}
+
+	/**
+	 * Draw all the nodes in the network
+	 *
+	 * @param g2d
+	 * @param isWraparound
+	 */
+	public void doDrawing(Graphics2D g2d, boolean isWraparound) {
+		DEGREE degree = (network == NETWORK.GAUSSIAN) ? DEGREE.FOUR
+				: DEGREE.THREE;
+
+		for (Node node : gaussianNetwork.getNodes()) {
+			drawNode(g2d, node.x, node.y, colorOf(node), node.getNodeDegree(),
+					node.getWeight(network));
+			if (isWraparound) {
+				drawWraparounds(g2d, node);
+			}
+		}
+
+		// drawing three other centers for square representation
+		// just for drawing purposes, they are not part of the network
+		if (gaussianNetwork.getRepresentation() == REPRESENTATION.SQUARE) {
+			int a = gaussianNetwork.getA();
+			int b = gaussianNetwork.getB();
+
+			drawNode(g2d, a, b, clrEvenNode, degree, 0);
+			drawNode(g2d, a - b, a + b, clrEvenNode, degree, 0);
+			drawNode(g2d, -b, a, clrEvenNode, degree, 0);
+		}
+	}
+
+	/**
+	 * Find the color of a node based on the region it was generated in
+	 */
+	private Color colorOf(Node node) {
+		// Change the color of the nodes that represent the diameter of the
+		// network. Only for Degree 3 networks
+		if (node.getNodeDegree() == DEGREE.THREE
+				&& node.getWeight3() == gaussianNetwork.getD()) {
+			return clrDiameter;
+		}
+
+		switch (node.getRegion()) {
+		case ORIGIN:
+			return clrZeroNode;
+		case LINE:
+			return clrLines;
+		case TRIANGLE:
+			return clrTriangles;
+		case EVEN:
+			return clrEvenNode;
+		default:
+			return clrDiamond;
+		}
+	}
+
+	private int xPos(int x) {
+		return factor * x + panelW / 2 - shiftX * factor;
+	}
+
+	private int yPos(int y) {
+		return -1 * factor * y + panelH / 2 + shiftY * factor;
+	}
+
+	/**
+	 * Draw a node in the displaying component
+	 *
+	 * @param g2d
+	 *            The graphics parameter
+	 * @param weight
+	 *            The number written on the node
+	 */
+	private void drawNode(Graphics2D g2d, int x, int y, Color color,
+			DEGREE nodeDegree, int weight) {
+		int xPos = xPos(x);
+		int yPos = yPos(y);
+		int norm = Math.abs(x) + Math.abs(y);
+
+		g2d.setColor(color);
+		g2d.setStroke(new BasicStroke(fontSize / 8));
+		g2d.drawOval(xPos - center, yPos - center, radius, radius);
+		g2d.fillOval(xPos - center, yPos - center, radius, radius);
+
+		g2d.setStroke(new BasicStroke(fontSize / 4));
+		// Draw four lines connecting each node
+		if (nodeDegree == DEGREE.FOUR
+				|| (nodeDegree == DEGREE.THREE && norm % 2 == 0)) {
+			g2d.drawLine(xPos, yPos, xPos + factor / 2, yPos);
+		}
+		if (nodeDegree == DEGREE.FOUR
+				|| (nodeDegree == DEGREE.THREE && norm % 2 == 1)) {
+			g2d.drawLine(xPos, yPos, xPos - factor / 2, yPos);
+		}
+		g2d.drawLine(xPos, yPos, xPos, yPos + factor / 2);
+		g2d.drawLine(xPos, yPos, xPos, yPos - factor / 2);
+
+		Font font = new Font("TimesRoman", Font.PLAIN, fontSize);
+
+		g2d.setFont(font);
+
+		g2d.setColor(Color.black);
+
+		// do not write 0
+		if (weight != 0) {
+			g2d.drawString(String.valueOf(weight), xPos - fontSize / 2, yPos
+					+ fontSize / 2);
+		}
+	}
+
+	/**
+	 * Draw four straight lines connecting boundary nodes
+	 *
+	 * @param g2d
+	 *            The graphics parameter
+	 * @param node
+	 *            The given node
+	 */
+	private void drawWraparounds(Graphics2D g2d, Node node) {
+		if (node.getNodeType().equals(NODE_TYPE.BOUNDARY)) {
+			int xPos = xPos(node.x);
+			int yPos = yPos(node.y);
+
+			g2d.setStroke(new BasicStroke((float) (fontSize / 12.0)));
+			g2d.setColor(Color.blue);
+
+			// Drawing two lines is enough, because first/second neighbor of
+			// node X is second/first neighbor of node Y
+			Node neighbor = node.getNeighbor(0);
+			if (node.getNodeDegree() == DEGREE.FOUR
+					|| (node.getNodeDegree() == DEGREE.THREE && node.norm() % 2 == 0)) {
+				if (neighbor.getNodeType().equals(NODE_TYPE.BOUNDARY)) {
+					// Wraparounds in X dimension
+					g2d.drawLine(xPos + factor / 2, yPos, xPos(neighbor.x)
+							- factor / 2, yPos(neighbor.y));
+				}
+			}
+
+			neighbor = node.getNeighbor(2);
+			if (neighbor.getNodeType().equals(NODE_TYPE.BOUNDARY)) {
+				// Wraparounds in Y dimension
+				g2d.drawLine(xPos, yPos - factor / 2, xPos(neighbor.x),
+						yPos(neighbor.y) + factor / 2);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,7 @@
+/**
+ * Swing front end drawing the networks of the core module.
+ */
+module gaussian.ui {
+	requires gaussian.core;
+	requires java.desktop;
+}